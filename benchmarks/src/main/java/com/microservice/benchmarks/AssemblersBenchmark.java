@@ -0,0 +1,72 @@
+package com.microservice.benchmarks;
+
+import com.microservice.event.assembler.EventAssembler;
+import com.microservice.event.dto.EventDTO;
+import com.microservice.event.model.Event;
+import com.microservice.microservice_user.assembler.UserAssembler;
+import com.microservice.microservice_user.dto.UserDTO;
+import com.microservice.microservice_user.dto.UserPreferencesDTO;
+import com.microservice.microservice_user.model.User;
+import com.microservice.microservice_user.model.UserPreferences;
+import com.microservice.note.assembler.NoteAssembler;
+import com.microservice.note.dto.NoteDTO;
+import com.microservice.note.model.Note;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Ensambladores de notas, eventos y usuarios: listados de 100 elementos (el tamaño típico de una
+ * pantalla del cliente) y las conversiones sueltas del perfil de usuario.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AssemblersBenchmark {
+
+    private static final int SIZE = 100;
+
+    private final NoteAssembler noteAssembler = new NoteAssembler();
+    private final EventAssembler eventAssembler = new EventAssembler();
+    private final UserAssembler userAssembler = new UserAssembler();
+
+    private List<Note> notes;
+    private List<Event> events;
+    private User user;
+    private UserPreferences preferences;
+
+    @Setup
+    public void setUp() {
+        notes = BenchmarkData.notes(SIZE);
+        events = BenchmarkData.events(SIZE);
+        user = BenchmarkData.user();
+        preferences = BenchmarkData.preferences(user);
+    }
+
+    @Benchmark
+    public List<NoteDTO> noteToDTOList() {
+        return noteAssembler.toDTOList(notes);
+    }
+
+    // EventAssembler no tiene toDTOList: es lo que hace EventService al listar
+    @Benchmark
+    public List<EventDTO> eventToDTOList() {
+        return events.stream()
+                .map(eventAssembler::toDTO)
+                .toList();
+    }
+
+    @Benchmark
+    public UserDTO userToDTO() {
+        return userAssembler.toDTO(user);
+    }
+
+    @Benchmark
+    public UserPreferencesDTO userToPreferencesDTO() {
+        return userAssembler.toPreferencesDTO(preferences);
+    }
+}
@@ -0,0 +1,159 @@
+package com.microservice.benchmarks;
+
+import com.microservice.event.model.Event;
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.client.UserServiceClient;
+import com.microservice.microservice_task.model.RecurrenceType;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskCategory;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_user.model.User;
+import com.microservice.microservice_user.model.UserPreferences;
+import com.microservice.microservice_user.model.UserRole;
+import com.microservice.note.model.Note;
+import org.springframework.beans.factory.support.DefaultListableBeanFactory;
+import org.springframework.cache.concurrent.ConcurrentMapCacheManager;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.UUID;
+
+/**
+ * Datos de entrada de los benchmarks: entidades con valores realistas y semilla fija, para que dos
+ * ejecuciones (o dos commits) midan exactamente lo mismo.
+ */
+final class BenchmarkData {
+
+    // Clave de desarrollo de application-dev.properties: 88 bytes, válida para HS512
+    static final String JWT_SECRET =
+            "MiClaveSecretaSuperSeguraParaJWTQueDebeSerMuyLargaParaHS512AlMenos64Caracteres123456789";
+
+    static final LocalDateTime NOW = LocalDateTime.of(2025, 11, 16, 10, 30);
+
+    private static final String[] TAGS = {"trabajo", "urgente", "casa", "compras", "reunión", "salud"};
+
+    private BenchmarkData() {
+    }
+
+    // Sin servicio de usuarios: todas las tareas se evalúan en la zona por defecto, fija para no depender
+    // de la del equipo
+    static TaskAssembler taskAssembler() {
+        return new TaskAssembler(new UserTimeZoneCache(
+                new ConcurrentMapCacheManager(UserTimeZoneCache.USER_TIME_ZONES),
+                new DefaultListableBeanFactory().getBeanProvider(UserServiceClient.class), "UTC"));
+    }
+
+    static List<Task> tasks(int count, int tagsPerTask) {
+        Random random = new Random(42);
+        UUID userId = new UUID(random.nextLong(), random.nextLong());
+        List<Task> tasks = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            Task task = new Task();
+            task.setId(new UUID(random.nextLong(), random.nextLong()));
+            task.setUserId(userId);
+            task.setTitle("Tarea " + i);
+            task.setDescription(i % 3 == 0 ? "Descripción de la tarea " + i + " con algo más de texto" : null);
+            task.setStatus(TaskStatus.values()[i % TaskStatus.values().length]);
+            task.setPriority(TaskPriority.values()[i % TaskPriority.values().length]);
+            task.setCategory(TaskCategory.values()[i % TaskCategory.values().length]);
+            task.setDueDate(NOW.plusHours(random.nextInt(24 * 60) - 24 * 30));
+            task.setReminderDate(i % 4 == 0 ? task.getDueDate().minusHours(1) : null);
+            task.setEstimatedDurationMinutes(15 + random.nextInt(120));
+            task.setOrderIndex(i * 1024);
+            task.setTags(tagsJson(tagsPerTask, i));
+            task.setVersion(1L);
+            task.setCreatedAt(NOW.minusDays(30));
+            task.setUpdatedAt(NOW.minusDays(1));
+            tasks.add(task);
+        }
+        return tasks;
+    }
+
+    // Series diarias sin fin que empezaron hace un año, cada una a una hora distinta
+    static List<Task> dailySeries(int count) {
+        List<Task> series = tasks(count, 1);
+        for (int i = 0; i < count; i++) {
+            Task task = series.get(i);
+            task.setDueDate(NOW.minusYears(1).plusMinutes(i));
+            task.setReminderDate(task.getDueDate().minusMinutes(30));
+            task.setIsRecurring(true);
+            task.setRecurrenceType(RecurrenceType.DAILY);
+            task.setStatus(TaskStatus.PENDING);
+        }
+        return series;
+    }
+
+    static List<Note> notes(int count) {
+        Random random = new Random(42);
+        UUID userId = new UUID(random.nextLong(), random.nextLong());
+        List<Note> notes = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            notes.add(Note.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .userId(userId)
+                    .title("Nota " + i)
+                    .description("Contenido de la nota " + i)
+                    .imageUri(i % 5 == 0 ? "https://example.com/images/" + i + ".jpg" : null)
+                    .version(1L)
+                    .createdAt(NOW.minusDays(10))
+                    .updatedAt(NOW)
+                    .build());
+        }
+        return notes;
+    }
+
+    static List<Event> events(int count) {
+        Random random = new Random(42);
+        UUID ownerId = new UUID(random.nextLong(), random.nextLong());
+        List<Event> events = new ArrayList<>(count);
+        for (int i = 0; i < count; i++) {
+            events.add(Event.builder()
+                    .id(new UUID(random.nextLong(), random.nextLong()))
+                    .ownerId(ownerId)
+                    .title("Evento " + i)
+                    .description("Descripción del evento " + i)
+                    .eventTimestamp(NOW.plusDays(i % 60))
+                    .location("Sala " + (i % 10))
+                    .version(1L)
+                    .createdAt(NOW.minusDays(10))
+                    .updatedAt(NOW)
+                    .build());
+        }
+        return events;
+    }
+
+    static User user() {
+        User user = new User();
+        user.setId(UUID.fromString("3f2b8a1e-6c1d-4e7a-9b0f-2d5c8e4a7b11"));
+        user.setUsername("usuario.demo");
+        user.setEmail("usuario.demo@example.com");
+        user.setFirstName("Usuario");
+        user.setLastName("Demo");
+        user.setRole(UserRole.USER);
+        user.setCreatedAt(NOW.minusDays(100));
+        user.setUpdatedAt(NOW);
+        return user;
+    }
+
+    static UserPreferences preferences(User user) {
+        UserPreferences preferences = new UserPreferences();
+        preferences.setId(UUID.fromString("9a7c1e55-0b3f-4d2a-8e61-5f4b3c2d1a00"));
+        preferences.setUser(user);
+        return preferences;
+    }
+
+    private static String tagsJson(int count, int offset) {
+        if (count == 0) {
+            return null;
+        }
+        StringBuilder json = new StringBuilder("[");
+        for (int t = 0; t < count; t++) {
+            json.append(t == 0 ? "" : ",").append('"').append(TAGS[(offset + t) % TAGS.length]).append('"');
+        }
+        return json.append(']').toString();
+    }
+}
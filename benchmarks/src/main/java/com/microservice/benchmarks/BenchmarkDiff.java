@@ -0,0 +1,59 @@
+package com.microservice.benchmarks;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.File;
+import java.io.IOException;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Compara dos resultados JSON de JMH (-rf json) benchmark a benchmark: puntuación antes, después y
+ * diferencia en porcentaje. Solo informa; decidir si una diferencia es ruido es cosa del error (±).
+ *
+ * Uso: java -cp benchmarks/target/benchmarks.jar com.microservice.benchmarks.BenchmarkDiff antes.json despues.json
+ */
+public final class BenchmarkDiff {
+
+    private BenchmarkDiff() {
+    }
+
+    public static void main(String[] args) throws IOException {
+        if (args.length != 2) {
+            System.err.println("Uso: BenchmarkDiff <antes.json> <despues.json>");
+            System.exit(2);
+        }
+        Map<String, JsonNode> before = scores(new File(args[0]));
+        Map<String, JsonNode> after = scores(new File(args[1]));
+
+        System.out.printf("%-75s %14s %14s %9s %s%n", "Benchmark", "Antes", "Después", "Cambio", "Unidad");
+        for (Map.Entry<String, JsonNode> entry : after.entrySet()) {
+            JsonNode current = entry.getValue();
+            JsonNode previous = before.get(entry.getKey());
+            double score = current.path("score").asDouble();
+            String change = previous == null ? "nuevo"
+                    : String.format("%+8.1f%%", (score - previous.path("score").asDouble())
+                            / previous.path("score").asDouble() * 100);
+            System.out.printf("%-75s %14s %14.3f %9s %s%n", entry.getKey(),
+                    previous == null ? "-" : String.format("%.3f", previous.path("score").asDouble()),
+                    score, change, current.path("scoreUnit").asText());
+        }
+        before.keySet().stream()
+                .filter(name -> !after.containsKey(name))
+                .forEach(name -> System.out.printf("%-75s eliminado%n", name));
+    }
+
+    // Clave: nombre del benchmark más sus @Param, que distinguen p. ej. size=10 de size=10000
+    private static Map<String, JsonNode> scores(File file) throws IOException {
+        Map<String, JsonNode> scores = new LinkedHashMap<>();
+        for (JsonNode run : new ObjectMapper().readTree(file)) {
+            StringBuilder key = new StringBuilder(run.path("benchmark").asText()
+                    .replace("com.microservice.benchmarks.", ""));
+            run.path("params").fields().forEachRemaining(param ->
+                    key.append(' ').append(param.getKey()).append('=').append(param.getValue().asText()));
+            scores.put(key.toString(), run.path("primaryMetric"));
+        }
+        return scores;
+    }
+}
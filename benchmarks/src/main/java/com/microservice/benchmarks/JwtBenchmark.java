@@ -0,0 +1,89 @@
+package com.microservice.benchmarks;
+
+import com.microservice.gateway.filter.JwtAuthenticationFilter;
+import com.microservice.microservice_user.model.User;
+import com.microservice.microservice_user.service.JwtService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.cloud.gateway.filter.GatewayFilter;
+import org.springframework.cloud.gateway.filter.GatewayFilterChain;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.test.util.ReflectionTestUtils;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * JWT: emisión y validación en el servicio de usuarios y validación en el filtro del gateway, que
+ * se ejecuta en cada petición autenticada. El filtro se mide de punta a punta con un intercambio
+ * simulado; mockExchangeBaseline mide solo crear ese intercambio, para restarlo del filtro.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class JwtBenchmark {
+
+    private static final GatewayFilterChain CHAIN = exchange -> Mono.empty();
+
+    private JwtService jwtService;
+    private GatewayFilter gatewayFilter;
+    private User user;
+    private String token;
+
+    @Setup
+    public void setUp() {
+        // Los @Value de Spring, a mano
+        jwtService = new JwtService();
+        ReflectionTestUtils.setField(jwtService, "secretKey", BenchmarkData.JWT_SECRET);
+        ReflectionTestUtils.setField(jwtService, "jwtExpiration", 86400000L);
+        JwtAuthenticationFilter filter = new JwtAuthenticationFilter();
+        ReflectionTestUtils.setField(filter, "jwtSecret", BenchmarkData.JWT_SECRET);
+        gatewayFilter = filter.apply(new JwtAuthenticationFilter.Config());
+
+        user = BenchmarkData.user();
+        token = jwtService.generateToken(user);
+        if (!jwtService.validateToken(token) || filterStatus(token) != null) {
+            throw new IllegalStateException("El token generado no es válido para el gateway");
+        }
+    }
+
+    @Benchmark
+    public String generateToken() {
+        return jwtService.generateToken(user);
+    }
+
+    @Benchmark
+    public boolean validateToken() {
+        return jwtService.validateToken(token);
+    }
+
+    @Benchmark
+    public Object gatewayFilterValidToken() {
+        return filterStatus(token);
+    }
+
+    // Rechazo: firma incorrecta, el camino de los clientes con un token caducado o manipulado
+    @Benchmark
+    public Object gatewayFilterInvalidToken() {
+        return filterStatus(token.substring(0, token.length() - 4) + "AAAA");
+    }
+
+    @Benchmark
+    public Object mockExchangeBaseline() {
+        return exchange(token);
+    }
+
+    private Object filterStatus(String bearer) {
+        MockServerWebExchange exchange = exchange(bearer);
+        gatewayFilter.filter(exchange, CHAIN).block();
+        return exchange.getResponse().getStatusCode();
+    }
+
+    private MockServerWebExchange exchange(String bearer) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get("/api/tasks/user/" + user.getId())
+                .header("Authorization", "Bearer " + bearer));
+    }
+}
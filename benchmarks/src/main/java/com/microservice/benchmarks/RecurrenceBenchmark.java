@@ -0,0 +1,67 @@
+package com.microservice.benchmarks;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.service.RecurrenceCalculator;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Expansión de series recurrentes en una ventana de un año: la parte en memoria de
+ * TaskOccurrenceService (las dos consultas de series y excepciones quedan fuera). countOccurrences
+ * solo genera las fechas; occurrenceDTOs además construye y ordena un TaskDTO por ocurrencia, como
+ * getTasksInWindow.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RecurrenceBenchmark {
+
+    @Param({"300"})
+    public int series;
+
+    @Param({"365"})
+    public int days;
+
+    private final TaskAssembler assembler = BenchmarkData.taskAssembler();
+    private List<Task> tasks;
+    private LocalDateTime from;
+    private LocalDateTime to;
+
+    @Setup
+    public void setUp() {
+        tasks = BenchmarkData.dailySeries(series);
+        from = BenchmarkData.NOW;
+        to = from.plusDays(days);
+    }
+
+    @Benchmark
+    public long countOccurrences() {
+        long count = 0;
+        for (Task task : tasks) {
+            count += RecurrenceCalculator.occurrences(task.getDueDate(), task.getRecurrenceType(),
+                    task.getRecurrenceEndDate(), from, to).count();
+        }
+        return count;
+    }
+
+    @Benchmark
+    public List<TaskDTO> occurrenceDTOs() {
+        List<TaskDTO> dtos = new ArrayList<>(series * days);
+        for (Task task : tasks) {
+            RecurrenceCalculator.occurrences(task.getDueDate(), task.getRecurrenceType(), task.getRecurrenceEndDate(),
+                    from, to).forEach(date -> dtos.add(assembler.toOccurrenceDTO(task, date, null, BenchmarkData.NOW)));
+        }
+        dtos.sort(Comparator.comparing(TaskDTO::getDueDate));
+        return dtos;
+    }
+}
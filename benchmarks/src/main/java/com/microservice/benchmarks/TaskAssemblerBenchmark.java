@@ -0,0 +1,48 @@
+package com.microservice.benchmarks;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.model.Task;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TaskAssembler: conversión de una tarea y de un listado completo. Las etiquetas y adjuntos se guardan
+ * como JSON en texto, así que cada tarea con etiquetas paga un parseo de Jackson; tags=0 lo aísla.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskAssemblerBenchmark {
+
+    @Param({"0", "3"})
+    public int tags;
+
+    @Param({"100"})
+    public int size;
+
+    private final TaskAssembler assembler = BenchmarkData.taskAssembler();
+    private List<Task> tasks;
+    private Task task;
+
+    @Setup
+    public void setUp() {
+        tasks = BenchmarkData.tasks(size, tags);
+        task = tasks.get(1);
+    }
+
+    @Benchmark
+    public TaskDTO toDTO() {
+        return assembler.toDTO(task, BenchmarkData.NOW);
+    }
+
+    @Benchmark
+    public List<TaskDTO> toDTOList() {
+        return assembler.toDTOList(tasks);
+    }
+}
@@ -0,0 +1,55 @@
+package com.microservice.benchmarks;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.microservice.microservice_task.assembler.TaskJsonWriter;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.model.Task;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.converter.json.Jackson2ObjectMapperBuilder;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Serialización de listados de tareas: la respuesta JSON habitual (TaskDTO con el ObjectMapper
+ * configurado como el de Spring) frente a la exportación en streaming de TaskJsonWriter, que escribe
+ * desde la entidad sin pasar por el DTO. Ambos producen el mismo JSON.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class TaskJsonBenchmark {
+
+    @Param({"10", "1000", "10000"})
+    public int size;
+
+    private final ObjectMapper objectMapper = Jackson2ObjectMapperBuilder.json().build();
+    private final TaskJsonWriter taskJsonWriter = new TaskJsonWriter();
+    private List<Task> tasks;
+    private List<TaskDTO> dtos;
+    private ByteArrayOutputStream out;
+
+    @Setup
+    public void setUp() {
+        tasks = BenchmarkData.tasks(size, 3);
+        dtos = BenchmarkData.taskAssembler().toDTOList(tasks);
+        out = new ByteArrayOutputStream(size * 1024);
+    }
+
+    @Benchmark
+    public byte[] objectMapperDtoList() throws IOException {
+        return objectMapper.writeValueAsBytes(dtos);
+    }
+
+    @Benchmark
+    public int taskJsonWriterArray() throws IOException {
+        out.reset();
+        taskJsonWriter.writeArray(tasks.iterator(), out, BenchmarkData.NOW, task -> { });
+        return out.size();
+    }
+}
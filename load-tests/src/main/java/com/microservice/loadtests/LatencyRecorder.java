@@ -0,0 +1,94 @@
+package com.microservice.loadtests;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Latencias de cada endpoint durante la fase medida, guardadas todas (en nanosegundos) para calcular
+ * percentiles exactos al final. Con las duraciones de una prueba de carga normal son unos pocos
+ * millones de valores como mucho.
+ *
+ * Una petición cuenta si debía empezar dentro de la ventana medida, aunque termine después: si se
+ * descartaran las que acaban tarde, desaparecería justo la cola que interesa.
+ */
+final class LatencyRecorder {
+
+    private final Map<String, Endpoint> endpoints = new ConcurrentHashMap<>();
+    private volatile long from;
+    private volatile long until;
+    private volatile boolean started;
+    private volatile boolean stopped;
+
+    void start(long nanoTime) {
+        from = nanoTime;
+        started = true;
+    }
+
+    void stop(long nanoTime) {
+        until = nanoTime;
+        stopped = true;
+    }
+
+    void record(String endpoint, long startNanos, long latencyNanos, boolean error) {
+        if (!started || startNanos - from < 0 || (stopped && startNanos - until >= 0)) {
+            return;
+        }
+        endpoints.computeIfAbsent(endpoint, name -> new Endpoint()).add(latencyNanos, error);
+    }
+
+    /**
+     * Copia ordenada de lo medido, por nombre de endpoint.
+     */
+    Map<String, Snapshot> snapshot() {
+        Map<String, Snapshot> snapshot = new TreeMap<>();
+        endpoints.forEach((name, endpoint) -> snapshot.put(name, endpoint.snapshot()));
+        return snapshot;
+    }
+
+    static final class Snapshot {
+        final long[] sortedLatencies;
+        final long errors;
+
+        private Snapshot(long[] sortedLatencies, long errors) {
+            this.sortedLatencies = sortedLatencies;
+            this.errors = errors;
+        }
+
+        /**
+         * Percentil por el método del rango más cercano: el valor que deja por debajo el p% de las muestras.
+         */
+        long percentile(double p) {
+            if (sortedLatencies.length == 0) {
+                return 0;
+            }
+            int rank = (int) Math.ceil(p / 100.0 * sortedLatencies.length);
+            return sortedLatencies[Math.max(0, Math.min(rank, sortedLatencies.length) - 1)];
+        }
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private static final class Endpoint {
+        private long[] latencies = new long[1024];
+        private int count;
+        private long errors;
+
+        synchronized void add(long latencyNanos, boolean error) {
+            if (count == latencies.length) {
+                latencies = Arrays.copyOf(latencies, count * 2);
+            }
+            latencies[count++] = latencyNanos;
+            if (error) {
+                errors++;
+            }
+        }
+
+        synchronized Snapshot snapshot() {
+            long[] sorted = Arrays.copyOf(latencies, count);
+            Arrays.sort(sorted);
+            return new Snapshot(sorted, errors);
+        }
+    }
+}
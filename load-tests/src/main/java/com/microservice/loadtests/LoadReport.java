@@ -0,0 +1,161 @@
+package com.microservice.loadtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Resultado de una ejecución: throughput y percentiles por endpoint (peticiones y sesiones
+ * "scenario:*") más la configuración con la que se obtuvo. Es también el formato de la línea base
+ * que lee {@link RegressionGate}.
+ */
+final class LoadReport {
+
+    final String generatedAt;
+    final String javaVersion;
+    final boolean virtualThreads;
+    final double sessionsPerSecond;
+    final long durationSeconds;
+    final int users;
+    final long sessionsScheduled;
+    final long sessionsDropped;
+    final Map<String, EndpointResult> endpoints;
+
+    private LoadReport(String generatedAt, String javaVersion, boolean virtualThreads, double sessionsPerSecond,
+                       long durationSeconds, int users, long sessionsScheduled, long sessionsDropped,
+                       Map<String, EndpointResult> endpoints) {
+        this.generatedAt = generatedAt;
+        this.javaVersion = javaVersion;
+        this.virtualThreads = virtualThreads;
+        this.sessionsPerSecond = sessionsPerSecond;
+        this.durationSeconds = durationSeconds;
+        this.users = users;
+        this.sessionsScheduled = sessionsScheduled;
+        this.sessionsDropped = sessionsDropped;
+        this.endpoints = endpoints;
+    }
+
+    static final class EndpointResult {
+        final String endpoint;
+        final long requests;
+        final long errors;
+        final double throughput;
+        final double p50Ms;
+        final double p95Ms;
+        final double p99Ms;
+        final double maxMs;
+
+        EndpointResult(String endpoint, long requests, long errors, double throughput,
+                       double p50Ms, double p95Ms, double p99Ms, double maxMs) {
+            this.endpoint = endpoint;
+            this.requests = requests;
+            this.errors = errors;
+            this.throughput = throughput;
+            this.p50Ms = p50Ms;
+            this.p95Ms = p95Ms;
+            this.p99Ms = p99Ms;
+            this.maxMs = maxMs;
+        }
+
+        double errorRate() {
+            return requests == 0 ? 0 : (double) errors / requests;
+        }
+
+        boolean isScenario() {
+            return endpoint.startsWith("scenario:");
+        }
+    }
+
+    static LoadReport from(Map<String, LatencyRecorder.Snapshot> snapshot, LoadTestOptions options,
+                           OpenLoadGenerator.Result result) {
+        Map<String, EndpointResult> endpoints = new LinkedHashMap<>();
+        double seconds = options.duration.toMillis() / 1000.0;
+        snapshot.forEach((name, latencies) -> {
+            long requests = latencies.sortedLatencies.length;
+            endpoints.put(name, new EndpointResult(name, requests, latencies.errors, requests / seconds,
+                    millis(latencies.percentile(50)), millis(latencies.percentile(95)),
+                    millis(latencies.percentile(99)), millis(latencies.percentile(100))));
+        });
+        return new LoadReport(Instant.now().toString(), String.valueOf(Runtime.version().feature()),
+                options.virtualThreads, options.sessionsPerSecond, options.duration.toSeconds(), options.users,
+                result.scheduled, result.dropped, endpoints);
+    }
+
+    /**
+     * Peticiones HTTP (sin contar las sesiones) por segundo.
+     */
+    double requestThroughput() {
+        return requests().stream().mapToDouble(endpoint -> endpoint.throughput).sum();
+    }
+
+    double requestErrorRate() {
+        long requests = requests().stream().mapToLong(endpoint -> endpoint.requests).sum();
+        long errors = requests().stream().mapToLong(endpoint -> endpoint.errors).sum();
+        return requests == 0 ? 0 : (double) errors / requests;
+    }
+
+    List<EndpointResult> requests() {
+        return endpoints.values().stream().filter(endpoint -> !endpoint.isScenario()).toList();
+    }
+
+    List<EndpointResult> scenarios() {
+        return endpoints.values().stream().filter(EndpointResult::isScenario).toList();
+    }
+
+    ObjectNode toJson(ObjectMapper mapper) {
+        ObjectNode root = mapper.createObjectNode();
+        root.put("generatedAt", generatedAt);
+        root.put("javaVersion", javaVersion);
+        root.put("virtualThreads", virtualThreads);
+        root.put("sessionsPerSecond", sessionsPerSecond);
+        root.put("durationSeconds", durationSeconds);
+        root.put("users", users);
+        root.put("sessionsScheduled", sessionsScheduled);
+        root.put("sessionsDropped", sessionsDropped);
+        root.put("requestThroughput", round(requestThroughput()));
+        root.put("requestErrorRate", requestErrorRate());
+        ArrayNode list = root.putArray("endpoints");
+        for (EndpointResult endpoint : endpoints.values()) {
+            list.addObject()
+                    .put("endpoint", endpoint.endpoint)
+                    .put("requests", endpoint.requests)
+                    .put("errors", endpoint.errors)
+                    .put("throughput", round(endpoint.throughput))
+                    .put("p50Ms", endpoint.p50Ms)
+                    .put("p95Ms", endpoint.p95Ms)
+                    .put("p99Ms", endpoint.p99Ms)
+                    .put("maxMs", endpoint.maxMs);
+        }
+        return root;
+    }
+
+    static LoadReport fromJson(JsonNode root) {
+        Map<String, EndpointResult> endpoints = new LinkedHashMap<>();
+        for (JsonNode node : root.path("endpoints")) {
+            String name = node.path("endpoint").asText();
+            endpoints.put(name, new EndpointResult(name, node.path("requests").asLong(), node.path("errors").asLong(),
+                    node.path("throughput").asDouble(), node.path("p50Ms").asDouble(), node.path("p95Ms").asDouble(),
+                    node.path("p99Ms").asDouble(), node.path("maxMs").asDouble()));
+        }
+        return new LoadReport(root.path("generatedAt").asText(), root.path("javaVersion").asText(),
+                root.path("virtualThreads").asBoolean(), root.path("sessionsPerSecond").asDouble(),
+                root.path("durationSeconds").asLong(), root.path("users").asInt(),
+                root.path("sessionsScheduled").asLong(), root.path("sessionsDropped").asLong(), endpoints);
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private static double millis(long nanos) {
+        return round(nanos / 1_000_000.0);
+    }
+
+    private static double round(double value) {
+        return Math.round(value * 100.0) / 100.0;
+    }
+}
@@ -0,0 +1,113 @@
+package com.microservice.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Prueba de carga extremo a extremo: levanta el gateway y los servicios en este proceso, prepara los
+ * usuarios, lanza la carga de modelo abierto y escribe el informe. Termina con 0 si se supera el
+ * umbral de regresión, 1 si no y 2 si la prueba no llegó a ejecutarse.
+ */
+public final class LoadTestMain {
+
+    private static final Logger log = LoggerFactory.getLogger(LoadTestMain.class);
+
+    private LoadTestMain() {
+    }
+
+    public static void main(String[] args) {
+        int exitCode;
+        try {
+            exitCode = run(LoadTestOptions.parse(args));
+        } catch (Exception e) {
+            log.error("La prueba de carga no se pudo ejecutar", e);
+            exitCode = 2;
+        }
+        // Los contextos cerrados pueden dejar hilos no daemon (Tomcat, Netty, Hikari)
+        System.exit(exitCode);
+    }
+
+    private static int run(LoadTestOptions options) throws Exception {
+        if (options.virtualThreadsRequested && !options.virtualThreads) {
+            log.warn("--virtual-threads necesita Java 21 o superior (este es Java {}): se usan hilos de plataforma",
+                    Runtime.version().feature());
+        }
+
+        ObjectMapper mapper = new ObjectMapper();
+        LatencyRecorder recorder = new LatencyRecorder();
+        ExecutorService sessions = Executors.newCachedThreadPool(daemonThreads("session"));
+        ExecutorService io = Executors.newCachedThreadPool(daemonThreads("http-client"));
+
+        try (ServiceStack stack = ServiceStack.start(options.virtualThreads, options.readReplica)) {
+            MobileClient client = new MobileClient(stack.gatewayUrl(), mapper, recorder, options.requestTimeout, io);
+            log.info("Preparando {} usuarios con {} tareas cada uno", options.users, options.tasksPerUser);
+            List<VirtualUser> users = TestData.prepare(client, options.users, options.tasksPerUser);
+
+            log.info("{} sesiones/s: {} s de calentamiento y {} s medidos",
+                    options.sessionsPerSecond, options.warmup.toSeconds(), options.duration.toSeconds());
+            OpenLoadGenerator generator = new OpenLoadGenerator(client, users, recorder, sessions,
+                    options.sessionsPerSecond, options.maxInFlight, options.seed);
+            OpenLoadGenerator.Result result = generator.run(options.warmup, options.duration,
+                    options.requestTimeout.multipliedBy(3));
+            log.info("Notificaciones recibidas por el stub: {}", stack.notificationsReceived());
+
+            LoadReport report = LoadReport.from(recorder.snapshot(), options, result);
+            LoadReport baseline = options.baseline == null ? null
+                    : LoadReport.fromJson(mapper.readTree(options.baseline.toFile()));
+            if (baseline != null && baseline.sessionsPerSecond != report.sessionsPerSecond) {
+                log.warn("La línea base se midió a {} sesiones/s y esta ejecución a {}: la comparación es orientativa",
+                        baseline.sessionsPerSecond, report.sessionsPerSecond);
+            }
+            List<String> violations = new RegressionGate(options.maxP99Regression, options.maxThroughputDrop,
+                    options.maxErrorRate, options.minP99DeltaMs).check(report, baseline);
+
+            Files.createDirectories(options.outputDirectory);
+            Path json = options.outputDirectory.resolve("load-report.json");
+            Path html = options.outputDirectory.resolve("load-report.html");
+            String baselineName = options.baseline == null ? null : options.baseline.toString();
+            ReportWriter writer = new ReportWriter(mapper);
+            writer.writeJson(report, baselineName, violations, json);
+            writer.writeHtml(report, baselineName, violations, html);
+
+            logSummary(report);
+            log.info("Informe: {} y {}", json, html);
+            if (violations.isEmpty()) {
+                log.info("Umbral de regresión superado");
+                return 0;
+            }
+            violations.forEach(violation -> log.error("Regresión: {}", violation));
+            return 1;
+        }
+    }
+
+    private static void logSummary(LoadReport report) {
+        StringBuilder table = new StringBuilder(String.format(Locale.ROOT, "%n%-52s %8s %7s %9s %9s %9s%n",
+                "endpoint", "n", "errores", "p50 ms", "p95 ms", "p99 ms"));
+        for (LoadReport.EndpointResult endpoint : report.endpoints.values()) {
+            table.append(String.format(Locale.ROOT, "%-52s %8d %7d %9.2f %9.2f %9.2f%n", endpoint.endpoint,
+                    endpoint.requests, endpoint.errors, endpoint.p50Ms, endpoint.p95Ms, endpoint.p99Ms));
+        }
+        table.append(String.format(Locale.ROOT, "%.1f peticiones/s, %d de %d sesiones descartadas",
+                report.requestThroughput(), report.sessionsDropped, report.sessionsScheduled));
+        log.info("Resultado:{}", table);
+    }
+
+    private static ThreadFactory daemonThreads(String prefix) {
+        AtomicInteger counter = new AtomicInteger();
+        return runnable -> {
+            Thread thread = new Thread(runnable, prefix + "-" + counter.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+    }
+}
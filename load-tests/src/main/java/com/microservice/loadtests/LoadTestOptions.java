@@ -0,0 +1,76 @@
+package com.microservice.loadtests;
+
+import java.nio.file.Path;
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Opciones de línea de comandos, todas con la forma --nombre=valor (o --nombre para las booleanas).
+ * Ver load-tests/README.md.
+ */
+final class LoadTestOptions {
+
+    private static final Set<String> KNOWN = Set.of("rate", "duration", "warmup", "users", "tasks-per-user",
+            "max-in-flight", "request-timeout-ms", "seed", "out", "baseline", "max-p99-regression",
+            "max-throughput-drop", "max-error-rate", "min-p99-delta-ms", "virtual-threads", "read-replica");
+
+    final double sessionsPerSecond;
+    final Duration duration;
+    final Duration warmup;
+    final int users;
+    final int tasksPerUser;
+    final int maxInFlight;
+    final Duration requestTimeout;
+    final long seed;
+    final Path outputDirectory;
+    final Path baseline;
+    final double maxP99Regression;
+    final double maxThroughputDrop;
+    final double maxErrorRate;
+    final double minP99DeltaMs;
+    final boolean virtualThreadsRequested;
+    // Los hilos virtuales necesitan Java 21; en versiones anteriores se sigue con los de plataforma
+    final boolean virtualThreads;
+    final boolean readReplica;
+
+    private LoadTestOptions(Map<String, String> values) {
+        sessionsPerSecond = Double.parseDouble(values.getOrDefault("rate", "20"));
+        duration = Duration.ofSeconds(Long.parseLong(values.getOrDefault("duration", "60")));
+        warmup = Duration.ofSeconds(Long.parseLong(values.getOrDefault("warmup", "15")));
+        users = Integer.parseInt(values.getOrDefault("users", "20"));
+        tasksPerUser = Integer.parseInt(values.getOrDefault("tasks-per-user", "60"));
+        maxInFlight = Integer.parseInt(values.getOrDefault("max-in-flight", "500"));
+        requestTimeout = Duration.ofMillis(Long.parseLong(values.getOrDefault("request-timeout-ms", "10000")));
+        seed = Long.parseLong(values.getOrDefault("seed", "42"));
+        outputDirectory = Path.of(values.getOrDefault("out", "load-tests/target/load-tests"));
+        baseline = values.containsKey("baseline") ? Path.of(values.get("baseline")) : null;
+        maxP99Regression = Double.parseDouble(values.getOrDefault("max-p99-regression", "0.20"));
+        maxThroughputDrop = Double.parseDouble(values.getOrDefault("max-throughput-drop", "0.10"));
+        maxErrorRate = Double.parseDouble(values.getOrDefault("max-error-rate", "0.01"));
+        minP99DeltaMs = Double.parseDouble(values.getOrDefault("min-p99-delta-ms", "5"));
+        virtualThreadsRequested = Boolean.parseBoolean(values.getOrDefault("virtual-threads", "false"));
+        virtualThreads = virtualThreadsRequested && Runtime.version().feature() >= 21;
+        readReplica = Boolean.parseBoolean(values.getOrDefault("read-replica", "false"));
+        if (sessionsPerSecond <= 0 || users <= 0 || duration.isZero() || duration.isNegative()) {
+            throw new IllegalArgumentException("rate, users y duration deben ser mayores que cero");
+        }
+    }
+
+    static LoadTestOptions parse(String[] args) {
+        Map<String, String> values = new HashMap<>();
+        for (String arg : args) {
+            if (!arg.startsWith("--")) {
+                throw new IllegalArgumentException("Argumento no reconocido: " + arg);
+            }
+            int equals = arg.indexOf('=');
+            String name = equals < 0 ? arg.substring(2) : arg.substring(2, equals);
+            if (!KNOWN.contains(name)) {
+                throw new IllegalArgumentException("Opción desconocida: --" + name);
+            }
+            values.put(name, equals < 0 ? "true" : arg.substring(equals + 1));
+        }
+        return new LoadTestOptions(values);
+    }
+}
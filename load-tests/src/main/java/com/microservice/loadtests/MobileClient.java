@@ -0,0 +1,133 @@
+package com.microservice.loadtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+
+import java.io.IOException;
+import java.net.URI;
+import java.net.http.HttpClient;
+import java.net.http.HttpRequest;
+import java.net.http.HttpResponse;
+import java.time.Duration;
+import java.util.concurrent.Executor;
+
+/**
+ * Cliente HTTP que se comporta como la app móvil contra el gateway: token JWT, cabecera X-User-Id y
+ * peticiones condicionales con el ETag de la última respuesta de cada listado.
+ *
+ * Cada llamada se anota en el {@link LatencyRecorder} con la etiqueta de su endpoint (ruta con las
+ * variables sin sustituir) y la latencia contada desde el instante de inicio que se le pasa, que para
+ * el primer paso de una sesión es cuando tenía que llegar, no cuando hubo un hilo libre para enviarla.
+ */
+final class MobileClient {
+
+    private final HttpClient http;
+    private final String baseUrl;
+    private final ObjectMapper mapper;
+    private final LatencyRecorder recorder;
+    private final Duration requestTimeout;
+
+    MobileClient(String baseUrl, ObjectMapper mapper, LatencyRecorder recorder, Duration requestTimeout, Executor executor) {
+        this.http = HttpClient.newBuilder()
+                .version(HttpClient.Version.HTTP_1_1)
+                .connectTimeout(Duration.ofSeconds(5))
+                .executor(executor)
+                .build();
+        this.baseUrl = baseUrl;
+        this.mapper = mapper;
+        this.recorder = recorder;
+        this.requestTimeout = requestTimeout;
+    }
+
+    /**
+     * Respuesta ya leída: cuerpo JSON (nulo si no había o era un 304) y código de estado.
+     */
+    static final class Response {
+        final int status;
+        final JsonNode body;
+
+        private Response(int status, JsonNode body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        boolean notModified() {
+            return status == 304;
+        }
+    }
+
+    Response get(String endpoint, String path, VirtualUser user, long startNanos) {
+        return exchange(endpoint, "GET", path, null, user, startNanos, false);
+    }
+
+    /**
+     * GET con If-None-Match: un 304 cuenta como éxito y no trae cuerpo.
+     */
+    Response getCached(String endpoint, String path, VirtualUser user, long startNanos) {
+        return exchange(endpoint, "GET", path, null, user, startNanos, true);
+    }
+
+    Response post(String endpoint, String path, Object body, VirtualUser user, long startNanos) {
+        return exchange(endpoint, "POST", path, body, user, startNanos, false);
+    }
+
+    Response put(String endpoint, String path, Object body, VirtualUser user, long startNanos) {
+        return exchange(endpoint, "PUT", path, body, user, startNanos, false);
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    /**
+     * Devuelve null si la petición falló (excepción o estado 4xx/5xx); el fallo ya queda anotado.
+     */
+    private Response exchange(String endpoint, String method, String path, Object body,
+                              VirtualUser user, long startNanos, boolean conditional) {
+        boolean error = true;
+        try {
+            HttpRequest.Builder request = HttpRequest.newBuilder(URI.create(baseUrl + path))
+                    .timeout(requestTimeout)
+                    .header("Accept", "application/json")
+                    .method(method, body == null
+                            ? HttpRequest.BodyPublishers.noBody()
+                            : HttpRequest.BodyPublishers.ofByteArray(mapper.writeValueAsBytes(body)));
+            if (body != null) {
+                request.header("Content-Type", "application/json");
+            }
+            if (user != null && user.token != null) {
+                request.header("Authorization", "Bearer " + user.token);
+                request.header("X-User-Id", user.userId);
+            }
+            String etag = conditional ? user.etags.get(path) : null;
+            if (etag != null) {
+                request.header("If-None-Match", etag);
+            }
+
+            HttpResponse<byte[]> response = http.send(request.build(), HttpResponse.BodyHandlers.ofByteArray());
+            int status = response.statusCode();
+            if (status >= 400) {
+                return null;
+            }
+            if (conditional) {
+                response.headers().firstValue("ETag").ifPresent(value -> user.etags.put(path, value));
+            }
+            error = false;
+            return new Response(status, parse(response.body()));
+        } catch (IOException e) {
+            return null;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return null;
+        } finally {
+            recorder.record(endpoint, startNanos, System.nanoTime() - startNanos, error);
+        }
+    }
+
+    private JsonNode parse(byte[] body) {
+        try {
+            return body.length == 0 ? null : mapper.readTree(body);
+        } catch (IOException e) {
+            // Alguna respuesta es texto plano; no se usa para nada
+            return null;
+        }
+    }
+}
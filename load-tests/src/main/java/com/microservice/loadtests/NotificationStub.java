@@ -0,0 +1,63 @@
+package com.microservice.loadtests;
+
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Servicio de notificaciones de mentira para el cliente Feign microservice-notifications del servicio
+ * de tareas, que no forma parte de este repositorio. Acepta cualquier POST bajo /api/notifications y
+ * responde true, como el real cuando entrega el lote.
+ */
+final class NotificationStub implements AutoCloseable {
+
+    private static final byte[] ACCEPTED = "true".getBytes(StandardCharsets.UTF_8);
+
+    private final HttpServer server;
+    private final AtomicLong received = new AtomicLong();
+
+    private NotificationStub(HttpServer server) {
+        this.server = server;
+    }
+
+    static NotificationStub start() throws IOException {
+        HttpServer server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        NotificationStub stub = new NotificationStub(server);
+        server.createContext("/api/notifications", exchange -> {
+            try (InputStream body = exchange.getRequestBody(); OutputStream out = exchange.getResponseBody()) {
+                body.readAllBytes();
+                stub.received.incrementAndGet();
+                exchange.getResponseHeaders().set("Content-Type", "application/json");
+                exchange.sendResponseHeaders(200, ACCEPTED.length);
+                out.write(ACCEPTED);
+            }
+        });
+        server.setExecutor(Executors.newFixedThreadPool(2, runnable -> {
+            Thread thread = new Thread(runnable, "notification-stub");
+            thread.setDaemon(true);
+            return thread;
+        }));
+        server.start();
+        return stub;
+    }
+
+    String url() {
+        return "http://localhost:" + server.getAddress().getPort();
+    }
+
+    long received() {
+        return received.get();
+    }
+
+    @Override
+    public void close() {
+        server.stop(0);
+    }
+}
@@ -0,0 +1,144 @@
+package com.microservice.loadtests;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Generador de carga de modelo abierto: las sesiones llegan a una tasa fija (llegadas de Poisson con
+ * semilla) tanto si el sistema va bien como si va mal, igual que los usuarios reales, que no esperan
+ * a que termine la sesión de otro para abrir la app.
+ *
+ * Un generador cerrado (N hilos en bucle) deja de enviar cuando el servidor se atasca y esconde
+ * justo la espera que sufriría la gente ("omisión coordinada"). Aquí cada sesión se mide desde el
+ * instante en que tenía que llegar: si no había hilo libre o el despachador iba con retraso, ese
+ * tiempo cuenta.
+ *
+ * Si las sesiones en curso superan maxInFlight, las nuevas se descartan y se cuentan aparte: el
+ * sistema ya no sostiene esa tasa y el informe lo dice en vez de seguir acumulando hilos.
+ */
+final class OpenLoadGenerator {
+
+    private static final Logger log = LoggerFactory.getLogger(OpenLoadGenerator.class);
+
+    private final MobileClient client;
+    private final List<VirtualUser> users;
+    private final LatencyRecorder recorder;
+    private final ExecutorService executor;
+    private final double sessionsPerSecond;
+    private final int maxInFlight;
+    private final Random random;
+    private final int totalWeight;
+
+    OpenLoadGenerator(MobileClient client, List<VirtualUser> users, LatencyRecorder recorder, ExecutorService executor,
+                      double sessionsPerSecond, int maxInFlight, long seed) {
+        this.client = client;
+        this.users = users;
+        this.recorder = recorder;
+        this.executor = executor;
+        this.sessionsPerSecond = sessionsPerSecond;
+        this.maxInFlight = maxInFlight;
+        this.random = new Random(seed);
+        int weights = 0;
+        for (Scenario scenario : Scenario.values()) {
+            weights += scenario.weight;
+        }
+        this.totalWeight = weights;
+    }
+
+    /**
+     * Sesiones lanzadas y descartadas dentro de la ventana medida.
+     */
+    static final class Result {
+        final long scheduled;
+        final long dropped;
+
+        private Result(long scheduled, long dropped) {
+            this.scheduled = scheduled;
+            this.dropped = dropped;
+        }
+    }
+
+    /**
+     * Calienta durante warmup sin anotar y después mide durante duration. Vuelve cuando han terminado
+     * todas las sesiones lanzadas (o tras drainTimeout).
+     */
+    Result run(Duration warmup, Duration duration, Duration drainTimeout) throws InterruptedException {
+        AtomicInteger inFlight = new AtomicInteger();
+        long scheduled = 0;
+        long dropped = 0;
+        long start = System.nanoTime();
+        long measureFrom = start + warmup.toNanos();
+        long end = measureFrom + duration.toNanos();
+        recorder.start(measureFrom);
+        recorder.stop(end);
+        long nextReport = start;
+
+        long next = start;
+        while (next - end < 0) {
+            long wait = next - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long intended = next;
+            next += nextInterArrival();
+            Scenario scenario = pick();
+            VirtualUser user = users.get(random.nextInt(users.size()));
+            boolean measured = intended - measureFrom >= 0;
+            if (measured) {
+                scheduled++;
+            }
+
+            if (inFlight.incrementAndGet() > maxInFlight) {
+                inFlight.decrementAndGet();
+                if (measured) {
+                    dropped++;
+                }
+                continue;
+            }
+            executor.execute(() -> {
+                try {
+                    scenario.run(client, user, intended, recorder);
+                } finally {
+                    inFlight.decrementAndGet();
+                }
+            });
+
+            if (System.nanoTime() - nextReport >= 0) {
+                log.info("{}: {} sesiones en curso", measured ? "Midiendo" : "Calentando", inFlight.get());
+                nextReport += TimeUnit.SECONDS.toNanos(10);
+            }
+        }
+
+        executor.shutdown();
+        if (!executor.awaitTermination(drainTimeout.toMillis(), TimeUnit.MILLISECONDS)) {
+            log.warn("Quedan {} sesiones sin terminar tras {} s", inFlight.get(), drainTimeout.toSeconds());
+        }
+        return new Result(scheduled, dropped);
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private long nextInterArrival() {
+        double seconds = -Math.log(1.0 - random.nextDouble()) / sessionsPerSecond;
+        return (long) (seconds * 1_000_000_000L);
+    }
+
+    private Scenario pick() {
+        int roll = random.nextInt(totalWeight);
+        for (Scenario scenario : Scenario.values()) {
+            roll -= scenario.weight;
+            if (roll < 0) {
+                return scenario;
+            }
+        }
+        throw new IllegalStateException("Pesos de escenario inconsistentes");
+    }
+}
@@ -0,0 +1,70 @@
+package com.microservice.loadtests;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Umbral de regresión: compara una ejecución con la línea base (otro informe JSON, normalmente el de
+ * la rama principal) y devuelve las infracciones. Sin línea base solo se comprueban los errores y
+ * las sesiones descartadas.
+ *
+ * El p99 de endpoints muy rápidos varía varios milisegundos entre ejecuciones, así que un aumento solo
+ * cuenta si supera a la vez el porcentaje y minP99DeltaMs.
+ */
+final class RegressionGate {
+
+    private final double maxP99Regression;
+    private final double maxThroughputDrop;
+    private final double maxErrorRate;
+    private final double minP99DeltaMs;
+
+    RegressionGate(double maxP99Regression, double maxThroughputDrop, double maxErrorRate, double minP99DeltaMs) {
+        this.maxP99Regression = maxP99Regression;
+        this.maxThroughputDrop = maxThroughputDrop;
+        this.maxErrorRate = maxErrorRate;
+        this.minP99DeltaMs = minP99DeltaMs;
+    }
+
+    List<String> check(LoadReport current, LoadReport baseline) {
+        List<String> violations = new ArrayList<>();
+        if (current.sessionsDropped > 0) {
+            violations.add(format("%d de %d sesiones descartadas: el sistema no sostiene %.1f sesiones/s",
+                    current.sessionsDropped, current.sessionsScheduled, current.sessionsPerSecond));
+        }
+        for (LoadReport.EndpointResult endpoint : current.endpoints.values()) {
+            if (endpoint.errorRate() > maxErrorRate) {
+                violations.add(format("%s: %.2f%% de errores (máximo %.2f%%)",
+                        endpoint.endpoint, endpoint.errorRate() * 100, maxErrorRate * 100));
+            }
+        }
+        if (baseline == null) {
+            return violations;
+        }
+
+        for (LoadReport.EndpointResult before : baseline.endpoints.values()) {
+            LoadReport.EndpointResult after = current.endpoints.get(before.endpoint);
+            if (after == null) {
+                violations.add(before.endpoint + ": está en la línea base y no en esta ejecución");
+                continue;
+            }
+            double limit = before.p99Ms * (1 + maxP99Regression);
+            if (after.p99Ms > limit && after.p99Ms - before.p99Ms > minP99DeltaMs) {
+                violations.add(format("%s: p99 %.2f ms frente a %.2f ms (+%.0f%%, máximo +%.0f%%)", before.endpoint,
+                        after.p99Ms, before.p99Ms, (after.p99Ms / before.p99Ms - 1) * 100, maxP99Regression * 100));
+            }
+        }
+        double throughputBefore = baseline.requestThroughput();
+        double throughputAfter = current.requestThroughput();
+        if (throughputAfter < throughputBefore * (1 - maxThroughputDrop)) {
+            violations.add(format("Throughput %.1f peticiones/s frente a %.1f (-%.0f%%, máximo -%.0f%%)",
+                    throughputAfter, throughputBefore, (1 - throughputAfter / throughputBefore) * 100,
+                    maxThroughputDrop * 100));
+        }
+        return violations;
+    }
+
+    private static String format(String pattern, Object... args) {
+        return String.format(Locale.ROOT, pattern, args);
+    }
+}
@@ -0,0 +1,102 @@
+package com.microservice.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.List;
+import java.util.Locale;
+
+/**
+ * Escribe el informe en JSON (para la línea base y para herramientas) y en HTML (para leerlo), con el
+ * resultado del umbral de regresión en los dos.
+ */
+final class ReportWriter {
+
+    private final ObjectMapper mapper;
+
+    ReportWriter(ObjectMapper mapper) {
+        this.mapper = mapper;
+    }
+
+    void writeJson(LoadReport report, String baseline, List<String> violations, Path file) throws IOException {
+        ObjectNode root = report.toJson(mapper);
+        ObjectNode gate = root.putObject("gate");
+        gate.put("baseline", baseline);
+        gate.put("passed", violations.isEmpty());
+        ArrayNode list = gate.putArray("violations");
+        violations.forEach(list::add);
+        mapper.writerWithDefaultPrettyPrinter().writeValue(file.toFile(), root);
+    }
+
+    void writeHtml(LoadReport report, String baseline, List<String> violations, Path file) throws IOException {
+        StringBuilder html = new StringBuilder(8192);
+        html.append("<!DOCTYPE html>\n<html lang=\"es\">\n<head>\n<meta charset=\"utf-8\">\n")
+                .append("<title>Prueba de carga ").append(escape(report.generatedAt)).append("</title>\n")
+                .append("<style>\n")
+                .append("body{font-family:system-ui,sans-serif;margin:2rem;color:#222}\n")
+                .append("table{border-collapse:collapse;margin-bottom:2rem}\n")
+                .append("th,td{padding:.3rem .8rem;border-bottom:1px solid #ddd;text-align:right}\n")
+                .append("th:first-child,td:first-child{text-align:left;font-family:monospace}\n")
+                .append(".bar{background:#4a90d9;height:.8rem;display:inline-block}\n")
+                .append(".ok{color:#1a7f37}.fail{color:#c62828}\n")
+                .append("</style>\n</head>\n<body>\n");
+
+        html.append("<h1>Prueba de carga</h1>\n<p>")
+                .append(escape(report.generatedAt)).append(" · Java ").append(escape(report.javaVersion))
+                .append(" · hilos ").append(report.virtualThreads ? "virtuales" : "de plataforma")
+                .append(format(" · %.1f sesiones/s durante %d s · %d usuarios", report.sessionsPerSecond,
+                        report.durationSeconds, report.users))
+                .append(format(" · %d sesiones, %d descartadas", report.sessionsScheduled, report.sessionsDropped))
+                .append(format(" · %.1f peticiones/s, %.2f%% de errores", report.requestThroughput(),
+                        report.requestErrorRate() * 100))
+                .append("</p>\n");
+
+        html.append("<h2 class=\"").append(violations.isEmpty() ? "ok" : "fail").append("\">Umbral: ")
+                .append(violations.isEmpty() ? "superado" : "no superado").append("</h2>\n");
+        html.append("<p>Línea base: ").append(baseline == null ? "ninguna" : escape(baseline)).append("</p>\n");
+        if (!violations.isEmpty()) {
+            html.append("<ul class=\"fail\">\n");
+            violations.forEach(violation -> html.append("<li>").append(escape(violation)).append("</li>\n"));
+            html.append("</ul>\n");
+        }
+
+        html.append("<h2>Peticiones</h2>\n");
+        table(html, report.requests());
+        html.append("<h2>Sesiones (desde la llegada prevista)</h2>\n");
+        table(html, report.scenarios());
+        html.append("</body>\n</html>\n");
+        Files.writeString(file, html, StandardCharsets.UTF_8);
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private static void table(StringBuilder html, List<LoadReport.EndpointResult> endpoints) {
+        double widest = endpoints.stream().mapToDouble(endpoint -> endpoint.p99Ms).max().orElse(1);
+        html.append("<table>\n<tr><th>Endpoint</th><th>Peticiones</th><th>Errores</th><th>/s</th>")
+                .append("<th>p50 ms</th><th>p95 ms</th><th>p99 ms</th><th>máx ms</th><th></th></tr>\n");
+        for (LoadReport.EndpointResult endpoint : endpoints) {
+            html.append("<tr><td>").append(escape(endpoint.endpoint)).append("</td>")
+                    .append(format("<td>%d</td><td class=\"%s\">%d</td><td>%.1f</td>", endpoint.requests,
+                            endpoint.errors == 0 ? "ok" : "fail", endpoint.errors, endpoint.throughput))
+                    .append(format("<td>%.2f</td><td>%.2f</td><td>%.2f</td><td>%.2f</td>",
+                            endpoint.p50Ms, endpoint.p95Ms, endpoint.p99Ms, endpoint.maxMs))
+                    .append(format("<td style=\"text-align:left;width:12rem\"><span class=\"bar\" style=\"width:%.0f%%\"></span></td>",
+                            widest == 0 ? 0 : endpoint.p99Ms / widest * 100))
+                    .append("</tr>\n");
+        }
+        html.append("</table>\n");
+    }
+
+    private static String format(String pattern, Object... args) {
+        return String.format(Locale.ROOT, pattern, args);
+    }
+
+    private static String escape(String text) {
+        return text.replace("&", "&amp;").replace("<", "&lt;").replace(">", "&gt;").replace("\"", "&quot;");
+    }
+}
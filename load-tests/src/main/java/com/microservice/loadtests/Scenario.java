@@ -0,0 +1,179 @@
+package com.microservice.loadtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.net.URLEncoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Recorridos de la app móvil que lanza el generador, con su peso en la mezcla. Cada sesión hace sus
+ * pasos uno detrás de otro, sin tiempo de espera, y se corta en el primer fallo.
+ *
+ * Además de cada petición, la sesión completa se anota como "scenario:nombre", medida desde que
+ * debía empezar.
+ */
+enum Scenario {
+
+    LOGIN(5) {
+        @Override
+        boolean steps(MobileClient client, VirtualUser user, long startNanos) {
+            return login(client, user, startNanos);
+        }
+    },
+
+    // Pantalla de inicio: resumen, tareas de hoy, agenda, notas y preferencias
+    DASHBOARD(30) {
+        @Override
+        boolean steps(MobileClient client, VirtualUser user, long startNanos) {
+            String tasks = "/api/tasks/user/" + user.userId;
+            return client.get("GET /api/users/{userId}/preferences",
+                    "/api/users/" + user.userId + "/preferences", user, startNanos) != null
+                    && client.get("GET /api/tasks/user/{userId}/summary", tasks + "/summary", user, System.nanoTime()) != null
+                    && client.get("GET /api/tasks/user/{userId}/today", tasks + "/today", user, System.nanoTime()) != null
+                    && client.getCached("GET /api/events", "/api/events", user, System.nanoTime()) != null
+                    && client.get("GET /api/notes/user/{userId}/count",
+                    "/api/notes/user/" + user.userId + "/count", user, System.nanoTime()) != null;
+        }
+    },
+
+    // Listados con caché local: primera página de tareas (y la segunda si la hay) y de notas
+    LIST(25) {
+        @Override
+        boolean steps(MobileClient client, VirtualUser user, long startNanos) {
+            String tasks = "/api/tasks/user/" + user.userId + "/cursor?size=20";
+            MobileClient.Response page = client.getCached("GET /api/tasks/user/{userId}/cursor", tasks, user, startNanos);
+            if (page == null) {
+                return false;
+            }
+            if (page.body != null && page.body.path("hasNext").asBoolean()) {
+                String next = tasks + "&cursor=" + encode(page.body.path("nextCursor").asText());
+                if (client.getCached("GET /api/tasks/user/{userId}/cursor", next, user, System.nanoTime()) == null) {
+                    return false;
+                }
+            }
+            return client.getCached("GET /api/notes/user/{userId}/cursor",
+                    "/api/notes/user/" + user.userId + "/cursor?size=20", user, System.nanoTime()) != null;
+        }
+    },
+
+    CREATE(15) {
+        @Override
+        boolean steps(MobileClient client, VirtualUser user, long startNanos) {
+            return createTask(client, user, startNanos) != null;
+        }
+    },
+
+    // Marca como hecha una tarea pendiente; si no queda ninguna, primero crea una
+    COMPLETE(15) {
+        @Override
+        boolean steps(MobileClient client, VirtualUser user, long startNanos) {
+            String taskId = user.pendingTasks.poll();
+            long completeStart = startNanos;
+            if (taskId == null) {
+                taskId = createTask(client, user, startNanos);
+                if (taskId == null) {
+                    return false;
+                }
+                user.pendingTasks.remove(taskId);
+                completeStart = System.nanoTime();
+            }
+            return client.put("PUT /api/tasks/{taskId}/complete/user/{userId}",
+                    "/api/tasks/" + taskId + "/complete/user/" + user.userId, null, user, completeStart) != null;
+        }
+    },
+
+    SEARCH(10) {
+        @Override
+        boolean steps(MobileClient client, VirtualUser user, long startNanos) {
+            String text = encode(SEARCH_TERMS.get(ThreadLocalRandom.current().nextInt(SEARCH_TERMS.size())));
+            return client.get("GET /api/tasks/user/{userId}/search",
+                    "/api/tasks/user/" + user.userId + "/search?searchText=" + text, user, startNanos) != null
+                    && client.get("GET /api/notes/user/{userId}/search",
+                    "/api/notes/user/" + user.userId + "/search?searchText=" + text, user, System.nanoTime()) != null;
+        }
+    };
+
+    static final List<String> SEARCH_TERMS = List.of("informe", "comprar", "llamar", "revisar", "reunión", "médico");
+
+    static final List<String> TASK_TITLES = List.of(
+            "Revisar informe trimestral", "Comprar material de oficina", "Llamar al médico",
+            "Preparar reunión de equipo", "Revisar presupuesto", "Comprar regalo", "Llamar a proveedores",
+            "Actualizar currículum", "Pagar facturas", "Planificar vacaciones");
+
+    private static final DateTimeFormatter ISO = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    final int weight;
+
+    Scenario(int weight) {
+        this.weight = weight;
+    }
+
+    String label() {
+        return "scenario:" + name().toLowerCase();
+    }
+
+    /**
+     * Ejecuta la sesión y anota su duración total. startNanos es el instante en que debía empezar.
+     */
+    void run(MobileClient client, VirtualUser user, long startNanos, LatencyRecorder recorder) {
+        boolean ok = false;
+        try {
+            ok = steps(client, user, startNanos);
+        } finally {
+            recorder.record(label(), startNanos, System.nanoTime() - startNanos, !ok);
+        }
+    }
+
+    abstract boolean steps(MobileClient client, VirtualUser user, long startNanos);
+
+    static boolean login(MobileClient client, VirtualUser user, long startNanos) {
+        Map<String, Object> body = Map.of("usernameOrEmail", user.username, "password", user.password);
+        MobileClient.Response response = client.post("POST /api/auth/login", "/api/auth/login", body, null, startNanos);
+        if (response == null || response.body == null) {
+            return false;
+        }
+        user.userId = response.body.path("user").path("id").asText();
+        user.token = response.body.path("token").asText();
+        return true;
+    }
+
+    /**
+     * Crea una tarea con datos variados y la deja en la cola de pendientes. Devuelve su id o null.
+     */
+    static String createTask(MobileClient client, VirtualUser user, long startNanos) {
+        MobileClient.Response response = client.post("POST /api/tasks", "/api/tasks",
+                taskBody(user, ThreadLocalRandom.current().nextInt(1_000_000)), user, startNanos);
+        JsonNode id = response == null || response.body == null ? null : response.body.get("id");
+        if (id == null) {
+            return null;
+        }
+        user.pendingTasks.add(id.asText());
+        return id.asText();
+    }
+
+    static Map<String, Object> taskBody(VirtualUser user, int n) {
+        Map<String, Object> task = new LinkedHashMap<>();
+        task.put("userId", user.userId);
+        task.put("title", TASK_TITLES.get(n % TASK_TITLES.size()) + " " + n);
+        task.put("description", n % 3 == 0 ? "Creada por la prueba de carga" : null);
+        task.put("priority", List.of("LOW", "MEDIUM", "HIGH").get(n % 3));
+        // Un tercio vence hoy, el resto repartido en las próximas dos semanas
+        LocalDateTime due = n % 3 == 0
+                ? LocalDateTime.now().withHour(18).withMinute(0).withSecond(0).withNano(0)
+                : LocalDateTime.now().plusDays(1 + n % 14).withNano(0);
+        task.put("dueDate", ISO.format(due));
+        task.put("estimatedDurationMinutes", 15 + n % 90);
+        task.put("tags", n % 2 == 0 ? List.of("trabajo") : List.of());
+        return task;
+    }
+
+    private static String encode(String value) {
+        return URLEncoder.encode(value, StandardCharsets.UTF_8);
+    }
+}
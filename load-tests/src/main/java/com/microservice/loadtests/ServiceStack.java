@@ -0,0 +1,183 @@
+package com.microservice.loadtests;
+
+import com.microservice.event.MicroserviceEventApplication;
+import com.microservice.gateway.MicroserviceGatewayApplication;
+import com.microservice.microservice_task.MicroserviceTaskApplication;
+import com.microservice.microservice_user.MicroserviceUserApplication;
+import com.microservice.note.MicroserviceNoteApplication;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.URL;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Properties;
+
+/**
+ * Gateway y los cuatro servicios arrancados en este proceso, cada uno en su propio contexto de Spring
+ * con su puerto y su base de datos H2 en memoria (modo MySQL).
+ *
+ * Cada servicio conserva su application.properties (el que está en su jar, localizado por
+ * spring.application.name) con lo que se mide su configuración real; encima van
+ * loadtest/common.properties y los puertos, URLs de Feign y bases de datos calculados aquí. Eureka y
+ * el servidor de configuración quedan fuera: los clientes Feign llevan URL fija a los otros servicios
+ * del proceso, y el de notificaciones, que no existe en el repositorio, a {@link NotificationStub}.
+ */
+final class ServiceStack implements AutoCloseable {
+
+    private static final Logger log = LoggerFactory.getLogger(ServiceStack.class);
+
+    enum Service {
+        USER("msvc-user", MicroserviceUserApplication.class),
+        TASK("msvc-task", MicroserviceTaskApplication.class),
+        NOTE("msvc-note", MicroserviceNoteApplication.class),
+        EVENT("msvc-event", MicroserviceEventApplication.class);
+
+        private final String applicationName;
+        private final Class<?> applicationClass;
+
+        Service(String applicationName, Class<?> applicationClass) {
+            this.applicationName = applicationName;
+            this.applicationClass = applicationClass;
+        }
+    }
+
+    // Nombre de cada @FeignClient del repositorio y servicio al que apunta
+    private static final Map<String, Service> FEIGN_CLIENTS = Map.of(
+            "microservice-user", Service.USER,
+            "msvc-user", Service.USER,
+            "microservice-tasks", Service.TASK,
+            "microservice-notes", Service.NOTE,
+            "microservice-events", Service.EVENT);
+    private static final String NOTIFICATIONS_CLIENT = "microservice-notifications";
+
+    private final List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+    private NotificationStub notifications;
+    private int gatewayPort;
+
+    static ServiceStack start(boolean virtualThreads, boolean readReplica) throws IOException {
+        ServiceStack stack = new ServiceStack();
+        try {
+            stack.startAll(virtualThreads, readReplica);
+        } catch (RuntimeException | IOException e) {
+            stack.close();
+            throw e;
+        }
+        return stack;
+    }
+
+    String gatewayUrl() {
+        return "http://localhost:" + gatewayPort;
+    }
+
+    long notificationsReceived() {
+        return notifications.received();
+    }
+
+    @Override
+    public void close() {
+        // En orden inverso: primero deja de entrar tráfico por el gateway
+        List<ConfigurableApplicationContext> running = new ArrayList<>(contexts);
+        Collections.reverse(running);
+        running.forEach(ConfigurableApplicationContext::close);
+        contexts.clear();
+        if (notifications != null) {
+            notifications.close();
+        }
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private void startAll(boolean virtualThreads, boolean readReplica) throws IOException {
+        notifications = NotificationStub.start();
+        // Los puertos se reservan antes de arrancar nada porque usuarios y tareas se llaman entre sí
+        Map<Service, Integer> ports = new EnumMap<>(Service.class);
+        for (Service service : Service.values()) {
+            ports.put(service, freePort());
+        }
+        gatewayPort = freePort();
+
+        for (Service service : Service.values()) {
+            long started = System.nanoTime();
+            List<String> args = commonArgs(ports.get(service), virtualThreads);
+            String url = "jdbc:h2:mem:loadtest-" + service.name().toLowerCase()
+                    + ";MODE=MySQL;DB_CLOSE_DELAY=-1;DB_CLOSE_ON_EXIT=FALSE";
+            args.add("--spring.datasource.url=" + url);
+            if (readReplica) {
+                // La misma base en memoria hace de réplica sin retraso: se prueba el enrutado, no la replicación
+                args.add("--spring.datasource.replica.url=" + url);
+            }
+            FEIGN_CLIENTS.forEach((client, target) -> args.add(
+                    "--spring.cloud.openfeign.client.config." + client + ".url=http://localhost:" + ports.get(target)));
+            args.add("--spring.cloud.openfeign.client.config." + NOTIFICATIONS_CLIENT + ".url=" + notifications.url());
+            contexts.add(new SpringApplicationBuilder(service.applicationClass)
+                    .web(WebApplicationType.SERVLET)
+                    .properties(serviceProperties(service))
+                    .run(args.toArray(String[]::new)));
+            log.info("{} en el puerto {} ({} ms)", service.applicationName, ports.get(service),
+                    (System.nanoTime() - started) / 1_000_000);
+        }
+
+        List<String> args = commonArgs(gatewayPort, virtualThreads);
+        args.set(0, args.get(0) + ",classpath:/loadtest/gateway.properties");
+        args.add("--gateway.routes.user-uri=http://localhost:" + ports.get(Service.USER));
+        args.add("--gateway.routes.task-uri=http://localhost:" + ports.get(Service.TASK));
+        args.add("--gateway.routes.note-uri=http://localhost:" + ports.get(Service.NOTE));
+        args.add("--gateway.routes.event-uri=http://localhost:" + ports.get(Service.EVENT));
+        contexts.add(new SpringApplicationBuilder(MicroserviceGatewayApplication.class)
+                .web(WebApplicationType.REACTIVE)
+                .run(args.toArray(String[]::new)));
+        log.info("Gateway en {}", gatewayUrl());
+    }
+
+    private static List<String> commonArgs(int port, boolean virtualThreads) {
+        List<String> args = new ArrayList<>();
+        args.add("--spring.config.location=classpath:/loadtest/common.properties");
+        args.add("--server.port=" + port);
+        args.add("--spring.threads.virtual.enabled=" + virtualThreads);
+        return args;
+    }
+
+    /**
+     * application.properties propio del servicio, como propiedades por defecto. Todos los jars traen
+     * un fichero con ese nombre en la raíz, así que se elige por spring.application.name. Se quitan el
+     * perfil activo y la importación del servidor de configuración, que aquí no existen.
+     */
+    private static Properties serviceProperties(Service service) {
+        try {
+            List<URL> candidates = Collections.list(
+                    ServiceStack.class.getClassLoader().getResources("application.properties"));
+            for (URL candidate : candidates) {
+                Properties properties = new Properties();
+                try (InputStream in = candidate.openStream()) {
+                    properties.load(in);
+                }
+                if (service.applicationName.equals(properties.getProperty("spring.application.name"))) {
+                    properties.remove("spring.profiles.active");
+                    properties.remove("spring.config.import");
+                    return properties;
+                }
+            }
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        throw new IllegalStateException("No se encontró el application.properties de " + service.applicationName);
+    }
+
+    private static int freePort() throws IOException {
+        try (ServerSocket socket = new ServerSocket(0, 1, InetAddress.getLoopbackAddress())) {
+            return socket.getLocalPort();
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.microservice.loadtests;
+
+import com.fasterxml.jackson.databind.JsonNode;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Prepara los usuarios de la prueba antes de medir: alta y login por el gateway, y un punto de partida
+ * de tareas, notas y eventos para que los listados y las búsquedas devuelvan algo. Estas llamadas no
+ * se anotan porque el recorder todavía no ha empezado su ventana.
+ */
+final class TestData {
+
+    private static final String PASSWORD = "CargaSegura123";
+    private static final int NOTES_PER_USER = 10;
+    private static final int EVENTS_PER_USER = 10;
+
+    private TestData() {
+    }
+
+    static List<VirtualUser> prepare(MobileClient client, int users, int tasksPerUser) {
+        List<VirtualUser> prepared = new ArrayList<>(users);
+        long now = System.nanoTime();
+        for (int i = 0; i < users; i++) {
+            VirtualUser user = new VirtualUser("carga" + i, PASSWORD);
+            Map<String, Object> registration = new LinkedHashMap<>();
+            registration.put("username", user.username);
+            registration.put("email", user.username + "@example.com");
+            registration.put("password", user.password);
+            registration.put("firstName", "Carga");
+            registration.put("lastName", String.valueOf(i));
+            require(client.post("POST /api/auth/register", "/api/auth/register", registration, null, now), "alta de " + user.username);
+            if (!Scenario.login(client, user, now)) {
+                throw new IllegalStateException("Falló la preparación de datos: login de " + user.username);
+            }
+
+            seedTasks(client, user, tasksPerUser, now);
+            for (int n = 0; n < NOTES_PER_USER; n++) {
+                Map<String, Object> note = new LinkedHashMap<>();
+                note.put("userId", user.userId);
+                note.put("title", Scenario.TASK_TITLES.get(n % Scenario.TASK_TITLES.size()) + " (nota)");
+                note.put("description", "Nota " + n + " de " + user.username);
+                require(client.post("POST /api/notes", "/api/notes", note, user, now), "nota de " + user.username);
+            }
+            for (int n = 0; n < EVENTS_PER_USER; n++) {
+                Map<String, Object> event = new LinkedHashMap<>();
+                event.put("title", "Evento " + n);
+                event.put("eventTimestamp", DateTimeFormatter.ISO_LOCAL_DATE_TIME.format(
+                        LocalDateTime.now().plusDays(n).withHour(9 + n % 8).withMinute(0).withSecond(0).withNano(0)));
+                event.put("location", "Sala " + n % 4);
+                require(client.post("POST /api/events", "/api/events", event, user, now), "evento de " + user.username);
+            }
+            prepared.add(user);
+        }
+        return prepared;
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private static void seedTasks(MobileClient client, VirtualUser user, int count, long now) {
+        List<Map<String, Object>> tasks = new ArrayList<>(count);
+        for (int n = 0; n < count; n++) {
+            tasks.add(Scenario.taskBody(user, n));
+        }
+        MobileClient.Response response = require(client.post("POST /api/tasks/batch/user/{userId}",
+                "/api/tasks/batch/user/" + user.userId, tasks, user, now), "tareas de " + user.username);
+        for (JsonNode item : response.body.path("items")) {
+            if (item.path("success").asBoolean()) {
+                user.pendingTasks.add(item.path("taskId").asText());
+            }
+        }
+    }
+
+    private static <T> T require(T result, String what) {
+        if (result == null) {
+            throw new IllegalStateException("Falló la preparación de datos: " + what);
+        }
+        return result;
+    }
+}
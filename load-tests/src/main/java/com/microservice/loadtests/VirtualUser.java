@@ -0,0 +1,29 @@
+package com.microservice.loadtests;
+
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+/**
+ * Usuario simulado. En el modelo abierto puede tener varias sesiones a la vez (como varios
+ * dispositivos), así que todo su estado admite acceso concurrente.
+ */
+final class VirtualUser {
+
+    final String username;
+    final String password;
+    volatile String userId;
+    volatile String token;
+
+    // Tareas pendientes que el escenario de completar puede cerrar
+    final Queue<String> pendingTasks = new ConcurrentLinkedQueue<>();
+
+    // ETag por ruta, para las peticiones condicionales que haría la app con su caché local
+    final Map<String, String> etags = new ConcurrentHashMap<>();
+
+    VirtualUser(String username, String password) {
+        this.username = username;
+        this.password = password;
+    }
+}
@@ -0,0 +1,82 @@
+package com.microservice.loadtests;
+
+import org.junit.jupiter.api.Test;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class LatencyRecorderTest {
+
+    @Test
+    void record_BeforeStart_ShouldNotCreateTheEndpoint() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.record("GET /api/tasks", 10, 5, true);
+
+        assertThat(recorder.snapshot()).isEmpty();
+    }
+
+    @Test
+    void percentile_WithASingleSample_ShouldAlwaysReturnIt() {
+        LatencyRecorder.Snapshot snapshot = snapshotOf(42);
+
+        assertThat(snapshot.percentile(0)).isEqualTo(42);
+        assertThat(snapshot.percentile(50)).isEqualTo(42);
+        assertThat(snapshot.percentile(99.9)).isEqualTo(42);
+        assertThat(snapshot.percentile(100)).isEqualTo(42);
+    }
+
+    @Test
+    void percentile_ShouldUseTheNearestRankOverTheSortedSamples() {
+        long[] latencies = new long[100];
+        for (int i = 0; i < latencies.length; i++) {
+            latencies[i] = 100 - i; // Desordenadas a propósito
+        }
+        LatencyRecorder.Snapshot snapshot = snapshotOf(latencies);
+
+        assertThat(snapshot.percentile(0)).isEqualTo(1);
+        assertThat(snapshot.percentile(1)).isEqualTo(1);
+        assertThat(snapshot.percentile(50)).isEqualTo(50);
+        assertThat(snapshot.percentile(95)).isEqualTo(95);
+        assertThat(snapshot.percentile(99)).isEqualTo(99);
+        assertThat(snapshot.percentile(99.5)).isEqualTo(100);
+        assertThat(snapshot.percentile(100)).isEqualTo(100);
+    }
+
+    @Test
+    void percentile_WithFewSamples_ShouldRoundTheRankUp() {
+        LatencyRecorder.Snapshot snapshot = snapshotOf(10, 20, 30, 40, 50, 60, 70, 80, 90, 100);
+
+        // Rango 9,9 -> 10: con diez muestras el p99 es el máximo, no una interpolación
+        assertThat(snapshot.percentile(99)).isEqualTo(100);
+        assertThat(snapshot.percentile(90)).isEqualTo(90);
+        assertThat(snapshot.percentile(91)).isEqualTo(100);
+        assertThat(snapshot.percentile(50)).isEqualTo(50);
+        assertThat(snapshot.percentile(51)).isEqualTo(60);
+    }
+
+    @Test
+    void record_ShouldKeepRequestsThatStartInTheWindowEvenIfTheyEndAfterIt() {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.start(1_000);
+        recorder.stop(2_000);
+
+        recorder.record("GET /api/tasks", 999, 1, false);      // Calentamiento
+        recorder.record("GET /api/tasks", 1_000, 5_000, true); // Empieza dentro y acaba fuera
+        recorder.record("GET /api/tasks", 1_999, 7, false);
+        recorder.record("GET /api/tasks", 2_000, 1, false);    // Ya fuera de la ventana
+
+        LatencyRecorder.Snapshot snapshot = recorder.snapshot().get("GET /api/tasks");
+        assertThat(snapshot.sortedLatencies).containsExactly(7, 5_000);
+        assertThat(snapshot.errors).isEqualTo(1);
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private static LatencyRecorder.Snapshot snapshotOf(long... latencies) {
+        LatencyRecorder recorder = new LatencyRecorder();
+        recorder.start(0);
+        for (long latency : latencies) {
+            recorder.record("GET /api/tasks", 0, latency, false);
+        }
+        return recorder.snapshot().get("GET /api/tasks");
+    }
+}
@@ -0,0 +1,146 @@
+package com.microservice.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.sun.net.httpserver.HttpServer;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// El generador contra un servidor HTTP local que responde "{}" a todo, al momento o cuando se le deja
+class OpenLoadGeneratorTest {
+
+    private static final byte[] EMPTY_JSON = "{}".getBytes(StandardCharsets.UTF_8);
+
+    private final LatencyRecorder recorder = new LatencyRecorder();
+    private final AtomicInteger received = new AtomicInteger();
+    private final CountDownLatch release = new CountDownLatch(1);
+    private volatile boolean holdResponses;
+
+    private HttpServer server;
+    private ExecutorService serverThreads;
+    private ExecutorService io;
+    private ExecutorService sessions;
+    private MobileClient client;
+
+    @BeforeEach
+    void setUp() throws IOException {
+        serverThreads = Executors.newCachedThreadPool();
+        server = HttpServer.create(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0), 0);
+        server.setExecutor(serverThreads);
+        server.createContext("/", exchange -> {
+            try (InputStream body = exchange.getRequestBody(); OutputStream out = exchange.getResponseBody()) {
+                body.readAllBytes();
+                received.incrementAndGet();
+                if (holdResponses) {
+                    release.await(10, TimeUnit.SECONDS);
+                }
+                exchange.sendResponseHeaders(200, EMPTY_JSON.length);
+                out.write(EMPTY_JSON);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        server.start();
+
+        io = Executors.newCachedThreadPool();
+        sessions = Executors.newCachedThreadPool();
+        client = new MobileClient("http://localhost:" + server.getAddress().getPort(), new ObjectMapper(),
+                recorder, Duration.ofSeconds(10), io);
+    }
+
+    @AfterEach
+    void tearDown() {
+        release.countDown();
+        sessions.shutdownNow();
+        server.stop(0);
+        io.shutdownNow();
+        serverThreads.shutdownNow();
+    }
+
+    @Test
+    void run_WithAFastServer_ShouldMeasureEverySessionScheduledAfterTheWarmup() throws InterruptedException {
+        OpenLoadGenerator generator = generator(100, 1_000);
+
+        OpenLoadGenerator.Result result = generator.run(
+                Duration.ofMillis(300), Duration.ofMillis(500), Duration.ofSeconds(10));
+
+        assertThat(sessions.isTerminated()).isTrue();
+        assertThat(result.dropped).isZero();
+        assertThat(result.scheduled).isPositive();
+        assertThat(sessionsRecorded()).isEqualTo(result.scheduled);
+        // Las sesiones del calentamiento también llegan al servidor, pero no se anotan
+        assertThat(requestsRecorded()).isLessThan(received.get());
+    }
+
+    @Test
+    void run_AboveMaxInFlight_ShouldDropNewSessionsAndCountThemOnlyInTheWindow() throws InterruptedException {
+        holdResponses = true;
+        OpenLoadGenerator generator = generator(200, 2);
+
+        // Nada termina mientras dura la prueba: solo caben las dos primeras sesiones
+        OpenLoadGenerator.Result result = generator.run(
+                Duration.ZERO, Duration.ofMillis(300), Duration.ofMillis(100));
+
+        assertThat(result.scheduled).isGreaterThan(2);
+        assertThat(result.dropped).isEqualTo(result.scheduled - 2);
+        assertThat(sessions.isTerminated()).isFalse();
+
+        // Al soltarlas terminan y se anotan; las descartadas nunca llegaron al servidor
+        release.countDown();
+        assertThat(sessions.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(sessionsRecorded()).isEqualTo(2);
+    }
+
+    @Test
+    void run_ShouldFreeTheInFlightSlotsOfFinishedSessions() throws InterruptedException {
+        // Con una sola sesión a la vez y un servidor rápido, casi ninguna llegada encuentra el hueco ocupado
+        OpenLoadGenerator generator = generator(20, 1);
+
+        OpenLoadGenerator.Result result = generator.run(
+                Duration.ZERO, Duration.ofMillis(500), Duration.ofSeconds(10));
+
+        assertThat(result.scheduled).isPositive();
+        assertThat(result.dropped).isLessThan(result.scheduled);
+        assertThat(sessionsRecorded()).isEqualTo(result.scheduled - result.dropped);
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private OpenLoadGenerator generator(double sessionsPerSecond, int maxInFlight) {
+        VirtualUser user = new VirtualUser("carga", "secreto");
+        user.userId = "00000000-0000-0000-0000-000000000001";
+        user.token = "token";
+        return new OpenLoadGenerator(client, List.of(user), recorder, sessions, sessionsPerSecond, maxInFlight, 42);
+    }
+
+    private long sessionsRecorded() {
+        return recorded(true);
+    }
+
+    private long requestsRecorded() {
+        return recorded(false);
+    }
+
+    private long recorded(boolean scenarios) {
+        return recorder.snapshot().entrySet().stream()
+                .filter(entry -> entry.getKey().startsWith("scenario:") == scenarios)
+                .mapToLong(entry -> entry.getValue().sortedLatencies.length)
+                .sum();
+    }
+}
@@ -0,0 +1,122 @@
+package com.microservice.loadtests;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ArrayNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RegressionGateTest {
+
+    private static final ObjectMapper MAPPER = new ObjectMapper();
+
+    // p99 +20% y 5 ms, throughput -10%, errores 1%: los valores por defecto de la línea de comandos
+    private final RegressionGate gate = new RegressionGate(0.20, 0.10, 0.01, 5);
+
+    @Test
+    void check_WithoutBaseline_ShouldOnlyReportDropsAndErrors() {
+        LoadReport clean = report(0, endpoint("GET /api/tasks", 1000, 10, 100, 50));
+        assertThat(gate.check(clean, null)).isEmpty();
+
+        LoadReport failing = report(3, endpoint("GET /api/tasks", 1000, 11, 100, 50));
+        List<String> violations = gate.check(failing, null);
+
+        assertThat(violations).hasSize(2);
+        assertThat(violations.get(0)).startsWith("3 de 100 sesiones descartadas");
+        assertThat(violations.get(1)).startsWith("GET /api/tasks: 1.10% de errores");
+    }
+
+    @Test
+    void check_ShouldAcceptAnErrorRateExactlyAtTheLimit() {
+        LoadReport current = report(0, endpoint("GET /api/tasks", 1000, 10, 100, 50));
+
+        assertThat(gate.check(current, null)).isEmpty();
+    }
+
+    @Test
+    void check_ShouldFlagAP99RiseAboveBothThePercentageAndTheMinimumDelta() {
+        LoadReport baseline = report(0, endpoint("GET /api/tasks", 1000, 0, 100, 50));
+        LoadReport current = report(0, endpoint("GET /api/tasks", 1000, 0, 100, 61));
+
+        assertThat(gate.check(current, baseline))
+                .containsExactly("GET /api/tasks: p99 61.00 ms frente a 50.00 ms (+22%, máximo +20%)");
+    }
+
+    @Test
+    void check_ShouldAcceptAP99RiseUpToThePercentage() {
+        LoadReport baseline = report(0, endpoint("GET /api/tasks", 1000, 0, 100, 50));
+        LoadReport current = report(0, endpoint("GET /api/tasks", 1000, 0, 100, 60));
+
+        assertThat(gate.check(current, baseline)).isEmpty();
+    }
+
+    @Test
+    void check_ShouldIgnoreLargeRelativeRisesOnFastEndpointsBelowTheMinimumDelta() {
+        // +300% pero solo 3 ms: ruido en un endpoint de 1 ms
+        LoadReport baseline = report(0, endpoint("GET /api/notes/count", 1000, 0, 100, 1));
+        LoadReport current = report(0, endpoint("GET /api/notes/count", 1000, 0, 100, 4));
+
+        assertThat(gate.check(current, baseline)).isEmpty();
+    }
+
+    @Test
+    void check_ShouldFlagBaselineEndpointsMissingFromTheRunButNotNewOnes() {
+        LoadReport baseline = report(0,
+                endpoint("GET /api/tasks", 1000, 0, 100, 50),
+                endpoint("GET /api/notes", 1000, 0, 100, 50));
+        LoadReport current = report(0,
+                endpoint("GET /api/tasks", 1000, 0, 100, 50),
+                endpoint("GET /api/events", 1000, 0, 100, 50));
+
+        assertThat(gate.check(current, baseline))
+                .containsExactly("GET /api/notes: está en la línea base y no en esta ejecución");
+    }
+
+    @Test
+    void check_ShouldCompareRequestThroughputWithoutCountingScenarios() {
+        LoadReport baseline = report(0,
+                endpoint("GET /api/tasks", 1000, 0, 60, 50),
+                endpoint("GET /api/notes", 1000, 0, 40, 50),
+                endpoint("scenario:list", 1000, 0, 50, 90));
+
+        // 91 frente a 100 peticiones/s: dentro del 10%, aunque las sesiones caigan a la mitad
+        LoadReport within = report(0,
+                endpoint("GET /api/tasks", 1000, 0, 55, 50),
+                endpoint("GET /api/notes", 1000, 0, 36, 50),
+                endpoint("scenario:list", 1000, 0, 25, 90));
+        assertThat(gate.check(within, baseline)).isEmpty();
+
+        LoadReport dropped = report(0,
+                endpoint("GET /api/tasks", 1000, 0, 50, 50),
+                endpoint("GET /api/notes", 1000, 0, 35, 50),
+                endpoint("scenario:list", 1000, 0, 50, 90));
+        assertThat(gate.check(dropped, baseline))
+                .containsExactly("Throughput 85.0 peticiones/s frente a 100.0 (-15%, máximo -10%)");
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private static LoadReport report(long dropped, ObjectNode... endpoints) {
+        ObjectNode root = MAPPER.createObjectNode()
+                .put("sessionsPerSecond", 20.0)
+                .put("sessionsScheduled", 100)
+                .put("sessionsDropped", dropped);
+        ArrayNode list = root.putArray("endpoints");
+        for (ObjectNode endpoint : endpoints) {
+            list.add(endpoint);
+        }
+        return LoadReport.fromJson(root);
+    }
+
+    private static ObjectNode endpoint(String name, long requests, long errors, double throughput, double p99Ms) {
+        return MAPPER.createObjectNode()
+                .put("endpoint", name)
+                .put("requests", requests)
+                .put("errors", errors)
+                .put("throughput", throughput)
+                .put("p99Ms", p99Ms);
+    }
+}
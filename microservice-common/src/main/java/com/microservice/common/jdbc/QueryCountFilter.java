@@ -0,0 +1,87 @@
+package com.microservice.common.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.web.filter.OncePerRequestFilter;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.io.IOException;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Cuenta las sentencias JDBC de cada petición HTTP.
+ *
+ * Publica el resumen http.server.requests.statements por método y patrón de URI, que permite ver qué
+ * endpoints hacen más viajes a la base de datos. Si un mismo SELECT se repite threshold veces o más
+ * en una petición (lo típico de un N+1: una relación LAZY tocada dentro de un bucle o de un
+ * assembler) suma jdbc.n_plus_one y avisa en el log una vez por endpoint y sentencia.
+ */
+public class QueryCountFilter extends OncePerRequestFilter {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryCountFilter.class);
+
+    static final String STATEMENTS_METRIC = "http.server.requests.statements";
+    static final String N_PLUS_ONE_METRIC = "jdbc.n_plus_one";
+    private static final String UNKNOWN_URI = "UNKNOWN";
+    // Tope de avisos distintos en el log; las métricas se siguen sumando
+    private static final int MAX_WARNINGS = 500;
+
+    private final MeterRegistry meterRegistry;
+    private final int nPlusOneThreshold;
+    private final Set<String> warned = ConcurrentHashMap.newKeySet();
+
+    public QueryCountFilter(MeterRegistry meterRegistry, int nPlusOneThreshold) {
+        this.meterRegistry = meterRegistry;
+        this.nPlusOneThreshold = nPlusOneThreshold;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request, HttpServletResponse response, FilterChain chain)
+            throws ServletException, IOException {
+        try (QueryScope scope = QueryScope.open(request.getMethod() + " " + request.getRequestURI())) {
+            chain.doFilter(request, response);
+            record(request, scope);
+        }
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private void record(HttpServletRequest request, QueryScope scope) {
+        // El patrón (/api/tasks/{taskId}) solo existe cuando la petición llegó a un controlador
+        Object pattern = request.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE);
+        String uri = pattern == null ? UNKNOWN_URI : pattern.toString();
+        DistributionSummary.builder(STATEMENTS_METRIC)
+                .description("Sentencias JDBC ejecutadas por petición")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .record(scope.statements());
+
+        Map<String, Integer> repeated = scope.repeatedSelects(nPlusOneThreshold);
+        if (repeated.isEmpty()) {
+            return;
+        }
+        Counter.builder(N_PLUS_ONE_METRIC)
+                .description("Peticiones en las que un mismo SELECT se repite (posible N+1)")
+                .tag("method", request.getMethod())
+                .tag("uri", uri)
+                .register(meterRegistry)
+                .increment();
+        repeated.forEach((sql, count) -> {
+            String key = request.getMethod() + " " + uri + " " + sql;
+            if (warned.size() < MAX_WARNINGS && warned.add(key)) {
+                log.warn("Posible N+1 en {} {}: la misma consulta {} veces de {} sentencias (se avisa una vez): {}",
+                        request.getMethod(), uri, count, scope.statements(), sql);
+            }
+        });
+    }
+}
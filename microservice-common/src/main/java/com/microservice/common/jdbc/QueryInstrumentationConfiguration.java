@@ -0,0 +1,101 @@
+package com.microservice.common.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSource;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnWebApplication;
+import org.springframework.boot.web.servlet.FilterRegistrationBean;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.Ordered;
+import org.springframework.data.repository.core.support.RepositoryFactoryBeanSupport;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+
+import javax.sql.DataSource;
+
+/**
+ * Instrumentación de las consultas de un servicio JPA, en lugar de spring.jpa.show-sql:
+ * <ul>
+ *   <li>envuelve el DataSource con datasource-proxy y mide cada sentencia ({@link QueryMetricsListener});</li>
+ *   <li>anota en cada sentencia el método de repositorio que la lanzó ({@link RepositoryMethodInterceptor});</li>
+ *   <li>cuenta las sentencias por petición y detecta N+1 ({@link QueryCountFilter});</li>
+ *   <li>guarda las consultas lentas para /actuator/slowqueries ({@link SlowQueryEndpoint}).</li>
+ * </ul>
+ * La importa el DatabaseConfig de cada servicio. Se desactiva con jdbc.instrumentation.enabled=false.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnProperty(prefix = "jdbc.instrumentation", name = "enabled", matchIfMissing = true)
+public class QueryInstrumentationConfiguration {
+
+    @Bean
+    public SlowQueryLog slowQueryLog(@Value("${jdbc.instrumentation.slow-query-ms:200}") long thresholdMs,
+                                     @Value("${jdbc.instrumentation.slow-query-capacity:100}") int capacity) {
+        return new SlowQueryLog(thresholdMs, capacity);
+    }
+
+    @Bean
+    public QueryMetricsListener queryMetricsListener(SlowQueryLog slowQueryLog) {
+        return new QueryMetricsListener(slowQueryLog);
+    }
+
+    // static: los BeanPostProcessor se crean antes que el resto de beans de la configuración
+    @Bean
+    public static BeanPostProcessor queryInstrumentationPostProcessor(ObjectProvider<QueryMetricsListener> listener) {
+        return new BeanPostProcessor() {
+            @Override
+            public Object postProcessBeforeInitialization(Object bean, String beanName) {
+                if (bean instanceof RepositoryFactoryBeanSupport<?, ?, ?> repositoryFactory) {
+                    repositoryFactory.addRepositoryFactoryCustomizer(factory -> factory.addRepositoryProxyPostProcessor(
+                            (proxyFactory, information) -> proxyFactory.addAdvice(
+                                    new RepositoryMethodInterceptor(information.getRepositoryInterface()))));
+                }
+                return bean;
+            }
+
+            @Override
+            public Object postProcessAfterInitialization(Object bean, String beanName) {
+                if (bean instanceof DataSource dataSource && isConnectionSource(dataSource)) {
+                    return ProxyDataSourceBuilder.create(beanName, dataSource)
+                            .listener(listener.getObject())
+                            .build();
+                }
+                return bean;
+            }
+        };
+    }
+
+    /**
+     * Solo se envuelven los DataSource que abren conexiones: los que delegan en otros (el enrutado de
+     * {@link ReadWriteRoutingConfiguration} y su proxy perezoso) contarían cada sentencia dos veces.
+     */
+    static boolean isConnectionSource(DataSource dataSource) {
+        return !(dataSource instanceof ProxyDataSource)
+                && !(dataSource instanceof DelegatingDataSource)
+                && !(dataSource instanceof AbstractRoutingDataSource);
+    }
+
+    @Bean
+    public SlowQueryEndpoint slowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        return new SlowQueryEndpoint(slowQueryLog);
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnWebApplication(type = ConditionalOnWebApplication.Type.SERVLET)
+    static class RequestStatements {
+
+        @Bean
+        public FilterRegistrationBean<QueryCountFilter> queryCountFilter(MeterRegistry meterRegistry,
+                @Value("${jdbc.instrumentation.n-plus-one-threshold:5}") int nPlusOneThreshold) {
+            FilterRegistrationBean<QueryCountFilter> registration =
+                    new FilterRegistrationBean<>(new QueryCountFilter(meterRegistry, nPlusOneThreshold));
+            // Antes que la seguridad, para contar también las consultas de autenticación
+            registration.setOrder(Ordered.HIGHEST_PRECEDENCE + 20);
+            return registration;
+        }
+    }
+}
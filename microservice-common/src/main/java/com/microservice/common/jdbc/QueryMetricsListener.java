@@ -0,0 +1,116 @@
+package com.microservice.common.jdbc;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import net.ttddyy.dsproxy.ExecutionInfo;
+import net.ttddyy.dsproxy.QueryInfo;
+import net.ttddyy.dsproxy.listener.QueryExecutionListener;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Escucha cada sentencia que pasa por el DataSource instrumentado y:
+ * <ul>
+ *   <li>la mide en el timer jdbc.statements, con el tipo de sentencia (select, insert, update,
+ *       delete, other), el método de repositorio que la lanzó, el resultado y el DataSource (el bean
+ *       dataSource o, con réplica, primaryDataSource y replicaDataSource);</li>
+ *   <li>la cuenta en el {@link QueryScope} abierto (petición HTTP o test);</li>
+ *   <li>si pasa del umbral, la guarda en el {@link SlowQueryLog} y avisa en el log.</li>
+ * </ul>
+ * El DataSource se envuelve antes de que exista el MeterRegistry, así que los timers empiezan a
+ * registrarse cuando Spring Boot lo enlaza como {@link MeterBinder}; las sentencias anteriores (las
+ * del arranque de Hibernate) se cuentan pero no se miden.
+ */
+public class QueryMetricsListener implements QueryExecutionListener, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(QueryMetricsListener.class);
+
+    static final String METRIC = "jdbc.statements";
+    static final String NO_REPOSITORY = "none";
+    private static final String START = QueryMetricsListener.class.getName() + ".start";
+
+    private final SlowQueryLog slowQueryLog;
+    private final Map<String, Timer> timers = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+
+    public QueryMetricsListener(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        registry = meterRegistry;
+    }
+
+    @Override
+    public void beforeQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        execInfo.addCustomValue(START, System.nanoTime());
+    }
+
+    @Override
+    public void afterQuery(ExecutionInfo execInfo, List<QueryInfo> queryInfoList) {
+        Long start = execInfo.getCustomValue(START, Long.class);
+        long elapsedNanos = start == null ? TimeUnit.MILLISECONDS.toNanos(execInfo.getElapsedTime())
+                : System.nanoTime() - start;
+        String repositoryMethod = QueryScope.currentRepositoryMethod();
+
+        for (QueryInfo query : queryInfoList) {
+            QueryScope.record(query.getQuery());
+        }
+        String sql = queryInfoList.isEmpty() ? "" : queryInfoList.get(0).getQuery();
+        Timer timer = timer(execInfo.getDataSourceName(), statementType(sql), repositoryMethod, execInfo.isSuccess());
+        if (timer != null) {
+            timer.record(elapsedNanos, TimeUnit.NANOSECONDS);
+        }
+
+        long elapsedMillis = TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+        if (slowQueryLog.isSlow(elapsedMillis)) {
+            String request = QueryScope.outermostLabel();
+            slowQueryLog.add(new SlowQueryLog.Entry(Instant.now(), elapsedMillis, sql,
+                    execInfo.isBatch() ? execInfo.getBatchSize() : 0, repositoryMethod, request, execInfo.isSuccess()));
+            log.warn("Consulta lenta ({} ms, repositorio {}, petición {}): {}", elapsedMillis,
+                    repositoryMethod == null ? NO_REPOSITORY : repositoryMethod, request, sql);
+        }
+    }
+
+    /** Tipo de sentencia por su primera palabra; las consultas con CTE (WITH ...) cuentan como select. */
+    static String statementType(String sql) {
+        String trimmed = sql.stripLeading();
+        int end = 0;
+        while (end < trimmed.length() && Character.isLetter(trimmed.charAt(end))) {
+            end++;
+        }
+        String keyword = trimmed.substring(0, end).toLowerCase(Locale.ROOT);
+        return switch (keyword) {
+            case "select", "with" -> "select";
+            case "insert", "update", "delete" -> keyword;
+            default -> "other";
+        };
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private Timer timer(String dataSource, String type, String repositoryMethod, boolean success) {
+        MeterRegistry current = registry;
+        if (current == null) {
+            return null;
+        }
+        String repository = repositoryMethod == null ? NO_REPOSITORY : repositoryMethod;
+        String outcome = success ? "success" : "error";
+        return timers.computeIfAbsent(dataSource + '|' + type + '|' + repository + '|' + outcome, key -> Timer.builder(METRIC)
+                .description("Tiempo de ejecución de cada sentencia JDBC")
+                .tag("datasource", dataSource == null ? "" : dataSource)
+                .tag("type", type)
+                .tag("repository", repository)
+                .tag("outcome", outcome)
+                .register(current));
+    }
+}
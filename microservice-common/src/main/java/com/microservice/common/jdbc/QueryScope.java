@@ -0,0 +1,145 @@
+package com.microservice.common.jdbc;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Ámbito en el que se cuentan las sentencias JDBC del hilo actual: una petición HTTP
+ * ({@link QueryCountFilter}), una llamada a un servicio en un test (StatementCountAssertions, en el test-jar)
+ * o cualquier bloque que lo abra con try-with-resources.
+ *
+ * Los ámbitos se anidan: cada sentencia cuenta en el ámbito abierto y en todos sus padres. Como el
+ * ámbito vive en el hilo, solo ve las sentencias que se ejecutan en ese mismo hilo (no las de tareas
+ * {@code @Async} ni las de otros hilos del pool).
+ */
+public final class QueryScope implements AutoCloseable {
+
+    private static final ThreadLocal<QueryScope> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<String> REPOSITORY_METHOD = new ThreadLocal<>();
+
+    // Suficiente para un mensaje de error legible; el recuento sigue aunque no se guarde el texto
+    static final int MAX_KEPT_STATEMENTS = 200;
+
+    private final String label;
+    private final QueryScope parent;
+    private final List<String> executed = new ArrayList<>();
+    private final Map<String, Integer> selects = new LinkedHashMap<>();
+    private int statements;
+    private boolean closed;
+
+    private QueryScope(String label, QueryScope parent) {
+        this.label = label;
+        this.parent = parent;
+    }
+
+    public static QueryScope open() {
+        return open(null);
+    }
+
+    public static QueryScope open(String label) {
+        QueryScope scope = new QueryScope(label, CURRENT.get());
+        CURRENT.set(scope);
+        return scope;
+    }
+
+    /** Ámbito abierto en este hilo, o null si no hay ninguno. */
+    public static QueryScope current() {
+        return CURRENT.get();
+    }
+
+    /** Etiqueta del ámbito abierto más externo que la tenga (la petición HTTP), o null. */
+    static String outermostLabel() {
+        String label = null;
+        for (QueryScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            if (scope.label != null) {
+                label = scope.label;
+            }
+        }
+        return label;
+    }
+
+    /** Método de repositorio (Interfaz.método) que se está ejecutando en este hilo, o null. */
+    public static String currentRepositoryMethod() {
+        return REPOSITORY_METHOD.get();
+    }
+
+    /** Marca el método de repositorio en curso y devuelve el anterior, para restaurarlo con {@link #exitRepositoryMethod}. */
+    static String enterRepositoryMethod(String method) {
+        String previous = REPOSITORY_METHOD.get();
+        REPOSITORY_METHOD.set(method);
+        return previous;
+    }
+
+    static void exitRepositoryMethod(String previous) {
+        if (previous == null) {
+            REPOSITORY_METHOD.remove();
+        } else {
+            REPOSITORY_METHOD.set(previous);
+        }
+    }
+
+    /** Anota una sentencia en el ámbito abierto y en sus padres. Sin ámbito abierto no hace nada. */
+    static void record(String sql) {
+        for (QueryScope scope = CURRENT.get(); scope != null; scope = scope.parent) {
+            scope.add(sql);
+        }
+    }
+
+    public String label() {
+        return label;
+    }
+
+    public int statements() {
+        return statements;
+    }
+
+    /** Texto de las sentencias ejecutadas, en orden (solo las primeras {@value #MAX_KEPT_STATEMENTS}). */
+    public List<String> executed() {
+        return Collections.unmodifiableList(executed);
+    }
+
+    /**
+     * SELECT idénticos (mismo texto, con parámetros distintos) repetidos al menos threshold veces: la
+     * huella de un N+1, una consulta por cada elemento de una lista o por cada relación LAZY tocada.
+     */
+    public Map<String, Integer> repeatedSelects(int threshold) {
+        Map<String, Integer> repeated = new LinkedHashMap<>();
+        selects.forEach((sql, count) -> {
+            if (count >= threshold) {
+                repeated.put(sql, count);
+            }
+        });
+        return repeated;
+    }
+
+    @Override
+    public void close() {
+        if (closed) {
+            return;
+        }
+        closed = true;
+        if (CURRENT.get() != this) {
+            throw new IllegalStateException("Los ámbitos de consultas se deben cerrar en orden inverso al de apertura");
+        }
+        if (parent == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(parent);
+        }
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private void add(String sql) {
+        statements++;
+        if (executed.size() < MAX_KEPT_STATEMENTS) {
+            executed.add(sql);
+        }
+        if ("select".equals(QueryMetricsListener.statementType(sql))) {
+            selects.merge(sql, 1, Integer::sum);
+        }
+    }
+}
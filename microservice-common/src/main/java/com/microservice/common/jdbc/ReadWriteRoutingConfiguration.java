@@ -0,0 +1,102 @@
+package com.microservice.common.jdbc;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnExpression;
+import org.springframework.boot.autoconfigure.jdbc.DataSourceProperties;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.boot.jdbc.DataSourceBuilder;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+import org.springframework.core.env.Environment;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+
+/**
+ * Réplica de lectura: se activa al dar spring.datasource.replica.url y sustituye al DataSource de
+ * Spring Boot por tres beans:
+ * <ul>
+ *   <li>primaryDataSource: el pool de siempre (spring.datasource.* y spring.datasource.hikari.*);</li>
+ *   <li>replicaDataSource: el pool de la réplica (spring.datasource.replica.url, .username, .password y
+ *       spring.datasource.replica.hikari.*). Usuario y contraseña son los del primario si no se dan;</li>
+ *   <li>dataSource (primario para JPA): {@link ReadWriteRoutingDataSource} detrás de un
+ *       LazyConnectionDataSourceProxy.</li>
+ * </ul>
+ * Los dos pools son beans Hikari, así que actuator publica hikaricp.connections.* de cada uno (etiqueta
+ * pool) y {@link QueryInstrumentationConfiguration} mide sus sentencias por separado.
+ *
+ * Leer lo propio escrito entre peticiones se basa en el retraso medido de la réplica
+ * ({@link ReplicaLagMonitor}, un latido cada jdbc.routing.heartbeat-ms): las lecturas de un usuario van
+ * al primario hasta que la réplica tiene su última escritura, anotada en la instancia que la hizo y
+ * devuelta al cliente como X-Last-Write. Con varias instancias, el cliente debe reenviar esa cabecera;
+ * jdbc.routing.clock-skew-ms cubre la diferencia de reloj entre ellas. Si la réplica va más de
+ * jdbc.routing.max-lag-ms por detrás, todas las lecturas van al primario.
+ *
+ * Para probarlo en local basta con dos bases H2 (o dos MySQL), por ejemplo
+ * spring.datasource.url=jdbc:h2:mem:primary y spring.datasource.replica.url=jdbc:h2:mem:replica.
+ */
+@Configuration(proxyBeanMethods = false)
+@ConditionalOnExpression("!'${spring.datasource.replica.url:}'.isBlank()")
+public class ReadWriteRoutingConfiguration {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(DataSourceProperties properties) {
+        HikariDataSource dataSource = properties.initializeDataSourceBuilder().type(HikariDataSource.class).build();
+        dataSource.setPoolName("primary");
+        return dataSource;
+    }
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.replica.hikari")
+    public HikariDataSource replicaDataSource(DataSourceProperties primary, Environment environment) {
+        HikariDataSource dataSource = DataSourceBuilder.create()
+                .type(HikariDataSource.class)
+                .url(environment.getRequiredProperty("spring.datasource.replica.url"))
+                .username(environment.getProperty("spring.datasource.replica.username", primary.determineUsername()))
+                .password(environment.getProperty("spring.datasource.replica.password", primary.determinePassword()))
+                .build();
+        dataSource.setPoolName("replica");
+        dataSource.setReadOnly(true);
+        // Una réplica caída no debe impedir el arranque: se cae al primario (ver ReadWriteRoutingDataSource)
+        dataSource.setInitializationFailTimeout(-1);
+        return dataSource;
+    }
+
+    @Bean
+    public ReplicaLagMonitor replicaLagMonitor(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            @Value("${jdbc.routing.heartbeat-ms:1000}") long heartbeatMs,
+            @Value("${jdbc.routing.max-lag-ms:30000}") long maxLagMs,
+            @Value("${jdbc.routing.clock-skew-ms:500}") long clockSkewMs) {
+        return new ReplicaLagMonitor(primary, replica, Duration.ofMillis(heartbeatMs), Duration.ofMillis(maxLagMs),
+                Duration.ofMillis(clockSkewMs));
+    }
+
+    @Bean
+    public RecentWriteTracker recentWriteTracker(ReplicaLagMonitor replicaLagMonitor) {
+        return new RecentWriteTracker(replicaLagMonitor.getMaxLag());
+    }
+
+    @Bean
+    public ReadWriteRoutingDataSource readWriteRoutingDataSource(
+            @Qualifier("primaryDataSource") DataSource primary,
+            @Qualifier("replicaDataSource") DataSource replica,
+            RecentWriteTracker recentWriteTracker,
+            ReplicaLagMonitor replicaLagMonitor,
+            @Value("${jdbc.routing.replica-retry-ms:30000}") long replicaRetryMs) {
+        return new ReadWriteRoutingDataSource(primary, replica, recentWriteTracker, replicaLagMonitor,
+                Duration.ofMillis(replicaRetryMs));
+    }
+
+    @Bean
+    @Primary
+    public DataSource dataSource(ReadWriteRoutingDataSource readWriteRoutingDataSource) {
+        return new LazyConnectionDataSourceProxy(readWriteRoutingDataSource);
+    }
+}
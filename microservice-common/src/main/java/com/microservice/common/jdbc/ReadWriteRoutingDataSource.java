@@ -0,0 +1,190 @@
+package com.microservice.common.jdbc;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.datasource.lookup.AbstractRoutingDataSource;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.time.Duration;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Reparte las conexiones entre el primario y una réplica de lectura.
+ *
+ * Van a la réplica las transacciones de solo lectura ({@code @Transactional(readOnly = true)}), salvo
+ * que la réplica aún no tenga la última escritura del usuario de la petición o que la propia petición ya
+ * haya escrito. Todo lo demás va al primario: las transacciones de escritura y el código sin
+ * {@code @Transactional} (arranque de Hibernate, health check).
+ *
+ * La última escritura del usuario es la más reciente entre la anotada en esta instancia
+ * ({@link RecentWriteTracker}) y el token X-Last-Write que el cliente devuelve tras cada escritura
+ * (ver RequestUser), y se compara con lo que {@link ReplicaLagMonitor} ha visto llegar a la réplica.
+ * Un cliente que no devuelve el token solo tiene esa garantía en la instancia que atendió su escritura.
+ *
+ * Si la réplica va más atrasada que maxLag, o no da conexión (durante replicaRetry), las lecturas van
+ * al primario.
+ *
+ * La decisión se toma al pedir la conexión, así que el DataSource que ve JPA debe ser un
+ * LazyConnectionDataSourceProxy encima de este: JpaTransactionManager abre la conexión antes de marcar
+ * la transacción como de solo lectura, y el proxy la retrasa hasta la primera sentencia.
+ *
+ * Publica jdbc.routing.connections por pool y motivo.
+ */
+public class ReadWriteRoutingDataSource extends AbstractRoutingDataSource implements MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReadWriteRoutingDataSource.class);
+
+    static final String METRIC = "jdbc.routing.connections";
+    // Atributo de la petición que indica que ya escribió (sus lecturas siguientes van al primario)
+    static final String REQUEST_WROTE = ReadWriteRoutingDataSource.class.getName() + ".wrote";
+
+    public enum Pool { PRIMARY, REPLICA }
+
+    /** Por qué una conexión fue a un pool u otro (etiqueta reason de la métrica). */
+    enum Reason {
+        READ_WRITE(Pool.PRIMARY, "read-write"),
+        NO_TRANSACTION(Pool.PRIMARY, "no-transaction"),
+        RECENT_WRITE(Pool.PRIMARY, "recent-write"),
+        REPLICA_LAG(Pool.PRIMARY, "replica-lag"),
+        REPLICA_DOWN(Pool.PRIMARY, "replica-down"),
+        FALLBACK(Pool.PRIMARY, "fallback"),
+        READ_ONLY(Pool.REPLICA, "read-only");
+
+        private final Pool pool;
+        private final String tag;
+
+        Reason(Pool pool, String tag) {
+            this.pool = pool;
+            this.tag = tag;
+        }
+    }
+
+    private final DataSource primary;
+    private final DataSource replica;
+    private final RecentWriteTracker recentWrites;
+    private final ReplicaLagMonitor lagMonitor;
+    private final long replicaRetryNanos;
+    private final Map<Reason, Counter> counters = new ConcurrentHashMap<>();
+    private volatile MeterRegistry registry;
+    private volatile long replicaDownUntil;
+    private volatile boolean replicaDown;
+
+    public ReadWriteRoutingDataSource(DataSource primary, DataSource replica, RecentWriteTracker recentWrites,
+                                      ReplicaLagMonitor lagMonitor, Duration replicaRetry) {
+        this.primary = primary;
+        this.replica = replica;
+        this.recentWrites = recentWrites;
+        this.lagMonitor = lagMonitor;
+        this.replicaRetryNanos = replicaRetry.toNanos();
+        setTargetDataSources(Map.of(Pool.PRIMARY, primary, Pool.REPLICA, replica));
+        setDefaultTargetDataSource(primary);
+        afterPropertiesSet();
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        registry = meterRegistry;
+    }
+
+    @Override
+    public Connection getConnection() throws SQLException {
+        Reason reason = route();
+        if (reason == Reason.READ_WRITE) {
+            rememberWriteOnCommit();
+        }
+        if (reason.pool == Pool.REPLICA) {
+            try {
+                Connection connection = replica.getConnection();
+                count(reason);
+                return connection;
+            } catch (SQLException e) {
+                replicaDownUntil = System.nanoTime() + replicaRetryNanos;
+                replicaDown = true;
+                log.warn("La réplica no da conexión ({}); las lecturas van al primario durante {} s",
+                        e.getMessage(), Duration.ofNanos(replicaRetryNanos).toSeconds());
+                reason = Reason.FALLBACK;
+            }
+        }
+        Connection connection = primary.getConnection();
+        count(reason);
+        return connection;
+    }
+
+    @Override
+    public Connection getConnection(String username, String password) throws SQLException {
+        // Con credenciales explícitas no se enruta: solo las usan herramientas de administración
+        return primary.getConnection(username, password);
+    }
+
+    @Override
+    protected Object determineCurrentLookupKey() {
+        return route().pool;
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private Reason route() {
+        // readOnly también cuenta sin transacción real (propagation = SUPPORTS): solo hay lecturas
+        if (!TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return TransactionSynchronizationManager.isActualTransactionActive()
+                    ? Reason.READ_WRITE : Reason.NO_TRANSACTION;
+        }
+        if (RequestUser.hasWritten(REQUEST_WROTE)) {
+            return Reason.RECENT_WRITE;
+        }
+        if (lagMonitor.isLagging()) {
+            return Reason.REPLICA_LAG;
+        }
+        long lastWrite = Math.max(recentWrites.lastWrite(RequestUser.current()), RequestUser.lastWriteToken());
+        if (lastWrite > 0 && !lagMonitor.hasReplicated(lastWrite)) {
+            return Reason.RECENT_WRITE;
+        }
+        if (replicaDown) {
+            if (System.nanoTime() - replicaDownUntil < 0) {
+                return Reason.REPLICA_DOWN;
+            }
+            replicaDown = false;
+        }
+        return Reason.READ_ONLY;
+    }
+
+    /**
+     * Al confirmar la transacción de escritura se anota su hora para el usuario de la petición y se
+     * devuelve al cliente como X-Last-Write. El usuario se lee ahora, en el hilo de la petición.
+     */
+    private void rememberWriteOnCommit() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            return;
+        }
+        String userId = RequestUser.current();
+        TransactionSynchronizationManager.registerSynchronization(new TransactionSynchronization() {
+            @Override
+            public void afterCommit() {
+                long writtenAt = lagMonitor.now();
+                recentWrites.recordWrite(userId, writtenAt);
+                RequestUser.markWritten(REQUEST_WROTE);
+                RequestUser.sendLastWrite(writtenAt);
+            }
+        });
+    }
+
+    private void count(Reason reason) {
+        MeterRegistry current = registry;
+        if (current != null) {
+            counters.computeIfAbsent(reason, key -> Counter.builder(METRIC)
+                    .description("Conexiones entregadas por el DataSource enrutado, por pool y motivo")
+                    .tag("pool", reason.pool.name().toLowerCase(Locale.ROOT))
+                    .tag("reason", reason.tag)
+                    .register(current)).increment();
+        }
+    }
+}
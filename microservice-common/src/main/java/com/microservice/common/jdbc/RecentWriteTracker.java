@@ -0,0 +1,60 @@
+package com.microservice.common.jdbc;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.LongSupplier;
+
+/**
+ * Hora de la última escritura confirmada de cada usuario en esta instancia. Con ella (y con el token
+ * X-Last-Write que el cliente devuelve, que cubre las escrituras hechas en otras instancias) se decide
+ * si sus lecturas pueden ir ya a la réplica: solo cuando {@link ReplicaLagMonitor} ha visto en la
+ * réplica un latido posterior (leer lo propio escrito, read-your-writes).
+ *
+ * Una escritura más antigua que la retención (el retraso máximo admitido de la réplica) ya no decide
+ * nada: o la réplica la tiene o va tan atrasada que todas las lecturas van al primario. Esas entradas
+ * se borran de vez en cuando al anotar escrituras, así que el mapa no crece con usuarios inactivos.
+ */
+public class RecentWriteTracker {
+
+    // Cada cuántas escrituras (más o menos: el contador no es atómico) se borran las entradas caducadas
+    private static final int PURGE_EVERY = 1024;
+
+    private final long retentionMillis;
+    private final LongSupplier clock;
+    private final Map<String, Long> lastWrites = new ConcurrentHashMap<>();
+    private int writesSincePurge;
+
+    public RecentWriteTracker(Duration retention) {
+        this(retention, System::currentTimeMillis);
+    }
+
+    RecentWriteTracker(Duration retention, LongSupplier clock) {
+        this.retentionMillis = retention.toMillis();
+        this.clock = clock;
+    }
+
+    public void recordWrite(String userId, long writtenAt) {
+        if (userId == null) {
+            return;
+        }
+        lastWrites.merge(userId, writtenAt, Math::max);
+        if (++writesSincePurge >= PURGE_EVERY) {
+            writesSincePurge = 0;
+            long oldest = clock.getAsLong() - retentionMillis;
+            lastWrites.values().removeIf(at -> at < oldest);
+        }
+    }
+
+    /** Hora de la última escritura del usuario en esta instancia; 0 si no la hay. */
+    public long lastWrite(String userId) {
+        if (userId == null) {
+            return 0;
+        }
+        return lastWrites.getOrDefault(userId, 0L);
+    }
+
+    int size() {
+        return lastWrites.size();
+    }
+}
@@ -0,0 +1,175 @@
+package com.microservice.common.jdbc;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+import org.springframework.dao.DataAccessException;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.LongSupplier;
+
+/**
+ * Mide hasta dónde ha llegado la réplica con un latido: cada heartbeat escribe en el primario la hora
+ * de esta instancia (fila propia de {@link #TABLE}) y lee de la réplica el último latido que le ha
+ * llegado. Todo lo confirmado en el primario antes de ese latido ya está en la réplica, así que una
+ * escritura hecha en la hora t es visible en ella cuando {@link #hasReplicated(long)} dice que sí.
+ *
+ * Cada instancia escribe y compara con su propio reloj; para horas de otras instancias (el token
+ * X-Last-Write) se añade el margen clockSkew. La precisión es la del intervalo del latido: tras
+ * escribir, un usuario lee del primario entre uno y dos latidos más el retraso real de la réplica.
+ *
+ * Si la réplica lleva más de maxLag sin recibir latidos (o aún no ha recibido ninguno) se considera
+ * rezagada y todas las lecturas van al primario. Publica jdbc.routing.replica.lag: la antigüedad del
+ * último latido visible en la réplica, cota superior de su retraso.
+ *
+ * La tabla se crea en el primario al arrancar si no existe; el usuario de la base necesita permiso
+ * para ello o hay que crearla antes (instance_id VARCHAR(36) PRIMARY KEY, beat_at BIGINT NOT NULL).
+ */
+public class ReplicaLagMonitor implements SmartLifecycle, MeterBinder {
+
+    private static final Logger log = LoggerFactory.getLogger(ReplicaLagMonitor.class);
+
+    static final String TABLE = "replication_heartbeat";
+    static final String METRIC = "jdbc.routing.replica.lag";
+
+    private final JdbcTemplate primary;
+    private final JdbcTemplate replica;
+    private final Duration interval;
+    private final long maxLagMillis;
+    private final long clockSkewMillis;
+    private final LongSupplier clock;
+    private final String instanceId = UUID.randomUUID().toString();
+    // Hora (de esta instancia) del último latido visto en la réplica; sin latidos, la réplica va rezagada
+    private volatile long caughtUpTo = Long.MIN_VALUE;
+    private volatile boolean failing;
+    private volatile ScheduledExecutorService executor;
+
+    public ReplicaLagMonitor(DataSource primary, DataSource replica, Duration interval, Duration maxLag,
+                             Duration clockSkew) {
+        this(primary, replica, interval, maxLag, clockSkew, System::currentTimeMillis);
+    }
+
+    ReplicaLagMonitor(DataSource primary, DataSource replica, Duration interval, Duration maxLag,
+                      Duration clockSkew, LongSupplier clock) {
+        this.primary = new JdbcTemplate(primary);
+        this.replica = new JdbcTemplate(replica);
+        this.interval = interval;
+        this.maxLagMillis = maxLag.toMillis();
+        this.clockSkewMillis = clockSkew.toMillis();
+        this.clock = clock;
+    }
+
+    /** Hora actual en milisegundos, la misma que se usa para anotar escrituras y latidos. */
+    public long now() {
+        return clock.getAsLong();
+    }
+
+    /**
+     * Si lo escrito en la hora writtenAt (de cualquier instancia) ya ha llegado a la réplica.
+     */
+    public boolean hasReplicated(long writtenAt) {
+        long seen = caughtUpTo;
+        return seen != Long.MIN_VALUE && writtenAt + clockSkewMillis <= seen;
+    }
+
+    /** La réplica va más de maxLag por detrás (o no se sabe): ninguna lectura debe ir a ella. */
+    public boolean isLagging() {
+        long seen = caughtUpTo;
+        return seen == Long.MIN_VALUE || now() - seen > maxLagMillis;
+    }
+
+    public Duration getMaxLag() {
+        return Duration.ofMillis(maxLagMillis);
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        Gauge.builder(METRIC, this, monitor -> monitor.caughtUpTo == Long.MIN_VALUE
+                        ? Double.NaN : monitor.now() - monitor.caughtUpTo)
+                .description("Antigüedad del último latido visible en la réplica (cota superior de su retraso)")
+                .baseUnit("milliseconds")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public void start() {
+        createTable();
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(runnable -> {
+            Thread thread = new Thread(runnable, "replica-heartbeat");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::beat, 0, interval.toMillis(), TimeUnit.MILLISECONDS);
+        executor = scheduler;
+        log.info("Midiendo el retraso de la réplica con un latido cada {} ms", interval.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        ScheduledExecutorService scheduler = executor;
+        executor = null;
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+            try {
+                primary.update("DELETE FROM " + TABLE + " WHERE instance_id = ?", instanceId);
+            } catch (DataAccessException e) {
+                log.debug("No se pudo borrar el latido de esta instancia: {}", e.getMessage());
+            }
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return executor != null;
+    }
+
+    /**
+     * Un latido: primero lee de la réplica el último que le ha llegado y luego escribe el nuevo en el
+     * primario (al revés, casi nunca encontraría el que acaba de escribir).
+     */
+    void beat() {
+        try {
+            List<Long> seen = replica.queryForList(
+                    "SELECT beat_at FROM " + TABLE + " WHERE instance_id = ?", Long.class, instanceId);
+            if (!seen.isEmpty() && (caughtUpTo == Long.MIN_VALUE || seen.get(0) > caughtUpTo)) {
+                caughtUpTo = seen.get(0);
+            }
+            long now = now();
+            if (primary.update("UPDATE " + TABLE + " SET beat_at = ? WHERE instance_id = ?", now, instanceId) == 0) {
+                primary.update("INSERT INTO " + TABLE + " (instance_id, beat_at) VALUES (?, ?)", instanceId, now);
+            }
+            if (failing) {
+                failing = false;
+                log.info("Latido de la réplica recuperado");
+            }
+        } catch (DataAccessException e) {
+            // Sin latidos la réplica acaba rezagada y las lecturas van al primario
+            if (!failing) {
+                failing = true;
+                log.warn("No se pudo medir el retraso de la réplica: {}", e.getMessage());
+            }
+        }
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private void createTable() {
+        try {
+            primary.execute("CREATE TABLE IF NOT EXISTS " + TABLE +
+                    " (instance_id VARCHAR(36) PRIMARY KEY, beat_at BIGINT NOT NULL)");
+        } catch (DataAccessException e) {
+            log.warn("No se pudo crear la tabla {} ({}): sin ella las lecturas no irán a la réplica",
+                    TABLE, e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package com.microservice.common.jdbc;
+
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+
+import java.lang.reflect.Method;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Marca en el hilo qué método de repositorio se está ejecutando, para que {@link QueryMetricsListener}
+ * etiquete cada sentencia con él (TaskRepository.findByUserId). Se añade al proxy de cada repositorio
+ * de Spring Data desde {@link QueryInstrumentationConfiguration}.
+ */
+class RepositoryMethodInterceptor implements MethodInterceptor {
+
+    private final String repositoryName;
+    private final Map<Method, String> names = new ConcurrentHashMap<>();
+
+    RepositoryMethodInterceptor(Class<?> repositoryInterface) {
+        this.repositoryName = repositoryInterface.getSimpleName();
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        // Si un método default del repositorio llama a otro, la sentencia se atribuye al más externo
+        if (QueryScope.currentRepositoryMethod() != null) {
+            return invocation.proceed();
+        }
+        String previous = QueryScope.enterRepositoryMethod(names.computeIfAbsent(invocation.getMethod(),
+                method -> repositoryName + "." + method.getName()));
+        try {
+            return invocation.proceed();
+        } finally {
+            QueryScope.exitRepositoryMethod(previous);
+        }
+    }
+}
@@ -0,0 +1,84 @@
+package com.microservice.common.jdbc;
+
+import org.springframework.web.context.request.RequestAttributes;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.Map;
+
+/**
+ * Usuario de la petición HTTP en curso, con el mismo criterio que los controladores: la cabecera
+ * X-User-Id que añade el gateway o, si no está, la variable de ruta {userId}. Fuera de una petición
+ * (tareas programadas, arranque) no hay usuario.
+ *
+ * También lleva el token de última escritura: la respuesta de una petición que escribe incluye
+ * X-Last-Write (hora de la escritura en ms) y el cliente lo devuelve en las siguientes, atienda la
+ * instancia que sea.
+ */
+final class RequestUser {
+
+    static final String HEADER = "X-User-Id";
+    static final String PATH_VARIABLE = "userId";
+    static final String LAST_WRITE_HEADER = "X-Last-Write";
+
+    private RequestUser() {
+    }
+
+    static String current() {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes == null) {
+            return null;
+        }
+        if (attributes instanceof ServletRequestAttributes servlet) {
+            String header = servlet.getRequest().getHeader(HEADER);
+            if (header != null && !header.isBlank()) {
+                return header.trim();
+            }
+        }
+        Object variables = attributes.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE,
+                RequestAttributes.SCOPE_REQUEST);
+        if (variables instanceof Map<?, ?> map && map.get(PATH_VARIABLE) instanceof String userId) {
+            return userId;
+        }
+        return null;
+    }
+
+    /** Token X-Last-Write que envía el cliente; 0 si no hay o no es válido. */
+    static long lastWriteToken() {
+        if (!(RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes servlet)) {
+            return 0;
+        }
+        String token = servlet.getRequest().getHeader(LAST_WRITE_HEADER);
+        if (token == null || token.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(token.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /** Devuelve al cliente el token de su última escritura (si la respuesta aún admite cabeceras). */
+    static void sendLastWrite(long writtenAt) {
+        if (RequestContextHolder.getRequestAttributes() instanceof ServletRequestAttributes servlet
+                && servlet.getResponse() != null) {
+            servlet.getResponse().setHeader(LAST_WRITE_HEADER, Long.toString(writtenAt));
+        }
+    }
+
+    /** Marca la petición en curso para que el resto de sus lecturas vayan también al primario. */
+    static void markWritten(String attribute) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        if (attributes != null) {
+            attributes.setAttribute(attribute, Boolean.TRUE, RequestAttributes.SCOPE_REQUEST);
+        }
+    }
+
+    static boolean hasWritten(String attribute) {
+        RequestAttributes attributes = RequestContextHolder.getRequestAttributes();
+        return attributes != null
+                && Boolean.TRUE.equals(attributes.getAttribute(attribute, RequestAttributes.SCOPE_REQUEST));
+    }
+}
@@ -0,0 +1,36 @@
+package com.microservice.common.jdbc;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Endpoint de actuator /actuator/slowqueries: GET devuelve las últimas consultas lentas (de la más
+ * reciente a la más antigua) y DELETE vacía el registro, por ejemplo antes de repetir una prueba.
+ */
+@Endpoint(id = "slowqueries")
+public class SlowQueryEndpoint {
+
+    private final SlowQueryLog slowQueryLog;
+
+    public SlowQueryEndpoint(SlowQueryLog slowQueryLog) {
+        this.slowQueryLog = slowQueryLog;
+    }
+
+    @ReadOperation
+    public Map<String, Object> slowQueries() {
+        Map<String, Object> body = new LinkedHashMap<>();
+        body.put("thresholdMs", slowQueryLog.getThresholdMillis());
+        body.put("capacity", slowQueryLog.getCapacity());
+        body.put("queries", slowQueryLog.recent());
+        return body;
+    }
+
+    @DeleteOperation
+    public void clear() {
+        slowQueryLog.clear();
+    }
+}
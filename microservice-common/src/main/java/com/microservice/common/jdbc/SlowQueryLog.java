@@ -0,0 +1,116 @@
+package com.microservice.common.jdbc;
+
+import java.time.Instant;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+/**
+ * Últimas sentencias lentas del servicio, en un búfer circular de tamaño fijo: cuando se llena, cada
+ * sentencia nueva pisa la más antigua. Se consulta con el endpoint de actuator slowqueries
+ * ({@link SlowQueryEndpoint}) sin tener que activar show-sql ni buscar en los logs.
+ */
+public class SlowQueryLog {
+
+    // Las sentencias generadas por Hibernate para IN con muchos parámetros pueden ocupar kilobytes
+    static final int MAX_SQL_LENGTH = 2000;
+
+    private final long thresholdMillis;
+    private final Entry[] entries;
+    private int next;
+    private int size;
+
+    public SlowQueryLog(long thresholdMillis, int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("La capacidad del registro de consultas lentas debe ser mayor que cero");
+        }
+        this.thresholdMillis = thresholdMillis;
+        this.entries = new Entry[capacity];
+    }
+
+    public long getThresholdMillis() {
+        return thresholdMillis;
+    }
+
+    public int getCapacity() {
+        return entries.length;
+    }
+
+    public boolean isSlow(long elapsedMillis) {
+        return elapsedMillis >= thresholdMillis;
+    }
+
+    public synchronized void add(Entry entry) {
+        entries[next] = entry;
+        next = (next + 1) % entries.length;
+        size = Math.min(size + 1, entries.length);
+    }
+
+    /** Sentencias guardadas, de la más reciente a la más antigua. */
+    public synchronized List<Entry> recent() {
+        List<Entry> recent = new ArrayList<>(size);
+        for (int i = 1; i <= size; i++) {
+            recent.add(entries[(next - i + entries.length) % entries.length]);
+        }
+        return recent;
+    }
+
+    public synchronized void clear() {
+        Arrays.fill(entries, null);
+        next = 0;
+        size = 0;
+    }
+
+    /** Una sentencia lenta. Los getters son los campos del JSON del endpoint. */
+    public static final class Entry {
+
+        private final Instant timestamp;
+        private final long elapsedMillis;
+        private final String sql;
+        private final int batchSize;
+        private final String repositoryMethod;
+        private final String request;
+        private final boolean success;
+
+        public Entry(Instant timestamp, long elapsedMillis, String sql, int batchSize, String repositoryMethod,
+                     String request, boolean success) {
+            this.timestamp = timestamp;
+            this.elapsedMillis = elapsedMillis;
+            this.sql = sql.length() > MAX_SQL_LENGTH ? sql.substring(0, MAX_SQL_LENGTH) + "..." : sql;
+            this.batchSize = batchSize;
+            this.repositoryMethod = repositoryMethod;
+            this.request = request;
+            this.success = success;
+        }
+
+        public Instant getTimestamp() {
+            return timestamp;
+        }
+
+        public long getElapsedMillis() {
+            return elapsedMillis;
+        }
+
+        public String getSql() {
+            return sql;
+        }
+
+        public int getBatchSize() {
+            return batchSize;
+        }
+
+        /** Interfaz.método del repositorio que lanzó la sentencia, o null si no vino de un repositorio. */
+        public String getRepositoryMethod() {
+            return repositoryMethod;
+        }
+
+        /** Petición HTTP en curso ("GET /api/tasks/user/{userId}"), o null fuera de una petición. */
+        public String getRequest() {
+            return request;
+        }
+
+        public boolean isSuccess() {
+            return success;
+        }
+    }
+}
@@ -0,0 +1,176 @@
+package com.microservice.common.sync;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.action.spi.BeforeTransactionCompletionProcess;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.transaction.support.TransactionSynchronization;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Numera los cambios de las entidades de cada dueño para la sincronización incremental (ver SyncFeed).
+ *
+ * Las escrituras se anotan durante la transacción y, justo antes de confirmarla (después del último
+ * flush), cada dueño afectado recibe el siguiente número de su fila en la tabla de secuencias.
+ * Ese número se graba en change_seq de las entidades escritas y en una lápida por cada entidad
+ * borrada. La fila de la secuencia queda bloqueada hasta el commit, así que para un mismo dueño
+ * los números siguen el orden de confirmación: quien ya leyó hasta N no puede saltarse un cambio que
+ * se confirme más tarde con un número menor. Todos los cambios de una transacción comparten número.
+ *
+ * Cada servicio lo registra como bean con sus {@link SyncTables}.
+ */
+public class ChangeTracker {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeTracker.class);
+
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    private final EntityManager entityManager;
+    private final SyncTables tables;
+    private final String nextSeqSql;
+    private final String currentSeqSql;
+    private final String entitySeqSql;
+    private final String markChangedSql;
+    private final String tombstoneSql;
+
+    public ChangeTracker(EntityManager entityManager, SyncTables tables) {
+        this.entityManager = entityManager;
+        this.tables = tables;
+        this.nextSeqSql = "INSERT INTO " + tables.getSequenceTable() + " (" + tables.getOwnerColumn() +
+                ", last_seq, purged_seq) VALUES (:ownerId, 1, 0) ON DUPLICATE KEY UPDATE last_seq = last_seq + 1";
+        this.currentSeqSql = "SELECT last_seq FROM " + tables.getSequenceTable() +
+                " WHERE " + tables.getOwnerColumn() + " = :ownerId";
+        this.entitySeqSql = "SELECT change_seq FROM " + tables.getEntityTable() + " WHERE id = :id";
+        this.markChangedSql = "UPDATE " + tables.getEntityTable() + " SET change_seq = :seq WHERE id IN (:ids)";
+        this.tombstoneSql = "INSERT INTO " + tables.getTombstoneTable() + " (" + tables.getTombstoneIdColumn() +
+                ", " + tables.getOwnerColumn() + ", change_seq, deleted_at) VALUES (:id, :ownerId, :seq, :deletedAt) " +
+                "ON DUPLICATE KEY UPDATE change_seq = :seq, deleted_at = :deletedAt";
+    }
+
+    public SyncTables getTables() {
+        return tables;
+    }
+
+    /**
+     * Anota entidades creadas o modificadas. Los UPDATE en bloque deben llamarlo explícitamente.
+     */
+    public void recordChanges(UUID ownerId, Collection<UUID> ids) {
+        PendingChanges pending = pendingChanges();
+        if (pending != null) {
+            pending.changed.computeIfAbsent(ownerId, id -> new LinkedHashSet<>()).addAll(ids);
+        }
+    }
+
+    /**
+     * Anota entidades borradas: al confirmar se deja una lápida por cada una.
+     */
+    public void recordDeletions(UUID ownerId, Collection<UUID> ids) {
+        PendingChanges pending = pendingChanges();
+        if (pending != null) {
+            pending.deleted.computeIfAbsent(ownerId, id -> new LinkedHashSet<>()).addAll(ids);
+        }
+    }
+
+    /**
+     * Último número asignado al dueño (0 si aún no tiene cambios). Avanza con cada transacción confirmada
+     * que escribe sus entidades, sea cual sea la instancia: sirve para validar copias cacheadas.
+     */
+    public long currentSequence(UUID ownerId) {
+        List<Long> seq = entityManager.createNativeQuery(currentSeqSql, Long.class)
+                .setParameter("ownerId", ownerId)
+                .getResultList();
+        return seq.isEmpty() ? 0 : seq.get(0);
+    }
+
+    /**
+     * Número de cambio con que se escribió la entidad por última vez; vacío si ya no existe.
+     */
+    public Optional<Long> entitySequence(UUID id) {
+        List<Long> seq = entityManager.createNativeQuery(entitySeqSql, Long.class)
+                .setParameter("id", id)
+                .getResultList();
+        return seq.stream().findFirst();
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    // Un único registro por transacción acumula todos sus cambios
+    private PendingChanges pendingChanges() {
+        if (!TransactionSynchronizationManager.isSynchronizationActive()) {
+            log.warn("Escritura en {} fuera de una transacción: no se numera para la sincronización",
+                    tables.getEntityTable());
+            return null;
+        }
+        for (TransactionSynchronization synchronization : TransactionSynchronizationManager.getSynchronizations()) {
+            if (synchronization instanceof PendingChanges pending && pending.owner() == this) {
+                return pending;
+            }
+        }
+        PendingChanges pending = new PendingChanges();
+        TransactionSynchronizationManager.registerSynchronization(pending);
+        entityManager.unwrap(SessionImplementor.class).getActionQueue().registerProcess(pending);
+        return pending;
+    }
+
+    private long nextSequence(SessionImplementor session, UUID ownerId) {
+        session.createNativeQuery(nextSeqSql)
+                .addSynchronizedQuerySpace(tables.getSequenceTable())
+                .setParameter("ownerId", ownerId)
+                .executeUpdate();
+        return session.createNativeQuery(currentSeqSql, Long.class)
+                .addSynchronizedQuerySpace(tables.getSequenceTable())
+                .setParameter("ownerId", ownerId)
+                .getSingleResult();
+    }
+
+    /**
+     * Cambios anotados en una transacción. Hibernate lo ejecuta antes de confirmar; Spring solo
+     * lo usa para encontrarlo mientras dura la transacción.
+     */
+    private final class PendingChanges implements TransactionSynchronization, BeforeTransactionCompletionProcess {
+
+        // Dueños ordenados: dos transacciones con varios dueños bloquean sus secuencias en el mismo orden
+        private final Map<UUID, Set<UUID>> changed = new TreeMap<>();
+        private final Map<UUID, Set<UUID>> deleted = new TreeMap<>();
+
+        ChangeTracker owner() {
+            return ChangeTracker.this;
+        }
+
+        @Override
+        public void doBeforeTransactionCompletion(SessionImplementor session) {
+            LocalDateTime now = LocalDateTime.now();
+            Set<UUID> ownerIds = new TreeSet<>(changed.keySet());
+            ownerIds.addAll(deleted.keySet());
+            for (UUID ownerId : ownerIds) {
+                long seq = nextSequence(session, ownerId);
+                Set<UUID> deletedIds = deleted.getOrDefault(ownerId, Set.of());
+                List<UUID> changedIds = changed.getOrDefault(ownerId, Set.of()).stream()
+                        .filter(id -> !deletedIds.contains(id))
+                        .toList();
+                for (int from = 0; from < changedIds.size(); from += IN_CHUNK_SIZE) {
+                    session.createNativeQuery(markChangedSql)
+                            .addSynchronizedQuerySpace(tables.getEntityTable())
+                            .setParameter("seq", seq)
+                            .setParameterList("ids", changedIds.subList(from, Math.min(from + IN_CHUNK_SIZE, changedIds.size())))
+                            .executeUpdate();
+                }
+                for (UUID id : deletedIds) {
+                    session.createNativeQuery(tombstoneSql)
+                            .addSynchronizedQuerySpace(tables.getTombstoneTable())
+                            .setParameter("id", id)
+                            .setParameter("ownerId", ownerId)
+                            .setParameter("seq", seq)
+                            .setParameter("deletedAt", now)
+                            .executeUpdate();
+                }
+                log.trace("Cambio {} del dueño {} en {}: {} escritos, {} borrados",
+                        seq, ownerId, tables.getEntityTable(), changedIds.size(), deletedIds.size());
+            }
+        }
+    }
+}
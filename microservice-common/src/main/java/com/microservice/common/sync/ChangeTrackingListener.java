@@ -0,0 +1,49 @@
+package com.microservice.common.sync;
+
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Anota en el {@link ChangeTracker} del servicio cada escritura de una entidad para numerarla al
+ * confirmar. Cada servicio la extiende con el tipo de su entidad, la declara en
+ * {@code @EntityListeners} y anota ahí los callbacks (Hibernate no los busca en la superclase
+ * de un listener). Los UPDATE/DELETE en bloque no pasan por aquí: quien los ejecuta los registra.
+ */
+public abstract class ChangeTrackingListener<E> {
+
+    private final ObjectProvider<? extends ChangeTracker> changeTracker;
+    private final Function<E, UUID> ownerId;
+    private final Function<E, UUID> id;
+
+    protected ChangeTrackingListener(ObjectProvider<? extends ChangeTracker> changeTracker,
+                                     Function<E, UUID> ownerId, Function<E, UUID> id) {
+        this.changeTracker = changeTracker;
+        this.ownerId = ownerId;
+        this.id = id;
+    }
+
+    /**
+     * Para {@code @PostPersist} y {@code @PostUpdate}.
+     */
+    protected void written(E entity) {
+        ChangeTracker tracker = changeTracker.getIfAvailable();
+        UUID owner = ownerId.apply(entity);
+        if (tracker != null && owner != null) {
+            tracker.recordChanges(owner, List.of(id.apply(entity)));
+        }
+    }
+
+    /**
+     * Para {@code @PostRemove}.
+     */
+    protected void removed(E entity) {
+        ChangeTracker tracker = changeTracker.getIfAvailable();
+        UUID owner = ownerId.apply(entity);
+        if (tracker != null && owner != null) {
+            tracker.recordDeletions(owner, List.of(id.apply(entity)));
+        }
+    }
+}
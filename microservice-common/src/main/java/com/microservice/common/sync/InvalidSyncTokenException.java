@@ -0,0 +1,12 @@
+package com.microservice.common.sync;
+
+/**
+ * El token de sincronización recibido no es un número de cambio válido.
+ * Cada servicio la traduce a su excepción de datos inválidos (400).
+ */
+public class InvalidSyncTokenException extends IllegalArgumentException {
+
+    public InvalidSyncTokenException(String token) {
+        super("Token de sincronización inválido: " + token);
+    }
+}
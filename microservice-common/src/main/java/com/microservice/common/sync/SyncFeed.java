@@ -0,0 +1,218 @@
+package com.microservice.common.sync;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.query.NativeQuery;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiFunction;
+import java.util.function.ToLongFunction;
+import java.util.stream.Collectors;
+import java.util.stream.Stream;
+
+/**
+ * Sincronización incremental para clientes sin conexión: devuelve lo creado, modificado o borrado
+ * después del número de cambio que indica el token (ver ChangeTracker).
+ *
+ * Sin token, o con uno anterior a las lápidas ya compactadas, se entregan todas las entidades vivas
+ * con resetRequired para que el cliente sustituya su copia. Si no hay nada nuevo basta con leer
+ * la secuencia del dueño por clave primaria.
+ *
+ * Las entidades vivas las lee el repositorio de cada servicio; secuencias y lápidas se leen aquí
+ * con SQL nativo sobre las tablas de {@link SyncTables}. No abre transacciones: lo llama el
+ * servicio de sincronización de cada microservicio desde las suyas.
+ */
+public class SyncFeed<E> {
+
+    public static final int MAX_PAGE_SIZE = 500;
+
+    private static final Logger log = LoggerFactory.getLogger(SyncFeed.class);
+
+    private static final long FROM_START = -1;
+
+    private static final int IN_CHUNK_SIZE = 1000;
+
+    /**
+     * Entidades del dueño con change_seq mayor que el indicado, por change_seq e id.
+     */
+    @FunctionalInterface
+    public interface ChangedAfter<E> {
+        List<E> find(UUID ownerId, long changeSeq, Pageable page);
+    }
+
+    private final EntityManager entityManager;
+    private final SyncTables tables;
+    private final ChangedAfter<E> changedAfter;
+    private final BiFunction<UUID, Long, List<E>> changedAt;
+    private final ToLongFunction<E> changeSeq;
+    private final String sequenceSql;
+    private final String tombstonesAfterSql;
+    private final String tombstonesAtSql;
+    private final String expiredTombstonesSql;
+    private final String raisePurgedSeqSql;
+    private final String deleteTombstonesSql;
+
+    public SyncFeed(EntityManager entityManager, SyncTables tables, ChangedAfter<E> changedAfter,
+                    BiFunction<UUID, Long, List<E>> changedAt, ToLongFunction<E> changeSeq) {
+        this.entityManager = entityManager;
+        this.tables = tables;
+        this.changedAfter = changedAfter;
+        this.changedAt = changedAt;
+        this.changeSeq = changeSeq;
+        String owner = tables.getOwnerColumn();
+        String tombstoneId = tables.getTombstoneIdColumn();
+        this.sequenceSql = "SELECT last_seq, purged_seq FROM " + tables.getSequenceTable() +
+                " WHERE " + owner + " = :ownerId";
+        this.tombstonesAfterSql = "SELECT " + tombstoneId + ", " + owner + ", change_seq FROM " + tables.getTombstoneTable() +
+                " WHERE " + owner + " = :ownerId AND change_seq > :seq ORDER BY change_seq";
+        this.tombstonesAtSql = "SELECT " + tombstoneId + ", " + owner + ", change_seq FROM " + tables.getTombstoneTable() +
+                " WHERE " + owner + " = :ownerId AND change_seq = :seq";
+        this.expiredTombstonesSql = "SELECT " + tombstoneId + ", " + owner + ", change_seq FROM " + tables.getTombstoneTable() +
+                " WHERE deleted_at < :before ORDER BY deleted_at";
+        this.raisePurgedSeqSql = "UPDATE " + tables.getSequenceTable() + " SET purged_seq = :seq WHERE " +
+                owner + " = :ownerId AND purged_seq < :seq";
+        this.deleteTombstonesSql = "DELETE FROM " + tables.getTombstoneTable() + " WHERE " + tombstoneId + " IN (:ids)";
+    }
+
+    // ============= SINCRONIZACIÓN =============
+
+    /**
+     * Lee hasta limit cambios (como mucho {@link #MAX_PAGE_SIZE}) posteriores al token.
+     *
+     * @throws InvalidSyncTokenException si el token no es un número de cambio
+     */
+    public SyncPage<E> read(UUID ownerId, String token, int limit) {
+        int pageSize = Math.min(Math.max(limit, 1), MAX_PAGE_SIZE);
+        long since = parseToken(token);
+        List<Object[]> sequence = nativeQuery(sequenceSql, tables.getSequenceTable())
+                .addScalar("last_seq", Long.class)
+                .addScalar("purged_seq", Long.class)
+                .setParameter("ownerId", ownerId)
+                .getResultList();
+        long lastSeq = sequence.isEmpty() ? 0 : (Long) sequence.get(0)[0];
+        long purgedSeq = sequence.isEmpty() ? 0 : (Long) sequence.get(0)[1];
+
+        // Un token posterior a la secuencia no lo emitió este servidor (o la cuenta se recreó)
+        boolean reset = since != FROM_START && (since < purgedSeq || since > lastSeq);
+        if (reset) {
+            log.debug("Token de sincronización {} no válido para el dueño {} en {} (compactado hasta {}, último {})",
+                    since, ownerId, tables.getEntityTable(), purgedSeq, lastSeq);
+            since = FROM_START;
+        } else if (since != FROM_START && since == lastSeq) {
+            return new SyncPage<>(List.of(), List.of(), String.valueOf(since), false, false);
+        }
+        boolean fullSnapshot = since == FROM_START;
+
+        List<E> entities = changedAfter.find(ownerId, since, PageRequest.of(0, pageSize + 1));
+        List<Tombstone> tombstones = fullSnapshot ? List.of()
+                : tombstones(tombstonesAfterSql, ownerId, since, pageSize + 1);
+
+        // Solo se entregan números de cambio completos: una transacción nunca queda partida entre páginas
+        List<Long> seqs = Stream.concat(entities.stream().map(changeSeq::applyAsLong),
+                        tombstones.stream().map(Tombstone::changeSeq))
+                .sorted()
+                .toList();
+        boolean hasMore = seqs.size() > pageSize;
+        if (hasMore) {
+            long cut = seqs.get(pageSize);
+            entities = entities.stream().filter(entity -> changeSeq.applyAsLong(entity) < cut).toList();
+            tombstones = tombstones.stream().filter(tombstone -> tombstone.changeSeq() < cut).toList();
+            if (entities.isEmpty() && tombstones.isEmpty()) {
+                entities = changedAt.apply(ownerId, cut);
+                tombstones = fullSnapshot ? List.of() : tombstones(tombstonesAtSql, ownerId, cut, 0);
+            }
+        }
+
+        long nextSeq = Stream.concat(entities.stream().map(changeSeq::applyAsLong),
+                        tombstones.stream().map(Tombstone::changeSeq))
+                .max(Long::compare)
+                .orElse(Math.max(since, 0));
+        if (!hasMore) {
+            nextSeq = Math.max(nextSeq, lastSeq);
+        }
+        return new SyncPage<>(entities, tombstones.stream().map(Tombstone::id).toList(),
+                String.valueOf(nextSeq), hasMore, reset);
+    }
+
+    // ============= COMPACTACIÓN =============
+
+    /**
+     * Borra hasta batchSize lápidas anteriores a before y sube purgedSeq de sus dueños.
+     * Devuelve cuántas borró.
+     */
+    public int purgeTombstones(LocalDateTime before, int batchSize) {
+        List<Tombstone> expired = toTombstones(nativeQuery(expiredTombstonesSql, tables.getTombstoneTable())
+                .setParameter("before", before)
+                .setMaxResults(batchSize));
+        if (expired.isEmpty()) {
+            return 0;
+        }
+        expired.stream()
+                .collect(Collectors.toMap(Tombstone::ownerId, Tombstone::changeSeq, Math::max, TreeMap::new))
+                .forEach((ownerId, seq) -> nativeQuery(raisePurgedSeqSql, tables.getSequenceTable())
+                        .setParameter("ownerId", ownerId)
+                        .setParameter("seq", seq)
+                        .executeUpdate());
+        List<UUID> ids = expired.stream().map(Tombstone::id).toList();
+        for (int from = 0; from < ids.size(); from += IN_CHUNK_SIZE) {
+            nativeQuery(deleteTombstonesSql, tables.getTombstoneTable())
+                    .setParameterList("ids", ids.subList(from, Math.min(from + IN_CHUNK_SIZE, ids.size())))
+                    .executeUpdate();
+        }
+        return expired.size();
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private static long parseToken(String token) {
+        if (token == null || token.isBlank()) {
+            return FROM_START;
+        }
+        try {
+            long since = Long.parseLong(token);
+            if (since < 0) {
+                throw new NumberFormatException();
+            }
+            return since;
+        } catch (NumberFormatException e) {
+            throw new InvalidSyncTokenException(token);
+        }
+    }
+
+    // maxResults 0: sin límite
+    private List<Tombstone> tombstones(String sql, UUID ownerId, long seq, int maxResults) {
+        NativeQuery<Object[]> query = nativeQuery(sql, tables.getTombstoneTable())
+                .setParameter("ownerId", ownerId)
+                .setParameter("seq", seq);
+        if (maxResults > 0) {
+            query.setMaxResults(maxResults);
+        }
+        return toTombstones(query);
+    }
+
+    private List<Tombstone> toTombstones(NativeQuery<?> query) {
+        @SuppressWarnings("unchecked")
+        List<Object[]> rows = (List<Object[]>) query
+                .addScalar(tables.getTombstoneIdColumn(), UUID.class)
+                .addScalar(tables.getOwnerColumn(), UUID.class)
+                .addScalar("change_seq", Long.class)
+                .getResultList();
+        return rows.stream()
+                .map(row -> new Tombstone((UUID) row[0], (UUID) row[1], (Long) row[2]))
+                .toList();
+    }
+
+    @SuppressWarnings("unchecked")
+    private NativeQuery<Object[]> nativeQuery(String sql, String querySpace) {
+        return (NativeQuery<Object[]>) entityManager.unwrap(Session.class).createNativeQuery(sql)
+                .addSynchronizedQuerySpace(querySpace);
+    }
+
+    private record Tombstone(UUID id, UUID ownerId, long changeSeq) {
+    }
+}
@@ -0,0 +1,17 @@
+package com.microservice.common.sync;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Una página de cambios leída por {@link SyncFeed}; cada servicio la convierte a su DTO.
+ *
+ * @param changed       entidades creadas o modificadas desde el token recibido
+ * @param deleted       ids borrados desde el token recibido
+ * @param nextToken     token para la siguiente sincronización (o la siguiente página si hasMore)
+ * @param hasMore       quedan cambios por leer
+ * @param resetRequired el token era demasiado antiguo: changed trae todas las entidades vivas
+ */
+public record SyncPage<E>(List<E> changed, List<UUID> deleted, String nextToken,
+                          boolean hasMore, boolean resetRequired) {
+}
@@ -0,0 +1,59 @@
+package com.microservice.common.sync;
+
+import java.util.regex.Pattern;
+
+/**
+ * Tablas y columnas de la sincronización incremental de un tipo de entidad.
+ *
+ * La tabla de la entidad tiene id, la columna del dueño y change_seq. La de secuencias, una fila
+ * por dueño con last_seq y purged_seq; la de lápidas, el id borrado, el dueño, change_seq y
+ * deleted_at. Los nombres se concatenan en SQL nativo, así que solo se admiten identificadores simples.
+ */
+public final class SyncTables {
+
+    private static final Pattern IDENTIFIER = Pattern.compile("[a-z][a-z0-9_]*");
+
+    private final String entityTable;
+    private final String ownerColumn;
+    private final String sequenceTable;
+    private final String tombstoneTable;
+    private final String tombstoneIdColumn;
+
+    public SyncTables(String entityTable, String ownerColumn, String sequenceTable,
+                      String tombstoneTable, String tombstoneIdColumn) {
+        this.entityTable = identifier(entityTable);
+        this.ownerColumn = identifier(ownerColumn);
+        this.sequenceTable = identifier(sequenceTable);
+        this.tombstoneTable = identifier(tombstoneTable);
+        this.tombstoneIdColumn = identifier(tombstoneIdColumn);
+    }
+
+    public String getEntityTable() {
+        return entityTable;
+    }
+
+    public String getOwnerColumn() {
+        return ownerColumn;
+    }
+
+    public String getSequenceTable() {
+        return sequenceTable;
+    }
+
+    public String getTombstoneTable() {
+        return tombstoneTable;
+    }
+
+    public String getTombstoneIdColumn() {
+        return tombstoneIdColumn;
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private static String identifier(String name) {
+        if (name == null || !IDENTIFIER.matcher(name).matches()) {
+            throw new IllegalArgumentException("Nombre de tabla o columna no válido: " + name);
+        }
+        return name;
+    }
+}
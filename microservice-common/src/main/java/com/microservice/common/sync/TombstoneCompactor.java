@@ -0,0 +1,57 @@
+package com.microservice.common.sync;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Elimina por lotes las lápidas más antiguas que el periodo de retención.
+ * Un cliente que no sincroniza en ese periodo recibe resetRequired y vuelve a descargarlo todo.
+ * Cada lote es una transacción corta (la abre quien implementa {@link Purge}); varias instancias
+ * a la vez solo se reparten el trabajo. Cada servicio lo programa con sus propiedades.
+ */
+public class TombstoneCompactor {
+
+    private static final Logger log = LoggerFactory.getLogger(TombstoneCompactor.class);
+
+    /**
+     * Borra hasta batchSize lápidas anteriores a before y devuelve cuántas borró
+     * (ver {@link SyncFeed#purgeTombstones}).
+     */
+    @FunctionalInterface
+    public interface Purge {
+        int purge(LocalDateTime before, int batchSize);
+    }
+
+    private final String description;
+    private final Duration retention;
+    private final int batchSize;
+    private final Purge purge;
+
+    public TombstoneCompactor(String description, Duration retention, int batchSize, Purge purge) {
+        this.description = description;
+        this.retention = retention;
+        this.batchSize = batchSize;
+        this.purge = purge;
+    }
+
+    public long compact(LocalDateTime now) {
+        LocalDateTime before = now.minus(retention);
+        long purged = 0;
+        try {
+            int batch;
+            do {
+                batch = purge.purge(before, batchSize);
+                purged += batch;
+            } while (batch == batchSize);
+        } catch (Exception e) {
+            log.warn("Error al compactar lápidas de {}; se reintentará en la siguiente pasada", description, e);
+        }
+        if (purged > 0) {
+            log.info("Compactadas {} lápidas de {} anteriores a {}", purged, description, before);
+        }
+        return purged;
+    }
+}
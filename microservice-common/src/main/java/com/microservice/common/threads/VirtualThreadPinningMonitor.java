@@ -0,0 +1,121 @@
+package com.microservice.common.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jdk.jfr.consumer.RecordedEvent;
+import jdk.jfr.consumer.RecordedFrame;
+import jdk.jfr.consumer.RecordedStackTrace;
+import jdk.jfr.consumer.RecordingStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.SmartLifecycle;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.stream.Collectors;
+
+/**
+ * Diagnóstico de hilos virtuales clavados a su hilo portador (pinning).
+ *
+ * Un hilo virtual que se bloquea dentro de un bloque synchronized (o de código nativo) no suelta
+ * el portador: con pocos portadores, unas cuantas esperas de E/S así frenan todo el servicio.
+ * Escucha el evento JFR jdk.VirtualThreadPinned en el propio proceso, sin grabar a disco, y por cada
+ * punto de código que clava un hilo publica el timer jvm.threads.virtual.pinned (etiqueta site) y
+ * avisa una vez en el log con la pila. El sitio es el primer marco fuera del JDK, que es el que hay
+ * que cambiar (synchronized por ReentrantLock, o sacar la E/S del bloque).
+ *
+ * Solo tiene sentido en Java 21 o superior; en versiones anteriores no arranca.
+ */
+public class VirtualThreadPinningMonitor implements SmartLifecycle {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadPinningMonitor.class);
+
+    static final String PINNED_EVENT = "jdk.VirtualThreadPinned";
+    static final String METRIC = "jvm.threads.virtual.pinned";
+
+    // Tope de sitios distintos como etiqueta: el resto se agrupa para no disparar la cardinalidad
+    private static final int MAX_SITES = 100;
+    private static final String OTHER_SITE = "other";
+    private static final int LOGGED_FRAMES = 12;
+
+    private final MeterRegistry meterRegistry;
+    private final Duration threshold;
+    private final Set<String> sites = ConcurrentHashMap.newKeySet();
+    private volatile RecordingStream stream;
+
+    public VirtualThreadPinningMonitor(MeterRegistry meterRegistry, Duration threshold) {
+        this.meterRegistry = meterRegistry;
+        this.threshold = threshold;
+    }
+
+    @Override
+    public void start() {
+        if (Runtime.version().feature() < 21) {
+            log.info("Java {}: sin hilos virtuales, no se vigila el pinning", Runtime.version().feature());
+            return;
+        }
+        RecordingStream recording = new RecordingStream();
+        recording.enable(PINNED_EVENT).withThreshold(threshold).withStackTrace();
+        recording.onEvent(PINNED_EVENT, this::record);
+        recording.startAsync();
+        stream = recording;
+        log.info("Vigilando hilos virtuales clavados más de {} ms", threshold.toMillis());
+    }
+
+    @Override
+    public void stop() {
+        RecordingStream recording = stream;
+        stream = null;
+        if (recording != null) {
+            recording.close();
+        }
+    }
+
+    @Override
+    public boolean isRunning() {
+        return stream != null;
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private void record(RecordedEvent event) {
+        List<RecordedFrame> frames = frames(event.getStackTrace());
+        String site = site(frames);
+        boolean first = sites.size() < MAX_SITES && sites.add(site);
+        String tag = sites.contains(site) ? site : OTHER_SITE;
+        Timer.builder(METRIC)
+                .description("Tiempo que un hilo virtual estuvo clavado a su portador")
+                .tag("site", tag)
+                .register(meterRegistry)
+                .record(event.getDuration());
+        if (first) {
+            log.warn("Hilo virtual clavado {} ms en {} (se avisa una vez por sitio):\n\t{}",
+                    event.getDuration().toMillis(), site, frames.stream().limit(LOGGED_FRAMES)
+                            .map(VirtualThreadPinningMonitor::format).collect(Collectors.joining("\n\t")));
+        }
+    }
+
+    private static List<RecordedFrame> frames(RecordedStackTrace stackTrace) {
+        return stackTrace == null ? List.of() : stackTrace.getFrames();
+    }
+
+    private static String site(List<RecordedFrame> frames) {
+        return frames.stream()
+                .filter(RecordedFrame::isJavaFrame)
+                .filter(frame -> !isJdk(frame.getMethod().getType().getName()))
+                .findFirst()
+                .or(() -> frames.stream().findFirst())
+                .map(VirtualThreadPinningMonitor::format)
+                .orElse("unknown");
+    }
+
+    private static boolean isJdk(String className) {
+        return className.startsWith("java.") || className.startsWith("jdk.") || className.startsWith("sun.");
+    }
+
+    private static String format(RecordedFrame frame) {
+        return frame.getMethod().getType().getName() + "." + frame.getMethod().getName() + ":" + frame.getLineNumber();
+    }
+}
@@ -0,0 +1,49 @@
+package com.microservice.common.threads;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.AutoConfiguration;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnBean;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnClass;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnThreading;
+import org.springframework.boot.autoconfigure.thread.Threading;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.core.env.Environment;
+
+import java.time.Duration;
+
+/**
+ * Modo de hilos virtuales (spring.threads.virtual.enabled=true en Java 21 o superior). Spring Boot ya
+ * los usa para Tomcat, el executor de @Async/streaming y las tareas programadas, y las llamadas Feign
+ * corren en el hilo de la petición. Esta auto-configuración añade, solo en ese modo:
+ * <ul>
+ *   <li>la vigilancia del pinning ({@link VirtualThreadPinningMonitor}, threads.virtual.pinning-threshold-ms);</li>
+ *   <li>pools Hikari fijos y con espera corta ({@link VirtualThreadsPoolPostProcessor}): sin el límite
+ *       del pool de Tomcat, el pool de conexiones es el que limita la concurrencia.</li>
+ * </ul>
+ * Con hilos de plataforma los pools se quedan como los configure cada servicio.
+ */
+@AutoConfiguration(afterName = "org.springframework.boot.actuate.autoconfigure.metrics.CompositeMeterRegistryAutoConfiguration")
+@ConditionalOnThreading(Threading.VIRTUAL)
+public class VirtualThreadsAutoConfiguration {
+
+    @Bean
+    @ConditionalOnBean(MeterRegistry.class)
+    public VirtualThreadPinningMonitor virtualThreadPinningMonitor(MeterRegistry meterRegistry,
+            @Value("${threads.virtual.pinning-threshold-ms:20}") long thresholdMs) {
+        return new VirtualThreadPinningMonitor(meterRegistry, Duration.ofMillis(thresholdMs));
+    }
+
+    @Configuration(proxyBeanMethods = false)
+    @ConditionalOnClass(name = "com.zaxxer.hikari.HikariDataSource")
+    static class ConnectionPools {
+
+        // Estático: los BeanPostProcessor se crean antes que el resto de beans
+        @Bean
+        static VirtualThreadsPoolPostProcessor virtualThreadsPoolPostProcessor(Environment environment) {
+            return new VirtualThreadsPoolPostProcessor(Duration.ofMillis(
+                    environment.getProperty("threads.virtual.db-connection-timeout-ms", Long.class, 3000L)));
+        }
+    }
+}
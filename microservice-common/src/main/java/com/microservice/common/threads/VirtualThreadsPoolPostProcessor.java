@@ -0,0 +1,36 @@
+package com.microservice.common.threads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.time.Duration;
+
+/**
+ * Con hilos virtuales, deja cada pool Hikari fijo (minimum-idle igual a maximum-pool-size) y con una
+ * espera corta por conexión: las peticiones que no consiguen conexión fallan pronto (503) en vez de
+ * acumularse sin límite. Se aplica después del binding de spring.datasource[.replica].hikari.*, así
+ * que el tamaño sigue siendo el que configure cada servicio; el pool aún no ha arrancado.
+ */
+public class VirtualThreadsPoolPostProcessor implements BeanPostProcessor {
+
+    private static final Logger log = LoggerFactory.getLogger(VirtualThreadsPoolPostProcessor.class);
+
+    private final Duration connectionTimeout;
+
+    public VirtualThreadsPoolPostProcessor(Duration connectionTimeout) {
+        this.connectionTimeout = connectionTimeout;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof HikariDataSource dataSource) {
+            dataSource.setMinimumIdle(dataSource.getMaximumPoolSize());
+            dataSource.setConnectionTimeout(connectionTimeout.toMillis());
+            log.info("Pool {} fijo para hilos virtuales: {} conexiones, espera máxima {} ms",
+                    beanName, dataSource.getMaximumPoolSize(), connectionTimeout.toMillis());
+        }
+        return bean;
+    }
+}
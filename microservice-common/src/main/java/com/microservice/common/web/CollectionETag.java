@@ -0,0 +1,33 @@
+package com.microservice.common.web;
+
+import java.lang.annotation.*;
+
+/**
+ * Marca un GET de listado cuya respuesta depende solo de la colección de un usuario (sus tareas,
+ * notas, eventos...). {@link CollectionETagInterceptor} responde con un ETag fuerte calculado a partir
+ * de la versión de esa colección y, si el cliente envía el mismo valor en If-None-Match, devuelve
+ * 304 sin ejecutar el controlador: no se cargan entidades ni se serializa nada.
+ *
+ * El id del usuario se toma de la variable de ruta {@link #pathVariable()} o, si se indica,
+ * de la cabecera {@link #header()}.
+ */
+@Target(ElementType.METHOD)
+@Retention(RetentionPolicy.RUNTIME)
+@Documented
+public @interface CollectionETag {
+
+    /**
+     * Colección de la que depende la respuesta. Debe haber un {@link CollectionVersionSource} con ese nombre.
+     */
+    String value();
+
+    /**
+     * Variable de ruta con el id del usuario.
+     */
+    String pathVariable() default "userId";
+
+    /**
+     * Cabecera con el id del usuario (p. ej. X-User-Id). Si se indica, tiene prioridad sobre la variable de ruta.
+     */
+    String header() default "";
+}
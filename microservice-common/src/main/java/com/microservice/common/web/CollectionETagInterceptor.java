@@ -0,0 +1,108 @@
+package com.microservice.common.web;
+
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.util.DigestUtils;
+import org.springframework.web.context.request.ServletWebRequest;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerInterceptor;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+
+/**
+ * GET condicional para los listados marcados con {@link CollectionETag}.
+ *
+ * Antes de llegar al controlador pide la versión de la colección del usuario a su
+ * {@link CollectionVersionSource} y la convierte en un ETag fuerte. Si coincide con If-None-Match
+ * responde 304 y corta la petición; si no, deja el ETag en la respuesta y sigue. La versión se lee
+ * antes que los datos, así que el ETag nunca es más nuevo que el cuerpo que acompaña: en el peor caso
+ * el cliente recibe otra vez el listado completo en la siguiente consulta.
+ *
+ * Las respuestas se marcan como privadas y de revalidación obligatoria (no-cache): el cliente puede
+ * guardarlas pero debe preguntar siempre, y ninguna caché compartida las sirve a otro usuario.
+ */
+public class CollectionETagInterceptor implements HandlerInterceptor {
+
+    private static final Logger log = LoggerFactory.getLogger(CollectionETagInterceptor.class);
+
+    private static final String CACHE_CONTROL = "private, no-cache";
+
+    private final Map<String, CollectionVersionSource> sources = new HashMap<>();
+
+    public CollectionETagInterceptor(Collection<? extends CollectionVersionSource> sources) {
+        for (CollectionVersionSource source : sources) {
+            if (this.sources.put(source.collection(), source) != null) {
+                throw new IllegalStateException("Colección con dos versiones: " + source.collection());
+            }
+        }
+    }
+
+    @Override
+    public boolean preHandle(HttpServletRequest request, HttpServletResponse response, Object handler) {
+        if (!(handler instanceof HandlerMethod handlerMethod)) {
+            return true;
+        }
+        CollectionETag annotation = handlerMethod.getMethodAnnotation(CollectionETag.class);
+        if (annotation == null || !isSafeMethod(request)) {
+            return true;
+        }
+        UUID ownerId = ownerId(request, annotation);
+        if (ownerId == null) {
+            return true; // El controlador responde el error de validación
+        }
+        CollectionVersionSource source = sources.get(annotation.value());
+        if (source == null) {
+            log.warn("No hay versión registrada para la colección {}; se responde sin ETag", annotation.value());
+            return true;
+        }
+
+        String etag = etag(annotation.value(), ownerId, source.currentVersion(ownerId));
+        response.setHeader(HttpHeaders.CACHE_CONTROL, CACHE_CONTROL);
+        if (!annotation.header().isEmpty()) {
+            response.addHeader(HttpHeaders.VARY, annotation.header());
+        }
+        if (new ServletWebRequest(request, response).checkNotModified(etag)) {
+            log.trace("{} {}: sin cambios ({})", request.getMethod(), request.getRequestURI(), etag);
+            return false;
+        }
+        return true;
+    }
+
+    /**
+     * ETag fuerte y opaco: resumen de la colección, el usuario y la versión.
+     */
+    static String etag(String collection, UUID ownerId, String version) {
+        String value = collection + '|' + ownerId + '|' + version;
+        return '"' + DigestUtils.md5DigestAsHex(value.getBytes(StandardCharsets.UTF_8)) + '"';
+    }
+
+    private static boolean isSafeMethod(HttpServletRequest request) {
+        return HttpMethod.GET.matches(request.getMethod()) || HttpMethod.HEAD.matches(request.getMethod());
+    }
+
+    @SuppressWarnings("unchecked")
+    private static UUID ownerId(HttpServletRequest request, CollectionETag annotation) {
+        String value;
+        if (!annotation.header().isEmpty()) {
+            value = request.getHeader(annotation.header());
+        } else {
+            Map<String, String> variables = (Map<String, String>)
+                    request.getAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE);
+            value = variables != null ? variables.get(annotation.pathVariable()) : null;
+        }
+        if (value == null) {
+            return null;
+        }
+        try {
+            return UUID.fromString(value);
+        } catch (IllegalArgumentException e) {
+            return null;
+        }
+    }
+}
@@ -0,0 +1,22 @@
+package com.microservice.common.web;
+
+import java.util.UUID;
+
+/**
+ * Versión de la colección de un usuario en un servicio. Cada servicio registra una por colección
+ * que expone con {@link CollectionETag}.
+ */
+public interface CollectionVersionSource {
+
+    /**
+     * Nombre de la colección, el mismo que se usa en {@link CollectionETag#value()}.
+     */
+    String collection();
+
+    /**
+     * Versión actual de la colección del usuario. Tiene que cambiar con cualquier alta, modificación o
+     * baja que altere los listados y ser barata de obtener: se consulta en cada petición, así que debe
+     * resolverse con una consulta agregada sobre índice, sin cargar entidades.
+     */
+    String currentVersion(UUID ownerId);
+}
@@ -0,0 +1,120 @@
+package com.microservice.common.jdbc;
+
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import net.ttddyy.dsproxy.support.ProxyDataSourceBuilder;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import javax.sql.DataSource;
+import java.time.Instant;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class QueryInstrumentationTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private SlowQueryLog slowQueryLog;
+    private JdbcTemplate jdbc;
+
+    @BeforeEach
+    void setUp() {
+        JdbcDataSource h2 = new JdbcDataSource();
+        h2.setURL("jdbc:h2:mem:" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        slowQueryLog = new SlowQueryLog(0, 3);
+        QueryMetricsListener listener = new QueryMetricsListener(slowQueryLog);
+        listener.bindTo(meterRegistry);
+        DataSource dataSource = ProxyDataSourceBuilder.create("test", h2).listener(listener).build();
+        jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table items (id int primary key, name varchar(20))");
+    }
+
+    @Test
+    void timesEachStatementByTypeAndRepositoryMethod() {
+        String previous = QueryScope.enterRepositoryMethod("ItemRepository.findAll");
+        try {
+            jdbc.queryForList("select * from items");
+        } finally {
+            QueryScope.exitRepositoryMethod(previous);
+        }
+        jdbc.update("insert into items values (1, 'a')");
+
+        Timer select = meterRegistry.find(QueryMetricsListener.METRIC)
+                .tags("type", "select", "repository", "ItemRepository.findAll", "outcome", "success").timer();
+        Timer insert = meterRegistry.find(QueryMetricsListener.METRIC)
+                .tags("type", "insert", "repository", QueryMetricsListener.NO_REPOSITORY).timer();
+        assertThat(select).isNotNull();
+        assertThat(select.count()).isEqualTo(1);
+        assertThat(insert).isNotNull();
+        assertThat(insert.count()).isEqualTo(1);
+    }
+
+    @Test
+    void nestedScopesCountTheirStatementsAndDetectRepeatedSelects() {
+        try (QueryScope request = QueryScope.open("GET /items")) {
+            jdbc.update("insert into items values (1, 'a')");
+            try (QueryScope inner = QueryScope.open()) {
+                for (int id = 0; id < 5; id++) {
+                    jdbc.queryForList("select name from items where id = ?", id);
+                }
+                assertThat(inner.statements()).isEqualTo(5);
+            }
+            assertThat(request.statements()).isEqualTo(6);
+            assertThat(request.repeatedSelects(5)).containsEntry("select name from items where id = ?", 5);
+            assertThat(request.repeatedSelects(6)).isEmpty();
+        }
+        assertThat(QueryScope.current()).isNull();
+    }
+
+    @Test
+    void slowQueryLogKeepsTheMostRecentEntries() {
+        for (int id = 1; id <= 4; id++) {
+            jdbc.update("insert into items values (?, 'a')", id);
+        }
+        jdbc.queryForList("select * from items");
+
+        assertThat(slowQueryLog.recent()).hasSize(3);
+        assertThat(slowQueryLog.recent().get(0).getSql()).isEqualTo("select * from items");
+
+        slowQueryLog.clear();
+        assertThat(slowQueryLog.recent()).isEmpty();
+    }
+
+    @Test
+    void slowQueryLogOnlyKeepsStatementsOverTheThreshold() {
+        SlowQueryLog log = new SlowQueryLog(100, 10);
+
+        assertThat(log.isSlow(99)).isFalse();
+        assertThat(log.isSlow(100)).isTrue();
+        log.add(new SlowQueryLog.Entry(Instant.now(), 150, "x".repeat(3000), 0, null, null, true));
+        assertThat(log.recent().get(0).getSql()).hasSize(SlowQueryLog.MAX_SQL_LENGTH + 3);
+    }
+
+    @Test
+    void assertMaxStatementsFailsListingTheStatements() {
+        Integer count = StatementCountAssertions.assertMaxStatements(1,
+                () -> jdbc.queryForObject("select count(*) from items", Integer.class));
+        assertThat(count).isZero();
+
+        assertThatThrownBy(() -> StatementCountAssertions.assertMaxStatements(1, () -> {
+            jdbc.queryForList("select * from items");
+            jdbc.queryForList("select id from items");
+        }))
+                .isInstanceOf(AssertionError.class)
+                .hasMessageContaining("como mucho 1 sentencias y se ejecutaron 2")
+                .hasMessageContaining("2. select id from items");
+        assertThat(QueryScope.current()).isNull();
+    }
+
+    @Test
+    void classifiesStatementsByTheirFirstKeyword() {
+        assertThat(QueryMetricsListener.statementType("  SELECT 1")).isEqualTo("select");
+        assertThat(QueryMetricsListener.statementType("with t as (select 1) select * from t")).isEqualTo("select");
+        assertThat(QueryMetricsListener.statementType("update items set name = ?")).isEqualTo("update");
+        assertThat(QueryMetricsListener.statementType("create table x (id int)")).isEqualTo("other");
+    }
+}
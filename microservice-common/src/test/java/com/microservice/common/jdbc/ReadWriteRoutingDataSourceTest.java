@@ -0,0 +1,234 @@
+package com.microservice.common.jdbc;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.h2.jdbcx.JdbcDataSource;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.core.RowCallbackHandler;
+import org.springframework.jdbc.datasource.DataSourceTransactionManager;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.transaction.support.TransactionTemplate;
+import org.springframework.web.context.request.RequestContextHolder;
+import org.springframework.web.context.request.ServletRequestAttributes;
+
+import javax.sql.DataSource;
+import java.time.Duration;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Dos bases H2 hacen de primario y réplica. La tabla location dice en cuál se ejecutó cada lectura, y
+ * la replicación es manual: replicate() copia los latidos del primario a la réplica.
+ */
+class ReadWriteRoutingDataSourceTest {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final AtomicLong clock = new AtomicLong(1_000_000);
+    private DataSource primary;
+    private DataSource replica;
+    private JdbcTemplate jdbc;
+    private TransactionTemplate readOnly;
+    private TransactionTemplate readWrite;
+    private ReplicaLagMonitor lagMonitor;
+    private MockHttpServletResponse response;
+
+    @BeforeEach
+    void setUp() {
+        primary = database("primary");
+        replica = database("replica");
+        useRouting(replica);
+        replicaCatchesUp();
+    }
+
+    @AfterEach
+    void tearDown() {
+        RequestContextHolder.resetRequestAttributes();
+    }
+
+    @Test
+    void readOnlyTransactionsGoToTheReplicaAndTheRestToThePrimary() {
+        assertThat(readOnlyLocation()).isEqualTo("replica");
+        assertThat(readWriteLocation()).isEqualTo("primary");
+        assertThat(location()).isEqualTo("primary");
+
+        assertThat(connections("replica", "read-only")).isEqualTo(1);
+        assertThat(connections("primary", "read-write")).isEqualTo(1);
+    }
+
+    @Test
+    void aUserWhoJustWroteReadsFromThePrimaryUntilTheReplicaHasTheWrite() {
+        inRequest("user-1");
+        readWrite.executeWithoutResult(status -> jdbc.update("update location set name = name"));
+        // Otra petición del mismo usuario: la réplica aún no ha recibido un latido posterior
+        inRequest("user-1");
+        assertThat(readOnlyLocation()).isEqualTo("primary");
+        inRequest("user-2");
+        assertThat(readOnlyLocation()).isEqualTo("replica");
+
+        // Pasa el tiempo pero la réplica no avanza: sigue en el primario
+        clock.addAndGet(1000);
+        lagMonitor.beat();
+        inRequest("user-1");
+        assertThat(readOnlyLocation()).isEqualTo("primary");
+
+        replicaCatchesUp();
+        inRequest("user-1");
+        assertThat(readOnlyLocation()).isEqualTo("replica");
+        assertThat(connections("primary", "recent-write")).isEqualTo(2);
+    }
+
+    @Test
+    void anotherInstanceHonoursTheLastWriteTokenSentByTheClient() {
+        inRequest("user-1");
+        readWrite.executeWithoutResult(status -> jdbc.update("update location set name = name"));
+        String token = response.getHeader(RequestUser.LAST_WRITE_HEADER);
+        assertThat(token).isEqualTo(Long.toString(clock.get()));
+
+        // Otra instancia: no sabe nada de la escritura salvo por el token
+        useRouting(replica);
+        replicaLagsBehind();
+        inRequest("user-1", token);
+        assertThat(readOnlyLocation()).isEqualTo("primary");
+        inRequest("user-1");
+        assertThat(readOnlyLocation()).isEqualTo("replica");
+
+        replicaCatchesUp();
+        inRequest("user-1", token);
+        assertThat(readOnlyLocation()).isEqualTo("replica");
+    }
+
+    @Test
+    void allReadsGoToThePrimaryWhileTheReplicaLagsTooFarBehind() {
+        clock.addAndGet(Duration.ofSeconds(31).toMillis());
+        assertThat(readOnlyLocation()).isEqualTo("primary");
+
+        replicaCatchesUp();
+        assertThat(readOnlyLocation()).isEqualTo("replica");
+        assertThat(connections("primary", "replica-lag")).isEqualTo(1);
+    }
+
+    @Test
+    void theRequestThatWroteKeepsReadingFromThePrimary() {
+        inRequest(null);
+        readWrite.executeWithoutResult(status -> jdbc.update("update location set name = name"));
+
+        assertThat(readOnlyLocation()).isEqualTo("primary");
+    }
+
+    @Test
+    void aRolledBackWriteDoesNotPinTheUser() {
+        inRequest("user-1");
+        readWrite.executeWithoutResult(status -> {
+            jdbc.update("update location set name = name");
+            status.setRollbackOnly();
+        });
+
+        assertThat(readOnlyLocation()).isEqualTo("replica");
+    }
+
+    @Test
+    void readsFallBackToThePrimaryWhenTheReplicaIsDown() {
+        JdbcDataSource down = new JdbcDataSource();
+        down.setURL("jdbc:h2:mem:missing;IFEXISTS=TRUE");
+        useRouting(down);
+        replicaCatchesUp();
+
+        assertThat(readOnlyLocation()).isEqualTo("primary");
+        assertThat(readOnlyLocation()).isEqualTo("primary");
+
+        assertThat(connections("primary", "fallback")).isEqualTo(1);
+        assertThat(connections("primary", "replica-down")).isEqualTo(1);
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    // Una instancia nueva. Su monitor mide con la réplica de verdad aunque la de las conexiones esté caída
+    private void useRouting(DataSource replicaDataSource) {
+        lagMonitor = new ReplicaLagMonitor(primary, replica, Duration.ofSeconds(1), Duration.ofSeconds(30),
+                Duration.ofMillis(500), clock::get);
+        RecentWriteTracker tracker = new RecentWriteTracker(lagMonitor.getMaxLag(), clock::get);
+        ReadWriteRoutingDataSource routing = new ReadWriteRoutingDataSource(primary, replicaDataSource, tracker,
+                lagMonitor, Duration.ofSeconds(30));
+        routing.bindTo(meterRegistry);
+        DataSource dataSource = new LazyConnectionDataSourceProxy(routing);
+        jdbc = new JdbcTemplate(dataSource);
+        DataSourceTransactionManager transactionManager = new DataSourceTransactionManager(dataSource);
+        readWrite = new TransactionTemplate(transactionManager);
+        readOnly = new TransactionTemplate(transactionManager);
+        readOnly.setReadOnly(true);
+    }
+
+    // Un latido después de la última escritura llega a la réplica y el monitor lo ve
+    private void replicaCatchesUp() {
+        clock.addAndGet(1000);
+        lagMonitor.beat();
+        replicate();
+        lagMonitor.beat();
+    }
+
+    // Primeros latidos de una instancia nueva, sin que pase el tiempo desde la última escritura
+    private void replicaLagsBehind() {
+        lagMonitor.beat();
+        replicate();
+        lagMonitor.beat();
+    }
+
+    private void replicate() {
+        JdbcTemplate replicaJdbc = new JdbcTemplate(replica);
+        replicaJdbc.update("delete from " + ReplicaLagMonitor.TABLE);
+        new JdbcTemplate(primary).query("select instance_id, beat_at from " + ReplicaLagMonitor.TABLE,
+                (RowCallbackHandler) row -> replicaJdbc.update("insert into " + ReplicaLagMonitor.TABLE + " values (?, ?)",
+                        row.getString(1), row.getLong(2)));
+    }
+
+    private String readOnlyLocation() {
+        String location = readOnly.execute(status -> location());
+        return location;
+    }
+
+    private String readWriteLocation() {
+        String location = readWrite.execute(status -> location());
+        return location;
+    }
+
+    private String location() {
+        return jdbc.queryForObject("select name from location", String.class);
+    }
+
+    private double connections(String pool, String reason) {
+        var counter = meterRegistry.find(ReadWriteRoutingDataSource.METRIC).tags("pool", pool, "reason", reason).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    private void inRequest(String userId) {
+        inRequest(userId, null);
+    }
+
+    private void inRequest(String userId, String lastWriteToken) {
+        MockHttpServletRequest request = new MockHttpServletRequest();
+        if (userId != null) {
+            request.addHeader(RequestUser.HEADER, userId);
+        }
+        if (lastWriteToken != null) {
+            request.addHeader(RequestUser.LAST_WRITE_HEADER, lastWriteToken);
+        }
+        response = new MockHttpServletResponse();
+        RequestContextHolder.setRequestAttributes(new ServletRequestAttributes(request, response));
+    }
+
+    private static DataSource database(String name) {
+        JdbcDataSource dataSource = new JdbcDataSource();
+        dataSource.setURL("jdbc:h2:mem:" + name + "-" + UUID.randomUUID() + ";DB_CLOSE_DELAY=-1");
+        JdbcTemplate jdbc = new JdbcTemplate(dataSource);
+        jdbc.execute("create table location (name varchar(20))");
+        jdbc.execute("create table " + ReplicaLagMonitor.TABLE + " (instance_id varchar(36) primary key, beat_at bigint not null)");
+        jdbc.update("insert into location values (?)", name);
+        return dataSource;
+    }
+}
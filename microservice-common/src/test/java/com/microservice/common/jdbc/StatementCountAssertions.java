@@ -0,0 +1,55 @@
+package com.microservice.common.jdbc;
+
+import java.util.function.Supplier;
+
+/**
+ * Ayuda para tests: comprueba cuántas sentencias JDBC lanza una llamada a un servicio. Sirve para
+ * fijar que un método no tiene N+1 y que no vuelve a aparecer:
+ *
+ * <pre>
+ * UserPreferencesDTO dto = assertMaxStatements(1, () -&gt; service.getUserPreferences(userId));
+ * </pre>
+ *
+ * El DataSource del test debe estar instrumentado: basta con importar el DatabaseConfig del servicio,
+ * que trae {@link QueryInstrumentationConfiguration}. Solo cuenta las sentencias que llegan a la base
+ * de datos: las que Hibernate aún tiene pendientes de flush al terminar la llamada no entran.
+ *
+ * Va en el test-jar de microservice-common (no en el jar que llega a producción): los servicios lo
+ * añaden como dependencia con type test-jar y scope test.
+ */
+public final class StatementCountAssertions {
+
+    private StatementCountAssertions() {
+    }
+
+    public static <T> T assertMaxStatements(int max, Supplier<T> call) {
+        try (QueryScope scope = QueryScope.open()) {
+            T result = call.get();
+            check(max, scope);
+            return result;
+        }
+    }
+
+    public static void assertMaxStatements(int max, Runnable call) {
+        assertMaxStatements(max, () -> {
+            call.run();
+            return null;
+        });
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private static void check(int max, QueryScope scope) {
+        if (scope.statements() <= max) {
+            return;
+        }
+        StringBuilder message = new StringBuilder()
+                .append("Se esperaban como mucho ").append(max).append(" sentencias y se ejecutaron ")
+                .append(scope.statements()).append(':');
+        int index = 1;
+        for (String sql : scope.executed()) {
+            message.append(System.lineSeparator()).append("  ").append(index++).append(". ").append(sql);
+        }
+        throw new AssertionError(message.toString());
+    }
+}
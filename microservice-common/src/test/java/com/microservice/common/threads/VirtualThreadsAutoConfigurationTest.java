@@ -0,0 +1,49 @@
+package com.microservice.common.threads;
+
+import com.zaxxer.hikari.HikariDataSource;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.autoconfigure.AutoConfigurations;
+import org.springframework.boot.test.context.runner.ApplicationContextRunner;
+
+import java.time.Duration;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class VirtualThreadsAutoConfigurationTest {
+
+    private final ApplicationContextRunner runner = new ApplicationContextRunner()
+            .withConfiguration(AutoConfigurations.of(VirtualThreadsAutoConfiguration.class))
+            .withBean(MeterRegistry.class, SimpleMeterRegistry::new)
+            .withBean("dataSource", HikariDataSource.class, () -> {
+                HikariDataSource dataSource = new HikariDataSource();
+                dataSource.setMaximumPoolSize(10);
+                return dataSource;
+            });
+
+    @Test
+    void platformThreads_ShouldLeaveThePoolsAsConfigured() {
+        runner.withPropertyValues("spring.threads.virtual.enabled=false").run(context -> {
+            assertThat(context).doesNotHaveBean(VirtualThreadPinningMonitor.class);
+            assertThat(context).doesNotHaveBean(VirtualThreadsPoolPostProcessor.class);
+            HikariDataSource dataSource = context.getBean(HikariDataSource.class);
+            // Valores por defecto de Hikari: sin pool fijo ni espera corta
+            assertThat(dataSource.getMinimumIdle()).isEqualTo(-1);
+            assertThat(dataSource.getConnectionTimeout()).isEqualTo(Duration.ofSeconds(30).toMillis());
+        });
+    }
+
+    @Test
+    void postProcessor_ShouldFixThePoolSizeAndShortenTheWait() {
+        HikariDataSource dataSource = new HikariDataSource();
+        dataSource.setMaximumPoolSize(7);
+
+        new VirtualThreadsPoolPostProcessor(Duration.ofMillis(3000))
+                .postProcessAfterInitialization(dataSource, "primaryDataSource");
+
+        assertThat(dataSource.getMinimumIdle()).isEqualTo(7);
+        assertThat(dataSource.getMaximumPoolSize()).isEqualTo(7);
+        assertThat(dataSource.getConnectionTimeout()).isEqualTo(3000);
+    }
+}
@@ -0,0 +1,136 @@
+package com.microservice.common.web;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.mock.web.MockHttpServletRequest;
+import org.springframework.mock.web.MockHttpServletResponse;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.servlet.HandlerMapping;
+
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class CollectionETagInterceptorTest {
+
+    private final UUID userId = UUID.randomUUID();
+    private final AtomicInteger lookups = new AtomicInteger();
+    private String version = "v1";
+    private CollectionETagInterceptor interceptor;
+
+    @BeforeEach
+    void setUp() {
+        interceptor = new CollectionETagInterceptor(List.of(new CollectionVersionSource() {
+            @Override
+            public String collection() {
+                return "items";
+            }
+
+            @Override
+            public String currentVersion(UUID ownerId) {
+                lookups.incrementAndGet();
+                return ownerId.equals(userId) ? version : "otro";
+            }
+        }));
+    }
+
+    @Test
+    void firstRequest_ShouldContinueWithAStrongETag() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean proceed = interceptor.preHandle(pathRequest(null), response, handler("byPath"));
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).startsWith("\"").doesNotStartWith("W/");
+        assertThat(response.getHeader(HttpHeaders.CACHE_CONTROL)).isEqualTo("private, no-cache");
+    }
+
+    @Test
+    void matchingIfNoneMatch_ShouldAnswer304WithoutReachingTheController() throws Exception {
+        String etag = CollectionETagInterceptor.etag("items", userId, "v1");
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean proceed = interceptor.preHandle(pathRequest(etag), response, handler("byPath"));
+
+        assertThat(proceed).isFalse();
+        assertThat(response.getStatus()).isEqualTo(304);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(etag);
+        assertThat(lookups.get()).isEqualTo(1);
+    }
+
+    @Test
+    void changedVersion_ShouldContinueWithTheNewETag() throws Exception {
+        String oldEtag = CollectionETagInterceptor.etag("items", userId, "v1");
+        version = "v2";
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean proceed = interceptor.preHandle(pathRequest(oldEtag), response, handler("byPath"));
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getStatus()).isEqualTo(200);
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isEqualTo(CollectionETagInterceptor.etag("items", userId, "v2"));
+    }
+
+    @Test
+    void ownerFromHeader_ShouldVaryByThatHeaderAndNotMatchOtherUsers() throws Exception {
+        String etag = CollectionETagInterceptor.etag("items", userId, "v1");
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items");
+        request.addHeader("X-User-Id", UUID.randomUUID().toString());
+        request.addHeader(HttpHeaders.IF_NONE_MATCH, etag);
+        MockHttpServletResponse response = new MockHttpServletResponse();
+
+        boolean proceed = interceptor.preHandle(request, response, handler("byHeader"));
+
+        assertThat(proceed).isTrue();
+        assertThat(response.getHeader(HttpHeaders.VARY)).isEqualTo("X-User-Id");
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNotEqualTo(etag);
+    }
+
+    @Test
+    void unannotatedOrInvalidRequests_ShouldBeLeftToTheController() throws Exception {
+        MockHttpServletResponse response = new MockHttpServletResponse();
+        assertThat(interceptor.preHandle(pathRequest(null), response, handler("plain"))).isTrue();
+
+        MockHttpServletRequest invalid = new MockHttpServletRequest("GET", "/items/no-es-un-uuid");
+        invalid.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("userId", "no-es-un-uuid"));
+        assertThat(interceptor.preHandle(invalid, response, handler("byPath"))).isTrue();
+
+        MockHttpServletRequest post = pathRequest(null);
+        post.setMethod("POST");
+        assertThat(interceptor.preHandle(post, response, handler("byPath"))).isTrue();
+
+        assertThat(lookups.get()).isZero();
+        assertThat(response.getHeader(HttpHeaders.ETAG)).isNull();
+    }
+
+    private MockHttpServletRequest pathRequest(String ifNoneMatch) {
+        MockHttpServletRequest request = new MockHttpServletRequest("GET", "/items/" + userId);
+        request.setAttribute(HandlerMapping.URI_TEMPLATE_VARIABLES_ATTRIBUTE, Map.of("userId", userId.toString()));
+        if (ifNoneMatch != null) {
+            request.addHeader(HttpHeaders.IF_NONE_MATCH, ifNoneMatch);
+        }
+        return request;
+    }
+
+    private static HandlerMethod handler(String name) throws NoSuchMethodException {
+        return new HandlerMethod(new ItemController(), ItemController.class.getMethod(name));
+    }
+
+    static class ItemController {
+
+        @CollectionETag("items")
+        public void byPath() {
+        }
+
+        @CollectionETag(value = "items", header = "X-User-Id")
+        public void byHeader() {
+        }
+
+        public void plain() {
+        }
+    }
+}
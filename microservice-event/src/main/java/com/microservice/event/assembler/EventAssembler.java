@@ -24,6 +24,7 @@ public class EventAssembler {
                 .location(event.getLocation())
                 .createdAt(event.getCreatedAt())
                 .updatedAt(event.getUpdatedAt())
+                .version(event.getVersion())
                 .build();
     }
 
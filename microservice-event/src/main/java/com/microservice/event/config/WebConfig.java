@@ -1,22 +1,32 @@
 package com.microservice.event.config;
 
+import com.microservice.common.web.CollectionETagInterceptor;
+import com.microservice.common.web.CollectionVersionSource;
+import org.springframework.beans.factory.ObjectProvider;
 import org.springframework.context.annotation.Bean;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.lang.NonNull;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig {
 
     @Bean
-    public WebMvcConfigurer corsConfigurer() {
+    public WebMvcConfigurer corsConfigurer(ObjectProvider<CollectionVersionSource> versionSources) {
         return new WebMvcConfigurer() {
             public void addCorsMappings(@NonNull CorsRegistry registry) {
                 registry.addMapping("/**")
                     .allowedOrigins("*")
                     .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
-                    .allowedHeaders("*");
+                    .allowedHeaders("*")
+                    .exposedHeaders("ETag");
+            }
+
+            // GET condicional (If-None-Match) en los listados marcados con @CollectionETag
+            public void addInterceptors(@NonNull InterceptorRegistry registry) {
+                registry.addInterceptor(new CollectionETagInterceptor(versionSources.orderedStream().toList()));
             }
         };
     }
@@ -1,11 +1,18 @@
 package com.microservice.event.controller;
 
+import com.microservice.common.web.CollectionETag;
 import com.microservice.event.dto.CreateEventDTO;
+import com.microservice.event.dto.CursorPageDTO;
 import com.microservice.event.dto.EventDTO;
+import com.microservice.event.dto.EventSyncDTO;
 import com.microservice.event.dto.UpdateEventDTO;
+import com.microservice.event.service.EventCollectionVersion;
 import com.microservice.event.service.EventService;
+import com.microservice.event.service.EventSyncService;
 import jakarta.validation.Valid;
 import lombok.RequiredArgsConstructor;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.validation.annotation.Validated;
@@ -22,6 +29,7 @@ import java.util.UUID;
 public class EventController {
 
     private final EventService eventService;
+    private final EventSyncService eventSyncService;
 
     private UUID parseUserId(String userIdHeader) {
         try {
@@ -46,6 +54,7 @@ public class EventController {
 
     // GET /api/events
     @GetMapping
+    @CollectionETag(value = EventCollectionVersion.COLLECTION, header = "X-User-Id")
     public ResponseEntity<List<EventDTO>> getEvents(
             @RequestHeader("X-User-Id") String userIdHeader) {
 
@@ -54,6 +63,43 @@ public class EventController {
         return ResponseEntity.ok(events);
     }
 
+    // GET /api/events/cursor?cursor=...&size=20
+    @GetMapping("/cursor")
+    @CollectionETag(value = EventCollectionVersion.COLLECTION, header = "X-User-Id")
+    public ResponseEntity<CursorPageDTO<EventDTO>> getEventsByCursor(
+            @RequestHeader("X-User-Id") String userIdHeader,
+            @RequestParam(required = false) String cursor,
+            @RequestParam(defaultValue = "20") int size) {
+
+        UUID ownerId = parseUserId(userIdHeader);
+        CursorPageDTO<EventDTO> events = eventService.getEventsByCursor(ownerId, cursor, size);
+        return ResponseEntity.ok(events);
+    }
+
+    // GET /api/events/slice?page=0&size=20 (sin COUNT del total)
+    @GetMapping("/slice")
+    @CollectionETag(value = EventCollectionVersion.COLLECTION, header = "X-User-Id")
+    public ResponseEntity<Slice<EventDTO>> getEventsSlice(
+            @RequestHeader("X-User-Id") String userIdHeader,
+            Pageable pageable) {
+
+        UUID ownerId = parseUserId(userIdHeader);
+        Slice<EventDTO> events = eventService.getEventsSliceByOwner(ownerId, pageable);
+        return ResponseEntity.ok(events);
+    }
+
+    // GET /api/events/sync?since=...&limit=200 (creados, modificados o borrados desde el token)
+    @GetMapping("/sync")
+    public ResponseEntity<EventSyncDTO> syncEvents(
+            @RequestHeader("X-User-Id") String userIdHeader,
+            @RequestParam(required = false) String since,
+            @RequestParam(defaultValue = "200") int limit) {
+
+        UUID ownerId = parseUserId(userIdHeader);
+        EventSyncDTO changes = eventSyncService.getChanges(ownerId, since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
     // GET /api/events/{id}
     @GetMapping("/{id}")
     public ResponseEntity<EventDTO> getEvent(
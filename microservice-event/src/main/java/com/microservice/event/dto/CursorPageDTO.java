@@ -0,0 +1,18 @@
+package com.microservice.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class CursorPageDTO<T> {
+    private List<T> content;
+    // Token opaco para pedir la página siguiente (null si no hay más)
+    private String nextCursor;
+    private boolean hasNext;
+    private int size;
+}
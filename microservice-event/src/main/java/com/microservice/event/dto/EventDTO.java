@@ -19,4 +19,6 @@ public class EventDTO {
     private String location;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Versión actual: se reenvía en UpdateEventDTO para detectar cambios concurrentes
+    private Long version;
 }
@@ -0,0 +1,23 @@
+package com.microservice.event.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSyncDTO {
+    // Eventos creados o modificados desde el token recibido
+    private List<EventDTO> changed;
+    // Eventos borrados desde el token recibido
+    private List<UUID> deleted;
+    // Token para la siguiente sincronización (o la siguiente página si hasMore)
+    private String nextToken;
+    private boolean hasMore;
+    // El token era demasiado antiguo: changed trae todos los eventos y el cliente debe descartar los suyos
+    private boolean resetRequired;
+}
@@ -25,4 +25,7 @@ public class UpdateEventDTO {
     private LocalDateTime eventTimestamp;
 
     private String location;
+
+    // Versión que leyó el cliente (EventDTO.version); si el evento cambió desde entonces se responde 409
+    private Long version;
 }
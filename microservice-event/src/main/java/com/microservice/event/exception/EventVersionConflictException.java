@@ -0,0 +1,11 @@
+package com.microservice.event.exception;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+@ResponseStatus(HttpStatus.CONFLICT)
+public class EventVersionConflictException extends RuntimeException {
+    public EventVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.microservice.event.model;
 
+import com.microservice.event.sync.EventSyncListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -12,8 +13,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "events")
-@EntityListeners(AuditingEntityListener.class)
+@Table(name = "events", indexes = {
+        @Index(name = "idx_events_owner_created", columnList = "owner_id, created_at"),
+        @Index(name = "idx_events_owner_updated", columnList = "owner_id, updated_at"),
+        @Index(name = "idx_events_owner_change", columnList = "owner_id, change_seq")
+})
+@EntityListeners({AuditingEntityListener.class, EventSyncListener.class})
 @Getter
 @Setter
 @NoArgsConstructor
@@ -44,6 +49,11 @@ public class Event {
     @Column(name = "location", length = 255)
     private String location;
 
+    // Bloqueo optimista: cada escritura la incrementa y un cliente con una versión antigua recibe 409
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
@@ -51,4 +61,9 @@ public class Event {
     @LastModifiedDate
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
+
+    // Número del último cambio para la sincronización incremental; lo asigna EventChangeTracker al confirmar
+    @Column(name = "change_seq", insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long changeSeq;
 }
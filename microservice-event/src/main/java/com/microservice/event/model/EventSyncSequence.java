@@ -0,0 +1,31 @@
+package com.microservice.event.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Secuencia de cambios de los eventos de un dueño para la sincronización incremental.
+ * lastSeq es el último número asignado (ver EventChangeTracker); purgedSeq, el número más alto
+ * de las lápidas ya compactadas: un token anterior obliga al cliente a descargarlo todo de nuevo.
+ */
+@Entity
+@Table(name = "event_sync_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventSyncSequence {
+
+    @Id
+    @Column(name = "owner_id")
+    private UUID ownerId;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+
+    @Column(name = "purged_seq", nullable = false)
+    private Long purgedSeq;
+}
@@ -0,0 +1,38 @@
+package com.microservice.event.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Rastro de un evento borrado para que los clientes sin conexión lo apliquen en su próxima sincronización.
+ * Las escribe EventChangeTracker al confirmar el borrado y EventTombstoneCompactor las elimina
+ * pasado el periodo de retención.
+ */
+@Entity
+@Table(name = "event_tombstones", indexes = {
+        @Index(name = "idx_event_tombstones_owner_change", columnList = "owner_id, change_seq"),
+        @Index(name = "idx_event_tombstones_deleted", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class EventTombstone {
+
+    @Id
+    @Column(name = "event_id")
+    private UUID eventId;
+
+    @Column(name = "owner_id", nullable = false)
+    private UUID ownerId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
@@ -0,0 +1,13 @@
+package com.microservice.event.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Aggregates over a user's events that change with every insert, update or delete.
+ */
+public interface EventCollectionVersionProjection {
+
+    long getCount();
+
+    LocalDateTime getLastUpdated();
+}
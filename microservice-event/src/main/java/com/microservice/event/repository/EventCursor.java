@@ -0,0 +1,49 @@
+package com.microservice.event.repository;
+
+import com.microservice.event.exception.InvalidEventDataException;
+import com.microservice.event.model.Event;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Token de continuación para la paginación por cursor (keyset) de eventos.
+ * Codifica la clave de orden (createdAt, id) del último evento entregado; para el cliente es opaco.
+ */
+@Getter
+@AllArgsConstructor
+public final class EventCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    public static EventCursor of(Event event) {
+        // La columna guarda microsegundos: una entidad recién creada aún conserva los nanosegundos
+        return new EventCursor(event.getCreatedAt().truncatedTo(ChronoUnit.MICROS), event.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static EventCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Número de campos inesperado");
+            }
+            return new EventCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new InvalidEventDataException("Cursor de paginación inválido");
+        }
+    }
+}
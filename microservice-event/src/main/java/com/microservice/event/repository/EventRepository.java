@@ -3,11 +3,14 @@ package com.microservice.event.repository;
 import com.microservice.event.model.Event;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -20,6 +23,20 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
     // 2. PAGINATION: Same as above, but paginated
     Page<Event> findByOwnerIdOrderByCreatedAtDesc(UUID ownerId, Pageable pageable);
 
+    // 2b. SLICE: Same as pagination but without the COUNT(*) query for the total
+    Slice<Event> findSliceByOwnerIdOrderByCreatedAtDescIdDesc(UUID ownerId, Pageable pageable);
+
+    // 2c. CURSOR: First page and following pages by key (createdAt, id), without OFFSET
+    List<Event> findByOwnerIdOrderByCreatedAtDescIdDesc(UUID ownerId, Pageable pageable);
+
+    @Query("SELECT e FROM Event e WHERE e.ownerId = :ownerId AND " +
+           "(e.createdAt < :createdAt OR (e.createdAt = :createdAt AND e.id < :id)) " +
+           "ORDER BY e.createdAt DESC, e.id DESC")
+    List<Event> findPageAfter(@Param("ownerId") UUID ownerId,
+                              @Param("createdAt") LocalDateTime createdAt,
+                              @Param("id") UUID id,
+                              Pageable pageable);
+
     // 3. SEARCH: Search text in title or description for that owner
     @Query("SELECT e FROM Event e WHERE e.ownerId = :ownerId AND " +
            "(LOWER(e.title) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
@@ -30,9 +47,40 @@ public interface EventRepository extends JpaRepository<Event, UUID> {
     // 4. STATS: Count how many events the user has
     long countByOwnerId(UUID ownerId);
 
+    // 4b. VERSION: For conditional GET (ETag); only scans idx_events_owner_updated
+    @Query("SELECT COUNT(e) AS count, MAX(e.updatedAt) AS lastUpdated FROM Event e WHERE e.ownerId = :ownerId")
+    EventCollectionVersionProjection getCollectionVersion(@Param("ownerId") UUID ownerId);
+
+    // 4c. SYNC: Changes after a change number, served by idx_events_owner_change
+    List<Event> findByOwnerIdAndChangeSeqGreaterThanOrderByChangeSeqAscIdAsc(UUID ownerId, long changeSeq, Pageable pageable);
+
+    List<Event> findByOwnerIdAndChangeSeq(UUID ownerId, long changeSeq);
+
     // 5. SECURITY: Check if an event belongs to the user before edit/delete
     boolean existsByIdAndOwnerId(UUID id, UUID ownerId);
 
+    // 5b. CONDITIONAL WRITES: owner (and version, when given) checked by the statement itself,
+    // no prior read; they return the affected rows. They bypass the Event entity listeners.
+    @Modifying
+    @Query("UPDATE Event e SET e.title = COALESCE(:title, e.title), " +
+           "e.description = COALESCE(:description, e.description), " +
+           "e.eventTimestamp = COALESCE(:eventTimestamp, e.eventTimestamp), " +
+           "e.location = COALESCE(:location, e.location), " +
+           "e.updatedAt = :now, e.version = e.version + 1 " +
+           "WHERE e.id = :id AND e.ownerId = :ownerId AND (:version IS NULL OR e.version = :version)")
+    int updateIfOwned(@Param("id") UUID id,
+                      @Param("ownerId") UUID ownerId,
+                      @Param("version") Long version,
+                      @Param("title") String title,
+                      @Param("description") String description,
+                      @Param("eventTimestamp") LocalDateTime eventTimestamp,
+                      @Param("location") String location,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM Event e WHERE e.id = :id AND e.ownerId = :ownerId")
+    int deleteIfOwned(@Param("id") UUID id, @Param("ownerId") UUID ownerId);
+
     // 6. CLEANUP: Delete all events of a user (for when the user deletes the account)
     void deleteByOwnerId(UUID ownerId);
 }
@@ -0,0 +1,12 @@
+package com.microservice.event.repository;
+
+import com.microservice.event.model.EventTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+// Las lecturas y la compactación van por SyncFeed (SQL nativo sobre TABLES de EventChangeTracker)
+@Repository
+public interface EventTombstoneRepository extends JpaRepository<EventTombstone, UUID> {
+}
@@ -0,0 +1,37 @@
+package com.microservice.event.scheduler;
+
+import com.microservice.common.sync.TombstoneCompactor;
+import com.microservice.event.service.EventSyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Programa la compactación de las lápidas de eventos borrados (ver {@link TombstoneCompactor}).
+ */
+@Component
+public class EventTombstoneCompactor {
+
+    private final TombstoneCompactor compactor;
+
+    @Autowired
+    public EventTombstoneCompactor(EventSyncService syncService,
+                                  @Value("${events.sync.tombstone-retention-days:30}") long retentionDays,
+                                  @Value("${events.sync.compaction-batch-size:1000}") int batchSize) {
+        this.compactor = new TombstoneCompactor("eventos", Duration.ofDays(retentionDays), batchSize,
+                syncService::purgeTombstones);
+    }
+
+    @Scheduled(fixedDelayString = "${events.sync.compaction-delay-ms:3600000}")
+    public void run() {
+        compact(LocalDateTime.now());
+    }
+
+    long compact(LocalDateTime now) {
+        return compactor.compact(now);
+    }
+}
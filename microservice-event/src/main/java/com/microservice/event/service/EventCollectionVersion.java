@@ -0,0 +1,39 @@
+package com.microservice.event.service;
+
+import com.microservice.common.web.CollectionVersionSource;
+import com.microservice.event.repository.EventCollectionVersionProjection;
+import com.microservice.event.repository.EventRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Versión de los eventos de un usuario para los listados con ETag (ver EventController):
+ * número de eventos y última modificación. Un alta o un cambio mueven la fecha, una baja el número.
+ */
+@Service
+@Transactional(readOnly = true)
+public class EventCollectionVersion implements CollectionVersionSource {
+
+    public static final String COLLECTION = "events";
+
+    private final EventRepository eventRepository;
+
+    @Autowired
+    public EventCollectionVersion(EventRepository eventRepository) {
+        this.eventRepository = eventRepository;
+    }
+
+    @Override
+    public String collection() {
+        return COLLECTION;
+    }
+
+    @Override
+    public String currentVersion(UUID ownerId) {
+        EventCollectionVersionProjection version = eventRepository.getCollectionVersion(ownerId);
+        return version.getCount() + "|" + version.getLastUpdated();
+    }
+}
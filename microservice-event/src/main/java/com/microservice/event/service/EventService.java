@@ -2,20 +2,27 @@ package com.microservice.event.service;
 
 import com.microservice.event.assembler.EventAssembler;
 import com.microservice.event.dto.CreateEventDTO;
+import com.microservice.event.dto.CursorPageDTO;
 import com.microservice.event.dto.EventDTO;
 import com.microservice.event.dto.UpdateEventDTO;
 import com.microservice.event.exception.EventNotFoundException;
+import com.microservice.event.exception.EventVersionConflictException;
 import com.microservice.event.exception.InvalidEventDataException;
 import com.microservice.event.exception.UnauthorizedEventAccessException;
 import com.microservice.event.model.Event;
+import com.microservice.event.repository.EventCursor;
 import com.microservice.event.repository.EventRepository;
+import com.microservice.event.sync.EventChangeTracker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,13 +31,18 @@ import java.util.UUID;
 @Slf4j
 public class EventService {
 
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final EventRepository eventRepository;
     private final EventAssembler eventAssembler;
+    private final EventChangeTracker changeTracker;
 
     @Autowired
-    public EventService(EventRepository eventRepository, EventAssembler eventAssembler) {
+    public EventService(EventRepository eventRepository, EventAssembler eventAssembler,
+                        EventChangeTracker changeTracker) {
         this.eventRepository = eventRepository;
         this.eventAssembler = eventAssembler;
+        this.changeTracker = changeTracker;
     }
 
     // ============= CRUD BÁSICO =============
@@ -51,6 +63,45 @@ public class EventService {
         return events.map(eventAssembler::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<EventDTO> getEventsSliceByOwner(UUID ownerId, Pageable pageable) {
+        log.debug("Obteniendo eventos (slice) del owner: {}", ownerId);
+        Slice<Event> events = eventRepository.findSliceByOwnerIdOrderByCreatedAtDescIdDesc(ownerId, pageable);
+        return events.map(eventAssembler::toDTO);
+    }
+
+    /**
+     * Paginación por cursor: la página siguiente se pide por la clave del último evento
+     * entregado, así que la página N cuesta lo mismo que la primera y no hay COUNT(*).
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<EventDTO> getEventsByCursor(UUID ownerId, String cursor, int size) {
+        log.debug("Obteniendo eventos por cursor del owner: {}", ownerId);
+        if (size < 1) {
+            throw new InvalidEventDataException("El tamaño de página debe ser mayor que cero");
+        }
+        int pageSize = Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        // Una fila de más para saber si existe página siguiente
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<Event> events;
+        if (cursor == null || cursor.isBlank()) {
+            events = eventRepository.findByOwnerIdOrderByCreatedAtDescIdDesc(ownerId, limit);
+        } else {
+            EventCursor after = EventCursor.decode(cursor);
+            events = eventRepository.findPageAfter(ownerId, after.getCreatedAt(), after.getId(), limit);
+        }
+
+        boolean hasNext = events.size() > pageSize;
+        List<Event> content = hasNext ? events.subList(0, pageSize) : events;
+        String nextCursor = hasNext ? EventCursor.of(content.get(content.size() - 1)).encode() : null;
+
+        List<EventDTO> dtos = content.stream()
+                .map(eventAssembler::toDTO)
+                .toList();
+        return new CursorPageDTO<>(dtos, nextCursor, hasNext, dtos.size());
+    }
+
     @Transactional(readOnly = true)
     public EventDTO getEventByIdAndOwner(UUID eventId, UUID ownerId) {
         log.debug("Obteniendo evento {} del owner {}", eventId, ownerId);
@@ -78,35 +129,35 @@ public class EventService {
         return eventAssembler.toDTO(savedEvent);
     }
 
+    /**
+     * Un único UPDATE comprueba dueño y versión (si el cliente la envía) y aplica los campos no nulos.
+     * Solo si no afecta a ninguna fila se lee el evento para distinguir 404, 403 y 409.
+     */
     public EventDTO updateEvent(UUID eventId, UpdateEventDTO updateEventDTO, UUID ownerId) {
         log.debug("Actualizando evento {} del owner {}", eventId, ownerId);
 
-        Event existingEvent = eventRepository.findById(eventId)
-                .orElseThrow(() -> new EventNotFoundException("Evento no encontrado con ID: " + eventId));
-
-        if (!existingEvent.getOwnerId().equals(ownerId)) {
-            throw new UnauthorizedEventAccessException("No tienes permiso para actualizar este evento");
+        int updated = eventRepository.updateIfOwned(eventId, ownerId, updateEventDTO.getVersion(),
+                updateEventDTO.getTitle(), updateEventDTO.getDescription(), updateEventDTO.getEventTimestamp(),
+                updateEventDTO.getLocation(), LocalDateTime.now());
+        if (updated == 0) {
+            throw rejectedWrite(eventId, ownerId, updateEventDTO.getVersion(), "actualizar");
         }
-
-        Event updatedEvent = eventAssembler.update(existingEvent, updateEventDTO);
-
-        Event savedEvent = eventRepository.save(updatedEvent);
+        // El UPDATE en bloque no pasa por EventSyncListener
+        changeTracker.recordChanges(ownerId, List.of(eventId));
         log.info("Evento actualizado exitosamente: {}", eventId);
 
+        Event savedEvent = eventRepository.findById(eventId)
+                .orElseThrow(() -> new EventNotFoundException("Evento no encontrado con ID: " + eventId));
         return eventAssembler.toDTO(savedEvent);
     }
 
     public void deleteEvent(UUID eventId, UUID ownerId) {
         log.debug("Eliminando evento {} del owner {}", eventId, ownerId);
 
-        Event event = eventRepository.findById(eventId)
-                .orElseThrow(() -> new EventNotFoundException("Evento no encontrado con ID: " + eventId));
-
-        if (!event.getOwnerId().equals(ownerId)) {
-            throw new UnauthorizedEventAccessException("No tienes permiso para eliminar este evento");
+        if (eventRepository.deleteIfOwned(eventId, ownerId) == 0) {
+            throw rejectedWrite(eventId, ownerId, null, "eliminar");
         }
-
-        eventRepository.delete(event);
+        changeTracker.recordDeletions(ownerId, List.of(eventId));
         log.info("Evento eliminado exitosamente: {}", eventId);
     }
 
@@ -134,6 +185,20 @@ public class EventService {
 
     // ============= MÉTODOS PRIVADOS =============
 
+    // La escritura condicional no tocó ninguna fila: se averigua por qué
+    private RuntimeException rejectedWrite(UUID eventId, UUID ownerId, Long expectedVersion, String action) {
+        Event event = eventRepository.findById(eventId).orElse(null);
+        if (event == null) {
+            return new EventNotFoundException("Evento no encontrado con ID: " + eventId);
+        }
+        if (!event.getOwnerId().equals(ownerId)) {
+            return new UnauthorizedEventAccessException("No tienes permiso para " + action + " este evento");
+        }
+        log.debug("Conflicto de versión en el evento {}: esperada {}, actual {}", eventId, expectedVersion, event.getVersion());
+        return new EventVersionConflictException("El evento " + eventId + " ha sido modificado (versión actual "
+                + event.getVersion() + ", enviada " + expectedVersion + ")");
+    }
+
     private void validateCreateEventDTO(CreateEventDTO createEventDTO) {
         if (createEventDTO.getOwnerId() == null) {
             throw new InvalidEventDataException("El ID del owner es requerido");
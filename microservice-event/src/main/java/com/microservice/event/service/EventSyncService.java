@@ -0,0 +1,66 @@
+package com.microservice.event.service;
+
+import com.microservice.common.sync.InvalidSyncTokenException;
+import com.microservice.common.sync.SyncFeed;
+import com.microservice.common.sync.SyncPage;
+import com.microservice.event.assembler.EventAssembler;
+import com.microservice.event.dto.EventSyncDTO;
+import com.microservice.event.exception.InvalidEventDataException;
+import com.microservice.event.model.Event;
+import com.microservice.event.repository.EventRepository;
+import com.microservice.event.sync.EventChangeTracker;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Sincronización incremental de eventos para clientes sin conexión (ver {@link SyncFeed}).
+ */
+@Service
+@Transactional
+public class EventSyncService {
+
+    private final SyncFeed<Event> feed;
+    private final EventAssembler eventAssembler;
+
+    @Autowired
+    public EventSyncService(EntityManager entityManager, EventRepository eventRepository, EventAssembler eventAssembler) {
+        this.feed = new SyncFeed<>(entityManager, EventChangeTracker.TABLES,
+                eventRepository::findByOwnerIdAndChangeSeqGreaterThanOrderByChangeSeqAscIdAsc,
+                eventRepository::findByOwnerIdAndChangeSeq,
+                Event::getChangeSeq);
+        this.eventAssembler = eventAssembler;
+    }
+
+    // ============= SINCRONIZACIÓN =============
+
+    @Transactional(readOnly = true)
+    public EventSyncDTO getChanges(UUID ownerId, String token, int limit) {
+        SyncPage<Event> page;
+        try {
+            page = feed.read(ownerId, token, limit);
+        } catch (InvalidSyncTokenException e) {
+            throw new InvalidEventDataException("Token de sincronización inválido");
+        }
+        return new EventSyncDTO(
+                page.changed().stream().map(eventAssembler::toDTO).toList(),
+                page.deleted(),
+                page.nextToken(),
+                page.hasMore(),
+                page.resetRequired());
+    }
+
+    // ============= COMPACTACIÓN =============
+
+    /**
+     * Borra hasta batchSize lápidas anteriores a before y sube purgedSeq de sus dueños.
+     * Devuelve cuántas borró.
+     */
+    public int purgeTombstones(LocalDateTime before, int batchSize) {
+        return feed.purgeTombstones(before, batchSize);
+    }
+}
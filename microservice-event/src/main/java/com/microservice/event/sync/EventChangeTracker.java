@@ -0,0 +1,23 @@
+package com.microservice.event.sync;
+
+import com.microservice.common.sync.ChangeTracker;
+import com.microservice.common.sync.SyncTables;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Numera los cambios de los eventos de cada dueño para la sincronización incremental
+ * (ver {@link ChangeTracker} y EventSyncService).
+ */
+@Component
+public class EventChangeTracker extends ChangeTracker {
+
+    public static final SyncTables TABLES =
+            new SyncTables("events", "owner_id", "event_sync_sequences", "event_tombstones", "event_id");
+
+    @Autowired
+    public EventChangeTracker(EntityManager entityManager) {
+        super(entityManager, TABLES);
+    }
+}
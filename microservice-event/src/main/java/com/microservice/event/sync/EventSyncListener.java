@@ -0,0 +1,29 @@
+package com.microservice.event.sync;
+
+import com.microservice.common.sync.ChangeTrackingListener;
+import com.microservice.event.model.Event;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Anota en {@link EventChangeTracker} cada escritura de una entidad Event para numerarla al confirmar.
+ */
+public class EventSyncListener extends ChangeTrackingListener<Event> {
+
+    public EventSyncListener(ObjectProvider<EventChangeTracker> changeTracker) {
+        super(changeTracker, Event::getOwnerId, Event::getId);
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onWrite(Event event) {
+        written(event);
+    }
+
+    @PostRemove
+    void onRemove(Event event) {
+        removed(event);
+    }
+}
@@ -0,0 +1,156 @@
+package com.microservice.event.service;
+
+import com.microservice.event.assembler.EventAssembler;
+import com.microservice.event.config.DatabaseConfig;
+import com.microservice.event.dto.CreateEventDTO;
+import com.microservice.event.dto.EventDTO;
+import com.microservice.event.dto.UpdateEventDTO;
+import com.microservice.event.exception.EventNotFoundException;
+import com.microservice.event.exception.EventVersionConflictException;
+import com.microservice.event.exception.UnauthorizedEventAccessException;
+import com.microservice.event.model.Event;
+import com.microservice.event.repository.EventRepository;
+import com.microservice.event.sync.EventChangeTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Cada escritura se confirma de verdad para comprobar la versión que queda en la base de datos
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import({EventService.class, EventAssembler.class, EventChangeTracker.class, DatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventServiceConditionalWriteTest {
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM events WHERE owner_id = ?", ownerId);
+        jdbcTemplate.update("DELETE FROM event_tombstones WHERE owner_id = ?", ownerId);
+    }
+
+    @Test
+    void updateEvent_ShouldApplyTheFieldsBumpTheVersionAndNumberTheChange() {
+        EventDTO event = eventService.createEvent(create("Reunión"));
+        assertThat(event.getVersion()).isZero();
+        long seqBefore = changeSeq(event.getId());
+
+        UpdateEventDTO update = new UpdateEventDTO();
+        update.setTitle("Reunión movida");
+        update.setLocation("Sala 2");
+        update.setVersion(event.getVersion());
+        EventDTO updated = eventService.updateEvent(event.getId(), update, ownerId);
+
+        assertThat(updated.getTitle()).isEqualTo("Reunión movida");
+        assertThat(updated.getLocation()).isEqualTo("Sala 2");
+        // Los campos no enviados se conservan
+        assertThat(updated.getDescription()).isEqualTo("Descripción");
+        assertThat(updated.getVersion()).isEqualTo(1);
+        // El UPDATE en bloque no pasa por el listener: el servicio anota el cambio
+        assertThat(changeSeq(event.getId())).isGreaterThan(seqBefore);
+    }
+
+    @Test
+    void updateEvent_ShouldRejectAStaleVersionWithAConflictWithoutOverwriting() {
+        EventDTO event = eventService.createEvent(create("Versión 0"));
+        UpdateEventDTO rename = new UpdateEventDTO();
+        rename.setTitle("Versión 1");
+        rename.setVersion(event.getVersion());
+        assertThat(eventService.updateEvent(event.getId(), rename, ownerId).getVersion()).isEqualTo(1);
+
+        // Otro cliente escribe con la versión que leyó antes del cambio
+        UpdateEventDTO lostUpdate = new UpdateEventDTO();
+        lostUpdate.setTitle("Pisada");
+        lostUpdate.setVersion(event.getVersion());
+        assertThatThrownBy(() -> eventService.updateEvent(event.getId(), lostUpdate, ownerId))
+                .isInstanceOf(EventVersionConflictException.class);
+
+        Event current = eventRepository.findById(event.getId()).orElseThrow();
+        assertThat(current.getTitle()).isEqualTo("Versión 1");
+        assertThat(current.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void writesFromAnotherOwner_ShouldBeRejectedAndLeaveTheEventUntouched() {
+        EventDTO event = eventService.createEvent(create("Privado"));
+        UUID intruderId = UUID.randomUUID();
+        UpdateEventDTO update = new UpdateEventDTO();
+        update.setTitle("Ajeno");
+
+        assertThatThrownBy(() -> eventService.updateEvent(event.getId(), update, intruderId))
+                .isInstanceOf(UnauthorizedEventAccessException.class);
+        assertThatThrownBy(() -> eventService.deleteEvent(event.getId(), intruderId))
+                .isInstanceOf(UnauthorizedEventAccessException.class);
+
+        Event current = eventRepository.findById(event.getId()).orElseThrow();
+        assertThat(current.getTitle()).isEqualTo("Privado");
+        assertThat(current.getVersion()).isZero();
+    }
+
+    @Test
+    void writesToAMissingEvent_ShouldBeRejectedAsNotFound() {
+        UUID missingId = UUID.randomUUID();
+        UpdateEventDTO update = new UpdateEventDTO();
+        update.setTitle("Nada");
+        update.setVersion(0L);
+
+        assertThatThrownBy(() -> eventService.updateEvent(missingId, update, ownerId))
+                .isInstanceOf(EventNotFoundException.class);
+        assertThatThrownBy(() -> eventService.deleteEvent(missingId, ownerId))
+                .isInstanceOf(EventNotFoundException.class);
+    }
+
+    @Test
+    void deleteEvent_ShouldRemoveTheRowAndLeaveATombstone() {
+        EventDTO event = eventService.createEvent(create("Se borra"));
+
+        eventService.deleteEvent(event.getId(), ownerId);
+
+        assertThat(eventRepository.existsById(event.getId())).isFalse();
+        assertThat(jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM event_tombstones WHERE event_id = ?", Integer.class, event.getId())).isEqualTo(1);
+    }
+
+    private long changeSeq(UUID eventId) {
+        return jdbcTemplate.queryForObject("SELECT change_seq FROM events WHERE id = ?", Long.class, eventId);
+    }
+
+    private CreateEventDTO create(String title) {
+        CreateEventDTO dto = new CreateEventDTO();
+        dto.setOwnerId(ownerId);
+        dto.setTitle(title);
+        dto.setDescription("Descripción");
+        dto.setEventTimestamp(LocalDateTime.now().plusDays(1));
+        return dto;
+    }
+}
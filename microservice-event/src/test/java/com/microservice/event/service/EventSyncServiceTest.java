@@ -0,0 +1,162 @@
+package com.microservice.event.service;
+
+import com.microservice.event.assembler.EventAssembler;
+import com.microservice.event.config.DatabaseConfig;
+import com.microservice.event.dto.CreateEventDTO;
+import com.microservice.event.dto.EventDTO;
+import com.microservice.event.dto.EventSyncDTO;
+import com.microservice.event.dto.UpdateEventDTO;
+import com.microservice.event.exception.InvalidEventDataException;
+import com.microservice.event.model.Event;
+import com.microservice.event.repository.EventRepository;
+import com.microservice.event.repository.EventTombstoneRepository;
+import com.microservice.event.sync.EventChangeTracker;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Los números de cambio se asignan al confirmar: cada escritura se confirma de verdad
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({EventSyncService.class, EventService.class, EventAssembler.class, EventChangeTracker.class, DatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class EventSyncServiceTest {
+
+    @Autowired
+    private EventSyncService syncService;
+
+    @Autowired
+    private EventService eventService;
+
+    @Autowired
+    private EventRepository eventRepository;
+
+    @Autowired
+    private EventTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID ownerId;
+
+    @BeforeEach
+    void setUp() {
+        ownerId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        jdbcTemplate.update("DELETE FROM events WHERE owner_id = ?", ownerId);
+        tombstoneRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void syncSinceToken_ShouldReturnOnlyLaterWritesAndDeletions() {
+        EventDTO kept = eventService.createEvent(create("Se modifica"));
+        EventDTO removed = eventService.createEvent(create("Se borra"));
+        EventDTO untouched = eventService.createEvent(create("Sin cambios"));
+        EventSyncDTO initial = syncService.getChanges(ownerId, null, 100);
+        assertThat(initial.getChanged()).hasSize(3);
+        assertThat(initial.isResetRequired()).isFalse();
+
+        UpdateEventDTO update = new UpdateEventDTO();
+        update.setTitle("Modificado");
+        eventService.updateEvent(kept.getId(), update, ownerId);
+        eventService.deleteEvent(removed.getId(), ownerId);
+        EventDTO added = eventService.createEvent(create("Nuevo"));
+        EventSyncDTO changes = syncService.getChanges(ownerId, initial.getNextToken(), 100);
+
+        assertThat(changes.getChanged()).extracting(EventDTO::getId)
+                .containsExactly(kept.getId(), added.getId())
+                .doesNotContain(untouched.getId());
+        assertThat(changes.getChanged().get(0).getTitle()).isEqualTo("Modificado");
+        assertThat(changes.getDeleted()).containsExactly(removed.getId());
+
+        // Sin cambios nuevos solo se lee la secuencia del dueño
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        EventSyncDTO noop = syncService.getChanges(ownerId, changes.getNextToken(), 100);
+        assertThat(noop.getChanged()).isEmpty();
+        assertThat(noop.getDeleted()).isEmpty();
+        assertThat(noop.getNextToken()).isEqualTo(changes.getNextToken());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void pages_ShouldNeverSplitTheChangesOfOneTransaction() {
+        List<Event> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Event event = new Event();
+            event.setOwnerId(ownerId);
+            event.setTitle("Lote " + i);
+            event.setEventTimestamp(LocalDateTime.now().plusDays(i));
+            batch.add(event);
+        }
+        eventRepository.saveAll(batch); // Una sola transacción: un único número de cambio
+        EventDTO later = eventService.createEvent(create("Después"));
+
+        EventSyncDTO firstPage = syncService.getChanges(ownerId, null, 2);
+        assertThat(firstPage.getChanged()).hasSize(5);
+        assertThat(firstPage.isHasMore()).isTrue();
+
+        EventSyncDTO secondPage = syncService.getChanges(ownerId, firstPage.getNextToken(), 2);
+        assertThat(secondPage.getChanged()).extracting(EventDTO::getId).containsExactly(later.getId());
+        assertThat(secondPage.isHasMore()).isFalse();
+    }
+
+    @Test
+    void compaction_ShouldPurgeOldTombstonesAndForceAResetOnOlderTokens() {
+        EventDTO kept = eventService.createEvent(create("Sigue"));
+        EventDTO removed = eventService.createEvent(create("Se borra"));
+        String oldToken = syncService.getChanges(ownerId, null, 100).getNextToken();
+        eventService.deleteEvent(removed.getId(), ownerId);
+        jdbcTemplate.update("UPDATE event_tombstones SET deleted_at = ?", LocalDateTime.now().minusDays(31));
+
+        assertThat(syncService.purgeTombstones(LocalDateTime.now().minusDays(30), 100)).isEqualTo(1);
+        assertThat(tombstoneRepository.count()).isZero();
+
+        EventSyncDTO reset = syncService.getChanges(ownerId, oldToken, 100);
+        assertThat(reset.isResetRequired()).isTrue();
+        assertThat(reset.getChanged()).extracting(EventDTO::getId).containsExactly(kept.getId());
+    }
+
+    @Test
+    void getChanges_ShouldRejectMalformedTokens() {
+        assertThatThrownBy(() -> syncService.getChanges(ownerId, "abc", 100))
+                .isInstanceOf(InvalidEventDataException.class);
+        assertThatThrownBy(() -> syncService.getChanges(ownerId, "-5", 100))
+                .isInstanceOf(InvalidEventDataException.class);
+    }
+
+    private CreateEventDTO create(String title) {
+        CreateEventDTO dto = new CreateEventDTO();
+        dto.setOwnerId(ownerId);
+        dto.setTitle(title);
+        dto.setEventTimestamp(LocalDateTime.now().plusDays(1));
+        return dto;
+    }
+}
@@ -1,6 +1,7 @@
 package com.microservice.gateway.config;
 
 import com.microservice.gateway.filter.JwtAuthenticationFilter;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.cloud.gateway.route.RouteLocator;
 import org.springframework.cloud.gateway.route.builder.RouteLocatorBuilder;
 import org.springframework.context.annotation.Bean;
@@ -8,12 +9,27 @@ import org.springframework.context.annotation.Configuration;
 
 /**
  * Configuración de rutas del Gateway con filtro JWT aplicado
+ *
+ * Los destinos se pueden sobrescribir con gateway.routes.*-uri (el arnés de carga levanta los
+ * servicios en puertos libres); por defecto apuntan a los puertos locales de desarrollo.
  */
 @Configuration
 public class GatewayConfig {
 
     private final JwtAuthenticationFilter jwtAuthenticationFilter;
 
+    @Value("${gateway.routes.user-uri:http://localhost:8080}")
+    private String userUri;
+
+    @Value("${gateway.routes.task-uri:http://localhost:8071}")
+    private String taskUri;
+
+    @Value("${gateway.routes.note-uri:http://localhost:9090}")
+    private String noteUri;
+
+    @Value("${gateway.routes.event-uri:http://localhost:9091}")
+    private String eventUri;
+
     public GatewayConfig(JwtAuthenticationFilter jwtAuthenticationFilter) {
         this.jwtAuthenticationFilter = jwtAuthenticationFilter;
     }
@@ -24,30 +40,30 @@ public class GatewayConfig {
                 // Ruta para autenticación (públicas)
                 .route("auth", r -> r
                         .path("/api/auth/**")
-                           .uri("http://localhost:8080"))
+                           .uri(userUri))
                 
                 // Ruta para usuarios - SIN FILTRO JWT (desarrollo)
                 .route("users", r -> r
                         .path("/api/users/**")
                         // .filters(f -> f.filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
-                           .uri("http://localhost:8080"))
+                           .uri(userUri))
                 
                 // Ruta para tareas - SIN FILTRO JWT (desarrollo)
                 .route("tasks", r -> r
                         .path("/api/tasks/**")
                         // .filters(f -> f.filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
-                        .uri("http://localhost:8071"))
+                        .uri(taskUri))
                 
                 // Rutas para futuros microservicios
                 .route("notes", r -> r
                         .path("/api/notes/**")
                         // .filters(f -> f.filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
-                        .uri("http://localhost:9090"))
+                        .uri(noteUri))
                 
                 .route("events", r -> r
                         .path("/api/events/**")
                         // .filters(f -> f.filter(jwtAuthenticationFilter.apply(new JwtAuthenticationFilter.Config())))
-                        .uri("http://localhost:9091"))
+                        .uri(eventUri))
                 
                 .build();
     }
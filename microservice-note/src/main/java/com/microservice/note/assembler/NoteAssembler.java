@@ -27,7 +27,8 @@ public class NoteAssembler {
                 note.getImageUri(),
                 note.getUserId(),
                 note.getCreatedAt(),
-                note.getUpdatedAt()
+                note.getUpdatedAt(),
+                note.getVersion()
         );
     }
 
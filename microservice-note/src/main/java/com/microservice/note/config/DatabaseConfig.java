@@ -1,6 +1,9 @@
 package com.microservice.note.config;
 
+import com.microservice.common.jdbc.QueryInstrumentationConfiguration;
+import com.microservice.common.jdbc.ReadWriteRoutingConfiguration;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
@@ -9,5 +12,8 @@ import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 @EnableJpaRepositories(basePackages = "com.microservice.note.repository")
 // Activa la auditoría para que @CreatedDate funcione en la entidad Note
 @EnableJpaAuditing
+// Métricas por sentencia y por petición, N+1 y consultas lentas (jdbc.instrumentation.*), y
+// réplica de lectura para las transacciones readOnly si se da spring.datasource.replica.url
+@Import({QueryInstrumentationConfiguration.class, ReadWriteRoutingConfiguration.class})
 public class DatabaseConfig {
 }
\ No newline at end of file
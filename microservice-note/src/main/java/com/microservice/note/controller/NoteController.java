@@ -1,9 +1,14 @@
 package com.microservice.note.controller;
 
+import com.microservice.common.web.CollectionETag;
 import com.microservice.note.dto.CreateNoteDTO;
+import com.microservice.note.dto.CursorPageDTO;
 import com.microservice.note.dto.NoteDTO;
+import com.microservice.note.dto.NoteSyncDTO;
 import com.microservice.note.dto.UpdateNoteDTO;
+import com.microservice.note.service.NoteCollectionVersion;
 import com.microservice.note.service.NoteService;
+import com.microservice.note.service.NoteSyncService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -12,6 +17,7 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
@@ -28,15 +34,18 @@ import java.util.UUID;
 public class NoteController {
 
     private final NoteService noteService;
+    private final NoteSyncService noteSyncService;
 
     @Autowired
-    public NoteController(NoteService noteService) {
+    public NoteController(NoteService noteService, NoteSyncService noteSyncService) {
         this.noteService = noteService;
+        this.noteSyncService = noteSyncService;
     }
 
     // ============= CRUD BÁSICO =============
 
     @GetMapping("/user/{userId}")
+    @CollectionETag(NoteCollectionVersion.COLLECTION)
     @Operation(summary = "Obtener todas las notas de un usuario")
     public ResponseEntity<List<NoteDTO>> getAllNotesByUser(
             @Parameter(description = "ID del usuario") @PathVariable UUID userId) {
@@ -46,6 +55,7 @@ public class NoteController {
     }
 
     @GetMapping("/user/{userId}/pageable")
+    @CollectionETag(NoteCollectionVersion.COLLECTION)
     @Operation(summary = "Obtener notas de un usuario con paginación")
     public ResponseEntity<Page<NoteDTO>> getAllNotesByUserPageable(
             @Parameter(description = "ID del usuario") @PathVariable UUID userId,
@@ -55,6 +65,40 @@ public class NoteController {
         return ResponseEntity.ok(notes);
     }
 
+    @GetMapping("/user/{userId}/slice")
+    @CollectionETag(NoteCollectionVersion.COLLECTION)
+    @Operation(summary = "Obtener notas de un usuario paginadas sin contar el total")
+    public ResponseEntity<Slice<NoteDTO>> getNotesSliceByUser(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            Pageable pageable) {
+        log.debug("GET /api/notes/user/{}/slice", userId);
+        Slice<NoteDTO> notes = noteService.getNotesSliceByUser(userId, pageable);
+        return ResponseEntity.ok(notes);
+    }
+
+    @GetMapping("/user/{userId}/cursor")
+    @CollectionETag(NoteCollectionVersion.COLLECTION)
+    @Operation(summary = "Obtener notas de un usuario paginadas por cursor")
+    public ResponseEntity<CursorPageDTO<NoteDTO>> getNotesByCursor(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "20") int size) {
+        log.debug("GET /api/notes/user/{}/cursor", userId);
+        CursorPageDTO<NoteDTO> notes = noteService.getNotesByCursor(userId, cursor, size);
+        return ResponseEntity.ok(notes);
+    }
+
+    @GetMapping("/user/{userId}/sync")
+    @Operation(summary = "Sincronización incremental: notas creadas, modificadas o borradas desde el token")
+    public ResponseEntity<NoteSyncDTO> syncNotes(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Token devuelto por la sincronización anterior (vacío la primera vez)") @RequestParam(required = false) String since,
+            @Parameter(description = "Máximo de cambios por respuesta") @RequestParam(defaultValue = "200") int limit) {
+        log.debug("GET /api/notes/user/{}/sync?since={}", userId, since);
+        NoteSyncDTO changes = noteSyncService.getChanges(userId, since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
     @GetMapping("/{noteId}/user/{userId}")
     @Operation(summary = "Obtener nota por ID y Usuario")
     public ResponseEntity<NoteDTO> getNoteByIdAndUser(
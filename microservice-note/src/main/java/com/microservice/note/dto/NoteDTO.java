@@ -18,4 +18,6 @@ public class NoteDTO {
     private UUID userId;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Versión actual: se reenvía en UpdateNoteDTO para detectar cambios concurrentes
+    private Long version;
 }
\ No newline at end of file
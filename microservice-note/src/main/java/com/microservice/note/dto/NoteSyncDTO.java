@@ -0,0 +1,23 @@
+package com.microservice.note.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSyncDTO {
+    // Notas creadas o modificadas desde el token recibido
+    private List<NoteDTO> changed;
+    // Notas borradas desde el token recibido
+    private List<UUID> deleted;
+    // Token para la siguiente sincronización (o la siguiente página si hasMore)
+    private String nextToken;
+    private boolean hasMore;
+    // El token era demasiado antiguo: changed trae todas las notas y el cliente debe descartar las suyas
+    private boolean resetRequired;
+}
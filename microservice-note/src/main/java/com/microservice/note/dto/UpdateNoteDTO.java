@@ -17,4 +17,7 @@ public class UpdateNoteDTO {
     private String description;
 
     private String imageUri;
+
+    // Versión que leyó el cliente (NoteDTO.version); si la nota cambió desde entonces se responde 409
+    private Long version;
 }
\ No newline at end of file
@@ -0,0 +1,7 @@
+package com.microservice.note.exception;
+
+public class NoteVersionConflictException extends RuntimeException {
+    public NoteVersionConflictException(String message) {
+        super(message);
+    }
+}
@@ -1,5 +1,6 @@
 package com.microservice.note.model;
 
+import com.microservice.note.sync.NoteSyncListener;
 import jakarta.persistence.*;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
@@ -16,8 +17,12 @@ import java.time.LocalDateTime;
 import java.util.UUID;
 
 @Entity
-@Table(name = "notes")
-@EntityListeners(AuditingEntityListener.class)
+@Table(name = "notes", indexes = {
+        @Index(name = "idx_notes_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_notes_user_updated", columnList = "user_id, updated_at"),
+        @Index(name = "idx_notes_user_change", columnList = "user_id, change_seq")
+})
+@EntityListeners({AuditingEntityListener.class, NoteSyncListener.class})
 @Data
 @NoArgsConstructor
 @AllArgsConstructor
@@ -41,10 +46,16 @@ public class Note {
     @Column(name = "image_uri")
     private String imageUri;
 
-    @Column(name ="user_id", nullable = false)
+    // El dueño no cambia nunca: las escrituras condicionales lo comprueban en el mismo UPDATE/DELETE
+    @Column(name ="user_id", nullable = false, updatable = false)
     @NotNull(message = "El ID del usuario es requerido")
     private UUID userId;
 
+    // Bloqueo optimista: cada escritura la incrementa y un cliente con una versión antigua recibe 409
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+
     // Auditoria automatica
     @CreatedDate
     @Column(name = "created_at", nullable = false, updatable = false)
@@ -54,4 +65,9 @@ public class Note {
     @Column(name = "updated_at")
     private LocalDateTime updatedAt;
 
+    // Número del último cambio para la sincronización incremental; lo asigna NoteChangeTracker al confirmar
+    @Column(name = "change_seq", insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long changeSeq;
+
 }
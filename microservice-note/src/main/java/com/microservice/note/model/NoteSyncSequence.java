@@ -0,0 +1,31 @@
+package com.microservice.note.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Secuencia de cambios de las notas de un usuario para la sincronización incremental.
+ * lastSeq es el último número asignado (ver NoteChangeTracker); purgedSeq, el número más alto
+ * de las lápidas ya compactadas: un token anterior obliga al cliente a descargarlo todo de nuevo.
+ */
+@Entity
+@Table(name = "note_sync_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteSyncSequence {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+
+    @Column(name = "purged_seq", nullable = false)
+    private Long purgedSeq;
+}
@@ -0,0 +1,38 @@
+package com.microservice.note.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Rastro de una nota borrada para que los clientes sin conexión lo apliquen en su próxima sincronización.
+ * Las escribe NoteChangeTracker al confirmar el borrado y NoteTombstoneCompactor las elimina
+ * pasado el periodo de retención.
+ */
+@Entity
+@Table(name = "note_tombstones", indexes = {
+        @Index(name = "idx_note_tombstones_user_change", columnList = "user_id, change_seq"),
+        @Index(name = "idx_note_tombstones_deleted", columnList = "deleted_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class NoteTombstone {
+
+    @Id
+    @Column(name = "note_id")
+    private UUID noteId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "change_seq", nullable = false)
+    private Long changeSeq;
+
+    @Column(name = "deleted_at", nullable = false)
+    private LocalDateTime deletedAt;
+}
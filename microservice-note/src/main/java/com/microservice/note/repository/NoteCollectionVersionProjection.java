@@ -0,0 +1,13 @@
+package com.microservice.note.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agregados de las notas de un usuario que cambian con cualquier alta, modificación o baja.
+ */
+public interface NoteCollectionVersionProjection {
+
+    long getCount();
+
+    LocalDateTime getLastUpdated();
+}
@@ -0,0 +1,49 @@
+package com.microservice.note.repository;
+
+import com.microservice.note.exception.InvalidNoteDataException;
+import com.microservice.note.model.Note;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Token de continuación para la paginación por cursor (keyset) de notas.
+ * Codifica la clave de orden (createdAt, id) de la última nota entregada; para el cliente es opaco.
+ */
+@Getter
+@AllArgsConstructor
+public final class NoteCursor {
+
+    private static final String SEPARATOR = "|";
+
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    public static NoteCursor of(Note note) {
+        // La columna guarda microsegundos: una entidad recién creada aún conserva los nanosegundos
+        return new NoteCursor(note.getCreatedAt().truncatedTo(ChronoUnit.MICROS), note.getId());
+    }
+
+    public String encode() {
+        String raw = createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static NoteCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 2) {
+                throw new IllegalArgumentException("Número de campos inesperado");
+            }
+            return new NoteCursor(LocalDateTime.parse(parts[0]), UUID.fromString(parts[1]));
+        } catch (RuntimeException e) {
+            throw new InvalidNoteDataException("Cursor de paginación inválido");
+        }
+    }
+}
@@ -3,13 +3,16 @@ import com.microservice.note.model.Note;
 
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -23,6 +26,20 @@ public interface NoteRepository extends JpaRepository<Note, UUID> {
     // Útil para "scrolling infinito" en Android
     Page<Note> findByUserIdOrderByCreatedAtDesc(UUID userId, Pageable pageable);
 
+    // 2b. SLICE: Igual que la paginación pero sin la consulta COUNT(*) del total
+    Slice<Note> findSliceByUserIdOrderByCreatedAtDescIdDesc(UUID userId, Pageable pageable);
+
+    // 2c. CURSOR: Primera página y páginas siguientes por clave (createdAt, id), sin OFFSET
+    List<Note> findByUserIdOrderByCreatedAtDescIdDesc(UUID userId, Pageable pageable);
+
+    @Query("SELECT n FROM Note n WHERE n.userId = :userId AND " +
+           "(n.createdAt < :createdAt OR (n.createdAt = :createdAt AND n.id < :id)) " +
+           "ORDER BY n.createdAt DESC, n.id DESC")
+    List<Note> findPageAfter(@Param("userId") UUID userId,
+                             @Param("createdAt") LocalDateTime createdAt,
+                             @Param("id") UUID id,
+                             Pageable pageable);
+
     // 3. BÚSQUEDA: Buscar texto en título O descripción (Case Insensitive)
     @Query("SELECT n FROM Note n WHERE n.userId = :userId AND " +
            "(LOWER(n.title) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
@@ -32,8 +49,37 @@ public interface NoteRepository extends JpaRepository<Note, UUID> {
     // 4. ESTADÍSTICAS: Contar cuántas notas tiene el usuario (para el perfil)
     long countByUserId(UUID userId);
 
+    // 4b. VERSIÓN: Para el GET condicional (ETag); recorre solo idx_notes_user_updated
+    @Query("SELECT COUNT(n) AS count, MAX(n.updatedAt) AS lastUpdated FROM Note n WHERE n.userId = :userId")
+    NoteCollectionVersionProjection getCollectionVersion(@Param("userId") UUID userId);
+
+    // 4c. SINCRONIZACIÓN: Cambios posteriores a un número de cambio, por idx_notes_user_change
+    List<Note> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAscIdAsc(UUID userId, long changeSeq, Pageable pageable);
+
+    List<Note> findByUserIdAndChangeSeq(UUID userId, long changeSeq);
+
     // 5. SEGURIDAD: Verificar si una nota pertenece a un usuario antes de borrar/editar
     boolean existsByIdAndUserId(UUID id, UUID userId);
+
+    // 5b. ESCRITURAS CONDICIONALES: dueño (y versión, si viene) comprobados en la propia sentencia,
+    // sin lectura previa; devuelven las filas afectadas. No pasan por los listeners de Note.
+    @Modifying
+    @Query("UPDATE Note n SET n.title = COALESCE(:title, n.title), " +
+           "n.description = COALESCE(:description, n.description), " +
+           "n.imageUri = COALESCE(:imageUri, n.imageUri), " +
+           "n.updatedAt = :now, n.version = n.version + 1 " +
+           "WHERE n.id = :id AND n.userId = :userId AND (:version IS NULL OR n.version = :version)")
+    int updateIfOwned(@Param("id") UUID id,
+                      @Param("userId") UUID userId,
+                      @Param("version") Long version,
+                      @Param("title") String title,
+                      @Param("description") String description,
+                      @Param("imageUri") String imageUri,
+                      @Param("now") LocalDateTime now);
+
+    @Modifying
+    @Query("DELETE FROM Note n WHERE n.id = :id AND n.userId = :userId")
+    int deleteIfOwned(@Param("id") UUID id, @Param("userId") UUID userId);
     
     // 6. LIMPIEZA: Borrar todo de un usuario (útil si el usuario elimina su cuenta)
     void deleteByUserId(UUID userId);
@@ -0,0 +1,12 @@
+package com.microservice.note.repository;
+
+import com.microservice.note.model.NoteTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+// Las lecturas y la compactación van por SyncFeed (SQL nativo sobre TABLES de NoteChangeTracker)
+@Repository
+public interface NoteTombstoneRepository extends JpaRepository<NoteTombstone, UUID> {
+}
@@ -0,0 +1,37 @@
+package com.microservice.note.scheduler;
+
+import com.microservice.common.sync.TombstoneCompactor;
+import com.microservice.note.service.NoteSyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Programa la compactación de las lápidas de notas borradas (ver {@link TombstoneCompactor}).
+ */
+@Component
+public class NoteTombstoneCompactor {
+
+    private final TombstoneCompactor compactor;
+
+    @Autowired
+    public NoteTombstoneCompactor(NoteSyncService syncService,
+                                  @Value("${notes.sync.tombstone-retention-days:30}") long retentionDays,
+                                  @Value("${notes.sync.compaction-batch-size:1000}") int batchSize) {
+        this.compactor = new TombstoneCompactor("notas", Duration.ofDays(retentionDays), batchSize,
+                syncService::purgeTombstones);
+    }
+
+    @Scheduled(fixedDelayString = "${notes.sync.compaction-delay-ms:3600000}")
+    public void run() {
+        compact(LocalDateTime.now());
+    }
+
+    long compact(LocalDateTime now) {
+        return compactor.compact(now);
+    }
+}
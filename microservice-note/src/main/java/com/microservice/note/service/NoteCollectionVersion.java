@@ -0,0 +1,39 @@
+package com.microservice.note.service;
+
+import com.microservice.common.web.CollectionVersionSource;
+import com.microservice.note.repository.NoteCollectionVersionProjection;
+import com.microservice.note.repository.NoteRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+/**
+ * Versión de las notas de un usuario para los listados con ETag (ver NoteController):
+ * número de notas y última modificación. Un alta o un cambio mueven la fecha, una baja el número.
+ */
+@Service
+@Transactional(readOnly = true)
+public class NoteCollectionVersion implements CollectionVersionSource {
+
+    public static final String COLLECTION = "notes";
+
+    private final NoteRepository noteRepository;
+
+    @Autowired
+    public NoteCollectionVersion(NoteRepository noteRepository) {
+        this.noteRepository = noteRepository;
+    }
+
+    @Override
+    public String collection() {
+        return COLLECTION;
+    }
+
+    @Override
+    public String currentVersion(UUID userId) {
+        NoteCollectionVersionProjection version = noteRepository.getCollectionVersion(userId);
+        return version.getCount() + "|" + version.getLastUpdated();
+    }
+}
@@ -2,20 +2,27 @@ package com.microservice.note.service;
 
 import com.microservice.note.assembler.NoteAssembler;
 import com.microservice.note.dto.CreateNoteDTO;
+import com.microservice.note.dto.CursorPageDTO;
 import com.microservice.note.dto.NoteDTO;
 import com.microservice.note.dto.UpdateNoteDTO;
 import com.microservice.note.exception.InvalidNoteDataException;
 import com.microservice.note.exception.NoteNotFoundException;
+import com.microservice.note.exception.NoteVersionConflictException;
 import com.microservice.note.exception.UnauthorizedNoteAccessException;
 import com.microservice.note.model.Note;
+import com.microservice.note.repository.NoteCursor;
 import com.microservice.note.repository.NoteRepository;
+import com.microservice.note.sync.NoteChangeTracker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDateTime;
 import java.util.List;
 import java.util.UUID;
 
@@ -24,13 +31,17 @@ import java.util.UUID;
 @Slf4j
 public class NoteService {
 
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final NoteRepository noteRepository;
     private final NoteAssembler noteAssembler;
+    private final NoteChangeTracker changeTracker;
 
     @Autowired
-    public NoteService(NoteRepository noteRepository, NoteAssembler noteAssembler) {
+    public NoteService(NoteRepository noteRepository, NoteAssembler noteAssembler, NoteChangeTracker changeTracker) {
         this.noteRepository = noteRepository;
         this.noteAssembler = noteAssembler;
+        this.changeTracker = changeTracker;
     }
 
     // ============= CRUD BÁSICO =============
@@ -49,6 +60,42 @@ public class NoteService {
         return notes.map(noteAssembler::toDTO);
     }
 
+    @Transactional(readOnly = true)
+    public Slice<NoteDTO> getNotesSliceByUser(UUID userId, Pageable pageable) {
+        log.debug("Obteniendo notas (slice) del usuario: {}", userId);
+        Slice<Note> notes = noteRepository.findSliceByUserIdOrderByCreatedAtDescIdDesc(userId, pageable);
+        return notes.map(noteAssembler::toDTO);
+    }
+
+    /**
+     * Paginación por cursor: la página siguiente se pide por la clave de la última nota
+     * entregada, así que la página N cuesta lo mismo que la primera y no hay COUNT(*).
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<NoteDTO> getNotesByCursor(UUID userId, String cursor, int size) {
+        log.debug("Obteniendo notas por cursor del usuario: {}", userId);
+        if (size < 1) {
+            throw new InvalidNoteDataException("El tamaño de página debe ser mayor que cero");
+        }
+        int pageSize = Math.min(size, MAX_CURSOR_PAGE_SIZE);
+        // Una fila de más para saber si existe página siguiente
+        Pageable limit = PageRequest.of(0, pageSize + 1);
+
+        List<Note> notes;
+        if (cursor == null || cursor.isBlank()) {
+            notes = noteRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, limit);
+        } else {
+            NoteCursor after = NoteCursor.decode(cursor);
+            notes = noteRepository.findPageAfter(userId, after.getCreatedAt(), after.getId(), limit);
+        }
+
+        boolean hasNext = notes.size() > pageSize;
+        List<Note> content = hasNext ? notes.subList(0, pageSize) : notes;
+        String nextCursor = hasNext ? NoteCursor.of(content.get(content.size() - 1)).encode() : null;
+
+        return new CursorPageDTO<>(noteAssembler.toDTOList(content), nextCursor, hasNext, content.size());
+    }
+
     @Transactional(readOnly = true)
     public NoteDTO getNoteByIdAndUser(UUID noteId, UUID userId) {
         log.debug("Obteniendo nota {} del usuario {}", noteId, userId);
@@ -79,38 +126,35 @@ public class NoteService {
         return noteAssembler.toDTO(savedNote);
     }
 
+    /**
+     * Un único UPDATE comprueba dueño y versión (si el cliente la envía) y aplica los campos no nulos.
+     * Solo si no afecta a ninguna fila se lee la nota para distinguir 404, 403 y 409.
+     */
     public NoteDTO updateNote(UUID noteId, UpdateNoteDTO updateNoteDTO, UUID userId) {
         log.debug("Actualizando nota {} del usuario {}", noteId, userId);
 
-        Note existingNote = noteRepository.findById(noteId)
-                .orElseThrow(() -> new NoteNotFoundException("Nota no encontrada con ID: " + noteId));
-
-        // Seguridad
-        if (!existingNote.getUserId().equals(userId)) {
-            throw new UnauthorizedNoteAccessException("No tienes permiso para actualizar esta nota");
+        int updated = noteRepository.updateIfOwned(noteId, userId, updateNoteDTO.getVersion(),
+                updateNoteDTO.getTitle(), updateNoteDTO.getDescription(), updateNoteDTO.getImageUri(),
+                LocalDateTime.now());
+        if (updated == 0) {
+            throw rejectedWrite(noteId, userId, updateNoteDTO.getVersion(), "actualizar");
         }
-
-        // Actualizar campos usando el Assembler
-        Note updatedNote = noteAssembler.updateFromDTO(existingNote, updateNoteDTO);
-        
-        Note savedNote = noteRepository.save(updatedNote);
+        // El UPDATE en bloque no pasa por NoteSyncListener
+        changeTracker.recordChanges(userId, List.of(noteId));
         log.info("Nota actualizada exitosamente: {}", noteId);
 
+        Note savedNote = noteRepository.findById(noteId)
+                .orElseThrow(() -> new NoteNotFoundException("Nota no encontrada con ID: " + noteId));
         return noteAssembler.toDTO(savedNote);
     }
 
     public void deleteNote(UUID noteId, UUID userId) {
         log.debug("Eliminando nota {} del usuario {}", noteId, userId);
 
-        Note note = noteRepository.findById(noteId)
-                .orElseThrow(() -> new NoteNotFoundException("Nota no encontrada con ID: " + noteId));
-
-        // Seguridad
-        if (!note.getUserId().equals(userId)) {
-            throw new UnauthorizedNoteAccessException("No tienes permiso para eliminar esta nota");
+        if (noteRepository.deleteIfOwned(noteId, userId) == 0) {
+            throw rejectedWrite(noteId, userId, null, "eliminar");
         }
-
-        noteRepository.delete(note);
+        changeTracker.recordDeletions(userId, List.of(noteId));
         log.info("Nota eliminada exitosamente: {}", noteId);
     }
 
@@ -136,6 +180,20 @@ public class NoteService {
 
     // ============= MÉTODOS PRIVADOS =============
 
+    // La escritura condicional no tocó ninguna fila: se averigua por qué
+    private RuntimeException rejectedWrite(UUID noteId, UUID userId, Long expectedVersion, String action) {
+        Note note = noteRepository.findById(noteId).orElse(null);
+        if (note == null) {
+            return new NoteNotFoundException("Nota no encontrada con ID: " + noteId);
+        }
+        if (!note.getUserId().equals(userId)) {
+            return new UnauthorizedNoteAccessException("No tienes permiso para " + action + " esta nota");
+        }
+        log.debug("Conflicto de versión en la nota {}: esperada {}, actual {}", noteId, expectedVersion, note.getVersion());
+        return new NoteVersionConflictException("La nota " + noteId + " ha sido modificada (versión actual "
+                + note.getVersion() + ", enviada " + expectedVersion + ")");
+    }
+
     private void validateCreateNoteDTO(CreateNoteDTO createNoteDTO) {
         if (createNoteDTO.getTitle() == null || createNoteDTO.getTitle().trim().isEmpty()) {
             throw new InvalidNoteDataException("El título de la nota es requerido");
@@ -0,0 +1,66 @@
+package com.microservice.note.service;
+
+import com.microservice.common.sync.InvalidSyncTokenException;
+import com.microservice.common.sync.SyncFeed;
+import com.microservice.common.sync.SyncPage;
+import com.microservice.note.assembler.NoteAssembler;
+import com.microservice.note.dto.NoteSyncDTO;
+import com.microservice.note.exception.InvalidNoteDataException;
+import com.microservice.note.model.Note;
+import com.microservice.note.repository.NoteRepository;
+import com.microservice.note.sync.NoteChangeTracker;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Sincronización incremental de notas para clientes sin conexión (ver {@link SyncFeed}).
+ */
+@Service
+@Transactional
+public class NoteSyncService {
+
+    private final SyncFeed<Note> feed;
+    private final NoteAssembler noteAssembler;
+
+    @Autowired
+    public NoteSyncService(EntityManager entityManager, NoteRepository noteRepository, NoteAssembler noteAssembler) {
+        this.feed = new SyncFeed<>(entityManager, NoteChangeTracker.TABLES,
+                noteRepository::findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAscIdAsc,
+                noteRepository::findByUserIdAndChangeSeq,
+                Note::getChangeSeq);
+        this.noteAssembler = noteAssembler;
+    }
+
+    // ============= SINCRONIZACIÓN =============
+
+    @Transactional(readOnly = true)
+    public NoteSyncDTO getChanges(UUID userId, String token, int limit) {
+        SyncPage<Note> page;
+        try {
+            page = feed.read(userId, token, limit);
+        } catch (InvalidSyncTokenException e) {
+            throw new InvalidNoteDataException("Token de sincronización inválido");
+        }
+        return new NoteSyncDTO(
+                noteAssembler.toDTOList(page.changed()),
+                page.deleted(),
+                page.nextToken(),
+                page.hasMore(),
+                page.resetRequired());
+    }
+
+    // ============= COMPACTACIÓN =============
+
+    /**
+     * Borra hasta batchSize lápidas anteriores a before y sube purgedSeq de sus dueños.
+     * Devuelve cuántas borró.
+     */
+    public int purgeTombstones(LocalDateTime before, int batchSize) {
+        return feed.purgeTombstones(before, batchSize);
+    }
+}
@@ -0,0 +1,23 @@
+package com.microservice.note.sync;
+
+import com.microservice.common.sync.ChangeTracker;
+import com.microservice.common.sync.SyncTables;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Numera los cambios de las notas de cada usuario para la sincronización incremental
+ * (ver {@link ChangeTracker} y NoteSyncService).
+ */
+@Component
+public class NoteChangeTracker extends ChangeTracker {
+
+    public static final SyncTables TABLES =
+            new SyncTables("notes", "user_id", "note_sync_sequences", "note_tombstones", "note_id");
+
+    @Autowired
+    public NoteChangeTracker(EntityManager entityManager) {
+        super(entityManager, TABLES);
+    }
+}
@@ -0,0 +1,29 @@
+package com.microservice.note.sync;
+
+import com.microservice.common.sync.ChangeTrackingListener;
+import com.microservice.note.model.Note;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Anota en {@link NoteChangeTracker} cada escritura de una entidad Note para numerarla al confirmar.
+ */
+public class NoteSyncListener extends ChangeTrackingListener<Note> {
+
+    public NoteSyncListener(ObjectProvider<NoteChangeTracker> changeTracker) {
+        super(changeTracker, Note::getUserId, Note::getId);
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onWrite(Note note) {
+        written(note);
+    }
+
+    @PostRemove
+    void onRemove(Note note) {
+        removed(note);
+    }
+}
@@ -127,7 +127,8 @@ class NoteAssemblerTest {
         UpdateNoteDTO updateDTO = new UpdateNoteDTO(
                 "Updated Title",
                 null, // Description es null, no debería cambiar
-                "http://updated.image"
+                "http://updated.image",
+                null
         );
 
         // Act
@@ -6,6 +6,7 @@ import com.microservice.note.dto.NoteDTO;
 import com.microservice.note.dto.UpdateNoteDTO;
 import com.microservice.note.exception.NoteNotFoundException;
 import com.microservice.note.service.NoteService;
+import com.microservice.note.service.NoteSyncService;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.springframework.beans.factory.annotation.Autowired;
@@ -36,6 +37,9 @@ class NoteControllerTest {
     @MockitoBean 
     private NoteService noteService;
 
+    @MockitoBean
+    private NoteSyncService noteSyncService;
+
     @Autowired
     private ObjectMapper objectMapper;
 
@@ -122,7 +126,7 @@ class NoteControllerTest {
 
     @Test
     void updateNote_ShouldReturnUpdatedNote_WhenSuccessful() throws Exception {
-        UpdateNoteDTO updateDTO = new UpdateNoteDTO("Updated Title", "Desc", null);
+        UpdateNoteDTO updateDTO = new UpdateNoteDTO("Updated Title", "Desc", null, null);
         NoteDTO updatedNoteDTO = new NoteDTO();
         updatedNoteDTO.setTitle("Updated Title");
 
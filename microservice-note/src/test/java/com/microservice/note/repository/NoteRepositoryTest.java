@@ -8,13 +8,16 @@ import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabas
 import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Slice;
 import org.springframework.test.context.TestPropertySource;
 
 import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
 import java.util.List;
 import java.util.UUID;
 
 import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
 
 @DataJpaTest
 @AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
@@ -146,4 +149,42 @@ class NoteRepositoryTest {
         // Verificar que la nota del otro usuario sigue ahí
         assertThat(noteRepository.findById(noteOtherUser.getId())).isPresent();
     }
-}
\ No newline at end of file
+
+    // --- Test 7: Paginación por cursor ---
+    @Test
+    void findPageAfter_ShouldContinueFromCursorWithoutRepeating() {
+        List<Note> firstPage = noteRepository.findByUserIdOrderByCreatedAtDescIdDesc(userId, PageRequest.of(0, 1));
+        assertThat(firstPage).hasSize(1);
+        assertThat(firstPage.get(0).getTitle()).isEqualTo("Lista de compras");
+
+        NoteCursor cursor = NoteCursor.decode(NoteCursor.of(firstPage.get(0)).encode());
+        List<Note> secondPage = noteRepository.findPageAfter(userId, cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, 1));
+        assertThat(secondPage).hasSize(1);
+        assertThat(secondPage.get(0).getTitle()).isEqualTo("Reunión de trabajo");
+
+        cursor = NoteCursor.of(secondPage.get(0));
+        assertThat(noteRepository.findPageAfter(userId, cursor.getCreatedAt(), cursor.getId(), PageRequest.of(0, 1))).isEmpty();
+    }
+
+    // --- Test 8: Slice sin conteo ---
+    @Test
+    void findSliceByUserId_ShouldReportNextPageWithoutTotal() {
+        Slice<Note> slice = noteRepository.findSliceByUserIdOrderByCreatedAtDescIdDesc(userId, PageRequest.of(0, 1));
+
+        assertThat(slice.getContent()).hasSize(1);
+        assertThat(slice.hasNext()).isTrue();
+    }
+
+    // --- Test 9: Versión de la colección (ETag) ---
+    @Test
+    void getCollectionVersion_ShouldAggregateOnlyTheUserNotes() {
+        NoteCollectionVersionProjection version = noteRepository.getCollectionVersion(userId);
+
+        assertThat(version.getCount()).isEqualTo(2);
+        assertThat(version.getLastUpdated()).isCloseTo(note2.getUpdatedAt(), within(1, ChronoUnit.MILLIS));
+
+        noteRepository.delete(note1);
+        noteRepository.flush();
+        assertThat(noteRepository.getCollectionVersion(userId).getCount()).isEqualTo(1);
+    }
+}
@@ -6,9 +6,11 @@ import com.microservice.note.dto.NoteDTO;
 import com.microservice.note.dto.UpdateNoteDTO;
 import com.microservice.note.exception.InvalidNoteDataException;
 import com.microservice.note.exception.NoteNotFoundException;
+import com.microservice.note.exception.NoteVersionConflictException;
 import com.microservice.note.exception.UnauthorizedNoteAccessException;
 import com.microservice.note.model.Note;
 import com.microservice.note.repository.NoteRepository;
+import com.microservice.note.sync.NoteChangeTracker;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.InjectMocks;
@@ -23,6 +25,8 @@ import java.util.UUID;
 
 import static org.junit.jupiter.api.Assertions.*;
 import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.ArgumentMatchers.eq;
+import static org.mockito.ArgumentMatchers.isNull;
 import static org.mockito.Mockito.*;
 
 @ExtendWith(MockitoExtension.class)
@@ -34,6 +38,9 @@ class NoteServiceTest {
     @Mock
     private NoteAssembler noteAssembler;
 
+    @Mock
+    private NoteChangeTracker changeTracker;
+
     @InjectMocks
     private NoteService noteService;
 
@@ -142,20 +149,38 @@ class NoteServiceTest {
     void updateNote_ShouldUpdate_WhenUserMatches() {
         UUID noteId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
-        UpdateNoteDTO updateDTO = new UpdateNoteDTO("New Title", "New Desc", null);
+        UpdateNoteDTO updateDTO = new UpdateNoteDTO("New Title", "New Desc", null, null);
         
-        Note existingNote = Note.builder().id(noteId).userId(userId).title("Old").build();
         Note updatedNote = Note.builder().id(noteId).userId(userId).title("New Title").build();
 
-        when(noteRepository.findById(noteId)).thenReturn(Optional.of(existingNote));
-        when(noteAssembler.updateFromDTO(existingNote, updateDTO)).thenReturn(updatedNote);
-        when(noteRepository.save(updatedNote)).thenReturn(updatedNote);
+        when(noteRepository.updateIfOwned(eq(noteId), eq(userId), isNull(), eq("New Title"), eq("New Desc"),
+                isNull(), any(LocalDateTime.class))).thenReturn(1);
+        when(noteRepository.findById(noteId)).thenReturn(Optional.of(updatedNote));
         when(noteAssembler.toDTO(updatedNote)).thenReturn(new NoteDTO());
 
         NoteDTO result = noteService.updateNote(noteId, updateDTO, userId);
 
         assertNotNull(result);
-        verify(noteRepository).save(updatedNote);
+        verify(changeTracker).recordChanges(userId, List.of(noteId));
+        verify(noteRepository, never()).save(any());
+    }
+
+    @Test
+    void updateNote_ShouldThrowConflict_WhenVersionIsStale() {
+        UUID noteId = UUID.randomUUID();
+        UUID userId = UUID.randomUUID();
+        UpdateNoteDTO updateDTO = new UpdateNoteDTO("New Title", null, null, 1L);
+        Note currentNote = Note.builder().id(noteId).userId(userId).title("Otra").version(2L).build();
+
+        when(noteRepository.updateIfOwned(eq(noteId), eq(userId), eq(1L), eq("New Title"), isNull(),
+                isNull(), any(LocalDateTime.class))).thenReturn(0);
+        when(noteRepository.findById(noteId)).thenReturn(Optional.of(currentNote));
+
+        assertThrows(NoteVersionConflictException.class, () -> {
+            noteService.updateNote(noteId, updateDTO, userId);
+        });
+
+        verify(changeTracker, never()).recordChanges(any(), any());
     }
 
     // --- Tests para DELETE ---
@@ -164,13 +189,13 @@ class NoteServiceTest {
     void deleteNote_ShouldDelete_WhenUserMatches() {
         UUID noteId = UUID.randomUUID();
         UUID userId = UUID.randomUUID();
-        Note note = Note.builder().id(noteId).userId(userId).build();
-
-        when(noteRepository.findById(noteId)).thenReturn(Optional.of(note));
+        when(noteRepository.deleteIfOwned(noteId, userId)).thenReturn(1);
 
         noteService.deleteNote(noteId, userId);
 
-        verify(noteRepository).delete(note);
+        // Sin lectura previa: el DELETE ya comprueba el dueño
+        verify(noteRepository, never()).findById(any());
+        verify(changeTracker).recordDeletions(userId, List.of(noteId));
     }
 
     @Test
@@ -180,6 +205,7 @@ class NoteServiceTest {
         UUID intruderId = UUID.randomUUID();
         Note note = Note.builder().id(noteId).userId(ownerId).build();
 
+        when(noteRepository.deleteIfOwned(noteId, intruderId)).thenReturn(0);
         when(noteRepository.findById(noteId)).thenReturn(Optional.of(note));
 
         assertThrows(UnauthorizedNoteAccessException.class, () -> {
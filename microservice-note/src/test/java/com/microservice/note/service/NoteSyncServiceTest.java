@@ -0,0 +1,114 @@
+package com.microservice.note.service;
+
+import com.microservice.note.assembler.NoteAssembler;
+import com.microservice.note.config.DatabaseConfig;
+import com.microservice.note.dto.CreateNoteDTO;
+import com.microservice.note.dto.NoteDTO;
+import com.microservice.note.dto.NoteSyncDTO;
+import com.microservice.note.dto.UpdateNoteDTO;
+import com.microservice.note.repository.NoteTombstoneRepository;
+import com.microservice.note.sync.NoteChangeTracker;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Los números de cambio se asignan al confirmar: cada escritura se confirma de verdad
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({NoteSyncService.class, NoteService.class, NoteAssembler.class, NoteChangeTracker.class, DatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class NoteSyncServiceTest {
+
+    @Autowired
+    private NoteSyncService syncService;
+
+    @Autowired
+    private NoteService noteService;
+
+    @Autowired
+    private NoteTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        noteService.deleteAllUserNotes(userId);
+        tombstoneRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void syncSinceToken_ShouldReturnOnlyLaterWritesAndDeletions() {
+        NoteDTO kept = noteService.createNote(create("Se modifica"));
+        NoteDTO removed = noteService.createNote(create("Se borra"));
+        noteService.createNote(create("Sin cambios"));
+        NoteSyncDTO initial = syncService.getChanges(userId, null, 100);
+        assertThat(initial.getChanged()).hasSize(3);
+
+        UpdateNoteDTO update = new UpdateNoteDTO();
+        update.setTitle("Modificada");
+        noteService.updateNote(kept.getId(), update, userId);
+        noteService.deleteNote(removed.getId(), userId);
+        NoteSyncDTO changes = syncService.getChanges(userId, initial.getNextToken(), 100);
+
+        assertThat(changes.getChanged()).extracting(NoteDTO::getId).containsExactly(kept.getId());
+        assertThat(changes.getDeleted()).containsExactly(removed.getId());
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        NoteSyncDTO noop = syncService.getChanges(userId, changes.getNextToken(), 100);
+        assertThat(noop.getChanged()).isEmpty();
+        assertThat(noop.getDeleted()).isEmpty();
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void compaction_ShouldPurgeOldTombstonesAndForceAResetOnOlderTokens() {
+        NoteDTO kept = noteService.createNote(create("Sigue"));
+        NoteDTO removed = noteService.createNote(create("Se borra"));
+        String oldToken = syncService.getChanges(userId, null, 100).getNextToken();
+        noteService.deleteNote(removed.getId(), userId);
+        jdbcTemplate.update("UPDATE note_tombstones SET deleted_at = ?", LocalDateTime.now().minusDays(31));
+
+        assertThat(syncService.purgeTombstones(LocalDateTime.now().minusDays(30), 100)).isEqualTo(1);
+
+        NoteSyncDTO reset = syncService.getChanges(userId, oldToken, 100);
+        assertThat(reset.isResetRequired()).isTrue();
+        assertThat(reset.getChanged()).extracting(NoteDTO::getId).containsExactly(kept.getId());
+    }
+
+    private CreateNoteDTO create(String title) {
+        CreateNoteDTO dto = new CreateNoteDTO();
+        dto.setUserId(userId);
+        dto.setTitle(title);
+        return dto;
+    }
+}
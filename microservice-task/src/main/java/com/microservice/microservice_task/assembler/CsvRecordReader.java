@@ -0,0 +1,101 @@
+package com.microservice.microservice_task.assembler;
+
+import java.io.IOException;
+import java.io.Reader;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Lector incremental de CSV (RFC 4180): campos separados por comas, entre comillas dobles si
+ * contienen comas, comillas o saltos de línea, y comillas escapadas duplicándolas.
+ * Lee registro a registro, sin cargar el fichero en memoria.
+ */
+public class CsvRecordReader {
+
+    private final Reader reader;
+    private final StringBuilder field = new StringBuilder();
+    private long line = 1;
+    private long recordLine;
+    private int pending = -2; // Carácter leído por adelantado (-2: ninguno)
+
+    public CsvRecordReader(Reader reader) {
+        this.reader = reader;
+    }
+
+    /**
+     * Devuelve el siguiente registro, o null al final del fichero. Las líneas vacías se saltan.
+     */
+    public List<String> nextRecord() throws IOException {
+        int c = read();
+        while (c == '\r' || c == '\n') {
+            c = skipLineBreak(c);
+        }
+        if (c == -1) {
+            return null;
+        }
+        recordLine = line;
+        List<String> values = new ArrayList<>();
+        field.setLength(0);
+        boolean quoted = false;
+        while (true) {
+            if (quoted) {
+                if (c == -1) {
+                    throw new IOException("Comillas sin cerrar en el registro de la línea " + recordLine);
+                }
+                if (c == '"') {
+                    int next = read();
+                    if (next == '"') {
+                        field.append('"');
+                    } else {
+                        quoted = false;
+                        c = next;
+                        continue;
+                    }
+                } else {
+                    if (c == '\n') {
+                        line++;
+                    }
+                    field.append((char) c);
+                }
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else if (c == ',') {
+                values.add(field.toString());
+                field.setLength(0);
+            } else if (c == '\r' || c == '\n' || c == -1) {
+                values.add(field.toString());
+                if (c != -1) {
+                    pending = skipLineBreak(c);
+                }
+                return values;
+            } else {
+                field.append((char) c);
+            }
+            c = read();
+        }
+    }
+
+    // Línea donde empezó el último registro devuelto
+    public long getRecordLine() {
+        return recordLine;
+    }
+
+    // Consume un salto de línea (\n, \r o \r\n) y devuelve el carácter siguiente
+    private int skipLineBreak(int c) throws IOException {
+        int next = read();
+        if (c == '\r' && next == '\n') {
+            next = read();
+        }
+        line++;
+        return next;
+    }
+
+    private int read() throws IOException {
+        if (pending != -2) {
+            int c = pending;
+            pending = -2;
+            return c;
+        }
+        return reader.read();
+    }
+}
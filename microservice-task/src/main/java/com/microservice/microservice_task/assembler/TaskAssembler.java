@@ -2,69 +2,130 @@ package com.microservice.microservice_task.assembler;
 
 import com.fasterxml.jackson.core.type.TypeReference;
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.ObjectWriter;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
 import com.microservice.microservice_task.dto.*;
+import com.microservice.microservice_task.model.ArchivedTask;
+import com.microservice.microservice_task.model.OccurrenceExceptionType;
 import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskColumns;
+import com.microservice.microservice_task.model.TaskOccurrenceException;
+import com.microservice.microservice_task.model.TaskPriority;
 import com.microservice.microservice_task.model.TaskStatus;
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Component;
 
+import java.time.Duration;
 import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.time.temporal.ChronoUnit;
 import java.util.ArrayList;
+import java.util.HashMap;
 import java.util.List;
-import java.util.stream.Collectors;
+import java.util.Map;
+import java.util.UUID;
 
 @Component
 @Slf4j
 public class TaskAssembler {
 
+    private static final String EMPTY_JSON_ARRAY = "[]";
+
     private final ObjectMapper objectMapper = new ObjectMapper();
 
+    // Lector y escritor inmutables, creados una sola vez en lugar de por fila
+    private final ObjectReader stringListReader = objectMapper.readerFor(new TypeReference<List<String>>() {});
+    private final ObjectWriter stringListWriter = objectMapper.writerFor(new TypeReference<List<String>>() {});
+
+    private final UserTimeZoneCache userTimeZones;
+
+    @Autowired
+    public TaskAssembler(UserTimeZoneCache userTimeZones) {
+        this.userTimeZones = userTimeZones;
+    }
+
+    // Días restantes contados desde la hora local del dueño, como due_date. Con due_at (fijado al guardar
+    // con su zona) esa hora se deduce sin consultar la zona, que con la caché fría costaría una llamada al
+    // servicio de usuarios por cada tarea suelta; solo las tareas aún sin due_at la consultan
     public TaskDTO toDTO(Task task) {
         if (task == null) {
             return null;
         }
+        if (task.getDueDate() == null) {
+            return toDTO(task, LocalDateTime.now());
+        }
+        if (task.getDueAt() == null) {
+            return toDTO(task, userTimeZones.now(task.getUserId()));
+        }
+        return toDTO(task, task.getDueDate().minus(Duration.between(LocalDateTime.now(ZoneOffset.UTC), task.getDueAt())));
+    }
 
-        TaskDTO dto = new TaskDTO();
-        dto.setId(task.getId());
-        dto.setTitle(task.getTitle());
-        dto.setDescription(task.getDescription());
-        dto.setUserId(task.getUserId());
-        dto.setStatus(task.getStatus());
-        dto.setPriority(task.getPriority());
-        dto.setCategory(task.getCategory());
-        dto.setDueDate(task.getDueDate());
-        dto.setReminderDate(task.getReminderDate());
-        dto.setCompletedDate(task.getCompletedDate());
-        dto.setEstimatedDurationMinutes(task.getEstimatedDurationMinutes());
-        dto.setActualDurationMinutes(task.getActualDurationMinutes());
-        dto.setLocation(task.getLocation());
-        dto.setIsRecurring(task.getIsRecurring());
-        dto.setRecurrenceType(task.getRecurrenceType());
-        dto.setRecurrenceEndDate(task.getRecurrenceEndDate());
-        dto.setParentTaskId(task.getParentTaskId());
-        dto.setOrderIndex(task.getOrderIndex());
-        dto.setCreatedAt(task.getCreatedAt());
-        dto.setUpdatedAt(task.getUpdatedAt());
+    /**
+     * Convierte la tarea usando un instante fijo para los campos calculados (vencida, días restantes).
+     * now es la hora local del usuario ({@link UserTimeZoneCache#now}), no la del servidor.
+     */
+    public TaskDTO toDTO(Task task, LocalDateTime now) {
+        if (task == null) {
+            return null;
+        }
 
-        // Convertir JSON strings a listas
-        dto.setTags(parseJsonStringToList(task.getTags()));
-        dto.setAttachmentUrls(parseJsonStringToList(task.getAttachmentUrls()));
+        TaskDTO dto = toBaseDTO(task, now);
+        dto.setIsOverdue(task.getOverdueAt() != null);
+        return dto;
+    }
 
-        // Campos calculados
-        dto.setIsOverdue(task.isOverdue());
-        dto.setDaysUntilDue(calculateDaysUntilDue(task.getDueDate()));
-        dto.setStatusDisplayName(task.getStatus() != null ? task.getStatus().getDisplayName() : null);
-        dto.setPriorityDisplayName(task.getPriority() != null ? task.getPriority().getDisplayName() : null);
-        dto.setCategoryDisplayName(task.getCategory() != null ? task.getCategory().getDisplayName() : null);
+    /**
+     * Ocurrencia de una tarea recurrente: la tarea con la fecha de la ocurrencia (o la nueva, si se movió),
+     * el recordatorio desplazado igual y el estado propio de la ocurrencia.
+     */
+    public TaskDTO toOccurrenceDTO(Task task, LocalDateTime occurrenceDate, TaskOccurrenceException exception,
+                                   LocalDateTime now) {
+        TaskDTO dto = toDTO(task, now);
+        LocalDateTime scheduled = exception != null ? exception.getScheduledDate() : occurrenceDate;
+        dto.setOccurrenceDate(occurrenceDate);
+        dto.setDueDate(scheduled);
+        if (task.getReminderDate() != null && task.getDueDate() != null) {
+            dto.setReminderDate(scheduled.minus(Duration.between(task.getReminderDate(), task.getDueDate())));
+        }
+        if (exception != null && exception.getType() == OccurrenceExceptionType.COMPLETED) {
+            dto.setStatus(TaskStatus.COMPLETED);
+            dto.setStatusDisplayName(TaskStatus.COMPLETED.getDisplayName());
+            dto.setCompletedDate(exception.getCompletedDate());
+        }
+        dto.setIsOverdue(dto.getStatus() != TaskStatus.COMPLETED && now.isAfter(scheduled));
+        dto.setDaysUntilDue(calculateDaysUntilDue(scheduled, now));
+        return dto;
+    }
 
+    /**
+     * Tarea del archivo: terminada, así que nunca figura como vencida.
+     */
+    public TaskDTO toDTO(ArchivedTask task, LocalDateTime now) {
+        TaskDTO dto = toBaseDTO(task, now);
+        dto.setArchivedAt(task.getArchivedAt());
+        dto.setIsOverdue(false);
         return dto;
     }
 
+    public List<TaskDTO> toArchivedDTOList(List<ArchivedTask> tasks) {
+        Map<UUID, LocalDateTime> nowByUser = new HashMap<>();
+        List<TaskDTO> dtos = new ArrayList<>(tasks.size());
+        for (ArchivedTask task : tasks) {
+            dtos.add(toDTO(task, nowByUser.computeIfAbsent(task.getUserId(), userTimeZones::now)));
+        }
+        return dtos;
+    }
+
+    // Un único instante para toda la lista (uno por usuario, en su zona; casi siempre hay un solo usuario)
     public List<TaskDTO> toDTOList(List<Task> tasks) {
-        return tasks.stream()
-                .map(this::toDTO)
-                .collect(Collectors.toList());
+        Map<UUID, LocalDateTime> nowByUser = new HashMap<>();
+        List<TaskDTO> dtos = new ArrayList<>(tasks.size());
+        for (Task task : tasks) {
+            dtos.add(toDTO(task, nowByUser.computeIfAbsent(task.getUserId(), userTimeZones::now)));
+        }
+        return dtos;
     }
 
     public Task fromCreateDTO(CreateTaskDTO createTaskDTO) {
@@ -97,6 +158,32 @@ public class TaskAssembler {
         return task;
     }
 
+    /**
+     * Tarea nueva a partir de una fila importada (NDJSON o CSV). El id, la tarea padre, el orderIndex
+     * y las fechas de auditoría los asigna la importación; los campos calculados se ignoran.
+     */
+    public Task fromImportDTO(TaskDTO taskDTO, UUID userId) {
+        Task task = new Task();
+        task.setUserId(userId);
+        task.setTitle(taskDTO.getTitle());
+        task.setDescription(taskDTO.getDescription());
+        task.setStatus(taskDTO.getStatus() != null ? taskDTO.getStatus() : TaskStatus.PENDING);
+        task.setPriority(taskDTO.getPriority() != null ? taskDTO.getPriority() : TaskPriority.MEDIUM);
+        task.setCategory(taskDTO.getCategory());
+        task.setDueDate(taskDTO.getDueDate());
+        task.setReminderDate(taskDTO.getReminderDate());
+        task.setCompletedDate(taskDTO.getCompletedDate());
+        task.setEstimatedDurationMinutes(taskDTO.getEstimatedDurationMinutes());
+        task.setActualDurationMinutes(taskDTO.getActualDurationMinutes());
+        task.setLocation(taskDTO.getLocation());
+        task.setIsRecurring(taskDTO.getIsRecurring() != null ? taskDTO.getIsRecurring() : Boolean.FALSE);
+        task.setRecurrenceType(taskDTO.getRecurrenceType());
+        task.setRecurrenceEndDate(taskDTO.getRecurrenceEndDate());
+        task.setTags(parseListToJsonString(taskDTO.getTags()));
+        task.setAttachmentUrls(parseListToJsonString(taskDTO.getAttachmentUrls()));
+        return task;
+    }
+
     public Task updateFromDTO(Task task, UpdateTaskDTO updateTaskDTO) {
         if (task == null || updateTaskDTO == null) {
             return task;
@@ -154,12 +241,57 @@ public class TaskAssembler {
         return task;
     }
 
-    private List<String> parseJsonStringToList(String jsonString) {
-        if (jsonString == null || jsonString.trim().isEmpty()) {
+    // Etiquetas de la tarea tal como están guardadas en la columna JSON
+    public List<String> readTags(Task task) {
+        return parseJsonStringToList(task.getTags());
+    }
+
+    // Columnas comunes de tareas vivas y archivadas; la marca de vencida la pone cada variante
+    private TaskDTO toBaseDTO(TaskColumns task, LocalDateTime now) {
+        TaskDTO dto = new TaskDTO();
+        dto.setId(task.getId());
+        dto.setTitle(task.getTitle());
+        dto.setDescription(task.getDescription());
+        dto.setUserId(task.getUserId());
+        dto.setStatus(task.getStatus());
+        dto.setPriority(task.getPriority());
+        dto.setCategory(task.getCategory());
+        dto.setDueDate(task.getDueDate());
+        dto.setReminderDate(task.getReminderDate());
+        dto.setCompletedDate(task.getCompletedDate());
+        dto.setEstimatedDurationMinutes(task.getEstimatedDurationMinutes());
+        dto.setActualDurationMinutes(task.getActualDurationMinutes());
+        dto.setLocation(task.getLocation());
+        dto.setIsRecurring(task.getIsRecurring());
+        dto.setRecurrenceType(task.getRecurrenceType());
+        dto.setRecurrenceEndDate(task.getRecurrenceEndDate());
+        dto.setParentTaskId(task.getParentTaskId());
+        dto.setOrderIndex(task.getOrderIndex());
+        dto.setSubtaskCount(task.getSubtaskCount());
+        dto.setCompletedSubtaskCount(task.getCompletedSubtaskCount());
+        dto.setSubtreeEstimatedMinutes(task.getSubtreeEstimatedMinutes());
+        dto.setCreatedAt(task.getCreatedAt());
+        dto.setUpdatedAt(task.getUpdatedAt());
+        dto.setVersion(task.getVersion());
+
+        // Convertir JSON strings a listas
+        dto.setTags(parseJsonStringToList(task.getTags()));
+        dto.setAttachmentUrls(parseJsonStringToList(task.getAttachmentUrls()));
+
+        // Campos calculados
+        dto.setDaysUntilDue(calculateDaysUntilDue(task.getDueDate(), now));
+        dto.setStatusDisplayName(task.getStatus() != null ? task.getStatus().getDisplayName() : null);
+        dto.setPriorityDisplayName(task.getPriority() != null ? task.getPriority().getDisplayName() : null);
+        dto.setCategoryDisplayName(task.getCategory() != null ? task.getCategory().getDisplayName() : null);
+        return dto;
+    }
+
+    List<String> parseJsonStringToList(String jsonString) {
+        if (jsonString == null || jsonString.isBlank() || EMPTY_JSON_ARRAY.equals(jsonString)) {
             return new ArrayList<>();
         }
         try {
-            return objectMapper.readValue(jsonString, new TypeReference<List<String>>() {});
+            return stringListReader.readValue(jsonString);
         } catch (Exception e) {
             log.warn("Error parsing JSON string to list: {}", jsonString, e);
             return new ArrayList<>();
@@ -171,17 +303,17 @@ public class TaskAssembler {
             return null;
         }
         try {
-            return objectMapper.writeValueAsString(list);
+            return stringListWriter.writeValueAsString(list);
         } catch (Exception e) {
             log.warn("Error parsing list to JSON string: {}", list, e);
             return null;
         }
     }
 
-    private Long calculateDaysUntilDue(LocalDateTime dueDate) {
+    Long calculateDaysUntilDue(LocalDateTime dueDate, LocalDateTime now) {
         if (dueDate == null) {
             return null;
         }
-        return ChronoUnit.DAYS.between(LocalDateTime.now(), dueDate);
+        return ChronoUnit.DAYS.between(now, dueDate);
     }
 }
\ No newline at end of file
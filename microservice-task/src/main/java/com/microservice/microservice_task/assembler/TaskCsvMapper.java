@@ -0,0 +1,170 @@
+package com.microservice.microservice_task.assembler;
+
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.model.RecurrenceType;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskCategory;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.Writer;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+
+/**
+ * Conversión entre tareas y filas CSV para exportar/importar. Las columnas son las de {@code TaskDTO}
+ * sin los campos calculados; tags y attachmentUrls van como el array JSON guardado en la tarea.
+ */
+@Component
+public class TaskCsvMapper {
+
+    public static final List<String> COLUMNS = List.of(
+            "id", "title", "description", "status", "priority", "category",
+            "dueDate", "reminderDate", "completedDate", "estimatedDurationMinutes", "actualDurationMinutes",
+            "tags", "attachmentUrls", "location", "isRecurring", "recurrenceType", "recurrenceEndDate",
+            "parentTaskId", "orderIndex", "createdAt", "updatedAt");
+
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    private final TaskAssembler taskAssembler;
+
+    @Autowired
+    public TaskCsvMapper(TaskAssembler taskAssembler) {
+        this.taskAssembler = taskAssembler;
+    }
+
+    public void writeHeader(Writer writer) throws IOException {
+        writer.write(String.join(",", COLUMNS));
+        writer.write("\r\n");
+    }
+
+    public void writeRow(Writer writer, Task task) throws IOException {
+        writeField(writer, task.getId(), true);
+        writeField(writer, task.getTitle(), false);
+        writeField(writer, task.getDescription(), false);
+        writeField(writer, task.getStatus(), false);
+        writeField(writer, task.getPriority(), false);
+        writeField(writer, task.getCategory(), false);
+        writeDateTime(writer, task.getDueDate());
+        writeDateTime(writer, task.getReminderDate());
+        writeDateTime(writer, task.getCompletedDate());
+        writeField(writer, task.getEstimatedDurationMinutes(), false);
+        writeField(writer, task.getActualDurationMinutes(), false);
+        writeField(writer, task.getTags(), false);
+        writeField(writer, task.getAttachmentUrls(), false);
+        writeField(writer, task.getLocation(), false);
+        writeField(writer, task.getIsRecurring(), false);
+        writeField(writer, task.getRecurrenceType(), false);
+        writeDateTime(writer, task.getRecurrenceEndDate());
+        writeField(writer, task.getParentTaskId(), false);
+        writeField(writer, task.getOrderIndex(), false);
+        writeDateTime(writer, task.getCreatedAt());
+        writeDateTime(writer, task.getUpdatedAt());
+        writer.write("\r\n");
+    }
+
+    /**
+     * Índice de cada columna conocida en la cabecera del fichero (las desconocidas se ignoran).
+     */
+    public Map<String, Integer> readHeader(List<String> header) {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim();
+            if (COLUMNS.contains(column)) {
+                positions.put(column, i);
+            }
+        }
+        return positions;
+    }
+
+    /**
+     * Convierte un registro CSV en TaskDTO. Lanza IllegalArgumentException si una columna
+     * no tiene un valor válido.
+     */
+    public TaskDTO fromRecord(Map<String, Integer> header, List<String> values) {
+        Row row = new Row(header, values);
+        TaskDTO dto = new TaskDTO();
+        dto.setId(row.get("id", UUID::fromString));
+        dto.setTitle(row.get("title", Function.identity()));
+        dto.setDescription(row.get("description", Function.identity()));
+        dto.setStatus(row.get("status", TaskStatus::valueOf));
+        dto.setPriority(row.get("priority", TaskPriority::valueOf));
+        dto.setCategory(row.get("category", TaskCategory::valueOf));
+        dto.setDueDate(row.get("dueDate", LocalDateTime::parse));
+        dto.setReminderDate(row.get("reminderDate", LocalDateTime::parse));
+        dto.setCompletedDate(row.get("completedDate", LocalDateTime::parse));
+        dto.setEstimatedDurationMinutes(row.get("estimatedDurationMinutes", Integer::valueOf));
+        dto.setActualDurationMinutes(row.get("actualDurationMinutes", Integer::valueOf));
+        dto.setTags(taskAssembler.parseJsonStringToList(row.get("tags", Function.identity())));
+        dto.setAttachmentUrls(taskAssembler.parseJsonStringToList(row.get("attachmentUrls", Function.identity())));
+        dto.setLocation(row.get("location", Function.identity()));
+        dto.setIsRecurring(row.get("isRecurring", Boolean::valueOf));
+        dto.setRecurrenceType(row.get("recurrenceType", RecurrenceType::valueOf));
+        dto.setRecurrenceEndDate(row.get("recurrenceEndDate", LocalDateTime::parse));
+        dto.setParentTaskId(row.get("parentTaskId", UUID::fromString));
+        dto.setOrderIndex(row.get("orderIndex", Integer::valueOf));
+        return dto;
+    }
+
+    private void writeDateTime(Writer writer, LocalDateTime value) throws IOException {
+        writeField(writer, value != null ? DATE_TIME_FORMAT.format(value) : null, false);
+    }
+
+    private void writeField(Writer writer, Object value, boolean first) throws IOException {
+        if (!first) {
+            writer.write(',');
+        }
+        if (value == null) {
+            return;
+        }
+        String text = value instanceof Enum<?> e ? e.name() : value.toString();
+        if (needsQuotes(text)) {
+            writer.write('"');
+            writer.write(text.replace("\"", "\"\""));
+            writer.write('"');
+        } else {
+            writer.write(text);
+        }
+    }
+
+    private static boolean needsQuotes(String text) {
+        for (int i = 0; i < text.length(); i++) {
+            char c = text.charAt(i);
+            if (c == ',' || c == '"' || c == '\n' || c == '\r') {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    // Acceso a las columnas de un registro por nombre; vacío equivale a null
+    private static class Row {
+        private final Map<String, Integer> header;
+        private final List<String> values;
+
+        Row(Map<String, Integer> header, List<String> values) {
+            this.header = header;
+            this.values = values;
+        }
+
+        <T> T get(String column, Function<String, T> parser) {
+            Integer position = header.get(column);
+            if (position == null || position >= values.size() || values.get(position).isEmpty()) {
+                return null;
+            }
+            try {
+                return parser.apply(values.get(position));
+            } catch (RuntimeException e) {
+                throw new IllegalArgumentException("Valor inválido en la columna " + column + ": " + values.get(position));
+            }
+        }
+    }
+}
@@ -0,0 +1,262 @@
+package com.microservice.microservice_task.assembler;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import com.fasterxml.jackson.core.JsonParser;
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.core.JsonToken;
+import com.microservice.microservice_task.model.Task;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.time.temporal.ChronoUnit;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+/**
+ * Escribe tareas directamente en un {@link JsonGenerator}, sin pasar por {@code TaskDTO} ni por listas
+ * intermedias. El JSON producido es el mismo que el de serializar {@code TaskDTO} con el ObjectMapper
+ * de Spring (mismos nombres de campo, fechas ISO y enums por nombre).
+ */
+@Component
+@Slf4j
+public class TaskJsonWriter {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    // Mismo formato que usa Jackson (jsr310) para LocalDateTime; se usa solo fuera del rango de 4 dígitos de año
+    private static final DateTimeFormatter DATE_TIME_FORMAT = DateTimeFormatter.ISO_LOCAL_DATE_TIME;
+
+    // "yyyy-MM-ddTHH:mm:ss.nnnnnnnnn" y los 36 caracteres de un UUID caben en el mismo búfer
+    private static final int SCRATCH_LENGTH = 36;
+
+    private static final char[] HEX_DIGITS = "0123456789abcdef".toCharArray();
+
+    private static final String EMPTY_JSON_ARRAY = "[]";
+
+    /**
+     * Escribe un array JSON con las tareas a medida que se recorren. Tras escribir cada tarea se invoca
+     * {@code afterWrite} (p. ej. para sacarla del contexto de persistencia). Devuelve cuántas se escribieron.
+     */
+    public long writeArray(Iterator<Task> tasks, OutputStream out, LocalDateTime now,
+                           Consumer<Task> afterWrite) throws IOException {
+        long written = 0;
+        char[] scratch = new char[SCRATCH_LENGTH];
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            generator.writeStartArray();
+            while (tasks.hasNext()) {
+                Task task = tasks.next();
+                writeTask(generator, task, now, scratch);
+                afterWrite.accept(task);
+                written++;
+            }
+            generator.writeEndArray();
+        }
+        return written;
+    }
+
+    /**
+     * Escribe las tareas en formato NDJSON: un objeto por línea, terminado en salto de línea.
+     * Devuelve cuántas se escribieron.
+     */
+    public long writeLines(Iterator<Task> tasks, OutputStream out, LocalDateTime now,
+                           Consumer<Task> afterWrite) throws IOException {
+        long written = 0;
+        char[] scratch = new char[SCRATCH_LENGTH];
+        try (JsonGenerator generator = JSON_FACTORY.createGenerator(out)) {
+            // Sin el espacio que Jackson pone por defecto entre valores raíz
+            generator.setRootValueSeparator(null);
+            while (tasks.hasNext()) {
+                Task task = tasks.next();
+                writeTask(generator, task, now, scratch);
+                generator.writeRaw('\n');
+                afterWrite.accept(task);
+                written++;
+            }
+        }
+        return written;
+    }
+
+    /**
+     * Escribe una tarea como objeto JSON. {@code now} es el instante fijo de la petición
+     * para los campos calculados, en la hora local del usuario como due_date
+     * ({@link com.microservice.microservice_task.cache.UserTimeZoneCache#now}).
+     */
+    public void writeTask(JsonGenerator generator, Task task, LocalDateTime now) throws IOException {
+        writeTask(generator, task, now, new char[SCRATCH_LENGTH]);
+    }
+
+    // scratch: búfer reutilizado entre tareas para UUIDs y fechas, que así no generan Strings
+    private void writeTask(JsonGenerator generator, Task task, LocalDateTime now, char[] scratch) throws IOException {
+        generator.writeStartObject();
+        writeUuid(generator, "id", task.getId(), scratch);
+        generator.writeStringField("title", task.getTitle());
+        generator.writeStringField("description", task.getDescription());
+        writeUuid(generator, "userId", task.getUserId(), scratch);
+        writeEnum(generator, "status", task.getStatus());
+        writeEnum(generator, "priority", task.getPriority());
+        writeEnum(generator, "category", task.getCategory());
+        writeDateTime(generator, "dueDate", task.getDueDate(), scratch);
+        writeDateTime(generator, "reminderDate", task.getReminderDate(), scratch);
+        writeDateTime(generator, "completedDate", task.getCompletedDate(), scratch);
+        writeInteger(generator, "estimatedDurationMinutes", task.getEstimatedDurationMinutes());
+        writeInteger(generator, "actualDurationMinutes", task.getActualDurationMinutes());
+        writeStringArray(generator, "tags", task.getTags());
+        writeStringArray(generator, "attachmentUrls", task.getAttachmentUrls());
+        generator.writeStringField("location", task.getLocation());
+        writeBoolean(generator, "isRecurring", task.getIsRecurring());
+        writeEnum(generator, "recurrenceType", task.getRecurrenceType());
+        writeDateTime(generator, "recurrenceEndDate", task.getRecurrenceEndDate(), scratch);
+        writeUuid(generator, "parentTaskId", task.getParentTaskId(), scratch);
+        writeInteger(generator, "orderIndex", task.getOrderIndex());
+        writeInteger(generator, "subtaskCount", task.getSubtaskCount());
+        writeInteger(generator, "completedSubtaskCount", task.getCompletedSubtaskCount());
+        writeLong(generator, "subtreeEstimatedMinutes", task.getSubtreeEstimatedMinutes());
+        writeDateTime(generator, "createdAt", task.getCreatedAt(), scratch);
+        writeDateTime(generator, "updatedAt", task.getUpdatedAt(), scratch);
+        writeLong(generator, "version", task.getVersion());
+        generator.writeNullField("occurrenceDate"); // Las filas de tasks no son ocurrencias
+        generator.writeNullField("archivedAt"); // Ni están archivadas
+
+        // Campos calculados
+        generator.writeBooleanField("isOverdue", task.getOverdueAt() != null);
+        if (task.getDueDate() != null) {
+            generator.writeNumberField("daysUntilDue", ChronoUnit.DAYS.between(now, task.getDueDate()));
+        } else {
+            generator.writeNullField("daysUntilDue");
+        }
+        generator.writeStringField("statusDisplayName",
+                task.getStatus() != null ? task.getStatus().getDisplayName() : null);
+        generator.writeStringField("priorityDisplayName",
+                task.getPriority() != null ? task.getPriority().getDisplayName() : null);
+        generator.writeStringField("categoryDisplayName",
+                task.getCategory() != null ? task.getCategory().getDisplayName() : null);
+        generator.writeEndObject();
+    }
+
+    private void writeUuid(JsonGenerator generator, String field, UUID value, char[] scratch) throws IOException {
+        generator.writeFieldName(field);
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        long msb = value.getMostSignificantBits();
+        long lsb = value.getLeastSignificantBits();
+        hex(scratch, 0, msb >>> 32, 8);
+        scratch[8] = '-';
+        hex(scratch, 9, msb >>> 16, 4);
+        scratch[13] = '-';
+        hex(scratch, 14, msb, 4);
+        scratch[18] = '-';
+        hex(scratch, 19, lsb >>> 48, 4);
+        scratch[23] = '-';
+        hex(scratch, 24, lsb, 12);
+        generator.writeString(scratch, 0, 36);
+    }
+
+    private static void hex(char[] target, int offset, long value, int digits) {
+        for (int i = offset + digits - 1; i >= offset; i--) {
+            target[i] = HEX_DIGITS[(int) (value & 0xF)];
+            value >>>= 4;
+        }
+    }
+
+    private void writeEnum(JsonGenerator generator, String field, Enum<?> value) throws IOException {
+        generator.writeStringField(field, value != null ? value.name() : null);
+    }
+
+    private void writeDateTime(JsonGenerator generator, String field, LocalDateTime value, char[] scratch) throws IOException {
+        generator.writeFieldName(field);
+        if (value == null) {
+            generator.writeNull();
+            return;
+        }
+        if (value.getYear() < 0 || value.getYear() > 9999) {
+            generator.writeString(DATE_TIME_FORMAT.format(value));
+            return;
+        }
+        digits(scratch, 0, value.getYear(), 4);
+        scratch[4] = '-';
+        digits(scratch, 5, value.getMonthValue(), 2);
+        scratch[7] = '-';
+        digits(scratch, 8, value.getDayOfMonth(), 2);
+        scratch[10] = 'T';
+        digits(scratch, 11, value.getHour(), 2);
+        scratch[13] = ':';
+        digits(scratch, 14, value.getMinute(), 2);
+        scratch[16] = ':';
+        digits(scratch, 17, value.getSecond(), 2);
+        int length = 19;
+        int nano = value.getNano();
+        if (nano > 0) {
+            // Fracción con los dígitos justos, sin ceros finales (como ISO_LOCAL_DATE_TIME)
+            scratch[19] = '.';
+            digits(scratch, 20, nano, 9);
+            length = 29;
+            while (scratch[length - 1] == '0') {
+                length--;
+            }
+        }
+        generator.writeString(scratch, 0, length);
+    }
+
+    private static void digits(char[] target, int offset, int value, int width) {
+        for (int i = offset + width - 1; i >= offset; i--) {
+            target[i] = (char) ('0' + value % 10);
+            value /= 10;
+        }
+    }
+
+    private void writeInteger(JsonGenerator generator, String field, Integer value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(field, value);
+        } else {
+            generator.writeNullField(field);
+        }
+    }
+
+    private void writeLong(JsonGenerator generator, String field, Long value) throws IOException {
+        if (value != null) {
+            generator.writeNumberField(field, value);
+        } else {
+            generator.writeNullField(field);
+        }
+    }
+
+    private void writeBoolean(JsonGenerator generator, String field, Boolean value) throws IOException {
+        if (value != null) {
+            generator.writeBooleanField(field, value);
+        } else {
+            generator.writeNullField(field);
+        }
+    }
+
+    /**
+     * Copia la columna JSON (array de strings) token a token al generador, sin construir la lista.
+     * Si el contenido guardado no es válido se corta ahí y el array se cierra igualmente.
+     */
+    private void writeStringArray(JsonGenerator generator, String field, String json) throws IOException {
+        generator.writeArrayFieldStart(field);
+        if (json != null && !json.isBlank() && !EMPTY_JSON_ARRAY.equals(json)) {
+            try (JsonParser parser = JSON_FACTORY.createParser(json)) {
+                if (parser.nextToken() == JsonToken.START_ARRAY) {
+                    JsonToken token;
+                    while ((token = parser.nextToken()) == JsonToken.VALUE_STRING) {
+                        generator.writeString(parser.getTextCharacters(), parser.getTextOffset(), parser.getTextLength());
+                    }
+                    if (token != JsonToken.END_ARRAY) {
+                        log.warn("Contenido inesperado en {}: {}", field, json);
+                    }
+                }
+            } catch (JsonProcessingException e) {
+                log.warn("Error parsing JSON string to list: {}", json, e);
+            }
+        }
+        generator.writeEndArray();
+    }
+}
@@ -0,0 +1,107 @@
+package com.microservice.microservice_task.cache;
+
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.support.TransactionSynchronizationManager;
+
+import java.util.*;
+import java.util.function.LongSupplier;
+import java.util.function.Supplier;
+
+/**
+ * Caché de lectura de tareas: tareas sueltas por id ({@link #TASKS}) y listas de cada usuario
+ * ({@link #TASK_LISTS}, una entrada por vista: todas, por estado, vencidas...).
+ *
+ * No hay invalidación explícita: cada entrada guarda la versión de la base de datos leída ANTES de
+ * cargarla y solo se sirve si esa versión sigue siendo la actual. La versión de una lista es el último
+ * número de cambio del usuario (task_sync_sequences.last_seq) y la de una tarea su change_seq; las dos
+ * las avanza {@link TaskChangeTracker} al confirmar cada escritura, así que una escritura confirmada en
+ * cualquier instancia deja obsoletas las entradas de todas, y la caché puede ser compartida (ver
+ * CacheConfig). Un acierto cuesta una consulta por clave primaria en lugar de la carga completa.
+ *
+ * Dentro de una transacción de escritura no se usa: lo leído puede incluir cambios sin confirmar cuya
+ * versión aún no existe.
+ */
+@Component
+public class TaskCache {
+
+    public static final String TASKS = "tasks";
+    public static final String TASK_LISTS = "taskLists";
+
+    private final Cache tasks;
+    private final Cache lists;
+    private final TaskChangeTracker changeTracker;
+
+    @Autowired
+    public TaskCache(CacheManager cacheManager, TaskChangeTracker changeTracker) {
+        this.tasks = Objects.requireNonNull(cacheManager.getCache(TASKS), "Falta la caché " + TASKS);
+        this.lists = Objects.requireNonNull(cacheManager.getCache(TASK_LISTS), "Falta la caché " + TASK_LISTS);
+        this.changeTracker = changeTracker;
+    }
+
+    // ============= LECTURA =============
+
+    /**
+     * Devuelve la tarea cacheada o la carga con loader. Los DTO cacheados se comparten: no deben modificarse.
+     */
+    public TaskDTO getTask(UUID taskId, Supplier<TaskDTO> loader) {
+        // Sin fila no hay versión: el loader decide (normalmente, tarea no encontrada)
+        return (TaskDTO) read(tasks, taskId, () -> changeTracker.entitySequence(taskId).orElse(-1L), loader);
+    }
+
+    /**
+     * Devuelve la lista cacheada de la vista del usuario, o la carga con loader. La lista nunca es más
+     * antigua que la versión de la colección leída antes de llamar aquí (el ETag de CollectionETag).
+     */
+    @SuppressWarnings("unchecked")
+    public List<TaskDTO> getTaskList(UUID userId, String view, Supplier<List<TaskDTO>> loader) {
+        return (List<TaskDTO>) read(lists, userId + ":" + view, () -> changeTracker.currentSequence(userId),
+                () -> List.copyOf(loader.get()));
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private Object read(Cache cache, Object key, LongSupplier currentVersion, Supplier<?> loader) {
+        if (TransactionSynchronizationManager.isActualTransactionActive()
+                && !TransactionSynchronizationManager.isCurrentTransactionReadOnly()) {
+            return loader.get();
+        }
+        long version = currentVersion.getAsLong();
+        Cache.ValueWrapper cached = cache.get(key);
+        if (cached != null && cached.get() instanceof Entry entry) {
+            if (entry.version == version) {
+                return entry.value;
+            }
+            cache.evict(key); // Escrita después de cargarse
+        }
+        Object value = loader.get();
+        int weight = value instanceof List<?> list ? Math.max(1, list.size()) : 1;
+        cache.put(key, new Entry(value, version, weight));
+        return value;
+    }
+
+    /**
+     * Valor cacheado con la versión con que se cargó y su peso (número de tareas) para el límite de la
+     * caché.
+     */
+    public static final class Entry {
+
+        private final Object value;
+        private final long version;
+        private final int weight;
+
+        Entry(Object value, long version, int weight) {
+            this.value = value;
+            this.version = version;
+            this.weight = weight;
+        }
+
+        public int getWeight() {
+            return weight;
+        }
+    }
+}
@@ -0,0 +1,33 @@
+package com.microservice.microservice_task.cache;
+
+import com.microservice.microservice_task.model.Task;
+import jakarta.persistence.PrePersist;
+import jakarta.persistence.PreUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+import java.time.ZoneId;
+
+/**
+ * Fija Task.dueAt (la fecha límite como instante UTC) con la zona del usuario cada vez que se guarda una
+ * fecha límite nueva; si la fecha no cambia no se consulta la zona. Hibernate lo crea a través de Spring;
+ * sin {@link UserTimeZoneCache} en el contexto usa la zona del servidor.
+ */
+public class TaskDueAtListener {
+
+    private final ObjectProvider<UserTimeZoneCache> userTimeZones;
+
+    public TaskDueAtListener(ObjectProvider<UserTimeZoneCache> userTimeZones) {
+        this.userTimeZones = userTimeZones;
+    }
+
+    @PrePersist
+    @PreUpdate
+    void beforeSave(Task task) {
+        if (!task.needsDueAt()) {
+            return;
+        }
+        UserTimeZoneCache zones = userTimeZones.getIfAvailable();
+        task.resolveDueAt(zones != null && task.getUserId() != null
+                ? zones.zoneOf(task.getUserId()) : ZoneId.systemDefault());
+    }
+}
@@ -0,0 +1,103 @@
+package com.microservice.microservice_task.cache;
+
+import com.microservice.microservice_task.client.UserServiceClient;
+import com.microservice.microservice_task.dto.UserTimeZoneDTO;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.BeansException;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.cache.Cache;
+import org.springframework.cache.CacheManager;
+import org.springframework.stereotype.Component;
+
+import java.time.DateTimeException;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.util.Objects;
+import java.util.UUID;
+
+/**
+ * Zona horaria de cada usuario (preferencias del servicio de usuarios), para calcular "hoy", "esta
+ * semana" y "este mes" en su día y no en el del servidor.
+ *
+ * Se guarda en la caché {@link #USER_TIME_ZONES} del mismo {@link CacheManager} que {@link TaskCache},
+ * así que caduca con tasks.cache.ttl-seconds: un cambio de zona tarda como mucho ese tiempo en notarse.
+ * Si el servicio de usuarios no responde o la zona no es válida se usa la zona por defecto
+ * (tasks.time-zone.default, o la del servidor) y no se cachea, para volver a preguntar en la siguiente
+ * petición.
+ */
+@Component
+@Slf4j
+public class UserTimeZoneCache {
+
+    public static final String USER_TIME_ZONES = "userTimeZones";
+
+    private final Cache zones;
+    private final ObjectProvider<UserServiceClient> userServiceClient;
+    private final ZoneId defaultZone;
+
+    @Autowired
+    public UserTimeZoneCache(CacheManager cacheManager, ObjectProvider<UserServiceClient> userServiceClient,
+                             @Value("${tasks.time-zone.default:}") String defaultZone) {
+        this.zones = Objects.requireNonNull(cacheManager.getCache(USER_TIME_ZONES), "Falta la caché " + USER_TIME_ZONES);
+        this.userServiceClient = userServiceClient;
+        this.defaultZone = defaultZone.isBlank() ? ZoneId.systemDefault() : ZoneId.of(defaultZone);
+    }
+
+    public ZoneId zoneOf(UUID userId) {
+        String cached = zones.get(userId, String.class);
+        if (cached != null) {
+            return ZoneId.of(cached);
+        }
+        ZoneId zone = fetch(userId);
+        if (zone != null) {
+            zones.put(userId, zone.getId());
+            return zone;
+        }
+        return defaultZone;
+    }
+
+    /** Fecha actual en la zona del usuario. */
+    public LocalDate today(UUID userId) {
+        return LocalDate.now(zoneOf(userId));
+    }
+
+    /** Fecha y hora actuales en la zona del usuario: lo que hay que comparar con due_date. */
+    public LocalDateTime now(UUID userId) {
+        return LocalDateTime.now(zoneOf(userId));
+    }
+
+    public ZoneId getDefaultZone() {
+        return defaultZone;
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    // null: no se pudo saber y no se cachea; sin zona en las preferencias: la zona por defecto
+    private ZoneId fetch(UUID userId) {
+        UserServiceClient client;
+        try {
+            client = userServiceClient.getIfAvailable();
+        } catch (BeansException e) {
+            // Sin la infraestructura de Feign (p. ej. en los tests de repositorio) es como no tener cliente
+            log.debug("Cliente del servicio de usuarios no disponible: {}", e.getMessage());
+            return null;
+        }
+        if (client == null) {
+            return null;
+        }
+        try {
+            UserTimeZoneDTO preferences = client.getTimeZone(userId);
+            String timezone = preferences == null ? null : preferences.getTimezone();
+            return timezone == null || timezone.isBlank() ? defaultZone : ZoneId.of(timezone);
+        } catch (DateTimeException e) {
+            log.warn("Zona horaria no válida en las preferencias del usuario {}: {}", userId, e.getMessage());
+            return null;
+        } catch (Exception e) {
+            log.warn("No se pudo obtener la zona horaria del usuario {}; se usa {}", userId, defaultZone, e);
+            return null;
+        }
+    }
+}
@@ -1,8 +1,11 @@
 package com.microservice.microservice_task.client;
 
+import com.microservice.microservice_task.dto.OverdueNotificationDTO;
+import com.microservice.microservice_task.dto.TaskReminderDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
+import java.util.List;
 import java.util.UUID;
 
 @FeignClient(name = "microservice-notifications", path = "/api/notifications")
@@ -11,9 +14,17 @@ public interface NotificationServiceClient {
     @PostMapping("/task-reminder")
     Boolean sendTaskReminder(@RequestBody Object reminderData);
 
+    // Varios recordatorios en una sola petición (planificador de recordatorios)
+    @PostMapping("/task-reminders")
+    Boolean sendTaskReminders(@RequestBody List<TaskReminderDTO> reminders);
+
     @PostMapping("/task-overdue")
     Boolean sendOverdueNotification(@RequestBody Object overdueData);
 
+    // Avisos de tareas vencidas agrupados por usuario (TaskOverdueScanner)
+    @PostMapping("/task-overdue/batch")
+    Boolean sendOverdueNotifications(@RequestBody List<OverdueNotificationDTO> notifications);
+
     @PostMapping("/task-completed")
     Boolean sendTaskCompletedNotification(@RequestBody Object completionData);
 }
\ No newline at end of file
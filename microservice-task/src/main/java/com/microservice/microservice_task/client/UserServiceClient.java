@@ -1,5 +1,6 @@
 package com.microservice.microservice_task.client;
 
+import com.microservice.microservice_task.dto.UserTimeZoneDTO;
 import org.springframework.cloud.openfeign.FeignClient;
 import org.springframework.web.bind.annotation.*;
 
@@ -16,4 +17,7 @@ public interface UserServiceClient {
 
     @GetMapping("/{userId}/active")
     Boolean isUserActive(@PathVariable("userId") UUID userId);
-}
\ No newline at end of file
+
+    @GetMapping("/{userId}/preferences")
+    UserTimeZoneDTO getTimeZone(@PathVariable("userId") UUID userId);
+}
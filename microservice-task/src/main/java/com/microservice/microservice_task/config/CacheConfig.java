@@ -0,0 +1,49 @@
+package com.microservice.microservice_task.config;
+
+import com.github.benmanes.caffeine.cache.Caffeine;
+import com.microservice.microservice_task.cache.TaskCache;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.cache.support.NoOpCacheManager;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * CacheManager de {@link TaskCache} y {@link UserTimeZoneCache}. Por defecto (tasks.cache.type=local) una
+ * caché Caffeine por instancia, limitada por peso (número de tareas cacheadas) y con caducidad; con "none"
+ * se desactiva. TaskCache valida cada acierto contra la versión de la base de datos, así que también vale
+ * un CacheManager compartido (Redis...) que sustituya a este bean.
+ * Las estadísticas (aciertos, fallos, expulsiones) se publican en /actuator/metrics como cache.*.
+ */
+@Configuration
+public class CacheConfig {
+
+    @Bean
+    @ConditionalOnProperty(name = "tasks.cache.type", havingValue = "local", matchIfMissing = true)
+    public CacheManager cacheManager(@Value("${tasks.cache.max-weight:100000}") long maxWeight,
+                                     @Value("${tasks.cache.ttl-seconds:300}") long ttlSeconds) {
+        CaffeineCacheManager cacheManager = new CaffeineCacheManager();
+        cacheManager.setCaffeine(Caffeine.newBuilder()
+                .maximumWeight(maxWeight)
+                .weigher((Object key, Object value) ->
+                        value instanceof TaskCache.Entry entry ? entry.getWeight() : 1)
+                .expireAfterWrite(Duration.ofSeconds(ttlSeconds))
+                .recordStats());
+        // Cachés fijas: así se registran sus métricas al arrancar
+        cacheManager.setCacheNames(List.of(TaskCache.TASKS, TaskCache.TASK_LISTS, UserTimeZoneCache.USER_TIME_ZONES));
+        cacheManager.setAllowNullValues(false);
+        return cacheManager;
+    }
+
+    @Bean
+    @ConditionalOnProperty(name = "tasks.cache.type", havingValue = "none")
+    public CacheManager noOpCacheManager() {
+        return new NoOpCacheManager();
+    }
+}
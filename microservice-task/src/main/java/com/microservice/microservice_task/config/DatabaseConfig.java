@@ -1,11 +1,17 @@
 package com.microservice.microservice_task.config;
 
+import com.microservice.common.jdbc.QueryInstrumentationConfiguration;
+import com.microservice.common.jdbc.ReadWriteRoutingConfiguration;
 import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Import;
 import org.springframework.data.jpa.repository.config.EnableJpaAuditing;
 import org.springframework.data.jpa.repository.config.EnableJpaRepositories;
 
 @Configuration
 @EnableJpaRepositories(basePackages = "com.microservice.tasks.repository")
 @EnableJpaAuditing
+// Métricas por sentencia y por petición, N+1 y consultas lentas (jdbc.instrumentation.*), y
+// réplica de lectura para las transacciones readOnly si se da spring.datasource.replica.url
+@Import({QueryInstrumentationConfiguration.class, ReadWriteRoutingConfiguration.class})
 public class DatabaseConfig {
 }
\ No newline at end of file
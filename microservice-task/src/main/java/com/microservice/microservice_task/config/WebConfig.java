@@ -1,18 +1,37 @@
 package com.microservice.microservice_task.config;
 
+import com.microservice.common.web.CollectionETagInterceptor;
+import com.microservice.common.web.CollectionVersionSource;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.context.annotation.Configuration;
 import org.springframework.web.servlet.config.annotation.CorsRegistry;
+import org.springframework.web.servlet.config.annotation.InterceptorRegistry;
 import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
 
 @Configuration
 public class WebConfig implements WebMvcConfigurer {
 
+    private final ObjectProvider<CollectionVersionSource> versionSources;
+
+    @Autowired
+    public WebConfig(ObjectProvider<CollectionVersionSource> versionSources) {
+        this.versionSources = versionSources;
+    }
+
     @Override
     public void addCorsMappings(CorsRegistry registry) {
         registry.addMapping("/api/**")
                 .allowedOrigins("http://localhost:3000", "http://localhost:8080") // Frontend URLs
                 .allowedMethods("GET", "POST", "PUT", "DELETE", "OPTIONS")
                 .allowedHeaders("*")
+                .exposedHeaders("ETag")
                 .allowCredentials(true);
     }
-}
\ No newline at end of file
+
+    // GET condicional (If-None-Match) en los listados marcados con @CollectionETag
+    @Override
+    public void addInterceptors(InterceptorRegistry registry) {
+        registry.addInterceptor(new CollectionETagInterceptor(versionSources.orderedStream().toList()));
+    }
+}
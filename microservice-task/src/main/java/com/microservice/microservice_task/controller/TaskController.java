@@ -1,8 +1,14 @@
 package com.microservice.microservice_task.controller;
 
+import com.microservice.common.web.CollectionETag;
 import com.microservice.microservice_task.dto.*;
 import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.service.TaskBatchService;
+import com.microservice.microservice_task.service.TaskCollectionVersion;
+import com.microservice.microservice_task.service.TaskExportService;
+import com.microservice.microservice_task.service.TaskImportService;
 import com.microservice.microservice_task.service.TaskService;
+import com.microservice.microservice_task.service.TaskSyncService;
 import io.swagger.v3.oas.annotations.Operation;
 import io.swagger.v3.oas.annotations.Parameter;
 import io.swagger.v3.oas.annotations.tags.Tag;
@@ -11,10 +17,19 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
+import org.springframework.web.servlet.mvc.method.annotation.StreamingResponseBody;
 
+import java.io.IOException;
+import java.io.InputStream;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
 import java.util.HashMap;
 import java.util.List;
 import java.util.Map;
@@ -27,24 +42,37 @@ import java.util.UUID;
 public class TaskController {
 
     private final TaskService taskService;
+    private final TaskBatchService taskBatchService;
+    private final TaskExportService taskExportService;
+    private final TaskImportService taskImportService;
+    private final TaskSyncService taskSyncService;
 
     @Autowired
-    public TaskController(TaskService taskService) {
+    public TaskController(TaskService taskService, TaskBatchService taskBatchService,
+                          TaskExportService taskExportService, TaskImportService taskImportService,
+                          TaskSyncService taskSyncService) {
         this.taskService = taskService;
+        this.taskBatchService = taskBatchService;
+        this.taskExportService = taskExportService;
+        this.taskImportService = taskImportService;
+        this.taskSyncService = taskSyncService;
     }
 
     // ============= CRUD BÁSICO =============
 
     @GetMapping("/user/{userId}")
+    @CollectionETag(TaskCollectionVersion.COLLECTION)
     @Operation(summary = "Obtener todas las tareas de un usuario")
     public ResponseEntity<List<TaskDTO>> getAllTasksByUser(
-            @Parameter(description = "ID del usuario") @PathVariable UUID userId) {
-        log.debug("GET /api/tasks/user/{}", userId);
-        List<TaskDTO> tasks = taskService.getAllTasksByUser(userId);
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Incluir también las tareas archivadas") @RequestParam(defaultValue = "false") boolean includeArchived) {
+        log.debug("GET /api/tasks/user/{}?includeArchived={}", userId, includeArchived);
+        List<TaskDTO> tasks = taskService.getAllTasksByUser(userId, includeArchived);
         return ResponseEntity.ok(tasks);
     }
 
     @GetMapping("/user/{userId}/pageable")
+    @CollectionETag(TaskCollectionVersion.COLLECTION)
     @Operation(summary = "Obtener tareas de un usuario con paginación")
     public ResponseEntity<Page<TaskDTO>> getAllTasksByUserPageable(
             @Parameter(description = "ID del usuario") @PathVariable UUID userId,
@@ -54,6 +82,75 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/user/{userId}/slice")
+    @CollectionETag(TaskCollectionVersion.COLLECTION)
+    @Operation(summary = "Obtener tareas de un usuario paginadas sin contar el total")
+    public ResponseEntity<Slice<TaskDTO>> getTasksSliceByUser(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            Pageable pageable) {
+        log.debug("GET /api/tasks/user/{}/slice", userId);
+        Slice<TaskDTO> tasks = taskService.getTasksSliceByUser(userId, pageable);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/user/{userId}/cursor")
+    @CollectionETag(TaskCollectionVersion.COLLECTION)
+    @Operation(summary = "Obtener tareas de un usuario paginadas por cursor")
+    public ResponseEntity<CursorPageDTO<TaskDTO>> getTasksByCursor(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "20") int size) {
+        log.debug("GET /api/tasks/user/{}/cursor", userId);
+        CursorPageDTO<TaskDTO> tasks = taskService.getTasksByCursor(userId, cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/user/{userId}/sync")
+    @Operation(summary = "Sincronización incremental: tareas creadas, modificadas o borradas desde el token")
+    public ResponseEntity<TaskSyncDTO> syncTasks(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Token devuelto por la sincronización anterior (vacío la primera vez)") @RequestParam(required = false) String since,
+            @Parameter(description = "Máximo de cambios por respuesta") @RequestParam(defaultValue = "200") int limit) {
+        log.debug("GET /api/tasks/user/{}/sync?since={}", userId, since);
+        TaskSyncDTO changes = taskSyncService.getChanges(userId, since, limit);
+        return ResponseEntity.ok(changes);
+    }
+
+    @GetMapping(value = "/user/{userId}/stream", produces = MediaType.APPLICATION_JSON_VALUE)
+    @Operation(summary = "Obtener todas las tareas de un usuario escritas en streaming (listas grandes)")
+    public ResponseEntity<StreamingResponseBody> streamTasksByUser(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId) {
+        log.debug("GET /api/tasks/user/{}/stream", userId);
+        StreamingResponseBody body = out -> taskExportService.writeTasksAsJson(userId, out);
+        return ResponseEntity.ok().contentType(MediaType.APPLICATION_JSON).body(body);
+    }
+
+    @GetMapping("/user/{userId}/export")
+    @Operation(summary = "Exportar todas las tareas de un usuario (NDJSON o CSV) en streaming")
+    public ResponseEntity<StreamingResponseBody> exportTasks(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Formato: ndjson o csv") @RequestParam(defaultValue = "ndjson") String format) {
+        log.debug("GET /api/tasks/user/{}/export?format={}", userId, format);
+        TaskFileFormat fileFormat = TaskFileFormat.from(format);
+        StreamingResponseBody body = out -> taskExportService.exportTasks(userId, fileFormat, out);
+        return ResponseEntity.ok()
+                .contentType(MediaType.parseMediaType(fileFormat.getContentType()))
+                .header(HttpHeaders.CONTENT_DISPOSITION,
+                        "attachment; filename=\"tasks-" + userId + "." + fileFormat.getExtension() + "\"")
+                .body(body);
+    }
+
+    @PostMapping("/user/{userId}/import")
+    @Operation(summary = "Importar tareas de un usuario desde NDJSON o CSV, con errores por línea")
+    public ResponseEntity<ImportResultDTO> importTasks(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Formato: ndjson o csv") @RequestParam(defaultValue = "ndjson") String format,
+            InputStream body) throws IOException {
+        log.debug("POST /api/tasks/user/{}/import?format={}", userId, format);
+        ImportResultDTO result = taskImportService.importTasks(userId, TaskFileFormat.from(format), body);
+        return ResponseEntity.ok(result);
+    }
+
     @GetMapping("/{taskId}")
     @Operation(summary = "Obtener tarea por ID")
     public ResponseEntity<TaskDTO> getTaskById(
@@ -67,9 +164,10 @@ public class TaskController {
     @Operation(summary = "Obtener tarea específica de un usuario")
     public ResponseEntity<TaskDTO> getTaskByIdAndUser(
             @Parameter(description = "ID de la tarea") @PathVariable UUID taskId,
-            @Parameter(description = "ID del usuario") @PathVariable UUID userId) {
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Buscarla también en el archivo") @RequestParam(defaultValue = "false") boolean includeArchived) {
         log.debug("GET /api/tasks/{}/user/{}", taskId, userId);
-        TaskDTO task = taskService.getTaskByIdAndUser(taskId, userId);
+        TaskDTO task = taskService.getTaskByIdAndUser(taskId, userId, includeArchived);
         return ResponseEntity.ok(task);
     }
 
@@ -112,9 +210,10 @@ public class TaskController {
     @Operation(summary = "Marcar tarea como completada")
     public ResponseEntity<TaskDTO> completeTask(
             @Parameter(description = "ID de la tarea") @PathVariable UUID taskId,
-            @Parameter(description = "ID del usuario") @PathVariable UUID userId) {
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Versión leída por el cliente (409 si la tarea cambió)") @RequestParam(required = false) Long version) {
         log.debug("PUT /api/tasks/{}/complete/user/{}", taskId, userId);
-        TaskDTO completedTask = taskService.completeTask(taskId, userId);
+        TaskDTO completedTask = taskService.completeTask(taskId, userId, version);
         return ResponseEntity.ok(completedTask);
     }
 
@@ -123,12 +222,67 @@ public class TaskController {
     public ResponseEntity<TaskDTO> updateTaskStatus(
             @Parameter(description = "ID de la tarea") @PathVariable UUID taskId,
             @Parameter(description = "ID del usuario") @PathVariable UUID userId,
-            @Parameter(description = "Nuevo estado") @RequestParam TaskStatus status) {
+            @Parameter(description = "Nuevo estado") @RequestParam TaskStatus status,
+            @Parameter(description = "Versión leída por el cliente (409 si la tarea cambió)") @RequestParam(required = false) Long version) {
         log.debug("PUT /api/tasks/{}/status/user/{} - Status: {}", taskId, userId, status);
-        TaskDTO updatedTask = taskService.updateTaskStatus(taskId, status, userId);
+        TaskDTO updatedTask = taskService.updateTaskStatus(taskId, status, userId, version);
         return ResponseEntity.ok(updatedTask);
     }
 
+    @PutMapping("/{taskId}/reorder/user/{userId}")
+    @Operation(summary = "Mover una tarea entre dos vecinas (drag and drop)")
+    public ResponseEntity<TaskDTO> reorderTask(
+            @Parameter(description = "ID de la tarea") @PathVariable UUID taskId,
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Vecinas de la tarea tras moverla") @RequestBody ReorderTaskDTO reorderTaskDTO) {
+        log.debug("PUT /api/tasks/{}/reorder/user/{}", taskId, userId);
+        TaskDTO reorderedTask = taskService.reorderTask(taskId, reorderTaskDTO, userId);
+        return ResponseEntity.ok(reorderedTask);
+    }
+
+    // ============= OCURRENCIAS DE TAREAS RECURRENTES =============
+
+    @PutMapping("/{taskId}/occurrences/complete/user/{userId}")
+    @Operation(summary = "Marcar como completada una ocurrencia de una tarea recurrente")
+    public ResponseEntity<TaskDTO> completeOccurrence(
+            @Parameter(description = "ID de la tarea") @PathVariable UUID taskId,
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Fecha original de la ocurrencia") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrenceDate) {
+        log.debug("PUT /api/tasks/{}/occurrences/complete/user/{} - {}", taskId, userId, occurrenceDate);
+        TaskDTO occurrence = taskService.completeOccurrence(taskId, userId, occurrenceDate);
+        return ResponseEntity.ok(occurrence);
+    }
+
+    @PutMapping("/{taskId}/occurrences/skip/user/{userId}")
+    @Operation(summary = "Omitir una ocurrencia de una tarea recurrente")
+    public ResponseEntity<Map<String, String>> skipOccurrence(
+            @Parameter(description = "ID de la tarea") @PathVariable UUID taskId,
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Fecha original de la ocurrencia") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrenceDate) {
+        log.debug("PUT /api/tasks/{}/occurrences/skip/user/{} - {}", taskId, userId, occurrenceDate);
+        taskService.skipOccurrence(taskId, userId, occurrenceDate);
+
+        Map<String, String> response = new HashMap<>();
+        response.put("message", "Ocurrencia omitida exitosamente");
+        return ResponseEntity.ok(response);
+    }
+
+    @PutMapping("/{taskId}/occurrences/move/user/{userId}")
+    @Operation(summary = "Mover una ocurrencia de una tarea recurrente a otra fecha")
+    public ResponseEntity<TaskDTO> moveOccurrence(
+            @Parameter(description = "ID de la tarea") @PathVariable UUID taskId,
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Fecha original de la ocurrencia") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime occurrenceDate,
+            @Parameter(description = "Nueva fecha") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE_TIME) LocalDateTime newDate) {
+        log.debug("PUT /api/tasks/{}/occurrences/move/user/{} - {} -> {}", taskId, userId, occurrenceDate, newDate);
+        TaskDTO occurrence = taskService.moveOccurrence(taskId, userId, occurrenceDate, newDate);
+        return ResponseEntity.ok(occurrence);
+    }
+
     // ============= CONSULTAS ESPECÍFICAS =============
 
     @GetMapping("/user/{userId}/status/{status}")
@@ -168,6 +322,28 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/user/{userId}/month")
+    @Operation(summary = "Obtener tareas de este mes (mes natural en la zona horaria del usuario)")
+    public ResponseEntity<List<TaskDTO>> getTasksThisMonth(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId) {
+        log.debug("GET /api/tasks/user/{}/month", userId);
+        List<TaskDTO> tasks = taskService.getTasksThisMonth(userId);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/user/{userId}/range")
+    @Operation(summary = "Obtener tareas entre dos fechas (incluye ocurrencias de tareas recurrentes)")
+    public ResponseEntity<List<TaskDTO>> getTasksInRange(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Primer día (inclusive)") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @Parameter(description = "Último día (inclusive)") @RequestParam
+            @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to) {
+        log.debug("GET /api/tasks/user/{}/range?from={}&to={}", userId, from, to);
+        List<TaskDTO> tasks = taskService.getTasksInRange(userId, from, to);
+        return ResponseEntity.ok(tasks);
+    }
+
     @GetMapping("/{parentTaskId}/subtasks")
     @Operation(summary = "Obtener subtareas")
     public ResponseEntity<List<TaskDTO>> getSubtasks(
@@ -177,6 +353,16 @@ public class TaskController {
         return ResponseEntity.ok(subtasks);
     }
 
+    @GetMapping("/{taskId}/tree/user/{userId}")
+    @Operation(summary = "Obtener el árbol completo de subtareas con el progreso de cada nodo")
+    public ResponseEntity<TaskTreeDTO> getTaskTree(
+            @Parameter(description = "ID de la tarea raíz") @PathVariable UUID taskId,
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId) {
+        log.debug("GET /api/tasks/{}/tree/user/{}", taskId, userId);
+        TaskTreeDTO tree = taskService.getTaskTree(taskId, userId);
+        return ResponseEntity.ok(tree);
+    }
+
     @GetMapping("/user/{userId}/search")
     @Operation(summary = "Buscar tareas")
     public ResponseEntity<List<TaskDTO>> searchTasks(
@@ -187,6 +373,52 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    @GetMapping("/user/{userId}/search/pageable")
+    @Operation(summary = "Buscar tareas con paginación, ordenadas por relevancia")
+    public ResponseEntity<Page<TaskDTO>> searchTasksPageable(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Texto a buscar") @RequestParam String searchText,
+            Pageable pageable) {
+        log.debug("GET /api/tasks/user/{}/search/pageable?searchText={}", userId, searchText);
+        Page<TaskDTO> tasks = taskService.searchTasks(userId, searchText, pageable);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @GetMapping("/user/{userId}/archive")
+    @Operation(summary = "Buscar tareas archivadas (sin texto, todas), las más recientes primero")
+    public ResponseEntity<Page<TaskDTO>> searchArchivedTasks(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Texto a buscar") @RequestParam(required = false) String searchText,
+            Pageable pageable) {
+        log.debug("GET /api/tasks/user/{}/archive?searchText={}", userId, searchText);
+        Page<TaskDTO> tasks = taskService.searchArchivedTasks(userId, searchText, pageable);
+        return ResponseEntity.ok(tasks);
+    }
+
+    @PostMapping("/user/{userId}/search/reindex")
+    @Operation(summary = "Reconstruir el índice de búsqueda de un usuario")
+    public ResponseEntity<Map<String, Integer>> rebuildSearchIndex(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId) {
+        log.debug("POST /api/tasks/user/{}/search/reindex", userId);
+        int indexedTasks = taskService.rebuildSearchIndex(userId);
+
+        Map<String, Integer> response = new HashMap<>();
+        response.put("indexedTasks", indexedTasks);
+        return ResponseEntity.ok(response);
+    }
+
+    @PostMapping("/user/{userId}/subtasks/rollups/rebuild")
+    @Operation(summary = "Recalcular los totales de subtareas de un usuario")
+    public ResponseEntity<Map<String, Integer>> rebuildRollups(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId) {
+        log.debug("POST /api/tasks/user/{}/subtasks/rollups/rebuild", userId);
+        int updatedTasks = taskService.rebuildRollups(userId);
+
+        Map<String, Integer> response = new HashMap<>();
+        response.put("updatedTasks", updatedTasks);
+        return ResponseEntity.ok(response);
+    }
+
     @PostMapping("/user/{userId}/filter")
     @Operation(summary = "Obtener tareas con filtros")
     public ResponseEntity<Page<TaskDTO>> getTasksWithFilters(
@@ -199,6 +431,19 @@ public class TaskController {
         return ResponseEntity.ok(tasks);
     }
 
+    @PostMapping("/user/{userId}/filter/cursor")
+    @Operation(summary = "Obtener tareas con filtros paginadas por cursor")
+    public ResponseEntity<CursorPageDTO<TaskDTO>> getTasksWithFiltersByCursor(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Filtros a aplicar") @RequestBody TaskFilterDTO filterDTO,
+            @Parameter(description = "Cursor devuelto por la página anterior") @RequestParam(required = false) String cursor,
+            @Parameter(description = "Tamaño de página") @RequestParam(defaultValue = "20") int size) {
+        log.debug("POST /api/tasks/user/{}/filter/cursor", userId);
+        filterDTO.setUserId(userId); // Asegurar que el userId coincida con el path
+        CursorPageDTO<TaskDTO> tasks = taskService.getTasksWithFiltersByCursor(filterDTO, cursor, size);
+        return ResponseEntity.ok(tasks);
+    }
+
     // ============= ESTADÍSTICAS =============
 
     @GetMapping("/user/{userId}/summary")
@@ -210,6 +455,15 @@ public class TaskController {
         return ResponseEntity.ok(summary);
     }
 
+    @GetMapping("/user/{userId}/tags")
+    @Operation(summary = "Obtener las etiquetas del usuario con su número de tareas")
+    public ResponseEntity<List<TagCountDTO>> getTagCounts(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId) {
+        log.debug("GET /api/tasks/user/{}/tags", userId);
+        List<TagCountDTO> tags = taskService.getTagCounts(userId);
+        return ResponseEntity.ok(tags);
+    }
+
     @GetMapping("/user/{userId}/count")
     @Operation(summary = "Obtener cantidad total de tareas del usuario")
     public ResponseEntity<Map<String, Long>> getTasksCount(
@@ -235,4 +489,44 @@ public class TaskController {
         response.put("message", "Todas las tareas del usuario han sido eliminadas");
         return ResponseEntity.ok(response);
     }
-}
\ No newline at end of file
+
+    @PostMapping("/batch/user/{userId}")
+    @Operation(summary = "Crear un lote de tareas con resultado por elemento")
+    public ResponseEntity<BatchResultDTO> createTasksBatch(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Tareas a crear") @RequestBody List<CreateTaskDTO> createTaskDTOs) {
+        log.debug("POST /api/tasks/batch/user/{}", userId);
+        BatchResultDTO result = taskBatchService.createTasks(userId, createTaskDTOs);
+        return ResponseEntity.ok(result);
+    }
+
+    @PatchMapping("/batch/user/{userId}")
+    @Operation(summary = "Actualizar parcialmente un lote de tareas")
+    public ResponseEntity<BatchResultDTO> updateTasksBatch(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Cambios por tarea") @RequestBody List<BatchUpdateTaskDTO> updateTaskDTOs) {
+        log.debug("PATCH /api/tasks/batch/user/{}", userId);
+        BatchResultDTO result = taskBatchService.updateTasks(userId, updateTaskDTOs);
+        return ResponseEntity.ok(result);
+    }
+
+    @PatchMapping("/batch/status/user/{userId}")
+    @Operation(summary = "Cambiar el estado de un lote de tareas")
+    public ResponseEntity<BatchResultDTO> updateTasksStatusBatch(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "Nuevo estado por tarea") @RequestBody List<BatchTaskStatusDTO> statusDTOs) {
+        log.debug("PATCH /api/tasks/batch/status/user/{}", userId);
+        BatchResultDTO result = taskBatchService.updateTasksStatus(userId, statusDTOs);
+        return ResponseEntity.ok(result);
+    }
+
+    @PostMapping("/batch/delete/user/{userId}")
+    @Operation(summary = "Eliminar un lote de tareas (y sus subtareas)")
+    public ResponseEntity<BatchResultDTO> deleteTasksBatch(
+            @Parameter(description = "ID del usuario") @PathVariable UUID userId,
+            @Parameter(description = "IDs de las tareas a eliminar") @RequestBody List<UUID> taskIds) {
+        log.debug("POST /api/tasks/batch/delete/user/{}", userId);
+        BatchResultDTO result = taskBatchService.deleteTasks(userId, taskIds);
+        return ResponseEntity.ok(result);
+    }
+}
@@ -0,0 +1,28 @@
+package com.microservice.microservice_task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchItemResultDTO {
+    // Posición del elemento en la petición
+    private int index;
+    private UUID taskId;
+    private boolean success;
+    private String error;
+    // Tarea resultante (null en borrados y errores)
+    private TaskDTO task;
+
+    public static BatchItemResultDTO ok(int index, UUID taskId, TaskDTO task) {
+        return new BatchItemResultDTO(index, taskId, true, null, task);
+    }
+
+    public static BatchItemResultDTO failed(int index, UUID taskId, String error) {
+        return new BatchItemResultDTO(index, taskId, false, error, null);
+    }
+}
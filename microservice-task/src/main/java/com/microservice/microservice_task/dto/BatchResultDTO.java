@@ -0,0 +1,22 @@
+package com.microservice.microservice_task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchResultDTO {
+    private int total;
+    private int succeeded;
+    private int failed;
+    private List<BatchItemResultDTO> items;
+
+    public static BatchResultDTO of(List<BatchItemResultDTO> items) {
+        int succeeded = (int) items.stream().filter(BatchItemResultDTO::isSuccess).count();
+        return new BatchResultDTO(items.size(), succeeded, items.size() - succeeded, items);
+    }
+}
@@ -0,0 +1,21 @@
+package com.microservice.microservice_task.dto;
+
+import com.microservice.microservice_task.model.TaskStatus;
+import jakarta.validation.constraints.NotNull;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class BatchTaskStatusDTO {
+
+    @NotNull(message = "El ID de la tarea es requerido")
+    private UUID taskId;
+
+    @NotNull(message = "El estado es requerido")
+    private TaskStatus status;
+}
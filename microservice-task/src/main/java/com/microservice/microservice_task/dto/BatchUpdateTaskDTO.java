@@ -0,0 +1,17 @@
+package com.microservice.microservice_task.dto;
+
+import jakarta.validation.constraints.NotNull;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@EqualsAndHashCode(callSuper = true)
+public class BatchUpdateTaskDTO extends UpdateTaskDTO {
+
+    @NotNull(message = "El ID de la tarea es requerido")
+    private UUID taskId;
+}
@@ -0,0 +1,14 @@
+package com.microservice.microservice_task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportLineErrorDTO {
+    // Línea del fichero (en CSV, la línea donde empieza el registro)
+    private long line;
+    private String error;
+}
@@ -0,0 +1,19 @@
+package com.microservice.microservice_task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ImportResultDTO {
+    private long total;
+    private long imported;
+    private long failed;
+    // Solo los primeros errores (tasks.import.max-reported-errors); errorsTruncated indica si hubo más
+    private List<ImportLineErrorDTO> errors;
+    private boolean errorsTruncated;
+}
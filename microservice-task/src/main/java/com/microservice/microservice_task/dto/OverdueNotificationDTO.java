@@ -0,0 +1,17 @@
+package com.microservice.microservice_task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.List;
+import java.util.UUID;
+
+// Un único aviso por usuario con todas las tareas que le vencieron desde el anterior
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueNotificationDTO {
+    private UUID userId;
+    private List<OverdueTaskDTO> tasks;
+}
@@ -0,0 +1,17 @@
+package com.microservice.microservice_task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class OverdueTaskDTO {
+    private UUID taskId;
+    private String title;
+    private LocalDateTime dueDate;
+}
@@ -0,0 +1,16 @@
+package com.microservice.microservice_task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class ReorderTaskDTO {
+    // Vecinos que tendrá la tarea después de moverla (null = inicio o final de la lista)
+    private UUID previousTaskId;
+    private UUID nextTaskId;
+}
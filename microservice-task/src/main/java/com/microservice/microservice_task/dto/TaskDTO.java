@@ -36,8 +36,20 @@ public class TaskDTO {
     private LocalDateTime recurrenceEndDate;
     private UUID parentTaskId;
     private Integer orderIndex;
+    // Totales de todas las subtareas (a cualquier profundidad): completadas / total y minutos estimados
+    private Integer subtaskCount;
+    private Integer completedSubtaskCount;
+    private Long subtreeEstimatedMinutes;
     private LocalDateTime createdAt;
     private LocalDateTime updatedAt;
+    // Se devuelve en las escrituras (PUT o parámetro version) para detectar cambios concurrentes
+    private Long version;
+
+    // Fecha original de la ocurrencia (solo en ocurrencias de tareas recurrentes; dueDate es donde cae)
+    private LocalDateTime occurrenceDate;
+
+    // Momento en que la tarea pasó al archivo (solo en tareas de tasks_archive)
+    private LocalDateTime archivedAt;
     
     // Campos calculados
     private Boolean isOverdue;
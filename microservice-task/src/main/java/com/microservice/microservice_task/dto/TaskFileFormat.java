@@ -0,0 +1,36 @@
+package com.microservice.microservice_task.dto;
+
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+
+/**
+ * Formatos de fichero para exportar e importar las tareas de un usuario.
+ */
+public enum TaskFileFormat {
+    NDJSON("application/x-ndjson", "ndjson"), // Una tarea por línea, con el mismo JSON que TaskDTO
+    CSV("text/csv", "csv");                   // Una tarea por fila, sin los campos calculados
+
+    private final String contentType;
+    private final String extension;
+
+    TaskFileFormat(String contentType, String extension) {
+        this.contentType = contentType;
+        this.extension = extension;
+    }
+
+    public String getContentType() {
+        return contentType;
+    }
+
+    public String getExtension() {
+        return extension;
+    }
+
+    public static TaskFileFormat from(String value) {
+        for (TaskFileFormat format : values()) {
+            if (format.extension.equalsIgnoreCase(value)) {
+                return format;
+            }
+        }
+        throw new InvalidTaskDataException("Formato no soportado: " + value + " (ndjson o csv)");
+    }
+}
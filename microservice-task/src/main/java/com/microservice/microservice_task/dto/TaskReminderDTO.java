@@ -0,0 +1,19 @@
+package com.microservice.microservice_task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskReminderDTO {
+    private UUID taskId;
+    private UUID userId;
+    private String title;
+    private LocalDateTime dueDate;
+    private LocalDateTime reminderDate;
+}
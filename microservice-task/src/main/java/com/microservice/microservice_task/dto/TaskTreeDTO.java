@@ -0,0 +1,20 @@
+package com.microservice.microservice_task.dto;
+
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Una tarea con todo su árbol de subtareas, en orden de orderIndex. Los totales de cada nodo
+ * (subtaskCount, completedSubtaskCount, subtreeEstimatedMinutes) van en su TaskDTO.
+ */
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTreeDTO {
+    private TaskDTO task;
+    private List<TaskTreeDTO> subtasks = new ArrayList<>();
+}
@@ -35,4 +35,7 @@ public class UpdateTaskDTO {
     private String location;
     private UUID parentTaskId;
     private Integer orderIndex;
+
+    // Versión que leyó el cliente (TaskDTO.version); si la tarea cambió desde entonces se responde 409
+    private Long version;
 }
\ No newline at end of file
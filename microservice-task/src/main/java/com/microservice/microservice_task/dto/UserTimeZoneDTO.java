@@ -0,0 +1,15 @@
+package com.microservice.microservice_task.dto;
+
+import com.fasterxml.jackson.annotation.JsonIgnoreProperties;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+// De las preferencias del usuario solo interesa la zona horaria; el resto de campos se ignoran
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+@JsonIgnoreProperties(ignoreUnknown = true)
+public class UserTimeZoneDTO {
+    private String timezone;
+}
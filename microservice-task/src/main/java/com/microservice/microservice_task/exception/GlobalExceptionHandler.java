@@ -1,8 +1,10 @@
 package com.microservice.microservice_task.exception;
 
 import lombok.extern.slf4j.Slf4j;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -33,6 +35,28 @@ public class GlobalExceptionHandler {
         return buildErrorResponse(HttpStatus.BAD_REQUEST, "Invalid Task Data", ex.getMessage());
     }
 
+    @ExceptionHandler(TaskVersionConflictException.class)
+    public ResponseEntity<Map<String, Object>> handleTaskVersionConflictException(TaskVersionConflictException ex) {
+        log.warn("Conflicto de versión en tarea: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, "Version Conflict", ex.getMessage());
+    }
+
+    // Otra escritura se confirmó entre la lectura y el UPDATE versionado de la entidad
+    @ExceptionHandler(OptimisticLockingFailureException.class)
+    public ResponseEntity<Map<String, Object>> handleOptimisticLockingFailureException(OptimisticLockingFailureException ex) {
+        log.warn("Escritura concurrente sobre una tarea: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.CONFLICT, "Version Conflict",
+                "La tarea ha sido modificada por otra petición; vuelve a leerla e inténtalo de nuevo");
+    }
+
+    // Ninguna conexión libre en spring.datasource.hikari.connection-timeout: se rechaza en vez de encolar
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, Object>> handleCannotCreateTransactionException(CannotCreateTransactionException ex) {
+        log.warn("Pool de conexiones agotado: {}", ex.getMessage());
+        return buildErrorResponse(HttpStatus.SERVICE_UNAVAILABLE, "Service Unavailable",
+                "Servicio saturado; inténtalo de nuevo en unos segundos");
+    }
+
     @ExceptionHandler(MethodArgumentNotValidException.class)
     public ResponseEntity<Map<String, Object>> handleValidationException(MethodArgumentNotValidException ex) {
         StringBuilder errors = new StringBuilder();
@@ -0,0 +1,7 @@
+package com.microservice.microservice_task.exception;
+
+public class TaskVersionConflictException extends RuntimeException {
+    public TaskVersionConflictException(String message) {
+        super(message);
+    }
+}
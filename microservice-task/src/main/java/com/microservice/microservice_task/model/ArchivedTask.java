@@ -0,0 +1,47 @@
+package com.microservice.microservice_task.model;
+
+import jakarta.persistence.*;
+import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.NoArgsConstructor;
+import lombok.ToString;
+import org.hibernate.annotations.Immutable;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Tarea terminada que TaskArchiver sacó de la tabla tasks (ver TaskArchiveService). Comparte con
+ * {@link Task} las columnas de {@link TaskColumns}; no tiene las que solo sirven a tareas vivas
+ * (recordatorios, vencimiento y número de cambio) y añade la fecha en que se archivó. Las filas se
+ * copian con INSERT ... SELECT y no se modifican después: solo se leen o se borran con la cuenta.
+ */
+@Entity
+@Immutable
+@Table(name = "tasks_archive", indexes = {
+        @Index(name = "idx_tasks_archive_user_created", columnList = "user_id, created_at"),
+        @Index(name = "idx_tasks_archive_archived", columnList = "archived_at")
+})
+@Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
+@NoArgsConstructor
+public class ArchivedTask extends TaskColumns {
+
+    // Columnas comunes con tasks, en el mismo orden en el INSERT ... SELECT del archivado
+    public static final String COLUMNS = "id, title, description, user_id, status, priority, category, due_date, " +
+            "reminder_date, completed_date, estimated_duration_minutes, actual_duration_minutes, tags, " +
+            "attachment_urls, location, is_recurring, recurrence_type, recurrence_end_date, parent_task_id, " +
+            "order_index, subtask_count, completed_subtask_count, subtree_estimated_minutes, version, " +
+            "created_at, updated_at";
+
+    @Id
+    private UUID id;
+
+    // Sin @Version: la fila no se escribe nunca, solo conserva la versión que tenía la tarea
+    @Column(name = "version")
+    private Long version;
+
+    @Column(name = "archived_at", nullable = false)
+    private LocalDateTime archivedAt;
+}
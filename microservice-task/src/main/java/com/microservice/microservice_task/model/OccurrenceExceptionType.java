@@ -0,0 +1,17 @@
+package com.microservice.microservice_task.model;
+
+public enum OccurrenceExceptionType {
+    COMPLETED("Completada"),
+    SKIPPED("Omitida"),
+    MOVED("Movida");
+
+    private final String displayName;
+
+    OccurrenceExceptionType(String displayName) {
+        this.displayName = displayName;
+    }
+
+    public String getDisplayName() {
+        return displayName;
+    }
+}
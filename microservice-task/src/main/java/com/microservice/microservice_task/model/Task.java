@@ -1,113 +1,140 @@
 package com.microservice.microservice_task.model;
 
+import com.microservice.microservice_task.cache.TaskDueAtListener;
+import com.microservice.microservice_task.sync.TaskSyncListener;
 import jakarta.persistence.*;
-import jakarta.validation.constraints.NotBlank;
-import jakarta.validation.constraints.NotNull;
-import jakarta.validation.constraints.Size;
-import lombok.AllArgsConstructor;
+import lombok.AccessLevel;
 import lombok.Data;
+import lombok.EqualsAndHashCode;
+import lombok.Getter;
 import lombok.NoArgsConstructor;
-import org.springframework.data.annotation.CreatedDate;
-import org.springframework.data.annotation.LastModifiedDate;
+import lombok.Setter;
+import lombok.ToString;
 import org.springframework.data.jpa.domain.support.AuditingEntityListener;
 
 import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
 import java.util.UUID;
 
 @Entity
-@Table(name = "tasks")
-@EntityListeners(AuditingEntityListener.class)
+@Table(name = "tasks", indexes = {
+        @Index(name = "idx_tasks_user_order", columnList = "user_id, order_index"),
+        @Index(name = "idx_tasks_user_status", columnList = "user_id, status"),
+        @Index(name = "idx_tasks_user_priority", columnList = "user_id, priority"),
+        @Index(name = "idx_tasks_user_category", columnList = "user_id, category"),
+        @Index(name = "idx_tasks_user_due_date", columnList = "user_id, due_date"),
+        @Index(name = "idx_tasks_parent", columnList = "parent_task_id"),
+        @Index(name = "idx_tasks_reminder", columnList = "reminder_shard, reminder_date"),
+        @Index(name = "idx_tasks_user_overdue", columnList = "user_id, overdue_at"),
+        @Index(name = "idx_tasks_due_at", columnList = "due_at"),
+        @Index(name = "idx_tasks_user_version", columnList = "user_id, updated_at, overdue_at"),
+        @Index(name = "idx_tasks_user_change", columnList = "user_id, change_seq"),
+        @Index(name = "idx_tasks_status_updated", columnList = "status, updated_at")
+})
+@EntityListeners({AuditingEntityListener.class, TaskDueAtListener.class, TaskSyncListener.class})
 @Data
+@EqualsAndHashCode(callSuper = true)
+@ToString(callSuper = true)
 @NoArgsConstructor
-@AllArgsConstructor
-public class Task {
-    
+public class Task extends TaskColumns {
+
+    // Particiones fijas de usuarios para el envío de recordatorios (cambiarlo obliga a recalcular reminder_shard)
+    public static final int REMINDER_SHARDS = 64;
+
     @Id
     @GeneratedValue(strategy = GenerationType.UUID)
     private UUID id;
 
-    @Column(nullable = false)
-    @NotBlank(message = "El título de la tarea es requerido")
-    @Size(min = 1, max = 200, message = "El título debe tener entre 1 y 200 caracteres")
-    private String title;
-
-    @Column(columnDefinition = "TEXT")
-    @Size(max = 1000, message = "La descripción no puede exceder 1000 caracteres")
-    private String description;
-
-    @Column(nullable = false)
-    @NotNull(message = "El ID del usuario es requerido")
-    private UUID userId;
-
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
-    private TaskStatus status = TaskStatus.PENDING;
-
-    @Enumerated(EnumType.STRING)
-    @Column(nullable = false)
-    private TaskPriority priority = TaskPriority.MEDIUM;
-
-    @Enumerated(EnumType.STRING)
-    private TaskCategory category;
-
-    @Column(name = "due_date")
-    private LocalDateTime dueDate;
-
-    @Column(name = "reminder_date")
-    private LocalDateTime reminderDate;
-
-    @Column(name = "completed_date")
-    private LocalDateTime completedDate;
-
-    @Column(name = "estimated_duration_minutes")
-    private Integer estimatedDurationMinutes;
-
-    @Column(name = "actual_duration_minutes")
-    private Integer actualDurationMinutes;
-
-    @Column(columnDefinition = "TEXT")
-    private String tags; // JSON array como string: ["trabajo", "urgente"]
-
-    @Column(name = "attachment_urls", columnDefinition = "TEXT")
-    private String attachmentUrls; // JSON array de URLs
-
-    @Column(name = "location")
-    private String location;
-
-    @Column(name = "is_recurring")
-    private Boolean isRecurring = false;
+    // due_date como instante UTC, con la zona que tenía el usuario al guardarla (TaskDueAtListener).
+    // Es lo que recorre el detector de vencidas; un cambio de zona solo cuenta al volver a guardar la fecha
+    @Column(name = "due_at")
+    private LocalDateTime dueAt;
+
+    // Partición del usuario para el planificador de recordatorios, derivada de userId
+    @Column(name = "reminder_shard")
+    private Integer reminderShard;
+
+    // Momento en que la tarea quedó vencida (null si no lo está). Solo lo fija TaskOverdueService, que
+    // deja a la vez el aviso; las escrituras solo lo quitan cuando deja de aplicar
+    @Column(name = "overdue_at")
+    private LocalDateTime overdueAt;
+
+    // Fecha límite con la que se cargó la tarea: la marca de vencida corresponde a esa fecha
+    @Transient
+    @Getter(AccessLevel.NONE)
+    @Setter(AccessLevel.NONE)
+    @EqualsAndHashCode.Exclude
+    @ToString.Exclude
+    private LocalDateTime loadedDueDate;
+
+    // Número de cambio del usuario en que se escribió por última vez (sincronización incremental).
+    // Lo asigna TaskChangeTracker con SQL al confirmar; las filas anteriores quedan en 0
+    @Column(name = "change_seq", insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long changeSeq;
+
+    // Bloqueo optimista: cada escritura la incrementa y un cliente con una versión antigua recibe 409
+    @Version
+    @Column(name = "version", nullable = false, columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long version;
+
+    public static int reminderShardOf(UUID userId) {
+        return Math.floorMod(userId.hashCode(), REMINDER_SHARDS);
+    }
 
-    @Enumerated(EnumType.STRING)
-    @Column(name = "recurrence_type")
-    private RecurrenceType recurrenceType;
+    @PostLoad
+    void afterLoad() {
+        loadedDueDate = getDueDate();
+    }
 
-    @Column(name = "recurrence_end_date")
-    private LocalDateTime recurrenceEndDate;
+    @PrePersist
+    @PreUpdate
+    void beforeSave() {
+        if (getUserId() != null) {
+            reminderShard = reminderShardOf(getUserId());
+        }
+        clearStaleOverdue();
+    }
 
-    @Column(name = "parent_task_id")
-    private UUID parentTaskId; // Para subtareas
+    // La fecha límite cambió desde que se cargó (o nunca se pasó a UTC): hay que recalcular dueAt
+    public boolean needsDueAt() {
+        LocalDateTime dueDate = getDueDate();
+        return dueDate == null ? dueAt != null : dueAt == null || !dueDate.equals(loadedDueDate);
+    }
 
-    @Column(name = "order_index")
-    private Integer orderIndex = 0; // Para ordenar tareas
+    public void resolveDueAt(ZoneId zone) {
+        dueAt = getDueDate() == null ? null : dueAtOf(getDueDate(), zone);
+    }
 
-    @CreatedDate
-    @Column(name = "created_at", nullable = false, updatable = false)
-    private LocalDateTime createdAt;
+    // Fecha límite (hora local en zone) como instante UTC
+    public static LocalDateTime dueAtOf(LocalDateTime dueDate, ZoneId zone) {
+        return dueDate.atZone(zone).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
 
-    @LastModifiedDate
-    @Column(name = "updated_at")
-    private LocalDateTime updatedAt;
+    // Nunca se marca aquí: una tarea marcada sin su aviso ya no la vería el detector. Al completarla o
+    // cambiar su fecha se quita la marca y el detector la vuelve a evaluar
+    void clearStaleOverdue() {
+        if (getStatus() == TaskStatus.COMPLETED || getDueDate() == null || !getDueDate().equals(loadedDueDate)) {
+            overdueAt = null;
+        }
+    }
 
     // Método helper para marcar como completada
     public void markAsCompleted() {
-        this.status = TaskStatus.COMPLETED;
-        this.completedDate = LocalDateTime.now();
+        setStatus(TaskStatus.COMPLETED);
+        setCompletedDate(LocalDateTime.now());
     }
 
     // Método helper para verificar si está vencida
     public boolean isOverdue() {
-        return dueDate != null && 
-               LocalDateTime.now().isAfter(dueDate) && 
-               status != TaskStatus.COMPLETED;
+        return isOverdue(LocalDateTime.now());
+    }
+
+    // Variante con un instante fijo: las listas evalúan todas las tareas contra el mismo "ahora"
+    public boolean isOverdue(LocalDateTime now) {
+        return getDueDate() != null &&
+               now.isAfter(getDueDate()) &&
+               getStatus() != TaskStatus.COMPLETED;
     }
 }
\ No newline at end of file
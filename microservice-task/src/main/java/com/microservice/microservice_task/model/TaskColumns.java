@@ -0,0 +1,113 @@
+package com.microservice.microservice_task.model;
+
+import jakarta.persistence.*;
+import jakarta.validation.constraints.NotBlank;
+import jakarta.validation.constraints.NotNull;
+import jakarta.validation.constraints.Size;
+import lombok.Data;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.annotation.LastModifiedDate;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Columnas comunes de {@link Task} y {@link ArchivedTask}: las que el archivado copia de tasks a
+ * tasks_archive (ver {@link ArchivedTask#COLUMNS}). El id y la versión se mapean en cada entidad porque
+ * solo las tareas vivas los generan (UUID y bloqueo optimista); las archivadas no se escriben nunca.
+ */
+@MappedSuperclass
+@Data
+public abstract class TaskColumns {
+
+    @Column(nullable = false)
+    @NotBlank(message = "El título de la tarea es requerido")
+    @Size(min = 1, max = 200, message = "El título debe tener entre 1 y 200 caracteres")
+    private String title;
+
+    @Column(columnDefinition = "TEXT")
+    @Size(max = 1000, message = "La descripción no puede exceder 1000 caracteres")
+    private String description;
+
+    // El dueño no cambia nunca: las escrituras condicionales comprueban dueño y versión en el mismo UPDATE
+    @Column(name = "user_id", nullable = false, updatable = false)
+    @NotNull(message = "El ID del usuario es requerido")
+    private UUID userId;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskStatus status = TaskStatus.PENDING;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private TaskPriority priority = TaskPriority.MEDIUM;
+
+    @Enumerated(EnumType.STRING)
+    private TaskCategory category;
+
+    @Column(name = "due_date")
+    private LocalDateTime dueDate;
+
+    @Column(name = "reminder_date")
+    private LocalDateTime reminderDate;
+
+    @Column(name = "completed_date")
+    private LocalDateTime completedDate;
+
+    @Column(name = "estimated_duration_minutes")
+    private Integer estimatedDurationMinutes;
+
+    @Column(name = "actual_duration_minutes")
+    private Integer actualDurationMinutes;
+
+    @Column(columnDefinition = "TEXT")
+    private String tags; // JSON array como string: ["trabajo", "urgente"]
+
+    @Column(name = "attachment_urls", columnDefinition = "TEXT")
+    private String attachmentUrls; // JSON array de URLs
+
+    @Column(name = "location")
+    private String location;
+
+    @Column(name = "is_recurring")
+    private Boolean isRecurring = false;
+
+    @Enumerated(EnumType.STRING)
+    @Column(name = "recurrence_type")
+    private RecurrenceType recurrenceType;
+
+    @Column(name = "recurrence_end_date")
+    private LocalDateTime recurrenceEndDate;
+
+    @Column(name = "parent_task_id")
+    private UUID parentTaskId; // Para subtareas
+
+    @Column(name = "order_index")
+    private Integer orderIndex = 0; // Para ordenar tareas
+
+    // Totales de todo el árbol de subtareas (sin contar la propia tarea) para las barras de progreso.
+    // Los mantiene TaskTreeService con UPDATE incrementales; la entidad nunca los escribe
+    @Column(name = "subtask_count", insertable = false, updatable = false,
+            columnDefinition = "INT DEFAULT 0 NOT NULL")
+    private Integer subtaskCount = 0;
+
+    @Column(name = "completed_subtask_count", insertable = false, updatable = false,
+            columnDefinition = "INT DEFAULT 0 NOT NULL")
+    private Integer completedSubtaskCount = 0;
+
+    @Column(name = "subtree_estimated_minutes", insertable = false, updatable = false,
+            columnDefinition = "BIGINT DEFAULT 0 NOT NULL")
+    private Long subtreeEstimatedMinutes = 0L;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    @LastModifiedDate
+    @Column(name = "updated_at")
+    private LocalDateTime updatedAt;
+
+    public abstract UUID getId();
+
+    public abstract Long getVersion();
+}
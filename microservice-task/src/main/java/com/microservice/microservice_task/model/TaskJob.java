@@ -0,0 +1,34 @@
+package com.microservice.microservice_task.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Estado de un trabajo en segundo plano que recorre las tareas hacia delante.
+ * El watermark indica hasta dónde (inclusive) ya se procesó, y el bloqueo (lockedBy/lockedUntil)
+ * garantiza que solo una instancia lo ejecuta a la vez; si cae, el bloqueo caduca y otra continúa.
+ */
+@Entity
+@Table(name = "task_jobs")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskJob {
+
+    @Id
+    @Column(name = "job_name", length = 50)
+    private String jobName;
+
+    @Column(name = "watermark")
+    private LocalDateTime watermark;
+
+    @Column(name = "locked_by", length = 100)
+    private String lockedBy;
+
+    @Column(name = "locked_until")
+    private LocalDateTime lockedUntil;
+}
@@ -0,0 +1,63 @@
+package com.microservice.microservice_task.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+import org.springframework.data.annotation.CreatedDate;
+import org.springframework.data.jpa.domain.support.AuditingEntityListener;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Excepción sobre una ocurrencia concreta de una tarea recurrente (completada, omitida o movida).
+ * Las ocurrencias no se guardan: se calculan a partir de la tarea y solo se persiste lo que difiere
+ * de la regla. La ocurrencia se identifica por su fecha original (occurrence_date), aunque se haya movido.
+ */
+@Entity
+@Table(name = "task_occurrence_exceptions",
+        uniqueConstraints = @UniqueConstraint(name = "uk_occurrence_task_date", columnNames = {"task_id", "occurrence_date"}),
+        indexes = {
+                @Index(name = "idx_occurrence_user_date", columnList = "user_id, occurrence_date"),
+                @Index(name = "idx_occurrence_user_moved", columnList = "user_id, moved_to")
+        })
+@EntityListeners(AuditingEntityListener.class)
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskOccurrenceException {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "occurrence_date", nullable = false)
+    private LocalDateTime occurrenceDate;
+
+    @Enumerated(EnumType.STRING)
+    @Column(nullable = false)
+    private OccurrenceExceptionType type;
+
+    // Nueva fecha si la ocurrencia se movió (se conserva aunque después se complete)
+    @Column(name = "moved_to")
+    private LocalDateTime movedTo;
+
+    @Column(name = "completed_date")
+    private LocalDateTime completedDate;
+
+    @CreatedDate
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    // Fecha en la que cae la ocurrencia
+    public LocalDateTime getScheduledDate() {
+        return movedTo != null ? movedTo : occurrenceDate;
+    }
+}
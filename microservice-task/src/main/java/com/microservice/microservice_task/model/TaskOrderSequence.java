@@ -0,0 +1,28 @@
+package com.microservice.microservice_task.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Secuencia por usuario para asignar el orderIndex de nuevas tareas sin recorrer todas sus tareas.
+ * La fila se bloquea (SELECT ... FOR UPDATE) al asignar, por lo que dos creaciones concurrentes
+ * nunca reciben el mismo índice.
+ */
+@Entity
+@Table(name = "task_order_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskOrderSequence {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "next_index", nullable = false)
+    private Integer nextIndex;
+}
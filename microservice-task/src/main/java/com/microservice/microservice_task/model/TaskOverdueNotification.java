@@ -0,0 +1,42 @@
+package com.microservice.microservice_task.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Aviso de tarea vencida pendiente de enviar. Se inserta en la misma transacción que marca la tarea,
+ * así ningún aviso se pierde si la instancia cae antes de enviarlo; se borra una vez entregado.
+ */
+@Entity
+@Table(name = "task_overdue_notifications", indexes = {
+        @Index(name = "idx_task_overdue_notifications_created", columnList = "created_at")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskOverdueNotification {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(nullable = false, length = 200)
+    private String title;
+
+    @Column(name = "due_date", nullable = false)
+    private LocalDateTime dueDate;
+
+    @Column(name = "created_at", nullable = false)
+    private LocalDateTime createdAt;
+}
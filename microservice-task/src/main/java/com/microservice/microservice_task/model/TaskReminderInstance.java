@@ -0,0 +1,27 @@
+package com.microservice.microservice_task.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Instancia viva del planificador de recordatorios. Con el número de instancias vivas cada una
+ * calcula su parte de las particiones, también las que aún no tienen ninguna.
+ */
+@Entity
+@Table(name = "task_reminder_instances")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskReminderInstance {
+
+    @Id
+    @Column(name = "instance_id", length = 100)
+    private String instanceId;
+
+    @Column(name = "heartbeat_at", nullable = false)
+    private LocalDateTime heartbeatAt;
+}
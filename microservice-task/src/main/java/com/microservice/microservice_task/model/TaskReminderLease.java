@@ -0,0 +1,35 @@
+package com.microservice.microservice_task.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.LocalDateTime;
+
+/**
+ * Arrendamiento de una partición de recordatorios (ver {@link Task#REMINDER_SHARDS}).
+ * Solo la instancia dueña, mientras su arrendamiento esté vigente, envía los recordatorios de la
+ * partición. El watermark indica hasta qué reminder_date (inclusive) ya se enviaron, de modo que
+ * quien tome la partición continúa desde ahí sin saltarse ninguno.
+ */
+@Entity
+@Table(name = "task_reminder_leases")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskReminderLease {
+
+    @Id
+    @Column(name = "shard_id")
+    private Integer shardId;
+
+    @Column(name = "owner_id", length = 100)
+    private String ownerId;
+
+    @Column(name = "lease_until")
+    private LocalDateTime leaseUntil;
+
+    @Column(name = "watermark", nullable = false)
+    private LocalDateTime watermark;
+}
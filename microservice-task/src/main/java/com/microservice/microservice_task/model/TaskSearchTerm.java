@@ -0,0 +1,40 @@
+package com.microservice.microservice_task.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Entrada del índice invertido de búsqueda: un término normalizado de una tarea.
+ * El índice (user_id, term) permite resolver búsquedas por prefijo con un range scan.
+ */
+@Entity
+@Table(name = "task_search_terms", indexes = {
+        @Index(name = "idx_search_terms_user_term", columnList = "user_id, term"),
+        @Index(name = "idx_search_terms_task", columnList = "task_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSearchTerm {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "term", nullable = false, length = 64)
+    private String term;
+
+    // Peso acumulado del término en la tarea (título > etiquetas > descripción)
+    @Column(name = "weight", nullable = false)
+    private Integer weight;
+}
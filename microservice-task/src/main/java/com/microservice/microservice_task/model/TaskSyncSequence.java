@@ -0,0 +1,31 @@
+package com.microservice.microservice_task.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Secuencia de cambios de las tareas de un usuario para la sincronización incremental.
+ * lastSeq es el último número asignado (ver TaskChangeTracker); purgedSeq, el número más alto
+ * de las lápidas ya compactadas: un token anterior obliga al cliente a descargarlo todo de nuevo.
+ */
+@Entity
+@Table(name = "task_sync_sequences")
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskSyncSequence {
+
+    @Id
+    @Column(name = "user_id")
+    private UUID userId;
+
+    @Column(name = "last_seq", nullable = false)
+    private Long lastSeq;
+
+    @Column(name = "purged_seq", nullable = false)
+    private Long purgedSeq;
+}
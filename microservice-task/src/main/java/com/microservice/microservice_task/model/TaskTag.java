@@ -0,0 +1,37 @@
+package com.microservice.microservice_task.model;
+
+import jakarta.persistence.*;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.UUID;
+
+/**
+ * Etiqueta normalizada de una tarea (una fila por tarea y etiqueta).
+ * El índice (user_id, tag) resuelve el filtro por etiquetas y el conteo de etiquetas del usuario
+ * sin leer ni interpretar la columna JSON tasks.tags.
+ */
+@Entity
+@Table(name = "task_tags", indexes = {
+        @Index(name = "idx_task_tags_user_tag", columnList = "user_id, tag"),
+        @Index(name = "idx_task_tags_task", columnList = "task_id")
+})
+@Data
+@NoArgsConstructor
+@AllArgsConstructor
+public class TaskTag {
+
+    @Id
+    @GeneratedValue(strategy = GenerationType.UUID)
+    private UUID id;
+
+    @Column(name = "task_id", nullable = false)
+    private UUID taskId;
+
+    @Column(name = "user_id", nullable = false)
+    private UUID userId;
+
+    @Column(name = "tag", nullable = false, length = 64)
+    private String tag;
+}
@@ -0,0 +1,13 @@
+package com.microservice.microservice_task.repository;
+
+import java.util.UUID;
+
+/**
+ * Tarea raíz terminada que se puede archivar con todo su árbol de subtareas (ver TaskArchiveService).
+ */
+public interface ArchiveCandidateProjection {
+
+    UUID getId();
+
+    UUID getUserId();
+}
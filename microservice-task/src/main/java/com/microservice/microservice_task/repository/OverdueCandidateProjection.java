@@ -0,0 +1,21 @@
+package com.microservice.microservice_task.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lo mínimo de una tarea que acaba de vencer para marcarla y avisar a su usuario.
+ */
+public interface OverdueCandidateProjection {
+
+    UUID getId();
+
+    UUID getUserId();
+
+    String getTitle();
+
+    LocalDateTime getDueDate();
+
+    // Instante UTC de la fecha límite (Task.dueAt)
+    LocalDateTime getDueAt();
+}
@@ -0,0 +1,16 @@
+package com.microservice.microservice_task.repository;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Lo mínimo de una tarea para programar su recordatorio.
+ */
+public interface ReminderProjection {
+
+    UUID getId();
+
+    UUID getUserId();
+
+    LocalDateTime getReminderDate();
+}
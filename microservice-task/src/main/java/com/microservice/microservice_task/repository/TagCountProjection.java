@@ -0,0 +1,11 @@
+package com.microservice.microservice_task.repository;
+
+/**
+ * Fila del conteo de etiquetas de un usuario.
+ */
+public interface TagCountProjection {
+
+    String getTag();
+
+    Long getTaskCount();
+}
@@ -0,0 +1,48 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.model.ArchivedTask;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TaskArchiveRepository extends JpaRepository<ArchivedTask, UUID> {
+
+    // Copia las filas tal cual desde tasks, sin pasar por entidades; solo las que siguen siendo archivables
+    @Modifying
+    @Query(value = "INSERT INTO tasks_archive (" + ArchivedTask.COLUMNS + ", archived_at) " +
+                   "SELECT " + ArchivedTask.COLUMNS + ", :now FROM tasks " +
+                   "WHERE id IN (:ids) AND " + TaskRepository.ARCHIVABLE_ROW_SQL,
+           nativeQuery = true)
+    int copyFromTasks(@Param("ids") Collection<UUID> ids, @Param("before") LocalDateTime before,
+                      @Param("now") LocalDateTime now);
+
+    // Por idx_tasks_archive_user_created
+    List<ArchivedTask> findByUserIdOrderByCreatedAtDesc(UUID userId);
+
+    Optional<ArchivedTask> findByIdAndUserId(UUID id, UUID userId);
+
+    // Búsqueda de texto dentro del archivo de un usuario: el archivo no tiene índice de términos
+    @Query("SELECT a FROM ArchivedTask a WHERE a.userId = :userId AND " +
+           "(LOWER(a.title) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+           "LOWER(a.description) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
+           "LOWER(a.tags) LIKE LOWER(CONCAT('%', :searchText, '%')))")
+    Page<ArchivedTask> searchByUserId(@Param("userId") UUID userId, @Param("searchText") String searchText,
+                                      Pageable pageable);
+
+    Page<ArchivedTask> findByUserId(UUID userId, Pageable pageable);
+
+    @Modifying
+    @Query("DELETE FROM ArchivedTask a WHERE a.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,16 @@
+package com.microservice.microservice_task.repository;
+
+import java.time.LocalDateTime;
+
+/**
+ * Agregados de las tareas de un usuario que cambian con cualquier alta, modificación o baja.
+ */
+public interface TaskCollectionVersionProjection {
+
+    long getCount();
+
+    LocalDateTime getLastUpdated();
+
+    // Pasar a vencida no toca updatedAt (ver TaskRepository.markOverdue)
+    LocalDateTime getLastOverdue();
+}
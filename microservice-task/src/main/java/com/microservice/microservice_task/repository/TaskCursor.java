@@ -0,0 +1,60 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+import com.microservice.microservice_task.model.Task;
+import lombok.AllArgsConstructor;
+import lombok.Getter;
+import org.springframework.data.domain.Sort;
+
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.Base64;
+import java.util.UUID;
+
+/**
+ * Token de continuación para la paginación por cursor (keyset) de tareas.
+ *
+ * Codifica la clave de orden de la última tarea entregada (orderIndex, createdAt, id) y la
+ * siguiente página se pide con un predicado "posterior a esta clave" en lugar de OFFSET,
+ * por lo que la página N cuesta lo mismo que la primera. Para el cliente es un texto opaco.
+ */
+@Getter
+@AllArgsConstructor
+public final class TaskCursor {
+
+    // Orden total y estable: el id desempata tareas con el mismo orderIndex y createdAt
+    public static final Sort SORT = Sort.by(
+            Sort.Order.asc("orderIndex"), Sort.Order.desc("createdAt"), Sort.Order.asc("id"));
+
+    private static final String SEPARATOR = "|";
+
+    private final int orderIndex;
+    private final LocalDateTime createdAt;
+    private final UUID id;
+
+    public static TaskCursor of(Task task) {
+        int orderIndex = task.getOrderIndex() != null ? task.getOrderIndex() : 0;
+        // La columna guarda microsegundos: una entidad recién creada aún conserva los nanosegundos
+        LocalDateTime createdAt = task.getCreatedAt().truncatedTo(ChronoUnit.MICROS);
+        return new TaskCursor(orderIndex, createdAt, task.getId());
+    }
+
+    public String encode() {
+        String raw = orderIndex + SEPARATOR + createdAt + SEPARATOR + id;
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(raw.getBytes(StandardCharsets.UTF_8));
+    }
+
+    public static TaskCursor decode(String cursor) {
+        try {
+            String raw = new String(Base64.getUrlDecoder().decode(cursor), StandardCharsets.UTF_8);
+            String[] parts = raw.split("\\" + SEPARATOR);
+            if (parts.length != 3) {
+                throw new IllegalArgumentException("Número de campos inesperado");
+            }
+            return new TaskCursor(Integer.parseInt(parts[0]), LocalDateTime.parse(parts[1]), UUID.fromString(parts[2]));
+        } catch (RuntimeException e) {
+            throw new InvalidTaskDataException("Cursor de paginación inválido");
+        }
+    }
+}
@@ -0,0 +1,29 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.model.TaskJob;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TaskJobRepository extends JpaRepository<TaskJob, String> {
+
+    // Toma el trabajo si está libre, caducado o ya es nuestro (una sola sentencia: no hay carrera)
+    @Modifying
+    @Query("UPDATE TaskJob j SET j.lockedBy = :owner, j.lockedUntil = :until " +
+           "WHERE j.jobName = :jobName AND (j.lockedBy IS NULL OR j.lockedBy = :owner OR j.lockedUntil < :now)")
+    int tryLock(@Param("jobName") String jobName, @Param("owner") String owner,
+                @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    @Modifying
+    @Query("UPDATE TaskJob j SET j.lockedBy = NULL, j.lockedUntil = NULL WHERE j.jobName = :jobName AND j.lockedBy = :owner")
+    int unlock(@Param("jobName") String jobName, @Param("owner") String owner);
+
+    @Modifying
+    @Query("UPDATE TaskJob j SET j.watermark = :watermark WHERE j.jobName = :jobName")
+    int updateWatermark(@Param("jobName") String jobName, @Param("watermark") LocalDateTime watermark);
+}
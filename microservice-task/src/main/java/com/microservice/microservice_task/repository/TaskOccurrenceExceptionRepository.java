@@ -0,0 +1,36 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.model.TaskOccurrenceException;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TaskOccurrenceExceptionRepository extends JpaRepository<TaskOccurrenceException, UUID> {
+
+    // Búsqueda puntual por la clave única (task_id, occurrence_date)
+    Optional<TaskOccurrenceException> findByTaskIdAndOccurrenceDate(UUID taskId, LocalDateTime occurrenceDate);
+
+    // Excepciones cuya fecha original o nueva cae en la ventana [from, to)
+    @Query("SELECT e FROM TaskOccurrenceException e WHERE e.userId = :userId AND " +
+           "((e.occurrenceDate >= :from AND e.occurrenceDate < :to) OR (e.movedTo >= :from AND e.movedTo < :to))")
+    List<TaskOccurrenceException> findInWindow(@Param("userId") UUID userId,
+                                               @Param("from") LocalDateTime from,
+                                               @Param("to") LocalDateTime to);
+
+    @Modifying
+    @Query("DELETE FROM TaskOccurrenceException e WHERE e.taskId IN :taskIds")
+    int deleteByTaskIdIn(@Param("taskIds") Collection<UUID> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM TaskOccurrenceException e WHERE e.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
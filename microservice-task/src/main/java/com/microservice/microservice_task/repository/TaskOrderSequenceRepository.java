@@ -0,0 +1,26 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.model.TaskOrderSequence;
+import jakarta.persistence.LockModeType;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Optional;
+import java.util.UUID;
+
+@Repository
+public interface TaskOrderSequenceRepository extends JpaRepository<TaskOrderSequence, UUID> {
+
+    // Bloquea la fila de la secuencia hasta el fin de la transacción
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT s FROM TaskOrderSequence s WHERE s.userId = :userId")
+    Optional<TaskOrderSequence> findForUpdateByUserId(@Param("userId") UUID userId);
+
+    @Modifying
+    @Query("DELETE FROM TaskOrderSequence s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
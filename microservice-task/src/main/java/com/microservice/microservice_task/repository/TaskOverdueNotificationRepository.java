@@ -0,0 +1,15 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.model.TaskOverdueNotification;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TaskOverdueNotificationRepository extends JpaRepository<TaskOverdueNotification, UUID> {
+
+    List<TaskOverdueNotification> findAllByOrderByCreatedAtAscUserIdAsc(Pageable pageable);
+}
@@ -0,0 +1,21 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.model.TaskReminderInstance;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TaskReminderInstanceRepository extends JpaRepository<TaskReminderInstance, String> {
+
+    @Query("SELECT COUNT(i) FROM TaskReminderInstance i WHERE i.heartbeatAt >= :since")
+    long countAlive(@Param("since") LocalDateTime since);
+
+    @Modifying
+    @Query("DELETE FROM TaskReminderInstance i WHERE i.heartbeatAt < :before")
+    int deleteStale(@Param("before") LocalDateTime before);
+}
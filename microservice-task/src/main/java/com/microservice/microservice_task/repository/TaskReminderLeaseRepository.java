@@ -0,0 +1,34 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.model.TaskReminderLease;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.time.LocalDateTime;
+
+@Repository
+public interface TaskReminderLeaseRepository extends JpaRepository<TaskReminderLease, Integer> {
+
+    // Toma la partición si está libre, caducada o ya es nuestra (una sola sentencia: no hay carrera)
+    @Modifying
+    @Query("UPDATE TaskReminderLease l SET l.ownerId = :owner, l.leaseUntil = :until " +
+           "WHERE l.shardId = :shardId AND (l.ownerId IS NULL OR l.ownerId = :owner OR l.leaseUntil < :now)")
+    int tryAcquire(@Param("shardId") Integer shardId, @Param("owner") String owner,
+                   @Param("now") LocalDateTime now, @Param("until") LocalDateTime until);
+
+    // Renueva y guarda el watermark; 0 filas si otra instancia se quedó con la partición
+    @Modifying
+    @Query("UPDATE TaskReminderLease l SET l.leaseUntil = :until, l.watermark = :watermark " +
+           "WHERE l.shardId = :shardId AND l.ownerId = :owner")
+    int renew(@Param("shardId") Integer shardId, @Param("owner") String owner,
+              @Param("until") LocalDateTime until, @Param("watermark") LocalDateTime watermark);
+
+    @Modifying
+    @Query("UPDATE TaskReminderLease l SET l.ownerId = NULL, l.leaseUntil = NULL, l.watermark = :watermark " +
+           "WHERE l.shardId = :shardId AND l.ownerId = :owner")
+    int release(@Param("shardId") Integer shardId, @Param("owner") String owner,
+                @Param("watermark") LocalDateTime watermark);
+}
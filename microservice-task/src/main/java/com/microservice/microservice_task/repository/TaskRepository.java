@@ -4,20 +4,33 @@ import com.microservice.microservice_task.model.Task;
 import com.microservice.microservice_task.model.TaskPriority;
 import com.microservice.microservice_task.model.TaskStatus;
 import com.microservice.microservice_task.model.TaskCategory;
+import jakarta.persistence.LockModeType;
+import jakarta.persistence.QueryHint;
+import org.hibernate.jpa.HibernateHints;
 import org.springframework.data.domain.Page;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.JpaSpecificationExecutor;
+import org.springframework.data.jpa.repository.Lock;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.jpa.repository.QueryHints;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
 import java.time.LocalDateTime;
+import java.util.Collection;
 import java.util.List;
 import java.util.Optional;
 import java.util.UUID;
+import java.util.stream.Stream;
 
 @Repository
-public interface TaskRepository extends JpaRepository<Task, UUID> {
+public interface TaskRepository extends JpaRepository<Task, UUID>, JpaSpecificationExecutor<Task> {
+
+    // Las series recurrentes se cuentan por ocurrencias (TaskOccurrenceService), no por su primera fecha
+    String SINGLE_TASK = "AND (t.isRecurring = false OR t.isRecurring IS NULL OR t.recurrenceType IS NULL)";
 
     // Consultas básicas por usuario
     List<Task> findByUserIdOrderByCreatedAtDesc(UUID userId);
@@ -26,6 +39,68 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
     
     Page<Task> findByUserIdOrderByOrderIndexAscCreatedAtDesc(UUID userId, Pageable pageable);
 
+    // Sin consulta COUNT: pide una fila de más para saber si hay página siguiente
+    Slice<Task> findSliceByUserIdOrderByOrderIndexAscCreatedAtDesc(UUID userId, Pageable pageable);
+
+    List<Task> findByUserIdOrderByOrderIndexAscCreatedAtDesc(UUID userId);
+
+    // Recorrido con cursor del servidor (useCursorFetch en MySQL): las filas llegan por bloques
+    // en lugar de materializar la lista completa. Debe consumirse dentro de una transacción y cerrarse.
+    @QueryHints({
+            @QueryHint(name = HibernateHints.HINT_FETCH_SIZE, value = "500"),
+            @QueryHint(name = HibernateHints.HINT_READ_ONLY, value = "true")
+    })
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId ORDER BY t.orderIndex ASC, t.createdAt DESC, t.id ASC")
+    Stream<Task> streamByUserId(@Param("userId") UUID userId);
+
+    // Escrituras condicionales: dueño y versión se comprueban en el propio UPDATE (una sentencia, sin
+    // lectura previa) y se devuelven las filas afectadas. Con version null no se exige versión.
+    // No pasan por los listeners de Task: quien las llama anota el cambio (también invalida la caché).
+    String OWNED_VERSION = "WHERE t.id = :id AND t.userId = :userId AND (:version IS NULL OR t.version = :version)";
+
+    // Solo aplica si la tarea estaba (wasCompleted) o no completada: así se sabe, sin leerla antes,
+    // si el cambio mueve el número de subtareas completadas de sus antecesoras
+    String WAS_COMPLETED = " AND ((:wasCompleted = true AND t.status = 'COMPLETED') OR " +
+                           "(:wasCompleted = false AND t.status <> 'COMPLETED'))";
+
+    @Modifying
+    @Query("UPDATE Task t SET t.status = :status, t.completedDate = :now, t.overdueAt = NULL, " +
+           "t.updatedAt = :now, t.version = t.version + 1 " + OWNED_VERSION + WAS_COMPLETED)
+    int completeIfOwned(@Param("id") UUID id, @Param("userId") UUID userId, @Param("version") Long version,
+                        @Param("status") TaskStatus status, @Param("wasCompleted") boolean wasCompleted,
+                        @Param("now") LocalDateTime now);
+
+    // Misma regla que Task.clearStaleOverdue: completar quita la marca y reabrir la deja al detector
+    @Modifying
+    @Query("UPDATE Task t SET t.status = :status, " +
+           "t.completedDate = CASE WHEN :completed = true AND t.completedDate IS NULL THEN :now ELSE t.completedDate END, " +
+           "t.overdueAt = CASE WHEN :completed = true THEN NULL ELSE t.overdueAt END, " +
+           "t.updatedAt = :now, t.version = t.version + 1 " + OWNED_VERSION + WAS_COMPLETED)
+    int updateStatusIfOwned(@Param("id") UUID id, @Param("userId") UUID userId, @Param("version") Long version,
+                            @Param("status") TaskStatus status, @Param("completed") boolean completed,
+                            @Param("wasCompleted") boolean wasCompleted, @Param("now") LocalDateTime now);
+
+    // Árbol de subtareas: totales acumulados (ver TaskTreeService). Sin tocar updatedAt ni version,
+    // son datos derivados de las subtareas y no una modificación de la propia tarea
+    @Modifying
+    // En SQL nativo: en JPQL Hibernate tipa los parámetros con el columnDefinition (DEFAULT incluido)
+    @Query(value = "UPDATE tasks SET subtask_count = subtask_count + :total, " +
+           "completed_subtask_count = completed_subtask_count + :completed, " +
+           "subtree_estimated_minutes = subtree_estimated_minutes + :minutes WHERE id IN (:ids)",
+           nativeQuery = true)
+    int addToRollups(@Param("ids") Collection<UUID> ids, @Param("total") int total,
+                     @Param("completed") int completed, @Param("minutes") long minutes);
+
+    @Modifying
+    @Query(value = "UPDATE tasks SET subtask_count = :total, completed_subtask_count = :completed, " +
+           "subtree_estimated_minutes = :minutes WHERE id = :id", nativeQuery = true)
+    int setRollups(@Param("id") UUID id, @Param("total") int total,
+                   @Param("completed") int completed, @Param("minutes") long minutes);
+
+    List<TaskRollupProjection> findRollupsByUserId(UUID userId);
+
+    List<TaskRollupProjection> findRollupsByUserIdAndIdInAndParentTaskIdIsNotNull(UUID userId, Collection<UUID> ids);
+
     // Consultas por estado
     List<Task> findByUserIdAndStatus(UUID userId, TaskStatus status);
     
@@ -40,47 +115,39 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
     // Consultas por fecha
     List<Task> findByUserIdAndDueDateBetweenOrderByDueDateAsc(UUID userId, LocalDateTime start, LocalDateTime end);
     
-    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND DATE(t.dueDate) = DATE(:date) ORDER BY t.dueDate ASC")
-    List<Task> findByUserIdAndDueDateToday(@Param("userId") UUID userId, @Param("date") LocalDateTime date);
+    // Ventana semiabierta [from, to) (ver DateWindow): la columna va sin funciones y usa idx_tasks_user_due_date
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.dueDate >= :from AND t.dueDate < :to ORDER BY t.dueDate ASC")
+    List<Task> findByUserIdAndDueDateInWindow(@Param("userId") UUID userId,
+                                              @Param("from") LocalDateTime from,
+                                              @Param("to") LocalDateTime to);
 
-    // Tareas vencidas
-    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.dueDate < :now AND t.status != 'COMPLETED' ORDER BY t.dueDate ASC")
-    List<Task> findOverdueTasksByUserId(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+    // Tareas vencidas (marca precalculada por TaskOverdueService, idx_tasks_user_overdue)
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.overdueAt IS NOT NULL ORDER BY t.dueDate ASC")
+    List<Task> findOverdueTasksByUserId(@Param("userId") UUID userId);
 
     // Tareas recurrentes
     List<Task> findByUserIdAndIsRecurringTrue(UUID userId);
 
+    // Tareas no recurrentes que vencen en la ventana [from, to)
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.dueDate >= :from AND t.dueDate < :to " +
+           "AND (t.isRecurring = false OR t.isRecurring IS NULL OR t.recurrenceType IS NULL) ORDER BY t.dueDate ASC")
+    List<Task> findSingleTasksDueBetween(@Param("userId") UUID userId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
+
+    // Series recurrentes activas que pueden tener ocurrencias en la ventana [from, to)
+    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND t.isRecurring = true AND t.recurrenceType IS NOT NULL " +
+           "AND t.dueDate < :to AND (t.recurrenceEndDate IS NULL OR t.recurrenceEndDate >= :from) " +
+           "AND t.status NOT IN ('COMPLETED', 'CANCELLED')")
+    List<Task> findRecurringSeriesInWindow(@Param("userId") UUID userId,
+                                           @Param("from") LocalDateTime from,
+                                           @Param("to") LocalDateTime to);
+
     // Subtareas
     List<Task> findByParentTaskIdOrderByOrderIndexAsc(UUID parentTaskId);
     
     List<Task> findByUserIdAndParentTaskIdIsNullOrderByOrderIndexAscCreatedAtDesc(UUID userId);
 
-    // Búsqueda de texto
-    @Query("SELECT t FROM Task t WHERE t.userId = :userId AND " +
-           "(LOWER(t.title) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-           "LOWER(t.description) LIKE LOWER(CONCAT('%', :searchText, '%')) OR " +
-           "LOWER(t.tags) LIKE LOWER(CONCAT('%', :searchText, '%')))")
-    List<Task> findByUserIdAndSearchText(@Param("userId") UUID userId, @Param("searchText") String searchText);
-
-    // Consulta compleja con filtros
-    @Query("SELECT t FROM Task t WHERE t.userId = :userId " +
-           "AND (:status IS NULL OR t.status = :status) " +
-           "AND (:priority IS NULL OR t.priority = :priority) " +
-           "AND (:category IS NULL OR t.category = :category) " +
-           "AND (:dueDateFrom IS NULL OR t.dueDate >= :dueDateFrom) " +
-           "AND (:dueDateTo IS NULL OR t.dueDate <= :dueDateTo) " +
-           "AND (:searchText IS NULL OR LOWER(t.title) LIKE LOWER(CONCAT('%', :searchText, '%')) " +
-           "     OR LOWER(t.description) LIKE LOWER(CONCAT('%', :searchText, '%'))) " +
-           "ORDER BY t.orderIndex ASC, t.createdAt DESC")
-    Page<Task> findTasksWithFilters(@Param("userId") UUID userId,
-                                  @Param("status") TaskStatus status,
-                                  @Param("priority") TaskPriority priority,
-                                  @Param("category") TaskCategory category,
-                                  @Param("dueDateFrom") LocalDateTime dueDateFrom,
-                                  @Param("dueDateTo") LocalDateTime dueDateTo,
-                                  @Param("searchText") String searchText,
-                                  Pageable pageable);
-
     // Estadísticas
     @Query("SELECT COUNT(t) FROM Task t WHERE t.userId = :userId")
     Long countByUserId(@Param("userId") UUID userId);
@@ -88,17 +155,159 @@ public interface TaskRepository extends JpaRepository<Task, UUID> {
     @Query("SELECT COUNT(t) FROM Task t WHERE t.userId = :userId AND t.status = :status")
     Long countByUserIdAndStatus(@Param("userId") UUID userId, @Param("status") TaskStatus status);
 
-    @Query("SELECT COUNT(t) FROM Task t WHERE t.userId = :userId AND t.dueDate < :now AND t.status != 'COMPLETED'")
-    Long countOverdueByUserId(@Param("userId") UUID userId, @Param("now") LocalDateTime now);
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.userId = :userId AND t.overdueAt IS NOT NULL")
+    Long countOverdueByUserId(@Param("userId") UUID userId);
 
-    @Query("SELECT COUNT(t) FROM Task t WHERE t.userId = :userId AND DATE(t.dueDate) = DATE(:date)")
-    Long countByUserIdAndDueToday(@Param("userId") UUID userId, @Param("date") LocalDateTime date);
+    @Query("SELECT COUNT(t) FROM Task t WHERE t.userId = :userId AND t.dueDate >= :from AND t.dueDate < :to")
+    Long countByUserIdAndDueDateInWindow(@Param("userId") UUID userId,
+                                         @Param("from") LocalDateTime from,
+                                         @Param("to") LocalDateTime to);
 
     @Query("SELECT AVG(t.actualDurationMinutes) FROM Task t WHERE t.userId = :userId AND t.actualDurationMinutes IS NOT NULL")
     Optional<Double> findAverageDurationByUserId(@Param("userId") UUID userId);
 
-    // Eliminar tareas del usuario
-    void deleteByUserId(UUID userId);
+    // Resumen completo en una sola pasada (agregación condicional)
+    @Query("SELECT COUNT(t) AS totalTasks, " +
+           "COALESCE(SUM(CASE WHEN t.status = 'PENDING' THEN 1 ELSE 0 END), 0) AS pendingTasks, " +
+           "COALESCE(SUM(CASE WHEN t.status = 'IN_PROGRESS' THEN 1 ELSE 0 END), 0) AS inProgressTasks, " +
+           "COALESCE(SUM(CASE WHEN t.status = 'COMPLETED' THEN 1 ELSE 0 END), 0) AS completedTasks, " +
+           "COALESCE(SUM(CASE WHEN t.overdueAt IS NOT NULL THEN 1 ELSE 0 END), 0) AS overdueTasks, " +
+           "COALESCE(SUM(CASE WHEN t.dueDate >= :todayStart AND t.dueDate < :todayEnd " + SINGLE_TASK + " THEN 1 ELSE 0 END), 0) AS todayTasks, " +
+           "COALESCE(SUM(CASE WHEN t.dueDate >= :weekStart AND t.dueDate < :weekEnd " + SINGLE_TASK + " THEN 1 ELSE 0 END), 0) AS thisWeekTasks, " +
+           "AVG(t.actualDurationMinutes) AS averageDuration " +
+           "FROM Task t WHERE t.userId = :userId")
+    TaskSummaryProjection getSummaryByUserId(@Param("userId") UUID userId,
+                                             @Param("todayStart") LocalDateTime todayStart,
+                                             @Param("todayEnd") LocalDateTime todayEnd,
+                                             @Param("weekStart") LocalDateTime weekStart,
+                                             @Param("weekEnd") LocalDateTime weekEnd);
+
+    boolean existsByTagsIsNotNull();
+
+    // Archivado: raíces terminadas sin cambios desde before y con todo su árbol completado, por
+    // idx_tasks_status_updated. Las subtareas se archivan siempre con su raíz (ver TaskArchiveService)
+    String ARCHIVABLE_ROOT = "t.status IN ('COMPLETED', 'CANCELLED') AND t.updatedAt < :before " +
+                             "AND t.parentTaskId IS NULL AND t.completedSubtaskCount = t.subtaskCount";
+
+    // Lo mismo fila a fila en SQL nativo, para copiar y borrar: las subtareas de un árbol archivable
+    // están todas completadas y la raíz cumple ARCHIVABLE_ROOT
+    String ARCHIVABLE_ROW_SQL = "status IN ('COMPLETED', 'CANCELLED') AND (parent_task_id IS NOT NULL " +
+                                "OR (updated_at < :before AND completed_subtask_count = subtask_count))";
+
+    @Query("SELECT t.id AS id, t.userId AS userId FROM Task t WHERE " + ARCHIVABLE_ROOT)
+    List<ArchiveCandidateProjection> findArchiveCandidates(@Param("before") LocalDateTime before, Pageable pageable);
+
+    // Vuelve a comprobar las raíces elegidas y las bloquea hasta el fin de la transacción. Cualquier
+    // cambio en su árbol que afecte al archivado (reabrir, añadir una subtarea) actualiza la fila de la
+    // raíz, así que espera a que termine el lote o se ve aquí
+    @Lock(LockModeType.PESSIMISTIC_WRITE)
+    @Query("SELECT t.id FROM Task t WHERE t.id IN :ids AND " + ARCHIVABLE_ROOT)
+    List<UUID> lockArchivableRoots(@Param("ids") Collection<UUID> ids, @Param("before") LocalDateTime before);
+
+    @Modifying
+    @Query(value = "DELETE FROM tasks WHERE id IN (:ids) AND " + ARCHIVABLE_ROW_SQL, nativeQuery = true)
+    int deleteArchivable(@Param("ids") Collection<UUID> ids, @Param("before") LocalDateTime before);
+
+    // Ids de tareas del usuario por bloques (borrado de cuenta sin cargar entidades)
+    @Query("SELECT t.id FROM Task t WHERE t.userId = :userId")
+    List<UUID> findIdsByUserId(@Param("userId") UUID userId, Pageable pageable);
+
+    // Recordatorios pendientes de una partición, por idx_tasks_reminder (reminder_shard, reminder_date)
+    String PENDING_REMINDER = "FROM Task t WHERE t.reminderShard = :shard AND t.status NOT IN ('COMPLETED', 'CANCELLED') ";
+
+    @Query("SELECT t.id AS id, t.userId AS userId, t.reminderDate AS reminderDate " + PENDING_REMINDER +
+           "AND t.reminderDate > :after AND t.reminderDate <= :until ORDER BY t.reminderDate ASC, t.id ASC")
+    List<ReminderProjection> findRemindersBetween(@Param("shard") Integer shard,
+                                                  @Param("after") LocalDateTime after,
+                                                  @Param("until") LocalDateTime until,
+                                                  Pageable pageable);
+
+    @Query("SELECT t.id AS id, t.userId AS userId, t.reminderDate AS reminderDate " + PENDING_REMINDER +
+           "AND t.reminderDate = :reminderDate")
+    List<ReminderProjection> findRemindersAt(@Param("shard") Integer shard,
+                                             @Param("reminderDate") LocalDateTime reminderDate);
+
+    // Recordatorios ya cargados que se crearon o cambiaron después de la carga
+    @Query("SELECT t.id AS id, t.userId AS userId, t.reminderDate AS reminderDate " + PENDING_REMINDER +
+           "AND t.reminderDate > :after AND t.reminderDate <= :until AND t.updatedAt >= :since " +
+           "ORDER BY t.reminderDate ASC, t.id ASC")
+    List<ReminderProjection> findRemindersChangedSince(@Param("shard") Integer shard,
+                                                       @Param("after") LocalDateTime after,
+                                                       @Param("until") LocalDateTime until,
+                                                       @Param("since") LocalDateTime since,
+                                                       Pageable pageable);
+
+    // Tareas anteriores a reminder_shard (migración por páginas, sin tocar updatedAt)
+    @Query("SELECT t.id AS id, t.userId AS userId, t.reminderDate AS reminderDate FROM Task t WHERE t.reminderShard IS NULL")
+    List<ReminderProjection> findWithoutReminderShard(Pageable pageable);
+
+    @Modifying
+    @Query("UPDATE Task t SET t.reminderShard = :shard WHERE t.id IN :ids")
+    int updateReminderShard(@Param("ids") Collection<UUID> ids, @Param("shard") Integer shard);
+
+    // Tareas que pueden haber pasado su fecha límite y aún no están marcadas, por idx_tasks_due_at
+    String OVERDUE_CANDIDATE = "FROM Task t WHERE t.overdueAt IS NULL AND t.status <> 'COMPLETED' ";
+    String OVERDUE_FIELDS = "SELECT t.id AS id, t.userId AS userId, t.title AS title, t.dueDate AS dueDate, t.dueAt AS dueAt ";
+
+    @Query(OVERDUE_FIELDS + OVERDUE_CANDIDATE +
+           "AND t.dueAt > :after AND t.dueAt <= :until ORDER BY t.dueAt ASC, t.id ASC")
+    List<OverdueCandidateProjection> findOverdueCandidates(@Param("after") LocalDateTime after,
+                                                           @Param("until") LocalDateTime until,
+                                                           Pageable pageable);
+
+    // Siguiente página de la anterior: keyset sobre (dueAt, id)
+    @Query(OVERDUE_FIELDS + OVERDUE_CANDIDATE +
+           "AND (t.dueAt > :afterDueAt OR (t.dueAt = :afterDueAt AND t.id > :afterId)) " +
+           "AND t.dueAt <= :until ORDER BY t.dueAt ASC, t.id ASC")
+    List<OverdueCandidateProjection> findOverdueCandidatesAfter(@Param("afterDueAt") LocalDateTime afterDueAt,
+                                                                @Param("afterId") UUID afterId,
+                                                                @Param("until") LocalDateTime until,
+                                                                Pageable pageable);
+
+    // Guardadas después de que el detector pasara por su fecha (creadas ya vencidas, reabiertas o con la
+    // fecha movida al pasado): su fecha queda detrás del watermark, así que se buscan por updatedAt
+    @Query(OVERDUE_FIELDS + OVERDUE_CANDIDATE +
+           "AND t.updatedAt > :after AND t.updatedAt <= :until AND t.dueAt <= :watermark ORDER BY t.updatedAt ASC, t.id ASC")
+    List<OverdueCandidateProjection> findSavedBehindWatermark(@Param("after") LocalDateTime after,
+                                                              @Param("until") LocalDateTime until,
+                                                              @Param("watermark") LocalDateTime watermark,
+                                                              Pageable pageable);
+
+    // Tareas anteriores a due_at (migración por páginas, sin tocar updatedAt)
+    @Query(OVERDUE_FIELDS + "FROM Task t WHERE t.dueAt IS NULL AND t.dueDate IS NOT NULL")
+    List<OverdueCandidateProjection> findWithoutDueAt(Pageable pageable);
+
+    // Con la fecha que se leyó: si cambió entretanto, TaskDueAtListener ya fijó due_at
+    @Modifying
+    @Query("UPDATE Task t SET t.dueAt = :dueAt WHERE t.id = :id AND t.dueDate = :dueDate")
+    int updateDueAt(@Param("id") UUID id, @Param("dueDate") LocalDateTime dueDate, @Param("dueAt") LocalDateTime dueAt);
+
+    // Sin tocar updatedAt: pasar a vencida no es una modificación del usuario
+    @Modifying
+    @Query("UPDATE Task t SET t.overdueAt = :now WHERE t.id IN :ids AND t.overdueAt IS NULL AND t.status <> 'COMPLETED'")
+    int markOverdue(@Param("ids") Collection<UUID> ids, @Param("now") LocalDateTime now);
+
+    // Primera ejecución: marca de golpe las tareas que ya estaban vencidas (sin notificarlas)
+    @Modifying
+    @Query("UPDATE Task t SET t.overdueAt = :now WHERE t.overdueAt IS NULL AND t.status <> 'COMPLETED' AND t.dueAt <= :until")
+    int markOverdueUntil(@Param("until") LocalDateTime until, @Param("now") LocalDateTime now);
+
+    @Query("SELECT t.id FROM Task t WHERE t.id IN :ids AND t.overdueAt IS NOT NULL")
+    List<UUID> findOverdueIdsIn(@Param("ids") Collection<UUID> ids);
+
+    // Versión de la colección para el GET condicional: recorre solo idx_tasks_user_version
+    @Query("SELECT COUNT(t) AS count, MAX(t.updatedAt) AS lastUpdated, MAX(t.overdueAt) AS lastOverdue " +
+           "FROM Task t WHERE t.userId = :userId")
+    TaskCollectionVersionProjection getCollectionVersion(@Param("userId") UUID userId);
+
+    // Sincronización incremental: cambios posteriores a un número de cambio, por idx_tasks_user_change
+    List<Task> findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAscIdAsc(UUID userId, long changeSeq, Pageable pageable);
+
+    List<Task> findByUserIdAndChangeSeq(UUID userId, long changeSeq);
+
+    // Orden de tareas
+    @Query("SELECT MAX(t.orderIndex) FROM Task t WHERE t.userId = :userId")
+    Optional<Integer> findMaxOrderIndexByUserId(@Param("userId") UUID userId);
 
     // Verificar si existe tarea
     boolean existsByUserIdAndId(UUID userId, UUID taskId);
@@ -0,0 +1,25 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.model.TaskStatus;
+
+import java.util.UUID;
+
+/**
+ * Lo que aporta una tarea (y su árbol de subtareas) a los totales de sus antecesoras.
+ */
+public interface TaskRollupProjection {
+
+    UUID getId();
+
+    UUID getParentTaskId();
+
+    TaskStatus getStatus();
+
+    Integer getEstimatedDurationMinutes();
+
+    Integer getSubtaskCount();
+
+    Integer getCompletedSubtaskCount();
+
+    Long getSubtreeEstimatedMinutes();
+}
@@ -0,0 +1,28 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.model.TaskSearchTerm;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.UUID;
+
+@Repository
+public interface TaskSearchTermRepository extends JpaRepository<TaskSearchTerm, UUID> {
+
+    // Borrados en bloque (un solo DELETE, sin cargar entidades)
+    @Modifying
+    @Query("DELETE FROM TaskSearchTerm s WHERE s.taskId = :taskId")
+    int deleteByTaskId(@Param("taskId") UUID taskId);
+
+    @Modifying
+    @Query("DELETE FROM TaskSearchTerm s WHERE s.taskId IN :taskIds")
+    int deleteByTaskIdIn(@Param("taskIds") Collection<UUID> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM TaskSearchTerm s WHERE s.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,158 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.dto.TaskFilterDTO;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskCategory;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskSearchTerm;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.model.TaskTag;
+import com.microservice.microservice_task.util.TaskTagNormalizer;
+import com.microservice.microservice_task.util.TaskTextTokenizer;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Subquery;
+import org.springframework.data.jpa.domain.Specification;
+
+import java.time.LocalDateTime;
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Compila un {@link TaskFilterDTO} a una {@link Specification} que solo contiene los
+ * predicados de los filtros presentes. Así MySQL ve un WHERE concreto (userId + columnas
+ * filtradas) y puede elegir el índice compuesto adecuado, en lugar del patrón
+ * "(:x IS NULL OR col = :x)" que le impide usarlos.
+ */
+public final class TaskSpecifications {
+
+    private TaskSpecifications() {
+    }
+
+    public static Specification<Task> fromFilter(TaskFilterDTO filter) {
+        Specification<Task> spec = belongsToUser(filter.getUserId());
+
+        if (isPresent(filter.getStatuses())) {
+            spec = spec.and(statusIn(filter.getStatuses()));
+        }
+        if (isPresent(filter.getPriorities())) {
+            spec = spec.and(priorityIn(filter.getPriorities()));
+        }
+        if (isPresent(filter.getCategories())) {
+            spec = spec.and(categoryIn(filter.getCategories()));
+        }
+        if (filter.getDueDateFrom() != null) {
+            spec = spec.and(dueOnOrAfter(filter.getDueDateFrom().atStartOfDay()));
+        }
+        if (filter.getDueDateTo() != null) {
+            spec = spec.and(dueBefore(filter.getDueDateTo().plusDays(1).atStartOfDay()));
+        }
+        if (filter.getIsOverdue() != null) {
+            spec = spec.and(filter.getIsOverdue() ? overdue() : Specification.not(overdue()));
+        }
+        if (filter.getIsRecurring() != null) {
+            spec = spec.and(recurring(filter.getIsRecurring()));
+        }
+        if (filter.getParentTaskId() != null) {
+            spec = spec.and(childOf(filter.getParentTaskId()));
+        }
+        if (isPresent(filter.getTags())) {
+            for (String tag : filter.getTags()) {
+                String normalized = TaskTagNormalizer.normalize(tag);
+                if (normalized != null) {
+                    spec = spec.and(hasTag(filter.getUserId(), normalized));
+                }
+            }
+        }
+        if (filter.getSearchText() != null) {
+            for (String term : TaskTextTokenizer.tokenize(filter.getSearchText())) {
+                spec = spec.and(matchesSearchTerm(filter.getUserId(), term));
+            }
+        }
+        return spec;
+    }
+
+    public static Specification<Task> belongsToUser(UUID userId) {
+        return (root, query, cb) -> cb.equal(root.get("userId"), userId);
+    }
+
+    public static Specification<Task> statusIn(Collection<TaskStatus> statuses) {
+        return (root, query, cb) -> root.get("status").in(statuses);
+    }
+
+    public static Specification<Task> priorityIn(Collection<TaskPriority> priorities) {
+        return (root, query, cb) -> root.get("priority").in(priorities);
+    }
+
+    public static Specification<Task> categoryIn(Collection<TaskCategory> categories) {
+        return (root, query, cb) -> root.get("category").in(categories);
+    }
+
+    public static Specification<Task> dueOnOrAfter(LocalDateTime from) {
+        return (root, query, cb) -> cb.greaterThanOrEqualTo(root.get("dueDate"), from);
+    }
+
+    public static Specification<Task> dueBefore(LocalDateTime to) {
+        return (root, query, cb) -> cb.lessThan(root.get("dueDate"), to);
+    }
+
+    // Marca precalculada por TaskOverdueService: no compara cada fila con el instante actual
+    public static Specification<Task> overdue() {
+        return (root, query, cb) -> cb.isNotNull(root.get("overdueAt"));
+    }
+
+    public static Specification<Task> recurring(boolean isRecurring) {
+        return (root, query, cb) -> isRecurring
+                ? cb.isTrue(root.get("isRecurring"))
+                : cb.or(cb.isNull(root.get("isRecurring")), cb.isFalse(root.get("isRecurring")));
+    }
+
+    public static Specification<Task> childOf(UUID parentTaskId) {
+        return (root, query, cb) -> cb.equal(root.get("parentTaskId"), parentTaskId);
+    }
+
+    /**
+     * Predicado de búsqueda por clave (keyset) para el orden {@link TaskCursor#SORT}:
+     * tareas estrictamente posteriores a la del cursor. Se resuelve sobre el índice
+     * (user_id, order_index) sin recorrer las filas anteriores como haría un OFFSET.
+     */
+    public static Specification<Task> after(TaskCursor cursor) {
+        return (root, query, cb) -> cb.or(
+                cb.greaterThan(root.get("orderIndex"), cursor.getOrderIndex()),
+                cb.and(
+                        cb.equal(root.get("orderIndex"), cursor.getOrderIndex()),
+                        cb.or(
+                                cb.lessThan(root.get("createdAt"), cursor.getCreatedAt()),
+                                cb.and(
+                                        cb.equal(root.get("createdAt"), cursor.getCreatedAt()),
+                                        cb.greaterThan(root.<UUID>get("id"), cursor.getId())))));
+    }
+
+    // Cada etiqueta (ya normalizada) se resuelve contra el índice task_tags (user_id, tag)
+    public static Specification<Task> hasTag(UUID userId, String tag) {
+        return (root, query, cb) -> {
+            Subquery<UUID> tagged = query.subquery(UUID.class);
+            Root<TaskTag> taskTag = tagged.from(TaskTag.class);
+            tagged.select(taskTag.get("taskId")).where(
+                    cb.equal(taskTag.get("userId"), userId),
+                    cb.equal(taskTag.get("tag"), tag));
+            return root.get("id").in(tagged);
+        };
+    }
+
+    // Cada término se resuelve contra el índice de búsqueda (user_id, term) por prefijo
+    public static Specification<Task> matchesSearchTerm(UUID userId, String term) {
+        return (root, query, cb) -> {
+            Subquery<UUID> matches = query.subquery(UUID.class);
+            Root<TaskSearchTerm> searchTerm = matches.from(TaskSearchTerm.class);
+            matches.select(searchTerm.get("taskId")).where(
+                    cb.equal(searchTerm.get("userId"), userId),
+                    cb.like(searchTerm.get("term"), term + "%"));
+            return root.get("id").in(matches);
+        };
+    }
+
+    private static boolean isPresent(List<?> values) {
+        return values != null && !values.isEmpty();
+    }
+}
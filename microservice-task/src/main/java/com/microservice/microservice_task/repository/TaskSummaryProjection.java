@@ -0,0 +1,24 @@
+package com.microservice.microservice_task.repository;
+
+/**
+ * Proyección del resumen de tareas calculado en una sola consulta de agregación condicional.
+ * Los nombres de los getters coinciden con los alias de {@link TaskRepository#getSummaryByUserId}.
+ */
+public interface TaskSummaryProjection {
+
+    Long getTotalTasks();
+
+    Long getPendingTasks();
+
+    Long getInProgressTasks();
+
+    Long getCompletedTasks();
+
+    Long getOverdueTasks();
+
+    Long getTodayTasks();
+
+    Long getThisWeekTasks();
+
+    Double getAverageDuration();
+}
@@ -0,0 +1,34 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.model.TaskTag;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+
+import java.util.Collection;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface TaskTagRepository extends JpaRepository<TaskTag, UUID> {
+
+    // Número de tareas por etiqueta, resuelto sobre el índice (user_id, tag)
+    @Query("SELECT t.tag AS tag, COUNT(t) AS taskCount FROM TaskTag t " +
+           "WHERE t.userId = :userId GROUP BY t.tag ORDER BY COUNT(t) DESC, t.tag")
+    List<TagCountProjection> countTasksByTag(@Param("userId") UUID userId);
+
+    // Borrados en bloque (un solo DELETE, sin cargar entidades)
+    @Modifying
+    @Query("DELETE FROM TaskTag t WHERE t.taskId = :taskId")
+    int deleteByTaskId(@Param("taskId") UUID taskId);
+
+    @Modifying
+    @Query("DELETE FROM TaskTag t WHERE t.taskId IN :taskIds")
+    int deleteByTaskIdIn(@Param("taskIds") Collection<UUID> taskIds);
+
+    @Modifying
+    @Query("DELETE FROM TaskTag t WHERE t.userId = :userId")
+    int deleteByUserId(@Param("userId") UUID userId);
+}
@@ -0,0 +1,12 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.model.TaskTombstone;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.stereotype.Repository;
+
+import java.util.UUID;
+
+// Las lecturas y la compactación van por SyncFeed (SQL nativo sobre TABLES de TaskChangeTracker)
+@Repository
+public interface TaskTombstoneRepository extends JpaRepository<TaskTombstone, UUID> {
+}
@@ -0,0 +1,65 @@
+package com.microservice.microservice_task.scheduler;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Recordatorio programado en memoria: lo justo para localizar la tarea al enviarlo.
+ */
+final class ReminderEntry {
+
+    private final UUID taskId;
+    private final int shard;
+    private final LocalDateTime reminderDate;
+    private long deadlineTick;
+    private boolean cancelled;
+    private int attempts;
+    private LocalDateTime nextAttemptAt;
+
+    ReminderEntry(UUID taskId, int shard, LocalDateTime reminderDate) {
+        this.taskId = taskId;
+        this.shard = shard;
+        this.reminderDate = reminderDate;
+    }
+
+    UUID getTaskId() {
+        return taskId;
+    }
+
+    int getShard() {
+        return shard;
+    }
+
+    LocalDateTime getReminderDate() {
+        return reminderDate;
+    }
+
+    long getDeadlineTick() {
+        return deadlineTick;
+    }
+
+    void setDeadlineTick(long deadlineTick) {
+        this.deadlineTick = deadlineTick;
+    }
+
+    boolean isCancelled() {
+        return cancelled;
+    }
+
+    void cancel() {
+        this.cancelled = true;
+    }
+
+    int getAttempts() {
+        return attempts;
+    }
+
+    LocalDateTime getNextAttemptAt() {
+        return nextAttemptAt;
+    }
+
+    void retryAt(LocalDateTime nextAttemptAt) {
+        this.attempts++;
+        this.nextAttemptAt = nextAttemptAt;
+    }
+}
@@ -0,0 +1,102 @@
+package com.microservice.microservice_task.scheduler;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Rueda de tiempos (hashed timing wheel) con los recordatorios del horizonte cargado.
+ *
+ * Cada ranura corresponde a un tick; un recordatorio va a la ranura de su tick módulo el número de
+ * ranuras y guarda su tick exacto, así los que están a más de una vuelta esperan a su vuelta.
+ * Programar es O(1) y avanzar solo recorre las ranuras de los ticks transcurridos.
+ * Reprogramar una tarea marca la entrada anterior como cancelada y se descarta al pasar por ella.
+ */
+final class ReminderTimingWheel {
+
+    private final LocalDateTime origin;
+    private final long tickMillis;
+    private final List<List<ReminderEntry>> slots;
+    private final Map<UUID, ReminderEntry> entries = new HashMap<>();
+    // Último tick procesado
+    private long currentTick = -1;
+
+    ReminderTimingWheel(LocalDateTime origin, Duration tick, int slotCount) {
+        this.origin = origin;
+        this.tickMillis = Math.max(1, tick.toMillis());
+        this.slots = new ArrayList<>(slotCount);
+        for (int i = 0; i < slotCount; i++) {
+            slots.add(new ArrayList<>());
+        }
+    }
+
+    /**
+     * Programa el recordatorio (sustituye al que hubiera para la misma tarea). Los vencidos
+     * van al siguiente tick.
+     */
+    void schedule(ReminderEntry entry) {
+        ReminderEntry previous = entries.put(entry.getTaskId(), entry);
+        if (previous != null) {
+            previous.cancel();
+        }
+        long tick = Math.max(tickOf(entry.getReminderDate()), currentTick + 1);
+        entry.setDeadlineTick(tick);
+        slots.get(slotOf(tick)).add(entry);
+    }
+
+    /**
+     * Saca de la rueda los recordatorios con fecha anterior o igual a now, ordenados por fecha.
+     */
+    List<ReminderEntry> advance(LocalDateTime now) {
+        long target = tickOf(now);
+        List<ReminderEntry> due = new ArrayList<>();
+        if (target <= currentTick) {
+            return due;
+        }
+        // Tras un salto de más de una vuelta basta con revisar cada ranura una vez
+        long steps = Math.min(target - currentTick, slots.size());
+        for (long tick = currentTick + 1; tick <= currentTick + steps; tick++) {
+            Iterator<ReminderEntry> slot = slots.get(slotOf(tick)).iterator();
+            while (slot.hasNext()) {
+                ReminderEntry entry = slot.next();
+                if (entry.isCancelled()) {
+                    slot.remove();
+                } else if (entry.getDeadlineTick() <= target) {
+                    slot.remove();
+                    entries.remove(entry.getTaskId());
+                    due.add(entry);
+                }
+            }
+        }
+        currentTick = target;
+        due.sort(Comparator.comparing(ReminderEntry::getReminderDate));
+        return due;
+    }
+
+    /**
+     * Descarta los recordatorios de una partición (al perderla o cederla).
+     */
+    void removeShard(int shard) {
+        for (List<ReminderEntry> slot : slots) {
+            slot.removeIf(entry -> entry.isCancelled() || entry.getShard() == shard);
+        }
+        entries.values().removeIf(entry -> entry.getShard() == shard);
+    }
+
+    boolean contains(UUID taskId, LocalDateTime reminderDate) {
+        ReminderEntry entry = entries.get(taskId);
+        return entry != null && entry.getReminderDate().equals(reminderDate);
+    }
+
+    int size() {
+        return entries.size();
+    }
+
+    private long tickOf(LocalDateTime time) {
+        return Math.floorDiv(Duration.between(origin, time).toMillis(), tickMillis);
+    }
+
+    private int slotOf(long tick) {
+        return (int) Math.floorMod(tick, (long) slots.size());
+    }
+}
@@ -0,0 +1,131 @@
+package com.microservice.microservice_task.scheduler;
+
+import com.microservice.microservice_task.service.TaskArchiveService;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Pasa periódicamente al archivo las tareas terminadas hace más de tasks.archive.after-days días
+ * (ver TaskArchiveService), por lotes de tasks.archive.batch-size árboles, cada uno en su transacción.
+ * Solo archiva la instancia que tiene el bloqueo de task_jobs.
+ *
+ * Métricas:
+ * <ul>
+ *   <li>tasks.archive.moved: tareas movidas (su tasa es el ritmo de archivado);</li>
+ *   <li>tasks.archive.batch: duración de cada lote;</li>
+ *   <li>tasks.table.rows (table=tasks|tasks_archive): filas de cada tabla, contadas al final de cada
+ *       pasada en todas las instancias y no en cada lectura de la métrica.</li>
+ * </ul>
+ */
+@Component
+@Slf4j
+public class TaskArchiver {
+
+    private final TaskArchiveService archiveService;
+    private final boolean enabled;
+    private final String instanceId;
+    private final Duration age;
+    private final Duration lockDuration;
+    private final int batchSize;
+    private final Counter moved;
+    private final Timer batchTimer;
+    private final AtomicLong hotRows = new AtomicLong(-1);
+    private final AtomicLong archivedRows = new AtomicLong(-1);
+
+    @Autowired
+    public TaskArchiver(TaskArchiveService archiveService,
+                        MeterRegistry meterRegistry,
+                        @Value("${tasks.archive.enabled:true}") boolean enabled,
+                        @Value("${tasks.archive.after-days:90}") long afterDays,
+                        @Value("${tasks.archive.lock-seconds:600}") long lockSeconds,
+                        @Value("${tasks.archive.batch-size:500}") int batchSize) {
+        this.archiveService = archiveService;
+        this.enabled = enabled;
+        this.instanceId = UUID.randomUUID().toString();
+        this.age = Duration.ofDays(afterDays);
+        this.lockDuration = Duration.ofSeconds(lockSeconds);
+        this.batchSize = batchSize;
+        this.moved = Counter.builder("tasks.archive.moved")
+                .description("Tareas movidas de tasks a tasks_archive")
+                .register(meterRegistry);
+        this.batchTimer = Timer.builder("tasks.archive.batch")
+                .description("Duración de cada lote de archivado")
+                .register(meterRegistry);
+        Gauge.builder("tasks.table.rows", hotRows, AtomicLong::get)
+                .description("Filas de la tabla (-1 hasta la primera pasada del archivado)")
+                .tag("table", "tasks")
+                .register(meterRegistry);
+        Gauge.builder("tasks.table.rows", archivedRows, AtomicLong::get)
+                .description("Filas de la tabla (-1 hasta la primera pasada del archivado)")
+                .tag("table", "tasks_archive")
+                .register(meterRegistry);
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.archive.delay-ms:3600000}")
+    public void run() {
+        archive(LocalDateTime.now());
+    }
+
+    long archive(LocalDateTime now) {
+        if (!enabled) {
+            return 0;
+        }
+        long total = archiveIfLocked(now);
+        refreshRowCounts();
+        return total;
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private long archiveIfLocked(LocalDateTime now) {
+        try {
+            if (!archiveService.tryLock(instanceId, now, now.plus(lockDuration))) {
+                return 0;
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo tomar el archivado de tareas", e);
+            return 0;
+        }
+        LocalDateTime before = now.minus(age);
+        long total = 0;
+        try {
+            int batch;
+            do {
+                Timer.Sample sample = Timer.start();
+                batch = archiveService.archiveNextBatch(before, now, batchSize);
+                sample.stop(batchTimer);
+                moved.increment(batch);
+                total += batch;
+            } while (batch > 0);
+        } catch (Exception e) {
+            log.warn("Error al archivar tareas; se reintentará en la siguiente pasada", e);
+        } finally {
+            archiveService.unlock(instanceId);
+        }
+        if (total > 0) {
+            log.info("Archivadas {} tareas terminadas antes de {}", total, before);
+        }
+        return total;
+    }
+
+    private void refreshRowCounts() {
+        try {
+            hotRows.set(archiveService.countHotTasks());
+            archivedRows.set(archiveService.countArchivedTasks());
+        } catch (Exception e) {
+            log.warn("No se pudo contar las filas de tasks y tasks_archive", e);
+        }
+    }
+}
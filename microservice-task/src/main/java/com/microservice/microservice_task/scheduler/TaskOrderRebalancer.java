@@ -0,0 +1,38 @@
+package com.microservice.microservice_task.scheduler;
+
+import com.microservice.microservice_task.service.TaskOrderService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Renumera en segundo plano a los usuarios cuyos huecos de orderIndex se están agotando,
+ * para que los movimientos de tareas sigan actualizando una sola fila.
+ */
+@Component
+@Slf4j
+public class TaskOrderRebalancer {
+
+    private final TaskOrderService taskOrderService;
+
+    @Autowired
+    public TaskOrderRebalancer(TaskOrderService taskOrderService) {
+        this.taskOrderService = taskOrderService;
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.order.rebalance-delay-ms:60000}")
+    public void rebalancePendingUsers() {
+        List<UUID> userIds = taskOrderService.drainPendingRebalances();
+        for (UUID userId : userIds) {
+            try {
+                taskOrderService.rebalance(userId);
+            } catch (Exception e) {
+                log.warn("No se pudo rebalancear el orden de tareas del usuario {}", userId, e);
+            }
+        }
+    }
+}
@@ -0,0 +1,127 @@
+package com.microservice.microservice_task.scheduler;
+
+import com.microservice.microservice_task.client.NotificationServiceClient;
+import com.microservice.microservice_task.dto.OverdueNotificationDTO;
+import com.microservice.microservice_task.model.TaskOverdueNotification;
+import com.microservice.microservice_task.repository.OverdueCandidateProjection;
+import com.microservice.microservice_task.service.TaskOverdueService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+/**
+ * Detecta en segundo plano las tareas que acaban de vencer y avisa a sus usuarios.
+ *
+ * En cada pasada marca por lotes las tareas cuya fecha límite ya quedó atrás (due_at, en UTC: ver
+ * {@link TaskOverdueService#flagNextBatch}), después las que se guardaron ya vencidas detrás
+ * del watermark ({@link TaskOverdueService#flagSavedBehindWatermark}, sin aviso) y por último envía los
+ * avisos pendientes, un único aviso por usuario y lote. Se deja un margen (lag) respecto al instante actual para no adelantarse
+ * a escrituras en curso. Solo una instancia ejecuta la pasada gracias al bloqueo de task_jobs.
+ * La entrega es al menos una vez: un aviso se borra después de que el servicio de notificaciones lo acepte.
+ */
+@Component
+@Slf4j
+public class TaskOverdueScanner {
+
+    private final TaskOverdueService overdueService;
+    private final NotificationServiceClient notificationClient;
+    private final boolean enabled;
+    private final String instanceId;
+    private final Duration lag;
+    private final Duration lockDuration;
+    private final int batchSize;
+    private final int dispatchBatchSize;
+
+    @Autowired
+    public TaskOverdueScanner(TaskOverdueService overdueService,
+                              NotificationServiceClient notificationClient,
+                              @Value("${tasks.overdue.enabled:true}") boolean enabled,
+                              @Value("${tasks.overdue.lag-seconds:10}") long lagSeconds,
+                              @Value("${tasks.overdue.lock-seconds:300}") long lockSeconds,
+                              @Value("${tasks.overdue.batch-size:500}") int batchSize,
+                              @Value("${tasks.overdue.dispatch-batch-size:500}") int dispatchBatchSize) {
+        this.overdueService = overdueService;
+        this.notificationClient = notificationClient;
+        this.enabled = enabled;
+        this.instanceId = UUID.randomUUID().toString();
+        this.lag = Duration.ofSeconds(lagSeconds);
+        this.lockDuration = Duration.ofSeconds(lockSeconds);
+        this.batchSize = batchSize;
+        this.dispatchBatchSize = dispatchBatchSize;
+    }
+
+    /**
+     * Rellena due_at en las tareas guardadas antes de la columna, por páginas: sin él no serían candidatas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void fillMissingDueAt() {
+        if (!enabled) {
+            return;
+        }
+        int filled = 0;
+        int page;
+        while ((page = overdueService.fillMissingDueAt(batchSize)) > 0) {
+            filled += page;
+        }
+        if (filled > 0) {
+            log.info("Fijada la fecha límite en UTC de {} tareas existentes", filled);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.overdue.scan-delay-ms:30000}")
+    public void run() {
+        scan(LocalDateTime.now());
+    }
+
+    void scan(LocalDateTime now) {
+        if (!enabled) {
+            return;
+        }
+        try {
+            if (!overdueService.tryLock(instanceId, now, now.plus(lockDuration))) {
+                return;
+            }
+        } catch (Exception e) {
+            log.warn("No se pudo tomar el detector de tareas vencidas", e);
+            return;
+        }
+        try {
+            LocalDateTime until = now.minus(lag);
+            OverdueCandidateProjection last = null;
+            do {
+                last = overdueService.flagNextBatch(last, until, now, batchSize);
+            } while (last != null);
+            while (overdueService.flagSavedBehindWatermark(until, now, batchSize)) {
+                // Ídem con las guardadas detrás del watermark
+            }
+            dispatchPending();
+        } catch (Exception e) {
+            log.warn("Error en el detector de tareas vencidas; se reintentará en la siguiente pasada", e);
+        } finally {
+            overdueService.unlock(instanceId);
+        }
+    }
+
+    private void dispatchPending() {
+        List<TaskOverdueNotification> pending;
+        while (!(pending = overdueService.findPendingNotifications(dispatchBatchSize)).isEmpty()) {
+            List<OverdueNotificationDTO> notifications = overdueService.toNotifications(pending);
+            if (!notifications.isEmpty()
+                    && !Boolean.TRUE.equals(notificationClient.sendOverdueNotifications(notifications))) {
+                log.warn("El servicio de notificaciones rechazó {} avisos de tareas vencidas", notifications.size());
+                return;
+            }
+            overdueService.acknowledge(pending.stream().map(TaskOverdueNotification::getId).toList());
+            log.debug("Enviados avisos de vencimiento a {} usuarios", notifications.size());
+        }
+    }
+}
@@ -0,0 +1,401 @@
+package com.microservice.microservice_task.scheduler;
+
+import com.microservice.microservice_task.client.NotificationServiceClient;
+import com.microservice.microservice_task.dto.TaskReminderDTO;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.repository.ReminderProjection;
+import com.microservice.microservice_task.service.TaskReminderService;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+
+/**
+ * Envía los recordatorios de las tareas (Task.reminderDate) a través del servicio de notificaciones.
+ *
+ * Los usuarios se reparten en {@link Task#REMINDER_SHARDS} particiones y cada instancia arrienda
+ * en task_reminder_leases su parte (particiones / instancias vivas), así varias réplicas no envían
+ * el mismo recordatorio ni se deja ninguno sin dueño. De cada partición propia se cargan, por el
+ * índice (reminder_shard, reminder_date), solo los recordatorios del próximo horizonte, hasta un
+ * máximo en memoria, en una {@link ReminderTimingWheel}; cada tick saca los vencidos y los envía en lotes.
+ *
+ * El watermark de cada partición (todo lo anterior ya se envió) se guarda al renovar el arrendamiento;
+ * quien herede la partición sigue desde ahí. La entrega es al menos una vez: si una instancia cae
+ * entre el envío y la siguiente renovación, la nueva dueña puede repetir esos recordatorios.
+ */
+@Component
+@Slf4j
+public class TaskReminderScheduler {
+
+    private final TaskReminderService reminderService;
+    private final NotificationServiceClient notificationClient;
+    private final boolean enabled;
+    private final String instanceId;
+    private final Duration tick;
+    private final Duration horizon;
+    private final Duration refreshInterval;
+    private final Duration leaseDuration;
+    private final int maxLoaded;
+    private final int batchSize;
+    private final int maxAttempts;
+
+    private final TreeMap<Integer, ShardState> shards = new TreeMap<>();
+    private ReminderTimingWheel wheel;
+    private LocalDateTime nextRefreshAt;
+    private boolean leasesCreated;
+    // Alguna partición no cargó todo su horizonte por falta de espacio en la rueda
+    private boolean backlogged;
+    private int loadOffset;
+
+    @Autowired
+    public TaskReminderScheduler(TaskReminderService reminderService,
+                                 NotificationServiceClient notificationClient,
+                                 @Value("${tasks.reminders.enabled:true}") boolean enabled,
+                                 @Value("${tasks.reminders.instance-id:}") String instanceId,
+                                 @Value("${tasks.reminders.tick-ms:1000}") long tickMillis,
+                                 @Value("${tasks.reminders.horizon-seconds:300}") long horizonSeconds,
+                                 @Value("${tasks.reminders.refresh-seconds:15}") long refreshSeconds,
+                                 @Value("${tasks.reminders.lease-seconds:30}") long leaseSeconds,
+                                 @Value("${tasks.reminders.max-loaded:50000}") int maxLoaded,
+                                 @Value("${tasks.reminders.dispatch-batch-size:100}") int batchSize,
+                                 @Value("${tasks.reminders.max-attempts:5}") int maxAttempts) {
+        this.reminderService = reminderService;
+        this.notificationClient = notificationClient;
+        this.enabled = enabled;
+        this.instanceId = instanceId.isBlank() ? UUID.randomUUID().toString() : instanceId;
+        this.tick = Duration.ofMillis(tickMillis);
+        this.horizon = Duration.ofSeconds(horizonSeconds);
+        this.refreshInterval = Duration.ofSeconds(refreshSeconds);
+        this.leaseDuration = Duration.ofSeconds(leaseSeconds);
+        this.maxLoaded = maxLoaded;
+        this.batchSize = batchSize;
+        this.maxAttempts = maxAttempts;
+    }
+
+    /**
+     * Rellena reminder_shard en las tareas creadas antes de la columna, por páginas.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    public void assignMissingShards() {
+        if (!enabled) {
+            return;
+        }
+        int assigned = 0;
+        int page;
+        while ((page = reminderService.assignMissingShards(1000)) > 0) {
+            assigned += page;
+        }
+        if (assigned > 0) {
+            log.info("Asignada la partición de recordatorios a {} tareas existentes", assigned);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.reminders.tick-ms:1000}")
+    public void tick() {
+        if (!enabled) {
+            return;
+        }
+        try {
+            tick(LocalDateTime.now());
+        } catch (Exception e) {
+            log.warn("Error en el planificador de recordatorios", e);
+        }
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        if (!enabled || wheel == null) {
+            return;
+        }
+        LocalDateTime now = LocalDateTime.now();
+        try {
+            for (ShardState state : new ArrayList<>(shards.values())) {
+                settle(state, now);
+                reminderService.release(state.shard, instanceId, watermarkOf(state, now));
+                dropShard(state);
+            }
+            reminderService.unregister(instanceId);
+        } catch (Exception e) {
+            log.warn("No se pudieron liberar las particiones de recordatorios de la instancia {}", instanceId, e);
+        }
+    }
+
+    void tick(LocalDateTime now) {
+        if (wheel == null) {
+            int slots = (int) Math.max(1, horizon.toMillis() / tick.toMillis());
+            wheel = new ReminderTimingWheel(now, tick, slots);
+            nextRefreshAt = now;
+        }
+        // Primero se envía lo vencido: el watermark que calcula refresh() da por enviado todo hasta now
+        dispatchDue(now);
+        if (!now.isBefore(nextRefreshAt) || (backlogged && wheel.size() < maxLoaded / 2)) {
+            refresh(now);
+            nextRefreshAt = now.plus(refreshInterval);
+        }
+    }
+
+    Set<Integer> getOwnedShards() {
+        return Collections.unmodifiableSet(shards.keySet());
+    }
+
+    int getLoadedCount() {
+        return wheel == null ? 0 : wheel.size();
+    }
+
+    // ============= ENVÍO =============
+
+    private void dispatchDue(LocalDateTime now) {
+        // Sin arrendamiento vigente no se envía nada: la partición puede tenerla ya otra instancia
+        for (ShardState state : new ArrayList<>(shards.values())) {
+            if (!state.leaseUntil.isAfter(now)) {
+                log.warn("Arrendamiento caducado de la partición de recordatorios {}", state.shard);
+                dropShard(state);
+            }
+        }
+
+        List<ReminderEntry> due = wheel.advance(now);
+        for (ShardState state : shards.values()) {
+            Iterator<ReminderEntry> retries = state.retrying.values().iterator();
+            while (retries.hasNext()) {
+                ReminderEntry entry = retries.next();
+                if (!entry.getNextAttemptAt().isAfter(now)) {
+                    retries.remove();
+                    due.add(entry);
+                }
+            }
+        }
+        for (int from = 0; from < due.size(); from += batchSize) {
+            send(due.subList(from, Math.min(from + batchSize, due.size())), now);
+        }
+    }
+
+    private void send(List<ReminderEntry> batch, LocalDateTime now) {
+        Map<UUID, LocalDateTime> reminderDates = new HashMap<>();
+        for (ReminderEntry entry : batch) {
+            reminderDates.put(entry.getTaskId(), entry.getReminderDate());
+        }
+        boolean sent;
+        try {
+            List<TaskReminderDTO> reminders = reminderService.findCurrentReminders(reminderDates);
+            sent = reminders.isEmpty() || Boolean.TRUE.equals(notificationClient.sendTaskReminders(reminders));
+            if (sent) {
+                log.debug("Enviados {} recordatorios", reminders.size());
+            }
+        } catch (Exception e) {
+            log.warn("Error al enviar {} recordatorios", batch.size(), e);
+            sent = false;
+        }
+
+        for (ReminderEntry entry : batch) {
+            ShardState state = shards.get(entry.getShard());
+            if (state == null) {
+                continue;
+            }
+            if (sent) {
+                state.sent.put(entry.getTaskId(), entry.getReminderDate());
+            } else if (entry.getAttempts() + 1 >= maxAttempts) {
+                log.warn("Recordatorio de la tarea {} descartado tras {} intentos", entry.getTaskId(), maxAttempts);
+            } else {
+                entry.retryAt(now.plus(tick.multipliedBy(1L << Math.min(entry.getAttempts() + 1, 10))));
+                state.retrying.put(entry.getTaskId(), entry);
+            }
+        }
+    }
+
+    // ============= PARTICIONES Y CARGA =============
+
+    private void refresh(LocalDateTime now) {
+        if (!leasesCreated) {
+            reminderService.createMissingLeases(now);
+            leasesCreated = true;
+        }
+        backlogged = false;
+        LocalDateTime leaseUntil = now.plus(leaseDuration);
+        long alive = Math.max(1, reminderService.heartbeat(instanceId, now, now.minus(leaseDuration)));
+        int target = (int) ((Task.REMINDER_SHARDS + alive - 1) / alive);
+
+        // Se conservan las primeras particiones hasta la cuota y se ceden las demás
+        int kept = 0;
+        for (ShardState state : new ArrayList<>(shards.values())) {
+            settle(state, now);
+            LocalDateTime watermark = watermarkOf(state, now);
+            if (kept >= target) {
+                reminderService.release(state.shard, instanceId, watermark);
+                dropShard(state);
+            } else if (reminderService.renew(state.shard, instanceId, leaseUntil, watermark)) {
+                state.leaseUntil = leaseUntil;
+                state.advanceWatermark(watermark);
+                kept++;
+            } else {
+                log.warn("Partición de recordatorios {} tomada por otra instancia", state.shard);
+                dropShard(state);
+            }
+        }
+        if (shards.size() < target) {
+            int start = Math.floorMod(instanceId.hashCode(), Task.REMINDER_SHARDS);
+            for (int i = 0; i < Task.REMINDER_SHARDS && shards.size() < target; i++) {
+                int shard = (start + i) % Task.REMINDER_SHARDS;
+                if (!shards.containsKey(shard)) {
+                    reminderService.acquire(shard, instanceId, now, leaseUntil)
+                            .ifPresent(watermark -> shards.put(shard, new ShardState(shard, leaseUntil, watermark)));
+                }
+            }
+        }
+
+        List<ShardState> owned = new ArrayList<>(shards.values());
+        // Las particiones se turnan en el primer puesto para repartir el espacio de la rueda
+        loadOffset = owned.isEmpty() ? 0 : (loadOffset + 1) % owned.size();
+        for (int i = 0; i < owned.size(); i++) {
+            load(owned.get((loadOffset + i) % owned.size()), now);
+        }
+    }
+
+    /**
+     * Lee los recordatorios ya cargados que se crearon o cambiaron desde la carga anterior:
+     * los vencidos se envían ya y el resto se reprograma. Después, todo lo anterior a now
+     * está enviado o reintentándose.
+     */
+    private void settle(ShardState state, LocalDateTime now) {
+        if (state.loadedAt == null) {
+            return;
+        }
+        List<ReminderEntry> overdue = new ArrayList<>();
+        if (state.loadedUntil.isAfter(state.watermark)) {
+            LocalDateTime overdueUntil = state.loadedUntil.isBefore(now) ? state.loadedUntil : now;
+            for (ReminderProjection reminder : reminderService.findChangedReminders(state.shard, state.watermark,
+                    overdueUntil, state.loadedAt)) {
+                if (isNew(state, reminder)) {
+                    overdue.add(new ReminderEntry(reminder.getId(), state.shard, reminder.getReminderDate()));
+                }
+            }
+        }
+        if (state.loadedUntil.isAfter(now)) {
+            int room = Math.max(0, maxLoaded - wheel.size());
+            List<ReminderProjection> changed = reminderService.findChangedReminders(state.shard, now,
+                    state.loadedUntil, state.loadedAt, room + 1);
+            if (changed.size() > room) {
+                // Sin sitio para todo: lo cargado se recorta a la última fecha completa y el resto se relee en load()
+                LocalDateTime cut = changed.get(room).getReminderDate();
+                changed = changed.subList(0, room).stream()
+                        .filter(reminder -> reminder.getReminderDate().isBefore(cut))
+                        .toList();
+                state.loadedUntil = changed.isEmpty() ? now : changed.get(changed.size() - 1).getReminderDate();
+                backlogged = true;
+            }
+            for (ReminderProjection reminder : changed) {
+                if (isNew(state, reminder)) {
+                    schedule(state, reminder);
+                }
+            }
+        }
+        state.loadedAt = now;
+        for (int from = 0; from < overdue.size(); from += batchSize) {
+            send(overdue.subList(from, Math.min(from + batchSize, overdue.size())), now);
+        }
+    }
+
+    // Ni enviado, ni reintentándose, ni ya programado con esa misma fecha
+    private boolean isNew(ShardState state, ReminderProjection reminder) {
+        LocalDateTime reminderDate = reminder.getReminderDate();
+        return !reminderDate.equals(state.sent.get(reminder.getId()))
+                && !state.isRetrying(reminder.getId(), reminderDate)
+                && !wheel.contains(reminder.getId(), reminderDate);
+    }
+
+    // Carga el horizonte [loadedUntil, now + horizon] mientras quede sitio en la rueda
+    private void load(ShardState state, LocalDateTime now) {
+        state.loadedAt = now;
+        LocalDateTime horizonEnd = now.plus(horizon);
+        while (state.loadedUntil.isBefore(horizonEnd)) {
+            int room = maxLoaded - wheel.size();
+            if (room <= 0) {
+                backlogged = true;
+                return;
+            }
+            List<ReminderProjection> page = reminderService.findReminders(state.shard, state.loadedUntil,
+                    horizonEnd, room + 1);
+            if (page.size() <= room) {
+                page.forEach(reminder -> schedule(state, reminder));
+                state.loadedUntil = horizonEnd;
+                return;
+            }
+            // Sin sitio para todo: se corta en la última fecha completa para que loadedUntil sea exacto
+            LocalDateTime cut = page.get(room).getReminderDate();
+            List<ReminderProjection> complete = page.subList(0, room).stream()
+                    .filter(reminder -> reminder.getReminderDate().isBefore(cut))
+                    .toList();
+            if (complete.isEmpty()) {
+                // Más recordatorios a la misma hora que sitio en la rueda: se cargan todos los de esa hora
+                complete = reminderService.findRemindersAt(state.shard, cut);
+            }
+            complete.forEach(reminder -> schedule(state, reminder));
+            state.loadedUntil = complete.get(complete.size() - 1).getReminderDate();
+        }
+    }
+
+    private void schedule(ShardState state, ReminderProjection reminder) {
+        wheel.schedule(new ReminderEntry(reminder.getId(), state.shard, reminder.getReminderDate()));
+    }
+
+    /**
+     * Hasta dónde se puede dar por enviada la partición justo después de settle(): lo vencido ya se
+     * envió salvo los reintentos, y solo está cargado hasta loadedUntil.
+     */
+    private LocalDateTime watermarkOf(ShardState state, LocalDateTime now) {
+        if (state.loadedAt == null) {
+            return state.watermark;
+        }
+        LocalDateTime watermark = state.loadedUntil.isBefore(now) ? state.loadedUntil : now;
+        for (ReminderEntry entry : state.retrying.values()) {
+            LocalDateTime beforeRetry = entry.getReminderDate().minus(1, ChronoUnit.MICROS);
+            if (beforeRetry.isBefore(watermark)) {
+                watermark = beforeRetry;
+            }
+        }
+        return watermark.isAfter(state.watermark) ? watermark : state.watermark;
+    }
+
+    private void dropShard(ShardState state) {
+        shards.remove(state.shard);
+        wheel.removeShard(state.shard);
+    }
+
+    private static class ShardState {
+        private final int shard;
+        private LocalDateTime leaseUntil;
+        // Todo recordatorio con reminderDate <= watermark está enviado
+        private LocalDateTime watermark;
+        // Todo recordatorio con reminderDate <= loadedUntil está en la rueda o enviado
+        private LocalDateTime loadedUntil;
+        private LocalDateTime loadedAt;
+        // Enviados con fecha posterior al watermark: evita repetirlos si la tarea cambia después
+        private final Map<UUID, LocalDateTime> sent = new HashMap<>();
+        private final Map<UUID, ReminderEntry> retrying = new HashMap<>();
+
+        ShardState(int shard, LocalDateTime leaseUntil, LocalDateTime watermark) {
+            this.shard = shard;
+            this.leaseUntil = leaseUntil;
+            this.watermark = watermark;
+            this.loadedUntil = watermark;
+        }
+
+        void advanceWatermark(LocalDateTime watermark) {
+            this.watermark = watermark;
+            sent.values().removeIf(reminderDate -> !reminderDate.isAfter(watermark));
+        }
+
+        boolean isRetrying(UUID taskId, LocalDateTime reminderDate) {
+            ReminderEntry entry = retrying.get(taskId);
+            return entry != null && entry.getReminderDate().equals(reminderDate);
+        }
+    }
+}
@@ -0,0 +1,44 @@
+package com.microservice.microservice_task.scheduler;
+
+import com.microservice.microservice_task.service.TaskSearchService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Construye el índice de búsqueda a partir de la tabla de tareas cuando está vacío
+ * (primer despliegue o base de datos restaurada). Se indexa por páginas, una transacción por página.
+ */
+@Component
+@Slf4j
+public class TaskSearchIndexBackfill {
+
+    private final TaskSearchService taskSearchService;
+
+    @Value("${tasks.search.rebuild-on-startup:true}")
+    private boolean rebuildOnStartup;
+
+    @Value("${tasks.search.rebuild-page-size:500}")
+    private int pageSize;
+
+    @Autowired
+    public TaskSearchIndexBackfill(TaskSearchService taskSearchService) {
+        this.taskSearchService = taskSearchService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!rebuildOnStartup || !taskSearchService.isIndexEmpty()) {
+            return;
+        }
+        log.info("Índice de búsqueda vacío, indexando tareas existentes...");
+        int page = 0;
+        while (taskSearchService.indexPage(page, pageSize)) {
+            page++;
+        }
+        log.info("Índice de búsqueda construido ({} páginas)", page + 1);
+    }
+}
@@ -0,0 +1,44 @@
+package com.microservice.microservice_task.scheduler;
+
+import com.microservice.microservice_task.service.TaskTagService;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+/**
+ * Migra las etiquetas JSON de las tareas existentes a la tabla task_tags la primera vez que
+ * arranca el servicio con la tabla vacía. Se procesa por páginas, una transacción por página.
+ */
+@Component
+@Slf4j
+public class TaskTagBackfill {
+
+    private final TaskTagService taskTagService;
+
+    @Value("${tasks.tags.backfill-on-startup:true}")
+    private boolean backfillOnStartup;
+
+    @Value("${tasks.tags.backfill-page-size:500}")
+    private int pageSize;
+
+    @Autowired
+    public TaskTagBackfill(TaskTagService taskTagService) {
+        this.taskTagService = taskTagService;
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    public void backfillIfEmpty() {
+        if (!backfillOnStartup || !taskTagService.needsBackfill()) {
+            return;
+        }
+        log.info("Tabla task_tags vacía, migrando etiquetas de las tareas existentes...");
+        int page = 0;
+        while (taskTagService.indexPage(page, pageSize)) {
+            page++;
+        }
+        log.info("Etiquetas migradas ({} páginas)", page + 1);
+    }
+}
@@ -0,0 +1,37 @@
+package com.microservice.microservice_task.scheduler;
+
+import com.microservice.common.sync.TombstoneCompactor;
+import com.microservice.microservice_task.service.TaskSyncService;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+
+/**
+ * Programa la compactación de las lápidas de tareas borradas (ver {@link TombstoneCompactor}).
+ */
+@Component
+public class TaskTombstoneCompactor {
+
+    private final TombstoneCompactor compactor;
+
+    @Autowired
+    public TaskTombstoneCompactor(TaskSyncService syncService,
+                                  @Value("${tasks.sync.tombstone-retention-days:30}") long retentionDays,
+                                  @Value("${tasks.sync.compaction-batch-size:1000}") int batchSize) {
+        this.compactor = new TombstoneCompactor("tareas", Duration.ofDays(retentionDays), batchSize,
+                syncService::purgeTombstones);
+    }
+
+    @Scheduled(fixedDelayString = "${tasks.sync.compaction-delay-ms:3600000}")
+    public void run() {
+        compact(LocalDateTime.now());
+    }
+
+    long compact(LocalDateTime now) {
+        return compactor.compact(now);
+    }
+}
@@ -0,0 +1,79 @@
+package com.microservice.microservice_task.service;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.Objects;
+
+/**
+ * Ventana semiabierta [start, end) de días completos sobre due_date.
+ *
+ * due_date es la hora local del usuario (la que eligió en la app, sin zona), así que un día del
+ * usuario es exactamente [d 00:00, d+1 00:00): lo único que depende de su zona es qué día es "hoy"
+ * ({@link com.microservice.microservice_task.cache.UserTimeZoneCache#today}). Las consultas comparan
+ * la columna tal cual con los dos extremos, sin DATE() ni otras funciones, para que usen el índice
+ * (user_id, due_date).
+ */
+public final class DateWindow {
+
+    private final LocalDateTime start;
+    private final LocalDateTime end;
+
+    private DateWindow(LocalDateTime start, LocalDateTime end) {
+        this.start = start;
+        this.end = end;
+    }
+
+    public static DateWindow today(LocalDate today) {
+        return nextDays(today, 1);
+    }
+
+    /** days días seguidos desde from (incluido). */
+    public static DateWindow nextDays(LocalDate from, int days) {
+        if (days < 1) {
+            throw new IllegalArgumentException("La ventana debe tener al menos un día");
+        }
+        return new DateWindow(from.atStartOfDay(), from.plusDays(days).atStartOfDay());
+    }
+
+    /** El mes natural que contiene day. */
+    public static DateWindow month(LocalDate day) {
+        LocalDate first = day.withDayOfMonth(1);
+        return new DateWindow(first.atStartOfDay(), first.plusMonths(1).atStartOfDay());
+    }
+
+    /** Días [from, toInclusive] completos. */
+    public static DateWindow days(LocalDate from, LocalDate toInclusive) {
+        if (toInclusive.isBefore(from)) {
+            throw new IllegalArgumentException("El último día de la ventana es anterior al primero");
+        }
+        return new DateWindow(from.atStartOfDay(), toInclusive.plusDays(1).atStartOfDay());
+    }
+
+    public LocalDateTime getStart() {
+        return start;
+    }
+
+    /** Primer instante fuera de la ventana. */
+    public LocalDateTime getEnd() {
+        return end;
+    }
+
+    public boolean contains(LocalDateTime dateTime) {
+        return !dateTime.isBefore(start) && dateTime.isBefore(end);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        return o instanceof DateWindow other && start.equals(other.start) && end.equals(other.end);
+    }
+
+    @Override
+    public int hashCode() {
+        return Objects.hash(start, end);
+    }
+
+    @Override
+    public String toString() {
+        return "[" + start + ", " + end + ")";
+    }
+}
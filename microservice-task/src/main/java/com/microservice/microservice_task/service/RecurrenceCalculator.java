@@ -0,0 +1,82 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.model.RecurrenceType;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
+
+/**
+ * Cálculo de las ocurrencias de una tarea recurrente a partir de su primera fecha (dueDate),
+ * el tipo de recurrencia y la fecha de fin opcional (inclusiva).
+ *
+ * La ocurrencia n se obtiene directamente como {@code start + n unidades} (los meses y años se
+ * cuentan desde el inicio, así un 31 cae en el último día de los meses cortos sin desplazar la serie).
+ * Por eso saltar al comienzo de una ventana y comprobar si una fecha es ocurrencia cuestan O(1),
+ * sin recorrer las ocurrencias anteriores.
+ */
+public final class RecurrenceCalculator {
+
+    private RecurrenceCalculator() {
+    }
+
+    /**
+     * Ocurrencias dentro de la ventana [from, to), generadas bajo demanda.
+     */
+    public static Stream<LocalDateTime> occurrences(LocalDateTime start, RecurrenceType type, LocalDateTime until,
+                                                    LocalDateTime from, LocalDateTime to) {
+        if (start == null || type == null || !from.isBefore(to)) {
+            return Stream.empty();
+        }
+        return LongStream.iterate(firstIndexAtOrAfter(start, type, from), n -> n + 1)
+                .mapToObj(n -> nth(start, type, n))
+                .takeWhile(date -> date.isBefore(to) && (until == null || !date.isAfter(until)));
+    }
+
+    /**
+     * Indica si la fecha es exactamente una de las ocurrencias de la serie.
+     */
+    public static boolean isOccurrence(LocalDateTime start, RecurrenceType type, LocalDateTime until,
+                                       LocalDateTime date) {
+        if (start == null || type == null || date.isBefore(start) || (until != null && date.isAfter(until))) {
+            return false;
+        }
+        // between() cuenta unidades completas: un 28/29 de febrero de una serie del 31 es la ocurrencia n + 1
+        long n = unit(type).between(start, date);
+        return nth(start, type, n).equals(date) || nth(start, type, n + 1).equals(date);
+    }
+
+    static LocalDateTime nth(LocalDateTime start, RecurrenceType type, long n) {
+        return switch (type) {
+            case DAILY -> start.plusDays(n);
+            case WEEKLY -> start.plusWeeks(n);
+            case MONTHLY -> start.plusMonths(n);
+            case YEARLY -> start.plusYears(n);
+        };
+    }
+
+    // Índice de la primera ocurrencia >= from (a lo sumo un par de ajustes por los meses cortos)
+    private static long firstIndexAtOrAfter(LocalDateTime start, RecurrenceType type, LocalDateTime from) {
+        if (!from.isAfter(start)) {
+            return 0;
+        }
+        long n = unit(type).between(start, from);
+        while (nth(start, type, n).isBefore(from)) {
+            n++;
+        }
+        while (n > 0 && !nth(start, type, n - 1).isBefore(from)) {
+            n--;
+        }
+        return n;
+    }
+
+    private static ChronoUnit unit(RecurrenceType type) {
+        return switch (type) {
+            case DAILY -> ChronoUnit.DAYS;
+            case WEEKLY -> ChronoUnit.WEEKS;
+            case MONTHLY -> ChronoUnit.MONTHS;
+            case YEARLY -> ChronoUnit.YEARS;
+        };
+    }
+}
@@ -0,0 +1,200 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.exception.TaskNotFoundException;
+import com.microservice.microservice_task.model.ArchivedTask;
+import com.microservice.microservice_task.model.TaskJob;
+import com.microservice.microservice_task.repository.ArchiveCandidateProjection;
+import com.microservice.microservice_task.repository.TaskArchiveRepository;
+import com.microservice.microservice_task.repository.TaskJobRepository;
+import com.microservice.microservice_task.repository.TaskOccurrenceExceptionRepository;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.repository.TaskSearchTermRepository;
+import com.microservice.microservice_task.repository.TaskTagRepository;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Archivo de tareas terminadas: mueve de tasks a tasks_archive las tareas completadas o canceladas
+ * sin cambios desde hace tiempo, para que las consultas diarias (listas, índices por usuario, resumen)
+ * no arrastren años de filas muertas, y da acceso de lectura a lo archivado.
+ *
+ * Se archiva por árboles completos: una raíz terminada con todas sus subtareas completadas
+ * (completedSubtaskCount = subtaskCount) se mueve junto con su árbol, así que los totales de una tarea
+ * que sigue viva nunca cuentan subtareas archivadas. Las raíces se bloquean (SELECT ... FOR UPDATE) y se
+ * vuelven a comprobar antes de copiar, y la copia y el borrado repiten la condición, así que una tarea
+ * reabierta o con una subtarea nueva mientras tanto se queda en tasks. Los términos de búsqueda, etiquetas y excepciones
+ * de ocurrencias solo sirven a las tareas vivas y se borran con ellas.
+ *
+ * Archivar no es borrar: no deja lápidas para la sincronización incremental, así que los clientes
+ * conservan su copia local. Cada lote es una transacción corta; el bucle lo hace TaskArchiver.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskArchiveService {
+
+    public static final String ARCHIVE_JOB = "archive-tasks";
+
+    private static final Sort ARCHIVE_SORT = Sort.by(Sort.Direction.DESC, "createdAt");
+
+    private final TaskRepository taskRepository;
+    private final TaskArchiveRepository archiveRepository;
+    private final TaskJobRepository jobRepository;
+    private final TaskSearchTermRepository searchTermRepository;
+    private final TaskTagRepository tagRepository;
+    private final TaskOccurrenceExceptionRepository occurrenceExceptionRepository;
+    private final TaskDeletionService taskDeletionService;
+    private final TaskAssembler taskAssembler;
+    private final TaskChangeTracker changeTracker;
+    private final UserTimeZoneCache userTimeZones;
+
+    @Autowired
+    public TaskArchiveService(TaskRepository taskRepository,
+                              TaskArchiveRepository archiveRepository,
+                              TaskJobRepository jobRepository,
+                              TaskSearchTermRepository searchTermRepository,
+                              TaskTagRepository tagRepository,
+                              TaskOccurrenceExceptionRepository occurrenceExceptionRepository,
+                              TaskDeletionService taskDeletionService,
+                              TaskAssembler taskAssembler,
+                              TaskChangeTracker changeTracker,
+                              UserTimeZoneCache userTimeZones) {
+        this.taskRepository = taskRepository;
+        this.archiveRepository = archiveRepository;
+        this.jobRepository = jobRepository;
+        this.searchTermRepository = searchTermRepository;
+        this.tagRepository = tagRepository;
+        this.occurrenceExceptionRepository = occurrenceExceptionRepository;
+        this.taskDeletionService = taskDeletionService;
+        this.taskAssembler = taskAssembler;
+        this.changeTracker = changeTracker;
+        this.userTimeZones = userTimeZones;
+    }
+
+    // ============= BLOQUEO DEL TRABAJO =============
+
+    // Dos instancias archivando a la vez copiarían las mismas filas: solo una toma el trabajo
+    public boolean tryLock(String owner, LocalDateTime now, LocalDateTime lockedUntil) {
+        if (!jobRepository.existsById(ARCHIVE_JOB)) {
+            jobRepository.saveAndFlush(new TaskJob(ARCHIVE_JOB, null, null, null));
+        }
+        return jobRepository.tryLock(ARCHIVE_JOB, owner, now, lockedUntil) == 1;
+    }
+
+    public void unlock(String owner) {
+        jobRepository.unlock(ARCHIVE_JOB, owner);
+    }
+
+    // ============= ARCHIVADO =============
+
+    /**
+     * Mueve al archivo hasta batchSize árboles terminados sin cambios desde before, con todas sus
+     * subtareas. Devuelve cuántas tareas se movieron (0 cuando ya no queda nada por archivar).
+     */
+    public int archiveNextBatch(LocalDateTime before, LocalDateTime now, int batchSize) {
+        List<ArchiveCandidateProjection> roots =
+                taskRepository.findArchiveCandidates(before, PageRequest.of(0, batchSize));
+        if (roots.isEmpty()) {
+            return 0;
+        }
+
+        // Entre la búsqueda y el bloqueo una raíz puede haberse reabierto o haber ganado una subtarea
+        Set<UUID> locked = new HashSet<>(taskRepository.lockArchivableRoots(
+                roots.stream().map(ArchiveCandidateProjection::getId).toList(), before));
+        Map<UUID, List<UUID>> rootsByUser = roots.stream()
+                .filter(root -> locked.contains(root.getId()))
+                .collect(Collectors.groupingBy(ArchiveCandidateProjection::getUserId,
+                        Collectors.mapping(ArchiveCandidateProjection::getId, Collectors.toList())));
+        int moved = 0;
+        for (Map.Entry<UUID, List<UUID>> entry : rootsByUser.entrySet()) {
+            List<UUID> ids = new ArrayList<>(taskDeletionService.findSubtreeIds(entry.getKey(), entry.getValue()));
+            // Un árbol grande no debe dar una lista IN sin límite
+            for (int from = 0; from < ids.size(); from += batchSize) {
+                moved += moveChunk(entry.getKey(), ids.subList(from, Math.min(from + batchSize, ids.size())),
+                        before, now);
+            }
+        }
+        if (locked.size() < roots.size()) {
+            log.debug("{} raíces cambiaron antes de archivarse y se quedan en tasks", roots.size() - locked.size());
+        }
+        log.debug("Archivadas {} tareas de {} usuarios", moved, rootsByUser.size());
+        return moved;
+    }
+
+    @Transactional(readOnly = true)
+    public long countHotTasks() {
+        return taskRepository.count();
+    }
+
+    @Transactional(readOnly = true)
+    public long countArchivedTasks() {
+        return archiveRepository.count();
+    }
+
+    // ============= LECTURA =============
+
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getArchivedTasks(UUID userId) {
+        return taskAssembler.toArchivedDTOList(archiveRepository.findByUserIdOrderByCreatedAtDesc(userId));
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<TaskDTO> findArchivedTask(UUID taskId, UUID userId) {
+        return archiveRepository.findByIdAndUserId(taskId, userId)
+                .map(task -> taskAssembler.toDTO(task, userTimeZones.now(userId)));
+    }
+
+    @Transactional(readOnly = true)
+    public TaskDTO getArchivedTask(UUID taskId, UUID userId) {
+        return findArchivedTask(taskId, userId)
+                .orElseThrow(() -> new TaskNotFoundException("Tarea archivada no encontrada con ID: " + taskId));
+    }
+
+    /**
+     * Tareas archivadas del usuario, las más recientes primero; con searchText, solo las que lo contienen
+     * en el título, la descripción o las etiquetas.
+     */
+    @Transactional(readOnly = true)
+    public Page<TaskDTO> searchArchive(UUID userId, String searchText, Pageable pageable) {
+        Pageable sorted = pageable.isPaged() && pageable.getSort().isUnsorted()
+                ? PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(), ARCHIVE_SORT)
+                : pageable;
+        LocalDateTime now = userTimeZones.now(userId);
+        Page<ArchivedTask> page = searchText == null || searchText.isBlank()
+                ? archiveRepository.findByUserId(userId, sorted)
+                : archiveRepository.searchByUserId(userId, searchText.trim(), sorted);
+        return page.map(task -> taskAssembler.toDTO(task, now));
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private int moveChunk(UUID userId, List<UUID> ids, LocalDateTime before, LocalDateTime now) {
+        int copied = archiveRepository.copyFromTasks(ids, before, now);
+        searchTermRepository.deleteByTaskIdIn(ids);
+        tagRepository.deleteByTaskIdIn(ids);
+        occurrenceExceptionRepository.deleteByTaskIdIn(ids);
+        int deleted = taskRepository.deleteArchivable(ids, before);
+        if (deleted != copied) {
+            // No debería pasar con las raíces bloqueadas; antes que perder o duplicar filas, se deshace el lote
+            throw new IllegalStateException("Se copiaron " + copied + " tareas al archivo y se borraron " + deleted);
+        }
+        // El DELETE en bloque no pasa por los listeners de Task. Las filas ya no existen: solo avanza la
+        // secuencia del usuario (sus listas cacheadas dejan de valer) sin marcar filas ni dejar lápidas
+        changeTracker.recordChanges(userId, ids);
+        return copied;
+    }
+}
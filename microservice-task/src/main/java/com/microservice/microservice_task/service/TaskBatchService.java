@@ -0,0 +1,349 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.dto.*;
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.function.BiConsumer;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Operaciones masivas sobre tareas (crear, actualizar, cambiar estado y eliminar).
+ *
+ * Cada lote corre en una sola transacción y se procesa en bloques del tamaño del lote JDBC
+ * de Hibernate (hibernate.jdbc.batch_size): una consulta para cargar el bloque, los INSERT/UPDATE
+ * agrupados en un único envío y un flush + clear para que el contexto de persistencia no crezca
+ * con el tamaño de la petición.
+ *
+ * Los errores de validación, tareas inexistentes o ajenas se informan por elemento y no abortan
+ * el lote; un error inesperado de base de datos revierte la transacción completa.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskBatchService {
+
+    private final TaskRepository taskRepository;
+    private final TaskAssembler taskAssembler;
+    private final TaskOrderService taskOrderService;
+    private final TaskSearchService taskSearchService;
+    private final TaskDeletionService taskDeletionService;
+    private final TaskTagService taskTagService;
+    private final TaskTreeService taskTreeService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final int maxItems;
+    private final int chunkSize;
+
+    @Autowired
+    public TaskBatchService(TaskRepository taskRepository, TaskAssembler taskAssembler,
+                            TaskOrderService taskOrderService, TaskSearchService taskSearchService,
+                            TaskDeletionService taskDeletionService, TaskTagService taskTagService,
+                            TaskTreeService taskTreeService, EntityManager entityManager, Validator validator,
+                            @Value("${tasks.batch.max-items:5000}") int maxItems,
+                            @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.taskAssembler = taskAssembler;
+        this.taskOrderService = taskOrderService;
+        this.taskSearchService = taskSearchService;
+        this.taskDeletionService = taskDeletionService;
+        this.taskTagService = taskTagService;
+        this.taskTreeService = taskTreeService;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.maxItems = maxItems;
+        this.chunkSize = chunkSize;
+    }
+
+    public BatchResultDTO createTasks(UUID userId, List<CreateTaskDTO> createTaskDTOs) {
+        log.debug("Creando lote de {} tareas para usuario {}", sizeOf(createTaskDTOs), userId);
+        checkBatchSize(createTaskDTOs);
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[createTaskDTOs.size()];
+        List<Integer> positions = new ArrayList<>();
+        List<Task> tasks = new ArrayList<>();
+
+        for (int i = 0; i < createTaskDTOs.size(); i++) {
+            CreateTaskDTO createTaskDTO = createTaskDTOs.get(i);
+            if (createTaskDTO == null) {
+                results[i] = BatchItemResultDTO.failed(i, null, "Elemento vacío");
+                continue;
+            }
+            createTaskDTO.setUserId(userId); // El dueño siempre es el del path
+            String error = validateCreate(createTaskDTO);
+            if (error != null) {
+                results[i] = BatchItemResultDTO.failed(i, null, error);
+                continue;
+            }
+            positions.add(i);
+            tasks.add(taskAssembler.fromCreateDTO(createTaskDTO));
+        }
+
+        assignOrderIndexes(userId, tasks);
+
+        for (List<Task> chunk : partition(tasks)) {
+            taskRepository.saveAll(chunk);
+            taskSearchService.indexAll(chunk);
+            taskTagService.indexAll(chunk);
+            TaskRollupChanges rollupChanges = new TaskRollupChanges();
+            chunk.forEach(rollupChanges::add);
+            taskTreeService.applyRollupChanges(userId, rollupChanges);
+            flushAndClear();
+        }
+
+        for (int k = 0; k < tasks.size(); k++) {
+            Task task = tasks.get(k);
+            int position = positions.get(k);
+            results[position] = BatchItemResultDTO.ok(position, task.getId(), taskAssembler.toDTO(task));
+        }
+
+        BatchResultDTO result = BatchResultDTO.of(Arrays.asList(results));
+        log.info("Lote de creación del usuario {}: {} creadas, {} con error", userId, result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    public BatchResultDTO updateTasks(UUID userId, List<BatchUpdateTaskDTO> updateTaskDTOs) {
+        log.debug("Actualizando lote de {} tareas del usuario {}", sizeOf(updateTaskDTOs), userId);
+        return applyToOwnedTasks(userId, updateTaskDTOs, BatchUpdateTaskDTO::getTaskId,
+                taskAssembler::updateFromDTO, "actualizar", true);
+    }
+
+    public BatchResultDTO updateTasksStatus(UUID userId, List<BatchTaskStatusDTO> statusDTOs) {
+        log.debug("Cambiando estado de un lote de {} tareas del usuario {}", sizeOf(statusDTOs), userId);
+        return applyToOwnedTasks(userId, statusDTOs, BatchTaskStatusDTO::getTaskId, (task, statusDTO) -> {
+            task.setStatus(statusDTO.getStatus());
+            if (statusDTO.getStatus() == TaskStatus.COMPLETED && task.getCompletedDate() == null) {
+                task.setCompletedDate(LocalDateTime.now());
+            }
+        }, "actualizar", false);
+    }
+
+    /**
+     * Elimina las tareas indicadas y todas sus subtareas con borrados en bloque,
+     * sin cargar ni borrar las entidades una a una.
+     */
+    public BatchResultDTO deleteTasks(UUID userId, List<UUID> taskIds) {
+        log.debug("Eliminando lote de {} tareas del usuario {}", sizeOf(taskIds), userId);
+        checkBatchSize(taskIds);
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[taskIds.size()];
+        for (List<Integer> chunk : partition(positionsOf(taskIds))) {
+            Map<UUID, Task> tasksById = loadTasks(chunk.stream().map(taskIds::get).toList());
+            Set<UUID> deletable = new LinkedHashSet<>();
+
+            for (int position : chunk) {
+                UUID taskId = taskIds.get(position);
+                String error = checkOwnership(taskId, tasksById, userId, "eliminar");
+                if (error != null) {
+                    results[position] = BatchItemResultDTO.failed(position, taskId, error);
+                    continue;
+                }
+                deletable.add(taskId);
+                results[position] = BatchItemResultDTO.ok(position, taskId, null);
+            }
+
+            // Con todo su árbol de subtareas
+            taskDeletionService.deleteSubtrees(userId, deletable);
+            entityManager.clear();
+        }
+
+        BatchResultDTO result = BatchResultDTO.of(Arrays.asList(results));
+        log.info("Lote de eliminación del usuario {}: {} eliminadas, {} con error", userId, result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private <T> BatchResultDTO applyToOwnedTasks(UUID userId, List<T> items, Function<T, UUID> taskIdOf,
+                                                 BiConsumer<Task, T> mutation, String action,
+                                                 boolean contentChanged) {
+        checkBatchSize(items);
+
+        BatchItemResultDTO[] results = new BatchItemResultDTO[items.size()];
+        for (List<Integer> chunk : partition(positionsOf(items))) {
+            List<UUID> chunkIds = chunk.stream()
+                    .map(items::get)
+                    .filter(Objects::nonNull)
+                    .map(taskIdOf)
+                    .toList();
+            Map<UUID, Task> tasksById = loadTasks(chunkIds);
+
+            List<Integer> applied = new ArrayList<>();
+            TaskRollupChanges rollupChanges = new TaskRollupChanges();
+            for (int position : chunk) {
+                T item = items.get(position);
+                if (item == null) {
+                    results[position] = BatchItemResultDTO.failed(position, null, "Elemento vacío");
+                    continue;
+                }
+                UUID taskId = taskIdOf.apply(item);
+                String error = validate(item);
+                if (error == null) {
+                    error = checkOwnership(taskId, tasksById, userId, action);
+                }
+                if (error == null && item instanceof UpdateTaskDTO update) {
+                    error = checkVersion(tasksById.get(taskId), update.getVersion());
+                    if (error == null) {
+                        error = checkNewParent(tasksById.get(taskId), update.getParentTaskId());
+                    }
+                }
+                if (error != null) {
+                    results[position] = BatchItemResultDTO.failed(position, taskId, error);
+                    continue;
+                }
+                Task task = tasksById.get(taskId);
+                rollupChanges.remove(task);
+                mutation.accept(task, item);
+                rollupChanges.add(task);
+                applied.add(position);
+            }
+
+            // Un solo flush: los UPDATE del bloque salen agrupados en un envío JDBC
+            Set<Task> changed = applied.stream()
+                    .map(position -> tasksById.get(taskIdOf.apply(items.get(position))))
+                    .collect(Collectors.toCollection(LinkedHashSet::new));
+            // Un cambio de estado no altera los textos ni las etiquetas: no hay que reindexar
+            if (contentChanged) {
+                taskSearchService.indexAll(changed);
+                taskTagService.indexAll(changed);
+            }
+            entityManager.flush();
+            taskTreeService.applyRollupChanges(userId, rollupChanges);
+            for (int position : applied) {
+                UUID taskId = taskIdOf.apply(items.get(position));
+                results[position] = BatchItemResultDTO.ok(position, taskId, taskAssembler.toDTO(tasksById.get(taskId)));
+            }
+            entityManager.clear();
+        }
+
+        BatchResultDTO result = BatchResultDTO.of(Arrays.asList(results));
+        log.info("Lote para {} tareas del usuario {}: {} correctas, {} con error", action, userId, result.getSucceeded(), result.getFailed());
+        return result;
+    }
+
+    // Las tareas sin orderIndex reciben índices de un único bloque reservado en la secuencia
+    private void assignOrderIndexes(UUID userId, List<Task> tasks) {
+        List<Task> unordered = tasks.stream()
+                .filter(task -> task.getOrderIndex() == null || task.getOrderIndex() == 0)
+                .toList();
+        if (unordered.isEmpty()) {
+            return;
+        }
+        int next = taskOrderService.allocateOrderIndexes(userId, unordered.size());
+        for (Task task : unordered) {
+            task.setOrderIndex(next);
+            next += TaskOrderService.ORDER_INDEX_STEP;
+        }
+    }
+
+    private Map<UUID, Task> loadTasks(Collection<UUID> taskIds) {
+        List<UUID> ids = taskIds.stream().filter(Objects::nonNull).distinct().toList();
+        if (ids.isEmpty()) {
+            return Map.of();
+        }
+        return taskRepository.findAllById(ids).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+    }
+
+    private String checkOwnership(UUID taskId, Map<UUID, Task> tasksById, UUID userId, String action) {
+        if (taskId == null) {
+            return "El ID de la tarea es requerido";
+        }
+        Task task = tasksById.get(taskId);
+        if (task == null) {
+            return "Tarea no encontrada con ID: " + taskId;
+        }
+        if (!task.getUserId().equals(userId)) {
+            return "No tienes permiso para " + action + " esta tarea";
+        }
+        return null;
+    }
+
+    // Versión leída por el cliente; las escrituras concurrentes durante el lote las detecta @Version al hacer flush
+    private static String checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            return "La tarea ha cambiado (versión " + task.getVersion() + ", se esperaba " + expectedVersion + ")";
+        }
+        return null;
+    }
+
+    private String checkNewParent(Task task, UUID newParentId) {
+        if (newParentId != null && !newParentId.equals(task.getParentTaskId())
+                && taskTreeService.wouldCreateCycle(task.getUserId(), task.getId(), newParentId)) {
+            return "Una tarea no puede ser subtarea de sí misma ni de sus subtareas";
+        }
+        return null;
+    }
+
+    private String validateCreate(CreateTaskDTO createTaskDTO) {
+        String error = validate(createTaskDTO);
+        if (error != null) {
+            return error;
+        }
+        try {
+            TaskService.validateCreateTaskDTO(createTaskDTO);
+            return null;
+        } catch (InvalidTaskDataException e) {
+            return e.getMessage();
+        }
+    }
+
+    private String validate(Object item) {
+        Set<ConstraintViolation<Object>> violations = validator.validate(item);
+        if (violations.isEmpty()) {
+            return null;
+        }
+        return violations.stream()
+                .map(ConstraintViolation::getMessage)
+                .sorted()
+                .collect(Collectors.joining("; "));
+    }
+
+    private void checkBatchSize(List<?> items) {
+        if (items == null || items.isEmpty()) {
+            throw new InvalidTaskDataException("El lote no puede estar vacío");
+        }
+        if (items.size() > maxItems) {
+            throw new InvalidTaskDataException("El lote supera el máximo de " + maxItems + " tareas");
+        }
+    }
+
+    private void flushAndClear() {
+        entityManager.flush();
+        entityManager.clear();
+    }
+
+    private List<Integer> positionsOf(List<?> items) {
+        List<Integer> positions = new ArrayList<>(items.size());
+        for (int i = 0; i < items.size(); i++) {
+            positions.add(i);
+        }
+        return positions;
+    }
+
+    private <T> List<List<T>> partition(List<T> items) {
+        List<List<T>> chunks = new ArrayList<>();
+        for (int from = 0; from < items.size(); from += chunkSize) {
+            chunks.add(items.subList(from, Math.min(from + chunkSize, items.size())));
+        }
+        return chunks;
+    }
+
+    private static int sizeOf(List<?> items) {
+        return items == null ? 0 : items.size();
+    }
+}
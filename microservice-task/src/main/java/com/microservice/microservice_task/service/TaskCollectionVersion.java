@@ -0,0 +1,46 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.common.web.CollectionVersionSource;
+import com.microservice.microservice_task.repository.TaskCollectionVersionProjection;
+import com.microservice.microservice_task.repository.TaskRepository;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+
+/**
+ * Versión de las tareas de un usuario para los listados con ETag (ver TaskController).
+ *
+ * Se compone del número de tareas, la última modificación y la última vez que una pasó a vencida:
+ * un alta o un cambio mueven la fecha, una baja el número. Incluye además la hora actual porque
+ * daysUntilDue se calcula al responder; así un listado guardado por el cliente se renueva como
+ * mucho cada hora aunque nadie toque las tareas.
+ */
+@Service
+@Transactional(readOnly = true)
+public class TaskCollectionVersion implements CollectionVersionSource {
+
+    public static final String COLLECTION = "tasks";
+
+    private final TaskRepository taskRepository;
+
+    @Autowired
+    public TaskCollectionVersion(TaskRepository taskRepository) {
+        this.taskRepository = taskRepository;
+    }
+
+    @Override
+    public String collection() {
+        return COLLECTION;
+    }
+
+    @Override
+    public String currentVersion(UUID userId) {
+        TaskCollectionVersionProjection version = taskRepository.getCollectionVersion(userId);
+        return version.getCount() + "|" + version.getLastUpdated() + "|" + version.getLastOverdue()
+                + "|" + LocalDateTime.now().truncatedTo(ChronoUnit.HOURS);
+    }
+}
@@ -0,0 +1,174 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.repository.TaskArchiveRepository;
+import com.microservice.microservice_task.repository.TaskOccurrenceExceptionRepository;
+import com.microservice.microservice_task.repository.TaskOrderSequenceRepository;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.repository.TaskRollupProjection;
+import com.microservice.microservice_task.repository.TaskSearchTermRepository;
+import com.microservice.microservice_task.repository.TaskTagRepository;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.*;
+
+/**
+ * Borrados en bloque de tareas con todos sus descendientes, sin cargar las entidades.
+ *
+ * El árbol de subtareas se resuelve con una CTE recursiva (cualquier profundidad) y las filas
+ * se eliminan con DELETE ... WHERE id IN (...) por bloques. Al eliminar una cuenta, cada bloque
+ * se confirma en su propia transacción para no mantener bloqueos largos sobre la tabla tasks.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskDeletionService {
+
+    // Profundidad máxima recorrida: corta la recursión si hay un ciclo en parent_task_id
+    // (por debajo del límite por defecto de MySQL, cte_max_recursion_depth = 1000)
+    static final int MAX_TREE_DEPTH = 100;
+
+    private static final String SUBTREE_SQL =
+            "WITH RECURSIVE subtree (id, depth) AS (" +
+            " SELECT t.id, 0 FROM tasks t WHERE t.user_id = :userId AND t.id IN (:rootIds)" +
+            " UNION ALL" +
+            " SELECT c.id, s.depth + 1 FROM tasks c JOIN subtree s ON c.parent_task_id = s.id" +
+            " WHERE c.user_id = :userId AND s.depth < " + MAX_TREE_DEPTH +
+            ") SELECT DISTINCT id FROM subtree";
+
+    private final TaskRepository taskRepository;
+    private final TaskArchiveRepository archiveRepository;
+    private final TaskSearchTermRepository searchTermRepository;
+    private final TaskTagRepository tagRepository;
+    private final TaskOccurrenceExceptionRepository occurrenceExceptionRepository;
+    private final TaskOrderSequenceRepository sequenceRepository;
+    private final TaskTreeService taskTreeService;
+    private final TaskChangeTracker changeTracker;
+    private final EntityManager entityManager;
+    private final TransactionTemplate newTransaction;
+    private final int chunkSize;
+
+    @Autowired
+    public TaskDeletionService(TaskRepository taskRepository,
+                               TaskArchiveRepository archiveRepository,
+                               TaskSearchTermRepository searchTermRepository,
+                               TaskTagRepository tagRepository,
+                               TaskOccurrenceExceptionRepository occurrenceExceptionRepository,
+                               TaskOrderSequenceRepository sequenceRepository,
+                               TaskTreeService taskTreeService,
+                               TaskChangeTracker changeTracker,
+                               EntityManager entityManager,
+                               PlatformTransactionManager transactionManager,
+                               @Value("${tasks.delete.chunk-size:500}") int chunkSize) {
+        this.taskRepository = taskRepository;
+        this.archiveRepository = archiveRepository;
+        this.searchTermRepository = searchTermRepository;
+        this.tagRepository = tagRepository;
+        this.occurrenceExceptionRepository = occurrenceExceptionRepository;
+        this.sequenceRepository = sequenceRepository;
+        this.taskTreeService = taskTreeService;
+        this.changeTracker = changeTracker;
+        this.entityManager = entityManager;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Devuelve los ids de las tareas indicadas y de todos sus descendientes del mismo usuario.
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public Set<UUID> findSubtreeIds(UUID userId, Collection<UUID> rootIds) {
+        if (rootIds.isEmpty()) {
+            return Set.of();
+        }
+        List<UUID> ids = entityManager.createNativeQuery(SUBTREE_SQL, UUID.class)
+                .setParameter("userId", userId)
+                .setParameter("rootIds", rootIds)
+                .getResultList();
+        return new LinkedHashSet<>(ids);
+    }
+
+    /**
+     * Elimina las tareas indicadas junto con todo su árbol de subtareas, sus términos de búsqueda, etiquetas
+     * y excepciones de ocurrencias.
+     * Devuelve cuántas tareas se eliminaron.
+     */
+    public int deleteSubtrees(UUID userId, Collection<UUID> rootIds) {
+        List<UUID> ids = new ArrayList<>(findSubtreeIds(userId, rootIds));
+        subtractFromAncestors(userId, rootIds, ids);
+        for (int from = 0; from < ids.size(); from += chunkSize) {
+            deleteChunk(userId, ids.subList(from, Math.min(from + chunkSize, ids.size())));
+        }
+        log.debug("Eliminadas {} tareas (con subtareas) del usuario {}", ids.size(), userId);
+        return ids.size();
+    }
+
+    /**
+     * Elimina todas las tareas del usuario (también las archivadas) por bloques, cada uno en una transacción corta.
+     * Debe llamarse fuera de una transacción para que los bloques se confirmen por separado.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public long deleteAllForUser(UUID userId) {
+        long deleted = 0;
+        int chunkDeleted;
+        do {
+            chunkDeleted = newTransaction.execute(status -> {
+                List<UUID> ids = taskRepository.findIdsByUserId(userId, PageRequest.of(0, chunkSize));
+                deleteChunk(userId, ids);
+                return ids.size();
+            });
+            deleted += chunkDeleted;
+        } while (chunkDeleted == chunkSize);
+
+        newTransaction.executeWithoutResult(status -> {
+            // Términos, etiquetas y excepciones de ocurrencias huérfanos de tareas creadas durante el borrado
+            searchTermRepository.deleteByUserId(userId);
+            tagRepository.deleteByUserId(userId);
+            occurrenceExceptionRepository.deleteByUserId(userId);
+            sequenceRepository.deleteByUserId(userId);
+            // Las tareas archivadas también son del usuario
+            archiveRepository.deleteByUserId(userId);
+        });
+        log.info("Eliminadas {} tareas del usuario {} en bloques de {}", deleted, userId, chunkSize);
+        return deleted;
+    }
+
+    // Las raíces cuya madre sigue existiendo restan todo su árbol de los totales de sus antecesoras
+    private void subtractFromAncestors(UUID userId, Collection<UUID> rootIds, Collection<UUID> deletedIds) {
+        if (deletedIds.isEmpty()) {
+            return;
+        }
+        Set<UUID> deleted = new HashSet<>(deletedIds);
+        TaskRollupChanges rollupChanges = new TaskRollupChanges();
+        for (TaskRollupProjection root : taskRepository.findRollupsByUserIdAndIdInAndParentTaskIdIsNotNull(userId, rootIds)) {
+            if (!deleted.contains(root.getParentTaskId())) {
+                rollupChanges.remove(root);
+            }
+        }
+        taskTreeService.applyRollupChanges(userId, rollupChanges);
+    }
+
+    private void deleteChunk(UUID userId, List<UUID> ids) {
+        if (ids.isEmpty()) {
+            return;
+        }
+        searchTermRepository.deleteByTaskIdIn(ids);
+        tagRepository.deleteByTaskIdIn(ids);
+        occurrenceExceptionRepository.deleteByTaskIdIn(ids);
+        taskRepository.deleteAllByIdInBatch(ids);
+        // El DELETE en bloque no pasa por los listeners de Task
+        changeTracker.recordDeletions(userId, ids);
+    }
+}
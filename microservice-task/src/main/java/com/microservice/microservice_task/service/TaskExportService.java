@@ -0,0 +1,100 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskCsvMapper;
+import com.microservice.microservice_task.assembler.TaskJsonWriter;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.dto.TaskFileFormat;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.BufferedWriter;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.Iterator;
+import java.util.UUID;
+import java.util.stream.Stream;
+
+/**
+ * Volcado de listas grandes de tareas directamente a la respuesta (lista JSON y exportación NDJSON/CSV).
+ *
+ * Las filas se leen con un cursor del servidor y cada tarea se escribe en el {@code JsonGenerator}
+ * y se saca del contexto de persistencia antes de leer la siguiente, de modo que la memoria usada
+ * no depende del número de tareas del usuario.
+ */
+@Service
+@Transactional(readOnly = true)
+@Slf4j
+public class TaskExportService {
+
+    private final TaskRepository taskRepository;
+    private final TaskJsonWriter taskJsonWriter;
+    private final TaskCsvMapper taskCsvMapper;
+    private final EntityManager entityManager;
+    private final UserTimeZoneCache userTimeZones;
+
+    @Autowired
+    public TaskExportService(TaskRepository taskRepository, TaskJsonWriter taskJsonWriter,
+                             TaskCsvMapper taskCsvMapper, EntityManager entityManager,
+                             UserTimeZoneCache userTimeZones) {
+        this.taskRepository = taskRepository;
+        this.taskJsonWriter = taskJsonWriter;
+        this.taskCsvMapper = taskCsvMapper;
+        this.entityManager = entityManager;
+        this.userTimeZones = userTimeZones;
+    }
+
+    /**
+     * Escribe todas las tareas del usuario como array JSON (mismo formato que {@code List<TaskDTO>})
+     * en el orden de la lista (orderIndex, createdAt). Devuelve cuántas tareas se escribieron.
+     */
+    public long writeTasksAsJson(UUID userId, OutputStream out) throws IOException {
+        // Un único instante para los campos calculados de toda la respuesta, en la hora local del usuario
+        LocalDateTime now = userTimeZones.now(userId);
+        try (Stream<Task> tasks = taskRepository.streamByUserId(userId)) {
+            long written = taskJsonWriter.writeArray(tasks.iterator(), out, now, entityManager::detach);
+            log.debug("Volcadas {} tareas del usuario {}", written, userId);
+            return written;
+        }
+    }
+
+    /**
+     * Exporta todas las tareas del usuario en el formato indicado, una por línea/fila.
+     * Devuelve cuántas tareas se escribieron.
+     */
+    public long exportTasks(UUID userId, TaskFileFormat format, OutputStream out) throws IOException {
+        LocalDateTime now = userTimeZones.now(userId);
+        long written;
+        try (Stream<Task> tasks = taskRepository.streamByUserId(userId)) {
+            if (format == TaskFileFormat.CSV) {
+                written = writeCsv(tasks.iterator(), out);
+            } else {
+                written = taskJsonWriter.writeLines(tasks.iterator(), out, now, entityManager::detach);
+            }
+        }
+        log.info("Exportadas {} tareas del usuario {} en formato {}", written, userId, format);
+        return written;
+    }
+
+    private long writeCsv(Iterator<Task> tasks, OutputStream out) throws IOException {
+        long written = 0;
+        Writer writer = new BufferedWriter(new OutputStreamWriter(out, StandardCharsets.UTF_8));
+        taskCsvMapper.writeHeader(writer);
+        while (tasks.hasNext()) {
+            Task task = tasks.next();
+            taskCsvMapper.writeRow(writer, task);
+            entityManager.detach(task);
+            written++;
+        }
+        writer.flush();
+        return written;
+    }
+}
@@ -0,0 +1,311 @@
+package com.microservice.microservice_task.service;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.DeserializationFeature;
+import com.fasterxml.jackson.databind.ObjectReader;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.microservice.microservice_task.assembler.CsvRecordReader;
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.assembler.TaskCsvMapper;
+import com.microservice.microservice_task.dto.ImportLineErrorDTO;
+import com.microservice.microservice_task.dto.ImportResultDTO;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.dto.TaskFileFormat;
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.dao.DataAccessException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Importación de tareas desde NDJSON o CSV (el formato de la exportación).
+ *
+ * El fichero se lee línea a línea / registro a registro y las tareas válidas se insertan en bloques
+ * del tamaño del lote JDBC, cada bloque en su propia transacción y con el contexto de persistencia
+ * vacío al terminarlo. Lo único que crece con el fichero es la tabla id exportado -> id nuevo, necesaria
+ * para reconstruir las subtareas; los errores por línea se informan hasta un máximo configurable.
+ *
+ * Las tareas reciben id, orderIndex (en el orden del fichero) y fechas de auditoría nuevos.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskImportService {
+
+    private final ObjectReader lineReader = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(DeserializationFeature.FAIL_ON_UNKNOWN_PROPERTIES)
+            .build()
+            .readerFor(TaskDTO.class);
+
+    private final TaskRepository taskRepository;
+    private final TaskAssembler taskAssembler;
+    private final TaskCsvMapper taskCsvMapper;
+    private final TaskOrderService taskOrderService;
+    private final TaskSearchService taskSearchService;
+    private final TaskTagService taskTagService;
+    private final TaskTreeService taskTreeService;
+    private final EntityManager entityManager;
+    private final Validator validator;
+    private final TransactionTemplate newTransaction;
+    private final int chunkSize;
+    private final int maxReportedErrors;
+
+    @Autowired
+    public TaskImportService(TaskRepository taskRepository, TaskAssembler taskAssembler,
+                             TaskCsvMapper taskCsvMapper, TaskOrderService taskOrderService,
+                             TaskSearchService taskSearchService, TaskTagService taskTagService,
+                             TaskTreeService taskTreeService, EntityManager entityManager, Validator validator,
+                             PlatformTransactionManager transactionManager,
+                             @Value("${spring.jpa.properties.hibernate.jdbc.batch_size:50}") int chunkSize,
+                             @Value("${tasks.import.max-reported-errors:1000}") int maxReportedErrors) {
+        this.taskRepository = taskRepository;
+        this.taskAssembler = taskAssembler;
+        this.taskCsvMapper = taskCsvMapper;
+        this.taskOrderService = taskOrderService;
+        this.taskSearchService = taskSearchService;
+        this.taskTagService = taskTagService;
+        this.taskTreeService = taskTreeService;
+        this.entityManager = entityManager;
+        this.validator = validator;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+        this.chunkSize = chunkSize;
+        this.maxReportedErrors = maxReportedErrors;
+    }
+
+    /**
+     * Importa las tareas del fichero para el usuario. Las líneas con error se saltan y se informan;
+     * los bloques ya insertados quedan confirmados aunque falle uno posterior.
+     */
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    public ImportResultDTO importTasks(UUID userId, TaskFileFormat format, InputStream in) throws IOException {
+        ImportRun run = new ImportRun(userId);
+        BufferedReader reader = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8));
+        if (format == TaskFileFormat.CSV) {
+            readCsv(reader, run);
+        } else {
+            readNdjson(reader, run);
+        }
+        run.finish();
+
+        ImportResultDTO result = new ImportResultDTO(run.total, run.imported, run.failed, run.errors,
+                run.failed > run.errors.size());
+        log.info("Importación del usuario {} ({}): {} tareas, {} importadas, {} con error",
+                userId, format, result.getTotal(), result.getImported(), result.getFailed());
+        return result;
+    }
+
+    private void readNdjson(BufferedReader reader, ImportRun run) throws IOException {
+        String line;
+        long lineNumber = 0;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            TaskDTO taskDTO;
+            try {
+                taskDTO = lineReader.readValue(line);
+            } catch (JsonProcessingException e) {
+                run.fail(lineNumber, "JSON inválido: " + e.getOriginalMessage());
+                continue;
+            }
+            run.add(lineNumber, taskDTO);
+        }
+    }
+
+    private void readCsv(BufferedReader reader, ImportRun run) throws IOException {
+        CsvRecordReader csv = new CsvRecordReader(reader);
+        List<String> headerRecord = csv.nextRecord();
+        if (headerRecord == null) {
+            return;
+        }
+        Map<String, Integer> header = taskCsvMapper.readHeader(headerRecord);
+        if (!header.containsKey("title")) {
+            throw new InvalidTaskDataException("La cabecera CSV debe incluir la columna title");
+        }
+        List<String> values;
+        while ((values = csv.nextRecord()) != null) {
+            TaskDTO taskDTO;
+            try {
+                taskDTO = taskCsvMapper.fromRecord(header, values);
+            } catch (IllegalArgumentException e) {
+                run.fail(csv.getRecordLine(), e.getMessage());
+                continue;
+            }
+            run.add(csv.getRecordLine(), taskDTO);
+        }
+    }
+
+    private String validate(Task task) {
+        Set<ConstraintViolation<Task>> violations = validator.validate(task);
+        if (!violations.isEmpty()) {
+            return violations.stream()
+                    .map(ConstraintViolation::getMessage)
+                    .sorted()
+                    .collect(Collectors.joining("; "));
+        }
+        try {
+            TaskService.validateTask(task);
+            return null;
+        } catch (InvalidTaskDataException e) {
+            return e.getMessage();
+        }
+    }
+
+    /**
+     * Estado de una importación: bloque pendiente de insertar, contadores, errores informados
+     * y correspondencia de ids para enlazar las subtareas.
+     */
+    private class ImportRun {
+        private final UUID userId;
+        private final List<PendingTask> chunk = new ArrayList<>();
+        private final Map<UUID, UUID> newIdsByFileId = new HashMap<>();
+        // Subtareas cuya tarea padre aparece más adelante en el fichero: id nuevo -> id del padre en el fichero
+        private final Map<UUID, UUID> unresolvedParents = new LinkedHashMap<>();
+        private final List<ImportLineErrorDTO> errors = new ArrayList<>();
+        private long total;
+        private long imported;
+        private long failed;
+
+        ImportRun(UUID userId) {
+            this.userId = userId;
+        }
+
+        void add(long line, TaskDTO taskDTO) {
+            total++;
+            Task task = taskAssembler.fromImportDTO(taskDTO, userId);
+            String error = validate(task);
+            if (error != null) {
+                recordError(line, error);
+                return;
+            }
+            chunk.add(new PendingTask(line, taskDTO.getId(), taskDTO.getParentTaskId(), task));
+            if (chunk.size() >= chunkSize) {
+                insertChunk();
+            }
+        }
+
+        void fail(long line, String error) {
+            total++;
+            recordError(line, error);
+        }
+
+        void finish() {
+            insertChunk();
+            linkRemainingParents();
+        }
+
+        private void recordError(long line, String error) {
+            failed++;
+            if (errors.size() < maxReportedErrors) {
+                errors.add(new ImportLineErrorDTO(line, error));
+            }
+        }
+
+        private void insertChunk() {
+            if (chunk.isEmpty()) {
+                return;
+            }
+            try {
+                newTransaction.executeWithoutResult(status -> {
+                    int orderIndex = taskOrderService.allocateOrderIndexes(userId, chunk.size());
+                    List<Task> tasks = new ArrayList<>(chunk.size());
+                    for (PendingTask pending : chunk) {
+                        pending.task.setOrderIndex(orderIndex);
+                        orderIndex += TaskOrderService.ORDER_INDEX_STEP;
+                        if (pending.fileParentId != null) {
+                            pending.task.setParentTaskId(newIdsByFileId.get(pending.fileParentId));
+                        }
+                        tasks.add(pending.task);
+                    }
+                    taskRepository.saveAll(tasks);
+                    taskSearchService.indexAll(tasks);
+                    taskTagService.indexAll(tasks);
+                    TaskRollupChanges rollupChanges = new TaskRollupChanges();
+                    tasks.forEach(rollupChanges::add);
+                    taskTreeService.applyRollupChanges(userId, rollupChanges);
+                    entityManager.flush();
+                    entityManager.clear();
+                });
+            } catch (DataAccessException e) {
+                log.warn("Error al guardar un bloque de la importación del usuario {}", userId, e);
+                for (PendingTask pending : chunk) {
+                    recordError(pending.line, "Error al guardar la tarea");
+                }
+                chunk.clear();
+                return;
+            }
+            for (PendingTask pending : chunk) {
+                imported++;
+                if (pending.fileId != null) {
+                    newIdsByFileId.put(pending.fileId, pending.task.getId());
+                }
+                if (pending.fileParentId != null && pending.task.getParentTaskId() == null) {
+                    unresolvedParents.put(pending.task.getId(), pending.fileParentId);
+                }
+            }
+            chunk.clear();
+        }
+
+        // Subtareas que aparecieron antes que su padre; si el padre no venía en el fichero quedan sin padre
+        private void linkRemainingParents() {
+            List<UUID> childIds = unresolvedParents.keySet().stream()
+                    .filter(childId -> newIdsByFileId.containsKey(unresolvedParents.get(childId)))
+                    .toList();
+            for (int from = 0; from < childIds.size(); from += chunkSize) {
+                List<UUID> ids = childIds.subList(from, Math.min(from + chunkSize, childIds.size()));
+                newTransaction.executeWithoutResult(status -> {
+                    // Cada hija llega ya con los totales de las subtareas que se le colgaron al importarlas
+                    TaskRollupChanges rollupChanges = new TaskRollupChanges();
+                    for (Task child : taskRepository.findAllById(ids)) {
+                        child.setParentTaskId(newIdsByFileId.get(unresolvedParents.get(child.getId())));
+                        rollupChanges.add(child);
+                    }
+                    entityManager.flush();
+                    taskTreeService.applyRollupChanges(userId, rollupChanges);
+                    entityManager.clear();
+                });
+            }
+            if (unresolvedParents.size() > childIds.size()) {
+                log.warn("Importación del usuario {}: {} subtareas sin su tarea padre en el fichero",
+                        userId, unresolvedParents.size() - childIds.size());
+            }
+        }
+    }
+
+    private static class PendingTask {
+        private final long line;
+        private final UUID fileId;
+        private final UUID fileParentId;
+        private final Task task;
+
+        PendingTask(long line, UUID fileId, UUID fileParentId, Task task) {
+            this.line = line;
+            this.fileId = fileId;
+            this.fileParentId = fileParentId;
+            this.task = task;
+        }
+    }
+}
@@ -0,0 +1,223 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+import com.microservice.microservice_task.exception.TaskNotFoundException;
+import com.microservice.microservice_task.exception.UnauthorizedTaskAccessException;
+import com.microservice.microservice_task.model.OccurrenceExceptionType;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskOccurrenceException;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskOccurrenceExceptionRepository;
+import com.microservice.microservice_task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.*;
+
+/**
+ * Ocurrencias de las tareas recurrentes.
+ *
+ * Las ocurrencias no se guardan: para una ventana de tiempo se cargan las series activas y las
+ * excepciones de esa ventana, y las fechas se generan bajo demanda con {@link RecurrenceCalculator}.
+ * Completar, omitir o mover una ocurrencia solo escribe (o actualiza) su fila de excepción,
+ * localizada por la clave única (task_id, occurrence_date): O(1) sea cual sea la longitud de la serie.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskOccurrenceService {
+
+    private final TaskRepository taskRepository;
+    private final TaskOccurrenceExceptionRepository exceptionRepository;
+    private final TaskAssembler taskAssembler;
+    private final UserTimeZoneCache userTimeZones;
+    private final Duration maxWindow;
+
+    @Autowired
+    public TaskOccurrenceService(TaskRepository taskRepository,
+                                 TaskOccurrenceExceptionRepository exceptionRepository,
+                                 TaskAssembler taskAssembler,
+                                 UserTimeZoneCache userTimeZones,
+                                 @Value("${tasks.occurrences.max-window-days:366}") int maxWindowDays) {
+        this.taskRepository = taskRepository;
+        this.exceptionRepository = exceptionRepository;
+        this.taskAssembler = taskAssembler;
+        this.userTimeZones = userTimeZones;
+        this.maxWindow = Duration.ofDays(maxWindowDays);
+    }
+
+    /**
+     * Tareas que vencen en la ventana [from, to): las no recurrentes más cada ocurrencia
+     * de las series recurrentes, ordenadas por fecha.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getTasksInWindow(UUID userId, LocalDateTime from, LocalDateTime to) {
+        checkWindow(from, to);
+        // Vencida y días restantes, en la hora local del usuario como due_date
+        LocalDateTime now = userTimeZones.now(userId);
+        List<TaskDTO> tasks = new ArrayList<>();
+        for (Task task : taskRepository.findSingleTasksDueBetween(userId, from, to)) {
+            tasks.add(taskAssembler.toDTO(task, now));
+        }
+        forEachOccurrence(userId, from, to, (task, occurrenceDate, exception) ->
+                tasks.add(taskAssembler.toOccurrenceDTO(task, occurrenceDate, exception, now)));
+        tasks.sort(Comparator.comparing(TaskDTO::getDueDate));
+        return tasks;
+    }
+
+    /**
+     * Número de ocurrencias (de series recurrentes) que caen en la ventana, sin construir los DTOs.
+     */
+    @Transactional(readOnly = true)
+    public long countOccurrencesInWindow(UUID userId, LocalDateTime from, LocalDateTime to) {
+        checkWindow(from, to);
+        long[] count = {0};
+        forEachOccurrence(userId, from, to, (task, occurrenceDate, exception) -> count[0]++);
+        return count[0];
+    }
+
+    public TaskDTO completeOccurrence(UUID taskId, UUID userId, LocalDateTime occurrenceDate) {
+        log.debug("Completando ocurrencia {} de la tarea {} del usuario {}", occurrenceDate, taskId, userId);
+        Task task = loadSeries(taskId, userId, occurrenceDate);
+        TaskOccurrenceException exception = findOrCreateException(task, occurrenceDate);
+        exception.setType(OccurrenceExceptionType.COMPLETED);
+        exception.setCompletedDate(LocalDateTime.now());
+        exceptionRepository.save(exception);
+        return taskAssembler.toOccurrenceDTO(task, occurrenceDate, exception, userTimeZones.now(userId));
+    }
+
+    public void skipOccurrence(UUID taskId, UUID userId, LocalDateTime occurrenceDate) {
+        log.debug("Omitiendo ocurrencia {} de la tarea {} del usuario {}", occurrenceDate, taskId, userId);
+        Task task = loadSeries(taskId, userId, occurrenceDate);
+        TaskOccurrenceException exception = findOrCreateException(task, occurrenceDate);
+        exception.setType(OccurrenceExceptionType.SKIPPED);
+        exception.setCompletedDate(null);
+        exceptionRepository.save(exception);
+    }
+
+    public TaskDTO moveOccurrence(UUID taskId, UUID userId, LocalDateTime occurrenceDate, LocalDateTime newDate) {
+        log.debug("Moviendo ocurrencia {} de la tarea {} a {}", occurrenceDate, taskId, newDate);
+        if (newDate == null) {
+            throw new InvalidTaskDataException("La nueva fecha de la ocurrencia es requerida");
+        }
+        Task task = loadSeries(taskId, userId, occurrenceDate);
+        TaskOccurrenceException exception = findOrCreateException(task, occurrenceDate);
+        // Una ocurrencia ya completada sigue completada en su nueva fecha
+        if (exception.getType() != OccurrenceExceptionType.COMPLETED) {
+            exception.setType(OccurrenceExceptionType.MOVED);
+        }
+        exception.setMovedTo(newDate);
+        exceptionRepository.save(exception);
+        return taskAssembler.toOccurrenceDTO(task, occurrenceDate, exception, userTimeZones.now(userId));
+    }
+
+    private void forEachOccurrence(UUID userId, LocalDateTime from, LocalDateTime to, OccurrenceVisitor visitor) {
+        List<Task> series = taskRepository.findRecurringSeriesInWindow(userId, from, to);
+        Map<UUID, Map<LocalDateTime, TaskOccurrenceException>> exceptionsByTask = new HashMap<>();
+        for (TaskOccurrenceException exception : exceptionRepository.findInWindow(userId, from, to)) {
+            exceptionsByTask.computeIfAbsent(exception.getTaskId(), id -> new HashMap<>())
+                    .put(exception.getOccurrenceDate(), exception);
+        }
+
+        Set<UUID> seriesIds = new HashSet<>();
+        for (Task task : series) {
+            seriesIds.add(task.getId());
+            Map<LocalDateTime, TaskOccurrenceException> exceptions = exceptionsByTask.getOrDefault(task.getId(), Map.of());
+            RecurrenceCalculator.occurrences(task.getDueDate(), task.getRecurrenceType(), task.getRecurrenceEndDate(), from, to)
+                    .forEach(occurrenceDate -> {
+                        TaskOccurrenceException exception = exceptions.get(occurrenceDate);
+                        if (isVisible(exception, from, to)) {
+                            visitor.visit(task, occurrenceDate, exception);
+                        }
+                    });
+        }
+
+        // Ocurrencias movidas a la ventana desde fuera (su serie puede no estar entre las cargadas)
+        List<TaskOccurrenceException> movedIn = exceptionsByTask.values().stream()
+                .flatMap(exceptions -> exceptions.values().stream())
+                .filter(exception -> exception.getOccurrenceDate().isBefore(from) || !exception.getOccurrenceDate().isBefore(to))
+                .filter(exception -> isVisible(exception, from, to))
+                .toList();
+        if (movedIn.isEmpty()) {
+            return;
+        }
+        Map<UUID, Task> tasksById = new HashMap<>();
+        series.forEach(task -> tasksById.put(task.getId(), task));
+        List<UUID> missing = movedIn.stream().map(TaskOccurrenceException::getTaskId)
+                .filter(id -> !seriesIds.contains(id)).distinct().toList();
+        taskRepository.findAllById(missing).forEach(task -> tasksById.put(task.getId(), task));
+        for (TaskOccurrenceException exception : movedIn) {
+            Task task = tasksById.get(exception.getTaskId());
+            if (task != null && isActiveSeries(task)) {
+                visitor.visit(task, exception.getOccurrenceDate(), exception);
+            }
+        }
+    }
+
+    // Mismas condiciones que TaskRepository.findRecurringSeriesInWindow
+    private boolean isActiveSeries(Task task) {
+        return Boolean.TRUE.equals(task.getIsRecurring()) && task.getRecurrenceType() != null
+                && task.getStatus() != TaskStatus.COMPLETED && task.getStatus() != TaskStatus.CANCELLED;
+    }
+
+    // Las omitidas no aparecen; las movidas solo donde caen ahora
+    private boolean isVisible(TaskOccurrenceException exception, LocalDateTime from, LocalDateTime to) {
+        if (exception == null) {
+            return true;
+        }
+        if (exception.getType() == OccurrenceExceptionType.SKIPPED) {
+            return false;
+        }
+        LocalDateTime scheduled = exception.getScheduledDate();
+        return !scheduled.isBefore(from) && scheduled.isBefore(to);
+    }
+
+    private Task loadSeries(UUID taskId, UUID userId, LocalDateTime occurrenceDate) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Tarea no encontrada con ID: " + taskId));
+        if (!task.getUserId().equals(userId)) {
+            throw new UnauthorizedTaskAccessException("No tienes permiso para actualizar esta tarea");
+        }
+        if (!Boolean.TRUE.equals(task.getIsRecurring()) || task.getRecurrenceType() == null) {
+            throw new InvalidTaskDataException("La tarea no es recurrente");
+        }
+        if (occurrenceDate == null || !RecurrenceCalculator.isOccurrence(task.getDueDate(), task.getRecurrenceType(),
+                task.getRecurrenceEndDate(), occurrenceDate)) {
+            throw new InvalidTaskDataException("La fecha no corresponde a una ocurrencia de la tarea");
+        }
+        return task;
+    }
+
+    private TaskOccurrenceException findOrCreateException(Task task, LocalDateTime occurrenceDate) {
+        return exceptionRepository.findByTaskIdAndOccurrenceDate(task.getId(), occurrenceDate)
+                .orElseGet(() -> {
+                    TaskOccurrenceException exception = new TaskOccurrenceException();
+                    exception.setTaskId(task.getId());
+                    exception.setUserId(task.getUserId());
+                    exception.setOccurrenceDate(occurrenceDate);
+                    return exception;
+                });
+    }
+
+    private void checkWindow(LocalDateTime from, LocalDateTime to) {
+        if (from == null || to == null || !from.isBefore(to)) {
+            throw new InvalidTaskDataException("El rango de fechas no es válido");
+        }
+        if (Duration.between(from, to).compareTo(maxWindow) > 0) {
+            throw new InvalidTaskDataException("El rango de fechas no puede superar " + maxWindow.toDays() + " días");
+        }
+    }
+
+    @FunctionalInterface
+    private interface OccurrenceVisitor {
+        void visit(Task task, LocalDateTime occurrenceDate, TaskOccurrenceException exception);
+    }
+}
@@ -0,0 +1,190 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+import com.microservice.microservice_task.exception.TaskNotFoundException;
+import com.microservice.microservice_task.exception.UnauthorizedTaskAccessException;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskOrderSequence;
+import com.microservice.microservice_task.repository.TaskOrderSequenceRepository;
+import com.microservice.microservice_task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.PlatformTransactionManager;
+import org.springframework.transaction.TransactionDefinition;
+import org.springframework.transaction.annotation.Transactional;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Asigna y mantiene el orderIndex de las tareas.
+ *
+ * Los índices se reparten con huecos de {@link #ORDER_INDEX_STEP}, de modo que mover una tarea
+ * entre dos vecinas solo actualiza su propia fila (se toma el punto medio del hueco). Cuando un
+ * hueco se agota se renumeran las tareas del usuario; si el hueco solo se está estrechando, el
+ * usuario queda marcado para que {@code TaskOrderRebalancer} lo renumere en segundo plano.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskOrderService {
+
+    public static final int ORDER_INDEX_STEP = 1024;
+
+    // Por debajo de este hueco se programa un rebalanceo en segundo plano
+    private static final int MIN_GAP_BEFORE_REBALANCE = 8;
+
+    private final TaskRepository taskRepository;
+    private final TaskOrderSequenceRepository sequenceRepository;
+    private final TransactionTemplate newTransaction;
+    private final Set<UUID> pendingRebalances = ConcurrentHashMap.newKeySet();
+
+    @Autowired
+    public TaskOrderService(TaskRepository taskRepository,
+                            TaskOrderSequenceRepository sequenceRepository,
+                            PlatformTransactionManager transactionManager) {
+        this.taskRepository = taskRepository;
+        this.sequenceRepository = sequenceRepository;
+        this.newTransaction = new TransactionTemplate(transactionManager);
+        this.newTransaction.setPropagationBehavior(TransactionDefinition.PROPAGATION_REQUIRES_NEW);
+    }
+
+    /**
+     * Reserva el siguiente orderIndex del usuario (al final de su lista) en O(1).
+     */
+    public Integer allocateNextOrderIndex(UUID userId) {
+        TaskOrderSequence sequence = lockSequence(userId);
+        Integer allocated = sequence.getNextIndex();
+        sequence.setNextIndex(allocated + ORDER_INDEX_STEP);
+        return allocated;
+    }
+
+    /**
+     * Reserva de una vez los orderIndex de {@code count} tareas nuevas (un solo bloqueo de la
+     * secuencia para todo el lote). Devuelve el primero; los siguientes van de ORDER_INDEX_STEP en ORDER_INDEX_STEP.
+     */
+    public Integer allocateOrderIndexes(UUID userId, int count) {
+        TaskOrderSequence sequence = lockSequence(userId);
+        Integer first = sequence.getNextIndex();
+        sequence.setNextIndex(first + count * ORDER_INDEX_STEP);
+        return first;
+    }
+
+    /**
+     * Mueve una tarea entre dos vecinas. Solo se actualiza la fila de la tarea movida,
+     * salvo que el hueco entre las vecinas esté agotado.
+     */
+    public Task moveTask(UUID taskId, UUID userId, UUID previousTaskId, UUID nextTaskId) {
+        if (taskId.equals(previousTaskId) || taskId.equals(nextTaskId)) {
+            throw new InvalidTaskDataException("Una tarea no puede ser vecina de sí misma");
+        }
+
+        Task task = findOwnedTask(taskId, userId);
+        Task previous = previousTaskId != null ? findOwnedTask(previousTaskId, userId) : null;
+        Task next = nextTaskId != null ? findOwnedTask(nextTaskId, userId) : null;
+
+        Integer newIndex = indexBetween(previous, next, userId);
+        if (newIndex == null) {
+            log.debug("Hueco agotado al mover la tarea {}, renumerando tareas del usuario {}", taskId, userId);
+            rebalance(userId);
+            newIndex = indexBetween(previous, next, userId);
+        }
+
+        task.setOrderIndex(newIndex);
+        log.info("Tarea {} movida a orderIndex {}", taskId, newIndex);
+        return task;
+    }
+
+    /**
+     * Renumera todas las tareas del usuario con huecos uniformes, respetando el orden actual.
+     */
+    public void rebalance(UUID userId) {
+        List<Task> tasks = taskRepository.findByUserIdOrderByOrderIndexAscCreatedAtDesc(userId);
+        int index = ORDER_INDEX_STEP;
+        for (Task task : tasks) {
+            task.setOrderIndex(index);
+            index += ORDER_INDEX_STEP;
+        }
+        lockSequence(userId).setNextIndex(index);
+        pendingRebalances.remove(userId);
+        log.info("Rebalanceadas {} tareas del usuario {}", tasks.size(), userId);
+    }
+
+    /**
+     * Devuelve y limpia los usuarios cuyos huecos se están agotando.
+     */
+    public List<UUID> drainPendingRebalances() {
+        List<UUID> drained = new ArrayList<>(pendingRebalances);
+        pendingRebalances.removeAll(drained);
+        return drained;
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private Integer indexBetween(Task previous, Task next, UUID userId) {
+        if (next == null) {
+            Integer allocated = allocateNextOrderIndex(userId);
+            if (previous != null && orderIndexOf(previous) >= allocated) {
+                return orderIndexOf(previous) + ORDER_INDEX_STEP;
+            }
+            return allocated;
+        }
+        if (previous == null) {
+            return orderIndexOf(next) - ORDER_INDEX_STEP;
+        }
+
+        long low = orderIndexOf(previous);
+        long high = orderIndexOf(next);
+        if (low > high) {
+            throw new InvalidTaskDataException("La tarea anterior debe ir antes que la siguiente");
+        }
+
+        long gap = high - low;
+        if (gap <= 1) {
+            return null;
+        }
+        if (gap < MIN_GAP_BEFORE_REBALANCE) {
+            pendingRebalances.add(userId);
+        }
+        return (int) (low + gap / 2);
+    }
+
+    private TaskOrderSequence lockSequence(UUID userId) {
+        if (!sequenceRepository.existsById(userId)) {
+            initializeSequence(userId);
+        }
+        return sequenceRepository.findForUpdateByUserId(userId)
+                .orElseThrow(() -> new IllegalStateException("No existe secuencia de orden para el usuario " + userId));
+    }
+
+    // Se crea en su propia transacción para que una creación concurrente solo provoque un reintento de lectura
+    private void initializeSequence(UUID userId) {
+        try {
+            newTransaction.executeWithoutResult(status -> {
+                int maxIndex = taskRepository.findMaxOrderIndexByUserId(userId).orElse(0);
+                sequenceRepository.saveAndFlush(new TaskOrderSequence(userId, maxIndex + ORDER_INDEX_STEP));
+            });
+        } catch (DataIntegrityViolationException e) {
+            log.debug("La secuencia de orden del usuario {} ya fue creada por otra transacción", userId);
+        }
+    }
+
+    private Task findOwnedTask(UUID taskId, UUID userId) {
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Tarea no encontrada con ID: " + taskId));
+        if (!task.getUserId().equals(userId)) {
+            throw new UnauthorizedTaskAccessException("No tienes permiso para reordenar esta tarea");
+        }
+        return task;
+    }
+
+    private static int orderIndexOf(Task task) {
+        return task.getOrderIndex() != null ? task.getOrderIndex() : 0;
+    }
+}
@@ -0,0 +1,243 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.dto.OverdueNotificationDTO;
+import com.microservice.microservice_task.dto.OverdueTaskDTO;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskJob;
+import com.microservice.microservice_task.model.TaskOverdueNotification;
+import com.microservice.microservice_task.repository.OverdueCandidateProjection;
+import com.microservice.microservice_task.repository.TaskJobRepository;
+import com.microservice.microservice_task.repository.TaskOverdueNotificationRepository;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Acceso a base de datos del detector de tareas vencidas: recorre el índice de due_at (la fecha límite
+ * como instante UTC, fijada al guardar con la zona del usuario) hacia delante desde el watermark guardado
+ * en task_jobs, marca cada tarea como vencida una sola vez (Task.overdueAt) y deja su aviso en
+ * task_overdue_notifications dentro de la misma transacción. Es el único que pone
+ * la marca; las escrituras de una tarea solo la quitan (ver Task.clearStaleOverdue).
+ * Cada método es una transacción corta; el bucle y el envío los hace TaskOverdueScanner.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskOverdueService {
+
+    public static final String OVERDUE_JOB = "overdue-tasks";
+
+    // Watermark sobre updatedAt de las tareas guardadas detrás del watermark de due_date
+    public static final String SAVED_JOB = "overdue-saved-tasks";
+
+    private final TaskRepository taskRepository;
+    private final TaskJobRepository jobRepository;
+    private final TaskOverdueNotificationRepository notificationRepository;
+    private final TaskChangeTracker changeTracker;
+    private final UserTimeZoneCache userTimeZones;
+
+    @Autowired
+    public TaskOverdueService(TaskRepository taskRepository,
+                              TaskJobRepository jobRepository,
+                              TaskOverdueNotificationRepository notificationRepository,
+                              TaskChangeTracker changeTracker,
+                              UserTimeZoneCache userTimeZones) {
+        this.taskRepository = taskRepository;
+        this.jobRepository = jobRepository;
+        this.notificationRepository = notificationRepository;
+        this.changeTracker = changeTracker;
+        this.userTimeZones = userTimeZones;
+    }
+
+    // ============= BLOQUEO DEL TRABAJO =============
+
+    /**
+     * Toma el trabajo para esta instancia hasta lockedUntil. La fila se crea sin watermark la primera vez.
+     */
+    public boolean tryLock(String owner, LocalDateTime now, LocalDateTime lockedUntil) {
+        if (!jobRepository.existsById(OVERDUE_JOB)) {
+            jobRepository.saveAndFlush(new TaskJob(OVERDUE_JOB, null, null, null));
+        }
+        return jobRepository.tryLock(OVERDUE_JOB, owner, now, lockedUntil) == 1;
+    }
+
+    public void unlock(String owner) {
+        jobRepository.unlock(OVERDUE_JOB, owner);
+    }
+
+    @Transactional(readOnly = true)
+    public Optional<LocalDateTime> getWatermark() {
+        return jobRepository.findById(OVERDUE_JOB).map(TaskJob::getWatermark);
+    }
+
+    // ============= DETECCIÓN =============
+
+    /**
+     * Marca como vencidas las tareas cuyo due_at ya pasó. until es el instante de corte en la hora del
+     * servidor; el watermark y due_at van en UTC, así que no hace falta la zona de cada usuario.
+     *
+     * Recorre por (dueAt, id) las tareas con dueAt en (watermark, until], como mucho batchSize por llamada
+     * y desde after (null para empezar): todas han vencido. Devuelve la última leída para seguir desde ella,
+     * o null al terminar; entonces el watermark avanza hasta until y detrás de él no queda ninguna pendiente.
+     *
+     * Solo se avisa de las que vencieron después de la pasada anterior (watermark de {@link #SAVED_JOB}):
+     * si ya habían vencido entonces y siguen sin marcar es que se guardaron después (creadas con una fecha
+     * pasada, reabiertas o con la fecha movida al pasado) y quien las guardó acaba de verlas.
+     *
+     * La primera vez (sin watermark) marca de golpe todo lo ya vencido, y la primera pasada no avisa de
+     * nada: son tareas anteriores al detector y avisar de todas a la vez no le sirve a nadie. Esa marca
+     * inicial no se numera para la sincronización incremental (ni invalida las copias de TaskCache, que
+     * se renuevan con el siguiente cambio del usuario o al caducar, tasks.cache.ttl-seconds).
+     */
+    public OverdueCandidateProjection flagNextBatch(OverdueCandidateProjection after, LocalDateTime until,
+                                                    LocalDateTime now, int batchSize) {
+        TaskJob job = jobRepository.findById(OVERDUE_JOB)
+                .orElseThrow(() -> new IllegalStateException("El trabajo " + OVERDUE_JOB + " no existe"));
+        LocalDateTime untilUtc = toUtc(until);
+        LocalDateTime watermark = job.getWatermark();
+        if (watermark == null) {
+            watermark = untilUtc;
+            int marked = taskRepository.markOverdueUntil(watermark, now);
+            jobRepository.updateWatermark(OVERDUE_JOB, watermark);
+            log.info("Detector de vencidas inicializado: {} tareas ya vencidas marcadas sin aviso", marked);
+        }
+
+        PageRequest page = PageRequest.of(0, batchSize);
+        List<OverdueCandidateProjection> overdue = after == null
+                ? taskRepository.findOverdueCandidates(watermark, untilUtc, page)
+                : taskRepository.findOverdueCandidatesAfter(after.getDueAt(), after.getId(), untilUtc, page);
+
+        LocalDateTime previousPass = jobRepository.findById(SAVED_JOB).map(TaskJob::getWatermark)
+                .map(TaskOverdueService::toUtc).orElse(null);
+        List<OverdueCandidateProjection> notified = previousPass == null ? List.of() : overdue.stream()
+                .filter(task -> task.getDueAt().isAfter(previousPass))
+                .toList();
+        markOverdue(overdue, notified, now);
+        if (!overdue.isEmpty()) {
+            log.debug("{} tareas marcadas como vencidas ({} con aviso)", overdue.size(), notified.size());
+        }
+
+        if (overdue.size() == batchSize) {
+            return overdue.get(overdue.size() - 1);
+        }
+        if (untilUtc.isAfter(watermark)) {
+            jobRepository.updateWatermark(OVERDUE_JOB, untilUtc);
+        }
+        return null;
+    }
+
+    /**
+     * Marca, sin aviso, las tareas guardadas ya vencidas después de que el watermark pasara por su fecha:
+     * creadas con una fecha pasada, reabiertas o con la fecha movida al pasado. Quien las guardó acaba
+     * de verlas. Recorre updatedAt en (watermark propio, until], como mucho batchSize por llamada, y
+     * devuelve true si quedan más. Las marcadas dejan de ser candidatas, así que no hace falta cursor.
+     */
+    public boolean flagSavedBehindWatermark(LocalDateTime until, LocalDateTime now, int batchSize) {
+        LocalDateTime dueWatermark = jobRepository.findById(OVERDUE_JOB).map(TaskJob::getWatermark).orElse(null);
+        TaskJob job = jobRepository.findById(SAVED_JOB).orElse(null);
+        if (dueWatermark == null || job == null || job.getWatermark() == null) {
+            // Hasta ahora cada escritura se marcaba sola: se empieza desde este momento
+            if (job == null) {
+                jobRepository.saveAndFlush(new TaskJob(SAVED_JOB, until, null, null));
+            } else {
+                jobRepository.updateWatermark(SAVED_JOB, until);
+            }
+            return false;
+        }
+        if (!job.getWatermark().isBefore(until)) {
+            return false;
+        }
+
+        List<OverdueCandidateProjection> candidates = taskRepository.findSavedBehindWatermark(
+                job.getWatermark(), until, dueWatermark, PageRequest.of(0, batchSize));
+        markOverdue(candidates, List.of(), now);
+        if (candidates.size() == batchSize) {
+            return true;
+        }
+        jobRepository.updateWatermark(SAVED_JOB, until);
+        if (!candidates.isEmpty()) {
+            log.debug("{} tareas guardadas ya vencidas marcadas sin aviso", candidates.size());
+        }
+        return false;
+    }
+
+    /**
+     * Fija due_at en una página de tareas guardadas antes de la columna, con la zona actual de su usuario.
+     * Devuelve cuántas se leyeron (0 cuando ya no queda ninguna).
+     */
+    public int fillMissingDueAt(int pageSize) {
+        List<OverdueCandidateProjection> page = taskRepository.findWithoutDueAt(PageRequest.of(0, pageSize));
+        Map<UUID, ZoneId> zones = new HashMap<>();
+        for (OverdueCandidateProjection task : page) {
+            ZoneId zone = zones.computeIfAbsent(task.getUserId(), userTimeZones::zoneOf);
+            taskRepository.updateDueAt(task.getId(), task.getDueDate(), Task.dueAtOf(task.getDueDate(), zone));
+        }
+        return page.size();
+    }
+
+    // ============= AVISOS =============
+
+    @Transactional(readOnly = true)
+    public List<TaskOverdueNotification> findPendingNotifications(int limit) {
+        return notificationRepository.findAllByOrderByCreatedAtAscUserIdAsc(PageRequest.of(0, limit));
+    }
+
+    /**
+     * Agrupa los avisos por usuario. Se descartan las tareas borradas o que dejaron de estar vencidas
+     * (completadas o aplazadas) desde que se marcaron.
+     */
+    @Transactional(readOnly = true)
+    public List<OverdueNotificationDTO> toNotifications(List<TaskOverdueNotification> pending) {
+        Set<UUID> stillOverdue = new HashSet<>(taskRepository.findOverdueIdsIn(
+                pending.stream().map(TaskOverdueNotification::getTaskId).collect(Collectors.toSet())));
+        Map<UUID, List<OverdueTaskDTO>> tasksByUser = new LinkedHashMap<>();
+        for (TaskOverdueNotification notification : pending) {
+            if (stillOverdue.contains(notification.getTaskId())) {
+                tasksByUser.computeIfAbsent(notification.getUserId(), userId -> new ArrayList<>())
+                        .add(new OverdueTaskDTO(notification.getTaskId(), notification.getTitle(),
+                                notification.getDueDate()));
+            }
+        }
+        return tasksByUser.entrySet().stream()
+                .map(entry -> new OverdueNotificationDTO(entry.getKey(), entry.getValue()))
+                .toList();
+    }
+
+    public void acknowledge(Collection<UUID> notificationIds) {
+        notificationRepository.deleteAllByIdInBatch(notificationIds);
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private void markOverdue(List<OverdueCandidateProjection> candidates,
+                             List<OverdueCandidateProjection> notified, LocalDateTime now) {
+        if (candidates.isEmpty()) {
+            return;
+        }
+        List<UUID> ids = candidates.stream().map(OverdueCandidateProjection::getId).toList();
+        taskRepository.markOverdue(ids, now);
+        candidates.stream().collect(Collectors.groupingBy(OverdueCandidateProjection::getUserId,
+                        Collectors.mapping(OverdueCandidateProjection::getId, Collectors.toList())))
+                .forEach(changeTracker::recordChanges);
+        notificationRepository.saveAll(notified.stream()
+                .map(task -> new TaskOverdueNotification(null, task.getUserId(), task.getId(),
+                        task.getTitle(), task.getDueDate(), now))
+                .toList());
+    }
+
+    // Hora del servidor en UTC, como due_at
+    private static LocalDateTime toUtc(LocalDateTime serverTime) {
+        return serverTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+}
@@ -0,0 +1,155 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.dto.TaskReminderDTO;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskReminderInstance;
+import com.microservice.microservice_task.model.TaskReminderLease;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.ReminderProjection;
+import com.microservice.microservice_task.repository.TaskReminderInstanceRepository;
+import com.microservice.microservice_task.repository.TaskReminderLeaseRepository;
+import com.microservice.microservice_task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.*;
+import java.util.stream.Collectors;
+
+/**
+ * Acceso a base de datos del planificador de recordatorios: arrendamientos de particiones,
+ * registro de instancias vivas y lectura de los recordatorios pendientes.
+ * Cada método es una transacción corta; el estado en memoria vive en el planificador.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskReminderService {
+
+    private final TaskRepository taskRepository;
+    private final TaskReminderLeaseRepository leaseRepository;
+    private final TaskReminderInstanceRepository instanceRepository;
+
+    @Autowired
+    public TaskReminderService(TaskRepository taskRepository,
+                               TaskReminderLeaseRepository leaseRepository,
+                               TaskReminderInstanceRepository instanceRepository) {
+        this.taskRepository = taskRepository;
+        this.leaseRepository = leaseRepository;
+        this.instanceRepository = instanceRepository;
+    }
+
+    // ============= PARTICIONES E INSTANCIAS =============
+
+    /**
+     * Crea las filas de arrendamiento que falten. Una partición nueva empieza con el watermark
+     * en el instante actual: no se envían recordatorios anteriores a la puesta en marcha.
+     */
+    public void createMissingLeases(LocalDateTime now) {
+        if (leaseRepository.count() >= Task.REMINDER_SHARDS) {
+            return;
+        }
+        Set<Integer> existing = leaseRepository.findAll().stream()
+                .map(TaskReminderLease::getShardId)
+                .collect(Collectors.toSet());
+        List<TaskReminderLease> missing = new ArrayList<>();
+        for (int shard = 0; shard < Task.REMINDER_SHARDS; shard++) {
+            if (!existing.contains(shard)) {
+                missing.add(new TaskReminderLease(shard, null, null, now));
+            }
+        }
+        leaseRepository.saveAll(missing);
+        log.info("Creadas {} particiones de recordatorios", missing.size());
+    }
+
+    /**
+     * Registra que la instancia sigue viva y devuelve cuántas instancias lo están
+     * (latido posterior a aliveSince). Las instancias caídas se borran.
+     */
+    public long heartbeat(String instanceId, LocalDateTime now, LocalDateTime aliveSince) {
+        instanceRepository.deleteStale(aliveSince);
+        instanceRepository.save(new TaskReminderInstance(instanceId, now));
+        return instanceRepository.countAlive(aliveSince);
+    }
+
+    public void unregister(String instanceId) {
+        instanceRepository.deleteById(instanceId);
+    }
+
+    /**
+     * Intenta tomar la partición. Devuelve su watermark si ahora es de esta instancia.
+     */
+    public Optional<LocalDateTime> acquire(int shard, String owner, LocalDateTime now, LocalDateTime leaseUntil) {
+        if (leaseRepository.tryAcquire(shard, owner, now, leaseUntil) == 0) {
+            return Optional.empty();
+        }
+        return leaseRepository.findById(shard).map(TaskReminderLease::getWatermark);
+    }
+
+    public boolean renew(int shard, String owner, LocalDateTime leaseUntil, LocalDateTime watermark) {
+        return leaseRepository.renew(shard, owner, leaseUntil, watermark) == 1;
+    }
+
+    public void release(int shard, String owner, LocalDateTime watermark) {
+        leaseRepository.release(shard, owner, watermark);
+    }
+
+    // ============= RECORDATORIOS =============
+
+    @Transactional(readOnly = true)
+    public List<ReminderProjection> findReminders(int shard, LocalDateTime after, LocalDateTime until, int limit) {
+        return taskRepository.findRemindersBetween(shard, after, until, PageRequest.of(0, limit));
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReminderProjection> findRemindersAt(int shard, LocalDateTime reminderDate) {
+        return taskRepository.findRemindersAt(shard, reminderDate);
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReminderProjection> findChangedReminders(int shard, LocalDateTime after, LocalDateTime until,
+                                                         LocalDateTime since) {
+        return taskRepository.findRemindersChangedSince(shard, after, until, since, Pageable.unpaged());
+    }
+
+    @Transactional(readOnly = true)
+    public List<ReminderProjection> findChangedReminders(int shard, LocalDateTime after, LocalDateTime until,
+                                                         LocalDateTime since, int limit) {
+        return taskRepository.findRemindersChangedSince(shard, after, until, since, PageRequest.of(0, limit));
+    }
+
+    /**
+     * Datos a enviar para los recordatorios indicados (id de tarea -> reminderDate con que se programó).
+     * Se descartan las tareas borradas, terminadas o cuyo recordatorio cambió desde que se cargó.
+     */
+    @Transactional(readOnly = true)
+    public List<TaskReminderDTO> findCurrentReminders(Map<UUID, LocalDateTime> reminderDates) {
+        List<TaskReminderDTO> reminders = new ArrayList<>(reminderDates.size());
+        for (Task task : taskRepository.findAllById(reminderDates.keySet())) {
+            if (task.getStatus() == TaskStatus.COMPLETED || task.getStatus() == TaskStatus.CANCELLED
+                    || !Objects.equals(task.getReminderDate(), reminderDates.get(task.getId()))) {
+                continue;
+            }
+            reminders.add(new TaskReminderDTO(task.getId(), task.getUserId(), task.getTitle(),
+                    task.getDueDate(), task.getReminderDate()));
+        }
+        return reminders;
+    }
+
+    /**
+     * Asigna reminder_shard a una página de tareas creadas antes de la columna.
+     * Devuelve cuántas se actualizaron (0 cuando ya no queda ninguna).
+     */
+    public int assignMissingShards(int pageSize) {
+        List<ReminderProjection> page = taskRepository.findWithoutReminderShard(PageRequest.of(0, pageSize));
+        Map<Integer, List<UUID>> idsByShard = page.stream().collect(Collectors.groupingBy(
+                task -> Task.reminderShardOf(task.getUserId()),
+                Collectors.mapping(ReminderProjection::getId, Collectors.toList())));
+        idsByShard.forEach((shard, ids) -> taskRepository.updateReminderShard(ids, shard));
+        return page.size();
+    }
+}
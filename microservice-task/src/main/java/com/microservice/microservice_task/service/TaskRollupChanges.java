@@ -0,0 +1,91 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRollupProjection;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.UUID;
+
+/**
+ * Diferencias en los totales de subtareas que deja una escritura, agrupadas por tarea padre.
+ *
+ * Cada tarea aporta a todas sus antecesoras 1 + sus subtareas, sus completadas (ella incluida) y sus
+ * minutos estimados. Antes de modificar una tarea se resta lo que aportaba y después se suma lo que
+ * aporta; si no cambia de padre las dos cosas se compensan en la misma entrada. Las aplica
+ * TaskTreeService.applyRollupChanges.
+ */
+public class TaskRollupChanges {
+
+    static final int TOTAL = 0;
+    static final int COMPLETED = 1;
+    static final int MINUTES = 2;
+
+    private final Map<UUID, long[]> deltasByParent = new LinkedHashMap<>();
+
+    // Al crearla o después de modificarla
+    void add(Task task) {
+        add(task.getParentTaskId(), contributionOf(task.getStatus(), task.getEstimatedDurationMinutes(),
+                task.getSubtaskCount(), task.getCompletedSubtaskCount(), task.getSubtreeEstimatedMinutes()), 1);
+    }
+
+    // Antes de modificarla
+    void remove(Task task) {
+        add(task.getParentTaskId(), contributionOf(task.getStatus(), task.getEstimatedDurationMinutes(),
+                task.getSubtaskCount(), task.getCompletedSubtaskCount(), task.getSubtreeEstimatedMinutes()), -1);
+    }
+
+    // Al borrarla con todo su árbol
+    void remove(TaskRollupProjection task) {
+        add(task.getParentTaskId(), contributionOf(task.getStatus(), task.getEstimatedDurationMinutes(),
+                task.getSubtaskCount(), task.getCompletedSubtaskCount(), task.getSubtreeEstimatedMinutes()), -1);
+    }
+
+    // Cambio de estado hecho con un UPDATE condicional, sin la entidad
+    void addCompleted(UUID parentTaskId, int completed) {
+        long[] delta = new long[3];
+        delta[COMPLETED] = completed;
+        add(parentTaskId, delta, 1);
+    }
+
+    /**
+     * Diferencias distintas de cero por tarea padre.
+     */
+    Map<UUID, long[]> deltasByParent() {
+        Map<UUID, long[]> nonZero = new LinkedHashMap<>();
+        deltasByParent.forEach((parentTaskId, delta) -> {
+            if (Arrays.stream(delta).anyMatch(value -> value != 0)) {
+                nonZero.put(parentTaskId, delta);
+            }
+        });
+        return nonZero;
+    }
+
+    /**
+     * Lo que una tarea con esos valores aporta a cada una de sus antecesoras: {total, completadas, minutos}.
+     */
+    static long[] contributionOf(TaskStatus status, Integer estimatedMinutes, Integer subtaskCount,
+                                 Integer completedSubtaskCount, Long subtreeEstimatedMinutes) {
+        return new long[]{
+                1 + valueOf(subtaskCount),
+                (status == TaskStatus.COMPLETED ? 1 : 0) + valueOf(completedSubtaskCount),
+                valueOf(estimatedMinutes) + (subtreeEstimatedMinutes == null ? 0 : subtreeEstimatedMinutes)
+        };
+    }
+
+    private void add(UUID parentTaskId, long[] contribution, int sign) {
+        if (parentTaskId == null) {
+            return;
+        }
+        long[] delta = deltasByParent.computeIfAbsent(parentTaskId, id -> new long[3]);
+        for (int i = 0; i < delta.length; i++) {
+            delta[i] += sign * contribution[i];
+        }
+    }
+
+    private static int valueOf(Integer value) {
+        return value == null ? 0 : value;
+    }
+}
@@ -0,0 +1,211 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskSearchTerm;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.repository.TaskSearchTermRepository;
+import com.microservice.microservice_task.util.TaskTextTokenizer;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.TypedQuery;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageImpl;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+/**
+ * Búsqueda de tareas sobre un índice invertido (tabla task_search_terms) en lugar de
+ * LIKE '%texto%' sobre las columnas de la tarea.
+ *
+ * Cada término de la consulta se busca por prefijo ("reu" encuentra "reunion") y todos los
+ * términos deben aparecer en la tarea (AND). Los resultados se ordenan por relevancia: suma de
+ * pesos de los términos encontrados, con bonificación para coincidencias exactas.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskSearchService {
+
+    static final int TITLE_WEIGHT = 3;
+    static final int TAGS_WEIGHT = 2;
+    static final int DESCRIPTION_WEIGHT = 1;
+
+    // Límite de términos por consulta para acotar el tamaño del SQL generado
+    private static final int MAX_QUERY_TERMS = 8;
+
+    private final TaskRepository taskRepository;
+    private final TaskSearchTermRepository searchTermRepository;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public TaskSearchService(TaskRepository taskRepository,
+                             TaskSearchTermRepository searchTermRepository,
+                             EntityManager entityManager) {
+        this.taskRepository = taskRepository;
+        this.searchTermRepository = searchTermRepository;
+        this.entityManager = entityManager;
+    }
+
+    // ============= MANTENIMIENTO DEL ÍNDICE =============
+
+    /**
+     * Reemplaza los términos indexados de una tarea. Se llama tras crearla o modificarla.
+     */
+    public void index(Task task) {
+        searchTermRepository.deleteByTaskId(task.getId());
+        searchTermRepository.saveAll(buildTerms(task));
+    }
+
+    /**
+     * Reindexa un lote de tareas con un único DELETE y un saveAll (inserciones en lote JDBC).
+     */
+    public void indexAll(Collection<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        remove(tasks.stream().map(Task::getId).toList());
+        List<TaskSearchTerm> entries = new ArrayList<>();
+        for (Task task : tasks) {
+            entries.addAll(buildTerms(task));
+        }
+        searchTermRepository.saveAll(entries);
+    }
+
+    public void remove(Collection<UUID> taskIds) {
+        if (!taskIds.isEmpty()) {
+            searchTermRepository.deleteByTaskIdIn(taskIds);
+        }
+    }
+
+    public void removeUser(UUID userId) {
+        searchTermRepository.deleteByUserId(userId);
+    }
+
+    /**
+     * Reconstruye desde la tabla de tareas el índice de un usuario.
+     */
+    public int rebuildUser(UUID userId) {
+        searchTermRepository.deleteByUserId(userId);
+        List<Task> tasks = taskRepository.findByUserIdOrderByCreatedAtDesc(userId);
+        for (Task task : tasks) {
+            searchTermRepository.saveAll(buildTerms(task));
+        }
+        log.info("Índice de búsqueda reconstruido para el usuario {} ({} tareas)", userId, tasks.size());
+        return tasks.size();
+    }
+
+    /**
+     * Indexa una página de todas las tareas. Devuelve si quedan más páginas.
+     * Pensado para reconstrucciones completas por lotes, una transacción por página.
+     */
+    public boolean indexPage(int page, int pageSize) {
+        Page<Task> tasks = taskRepository.findAll(PageRequest.of(page, pageSize, Sort.by("id")));
+        List<UUID> taskIds = tasks.map(Task::getId).getContent();
+        remove(taskIds);
+        for (Task task : tasks) {
+            searchTermRepository.saveAll(buildTerms(task));
+        }
+        return tasks.hasNext();
+    }
+
+    @Transactional(readOnly = true)
+    public boolean isIndexEmpty() {
+        return searchTermRepository.count() == 0;
+    }
+
+    // ============= BÚSQUEDA =============
+
+    /**
+     * Devuelve la página pedida de tareas ordenadas por relevancia.
+     * El orden del Pageable se ignora: el resultado siempre va por relevancia.
+     */
+    @Transactional(readOnly = true)
+    public Page<Task> search(UUID userId, String searchText, Pageable pageable) {
+        List<String> terms = TaskTextTokenizer.tokenize(searchText);
+        if (terms.isEmpty()) {
+            return Page.empty(pageable);
+        }
+        if (terms.size() > MAX_QUERY_TERMS) {
+            terms = terms.subList(0, MAX_QUERY_TERMS);
+        }
+
+        // Solo ids y puntuación: la consulta se resuelve sobre el índice (user_id, term)
+        List<UUID> rankedIds = findRankedTaskIds(userId, terms);
+
+        int total = rankedIds.size();
+        int from = pageable.isPaged() ? (int) Math.min(pageable.getOffset(), total) : 0;
+        int to = pageable.isPaged() ? Math.min(from + pageable.getPageSize(), total) : total;
+        List<UUID> pageIds = rankedIds.subList(from, to);
+
+        Map<UUID, Task> tasksById = taskRepository.findAllById(pageIds).stream()
+                .collect(Collectors.toMap(Task::getId, Function.identity()));
+        List<Task> content = pageIds.stream()
+                .map(tasksById::get)
+                .filter(Objects::nonNull)
+                .collect(Collectors.toList());
+
+        return new PageImpl<>(content, pageable, total);
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private List<UUID> findRankedTaskIds(UUID userId, List<String> terms) {
+        StringBuilder matchAny = new StringBuilder();
+        StringBuilder matchAll = new StringBuilder();
+        for (int i = 0; i < terms.size(); i++) {
+            if (i > 0) {
+                matchAny.append(" OR ");
+                matchAll.append(" AND ");
+            }
+            matchAny.append("s.term LIKE :p").append(i);
+            matchAll.append("SUM(CASE WHEN s.term LIKE :p").append(i).append(" THEN 1 ELSE 0 END) > 0");
+        }
+
+        String jpql = "SELECT s.taskId AS taskId, " +
+                "SUM(s.weight) + SUM(CASE WHEN s.term IN :exactTerms THEN s.weight ELSE 0 END) AS score " +
+                "FROM TaskSearchTerm s " +
+                "WHERE s.userId = :userId AND (" + matchAny + ") " +
+                "GROUP BY s.taskId " +
+                "HAVING " + matchAll + " " +
+                "ORDER BY score DESC, taskId";
+
+        TypedQuery<Object[]> query = entityManager.createQuery(jpql, Object[].class)
+                .setParameter("userId", userId)
+                .setParameter("exactTerms", terms);
+        for (int i = 0; i < terms.size(); i++) {
+            // Los términos ya están normalizados a letras y dígitos: no contienen comodines de LIKE
+            query.setParameter("p" + i, terms.get(i) + "%");
+        }
+
+        return query.getResultList().stream()
+                .map(row -> (UUID) row[0])
+                .collect(Collectors.toList());
+    }
+
+    private List<TaskSearchTerm> buildTerms(Task task) {
+        Map<String, Integer> weights = new LinkedHashMap<>();
+        addTerms(weights, task.getTitle(), TITLE_WEIGHT);
+        addTerms(weights, task.getTags(), TAGS_WEIGHT);
+        addTerms(weights, task.getDescription(), DESCRIPTION_WEIGHT);
+
+        List<TaskSearchTerm> entries = new ArrayList<>(weights.size());
+        weights.forEach((term, weight) ->
+                entries.add(new TaskSearchTerm(null, task.getId(), task.getUserId(), term, weight)));
+        return entries;
+    }
+
+    // Las etiquetas se guardan como JSON; al tokenizar, comillas y corchetes actúan como separadores
+    private void addTerms(Map<String, Integer> weights, String text, int weight) {
+        for (String term : TaskTextTokenizer.tokenize(text)) {
+            weights.merge(term, weight, Integer::sum);
+        }
+    }
+}
@@ -1,44 +1,99 @@
 package com.microservice.microservice_task.service;
 
 import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.TaskCache;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
 import com.microservice.microservice_task.dto.*;
 import com.microservice.microservice_task.exception.*;
+import com.microservice.microservice_task.model.RecurrenceType;
 import com.microservice.microservice_task.model.Task;
 import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskCursor;
 import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.repository.TaskSpecifications;
+import com.microservice.microservice_task.repository.TaskSummaryProjection;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
 import org.springframework.data.domain.Pageable;
+import org.springframework.data.domain.Slice;
+import org.springframework.data.domain.Sort;
+import org.springframework.data.jpa.domain.Specification;
 import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.time.LocalDateTime;
 import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Comparator;
 import java.util.List;
 import java.util.UUID;
+import java.util.function.ToIntFunction;
 
 @Service
 @Transactional
 @Slf4j
 public class TaskService {
 
+    static final int MAX_CURSOR_PAGE_SIZE = 100;
+
     private final TaskRepository taskRepository;
     private final TaskAssembler taskAssembler;
+    private final TaskOrderService taskOrderService;
+    private final TaskSearchService taskSearchService;
+    private final TaskDeletionService taskDeletionService;
+    private final TaskTagService taskTagService;
+    private final TaskOccurrenceService taskOccurrenceService;
+    private final TaskTreeService taskTreeService;
+    private final TaskArchiveService taskArchiveService;
+    private final TaskCache taskCache;
+    private final UserTimeZoneCache userTimeZones;
+    private final TaskChangeTracker changeTracker;
 
     @Autowired
-    public TaskService(TaskRepository taskRepository, TaskAssembler taskAssembler) {
+    public TaskService(TaskRepository taskRepository, TaskAssembler taskAssembler,
+                       TaskOrderService taskOrderService, TaskSearchService taskSearchService,
+                       TaskDeletionService taskDeletionService, TaskTagService taskTagService,
+                       TaskOccurrenceService taskOccurrenceService, TaskTreeService taskTreeService,
+                       TaskArchiveService taskArchiveService, TaskCache taskCache, UserTimeZoneCache userTimeZones, TaskChangeTracker changeTracker) {
         this.taskRepository = taskRepository;
         this.taskAssembler = taskAssembler;
+        this.taskOrderService = taskOrderService;
+        this.taskSearchService = taskSearchService;
+        this.taskDeletionService = taskDeletionService;
+        this.taskTagService = taskTagService;
+        this.taskOccurrenceService = taskOccurrenceService;
+        this.taskTreeService = taskTreeService;
+        this.taskArchiveService = taskArchiveService;
+        this.taskCache = taskCache;
+        this.userTimeZones = userTimeZones;
+        this.changeTracker = changeTracker;
     }
 
     // ============= CRUD BÁSICO =============
 
-    @Transactional(readOnly = true)
+    // Las lecturas cacheadas no abren transacción: un acierto de TaskCache solo hace su consulta de versión
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<TaskDTO> getAllTasksByUser(UUID userId) {
         log.debug("Obteniendo todas las tareas del usuario: {}", userId);
-        List<Task> tasks = taskRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return taskAssembler.toDTOList(tasks);
+        return taskCache.getTaskList(userId, "all",
+                () -> taskAssembler.toDTOList(taskRepository.findByUserIdOrderByCreatedAtDesc(userId)));
+    }
+
+    // Con includeArchived se añaden las tareas de tasks_archive, sin cachear, en el mismo orden
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public List<TaskDTO> getAllTasksByUser(UUID userId, boolean includeArchived) {
+        List<TaskDTO> tasks = getAllTasksByUser(userId);
+        if (!includeArchived) {
+            return tasks;
+        }
+        List<TaskDTO> all = new ArrayList<>(tasks);
+        all.addAll(taskArchiveService.getArchivedTasks(userId));
+        all.sort(Comparator.comparing(TaskDTO::getCreatedAt, Comparator.nullsLast(Comparator.reverseOrder())));
+        return all;
     }
 
     @Transactional(readOnly = true)
@@ -49,24 +104,47 @@ public class TaskService {
     }
 
     @Transactional(readOnly = true)
+    public Slice<TaskDTO> getTasksSliceByUser(UUID userId, Pageable pageable) {
+        log.debug("Obteniendo tareas (slice) del usuario: {}", userId);
+        Slice<Task> tasks = taskRepository.findSliceByUserIdOrderByOrderIndexAscCreatedAtDesc(userId, pageable);
+        return tasks.map(taskAssembler::toDTO);
+    }
+
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDTO> getTasksByCursor(UUID userId, String cursor, int size) {
+        TaskFilterDTO filterDTO = new TaskFilterDTO();
+        filterDTO.setUserId(userId);
+        return getTasksWithFiltersByCursor(filterDTO, cursor, size);
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public TaskDTO getTaskById(UUID taskId) {
         log.debug("Obteniendo tarea por ID: {}", taskId);
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Tarea no encontrada con ID: " + taskId));
-        return taskAssembler.toDTO(task);
+        return getCachedTask(taskId);
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public TaskDTO getTaskByIdAndUser(UUID taskId, UUID userId) {
         log.debug("Obteniendo tarea {} del usuario {}", taskId, userId);
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Tarea no encontrada con ID: " + taskId));
+        TaskDTO task = getCachedTask(taskId);
         
         if (!task.getUserId().equals(userId)) {
             throw new UnauthorizedTaskAccessException("No tienes permiso para acceder a esta tarea");
         }
         
-        return taskAssembler.toDTO(task);
+        return task;
+    }
+
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
+    public TaskDTO getTaskByIdAndUser(UUID taskId, UUID userId, boolean includeArchived) {
+        try {
+            return getTaskByIdAndUser(taskId, userId);
+        } catch (TaskNotFoundException e) {
+            if (!includeArchived) {
+                throw e;
+            }
+            return taskArchiveService.findArchivedTask(taskId, userId).orElseThrow(() -> e);
+        }
     }
 
     public TaskDTO createTask(CreateTaskDTO createTaskDTO) {
@@ -79,15 +157,26 @@ public class TaskService {
         
         // Establecer orden si no se especifica
         if (task.getOrderIndex() == null || task.getOrderIndex() == 0) {
-            task.setOrderIndex(getNextOrderIndex(createTaskDTO.getUserId()));
+            task.setOrderIndex(taskOrderService.allocateNextOrderIndex(createTaskDTO.getUserId()));
         }
         
         Task savedTask = taskRepository.save(task);
+        taskSearchService.index(savedTask);
+        taskTagService.index(savedTask);
+        // Una subtarea nueva suma a los totales de todas sus antecesoras
+        TaskRollupChanges rollupChanges = new TaskRollupChanges();
+        rollupChanges.add(savedTask);
+        taskTreeService.applyRollupChanges(savedTask.getUserId(), rollupChanges);
         log.info("Tarea creada exitosamente con ID: {}", savedTask.getId());
         
         return taskAssembler.toDTO(savedTask);
     }
 
+    /**
+     * Aplica los campos presentes en el DTO. Necesita la entidad (fusión parcial, reindexado de búsqueda
+     * y etiquetas), pero el UPDATE va condicionado a la versión leída: si otra escritura se adelanta,
+     * o el cliente envía una versión antigua, se responde 409 en lugar de pisar el cambio.
+     */
     public TaskDTO updateTask(UUID taskId, UpdateTaskDTO updateTaskDTO, UUID userId) {
         log.debug("Actualizando tarea {} del usuario {}", taskId, userId);
         
@@ -97,108 +186,146 @@ public class TaskService {
         if (!existingTask.getUserId().equals(userId)) {
             throw new UnauthorizedTaskAccessException("No tienes permiso para actualizar esta tarea");
         }
+        checkVersion(existingTask, updateTaskDTO.getVersion());
+        checkNewParent(existingTask, updateTaskDTO.getParentTaskId());
         
+        // Lo que aportaba a los totales de sus antecesoras antes del cambio (estado, estimación o padre)
+        TaskRollupChanges rollupChanges = new TaskRollupChanges();
+        rollupChanges.remove(existingTask);
         Task updatedTask = taskAssembler.updateFromDTO(existingTask, updateTaskDTO);
-        Task savedTask = taskRepository.save(updatedTask);
+        // Flush inmediato: el conflicto salta aquí y el DTO devuelto lleva la nueva versión
+        Task savedTask = taskRepository.saveAndFlush(updatedTask);
+        rollupChanges.add(savedTask);
+        taskTreeService.applyRollupChanges(userId, rollupChanges);
+        taskSearchService.index(savedTask);
+        if (updateTaskDTO.getTags() != null) {
+            taskTagService.index(savedTask);
+        }
         
         log.info("Tarea actualizada exitosamente: {}", taskId);
         return taskAssembler.toDTO(savedTask);
     }
 
+    /**
+     * Elimina la tarea con todo su árbol de subtareas. La raíz se busca ya filtrada por usuario,
+     * así que solo si no se borra nada se consulta si la tarea no existe o es de otro usuario.
+     */
     public void deleteTask(UUID taskId, UUID userId) {
         log.debug("Eliminando tarea {} del usuario {}", taskId, userId);
         
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Tarea no encontrada con ID: " + taskId));
-        
-        if (!task.getUserId().equals(userId)) {
-            throw new UnauthorizedTaskAccessException("No tienes permiso para eliminar esta tarea");
-        }
-        
-        // Si tiene subtareas, también las eliminamos
-        List<Task> subtasks = taskRepository.findByParentTaskIdOrderByOrderIndexAsc(taskId);
-        if (!subtasks.isEmpty()) {
-            log.debug("Eliminando {} subtareas de la tarea {}", subtasks.size(), taskId);
-            taskRepository.deleteAll(subtasks);
+        // Elimina también todo el árbol de subtareas, a cualquier profundidad
+        int deleted = taskDeletionService.deleteSubtrees(userId, List.of(taskId));
+        if (deleted == 0) {
+            throw rejectedWrite(taskId, userId, null, "eliminar");
         }
-        
-        taskRepository.delete(task);
         log.info("Tarea eliminada exitosamente: {}", taskId);
     }
 
     // ============= OPERACIONES ESPECÍFICAS =============
 
     public TaskDTO completeTask(UUID taskId, UUID userId) {
+        return completeTask(taskId, userId, null);
+    }
+
+    /**
+     * Marca la tarea como completada con un único UPDATE condicionado a dueño y versión
+     * (expectedVersion null: cualquier versión).
+     */
+    public TaskDTO completeTask(UUID taskId, UUID userId, Long expectedVersion) {
         log.debug("Marcando tarea {} como completada para usuario {}", taskId, userId);
         
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Tarea no encontrada con ID: " + taskId));
-        
-        if (!task.getUserId().equals(userId)) {
-            throw new UnauthorizedTaskAccessException("No tienes permiso para completar esta tarea");
-        }
-        
-        task.markAsCompleted();
-        Task savedTask = taskRepository.save(task);
+        LocalDateTime now = LocalDateTime.now();
+        TaskDTO completedTask = writeStatus(taskId, userId, expectedVersion, true, "completar",
+                wasCompleted -> taskRepository.completeIfOwned(taskId, userId, expectedVersion,
+                        TaskStatus.COMPLETED, wasCompleted, now));
         
         log.info("Tarea completada exitosamente: {}", taskId);
-        return taskAssembler.toDTO(savedTask);
+        return completedTask;
     }
 
     public TaskDTO updateTaskStatus(UUID taskId, TaskStatus status, UUID userId) {
+        return updateTaskStatus(taskId, status, userId, null);
+    }
+
+    public TaskDTO updateTaskStatus(UUID taskId, TaskStatus status, UUID userId, Long expectedVersion) {
         log.debug("Actualizando status de tarea {} a {} para usuario {}", taskId, status, userId);
         
-        Task task = taskRepository.findById(taskId)
-                .orElseThrow(() -> new TaskNotFoundException("Tarea no encontrada con ID: " + taskId));
-        
-        if (!task.getUserId().equals(userId)) {
-            throw new UnauthorizedTaskAccessException("No tienes permiso para actualizar esta tarea");
-        }
-        
-        task.setStatus(status);
-        if (status == TaskStatus.COMPLETED && task.getCompletedDate() == null) {
-            task.setCompletedDate(LocalDateTime.now());
-        }
-        
-        Task savedTask = taskRepository.save(task);
+        LocalDateTime now = LocalDateTime.now();
+        boolean completed = status == TaskStatus.COMPLETED;
+        TaskDTO updatedTask = writeStatus(taskId, userId, expectedVersion, completed, "actualizar",
+                wasCompleted -> taskRepository.updateStatusIfOwned(taskId, userId, expectedVersion, status,
+                        completed, wasCompleted, now));
         log.info("Status de tarea actualizado exitosamente: {} -> {}", taskId, status);
         
-        return taskAssembler.toDTO(savedTask);
+        return updatedTask;
+    }
+
+    // ============= OCURRENCIAS DE TAREAS RECURRENTES =============
+
+    public TaskDTO completeOccurrence(UUID taskId, UUID userId, LocalDateTime occurrenceDate) {
+        return taskOccurrenceService.completeOccurrence(taskId, userId, occurrenceDate);
+    }
+
+    public void skipOccurrence(UUID taskId, UUID userId, LocalDateTime occurrenceDate) {
+        taskOccurrenceService.skipOccurrence(taskId, userId, occurrenceDate);
+    }
+
+    public TaskDTO moveOccurrence(UUID taskId, UUID userId, LocalDateTime occurrenceDate, LocalDateTime newDate) {
+        return taskOccurrenceService.moveOccurrence(taskId, userId, occurrenceDate, newDate);
+    }
+
+    public TaskDTO reorderTask(UUID taskId, ReorderTaskDTO reorderTaskDTO, UUID userId) {
+        log.debug("Reordenando tarea {} del usuario {}", taskId, userId);
+        Task movedTask = taskOrderService.moveTask(taskId, userId,
+                reorderTaskDTO.getPreviousTaskId(), reorderTaskDTO.getNextTaskId());
+        return taskAssembler.toDTO(movedTask);
     }
 
     // ============= CONSULTAS ESPECÍFICAS =============
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<TaskDTO> getTasksByStatus(UUID userId, TaskStatus status) {
         log.debug("Obteniendo tareas con status {} del usuario {}", status, userId);
-        List<Task> tasks = taskRepository.findByUserIdAndStatusOrderByDueDateAsc(userId, status);
-        return taskAssembler.toDTOList(tasks);
+        return taskCache.getTaskList(userId, "status:" + status.name(),
+                () -> taskAssembler.toDTOList(taskRepository.findByUserIdAndStatusOrderByDueDateAsc(userId, status)));
     }
 
+    // "Hoy" es el día actual en la zona del usuario; incluye las ocurrencias de las tareas recurrentes
     @Transactional(readOnly = true)
     public List<TaskDTO> getTodayTasks(UUID userId) {
         log.debug("Obteniendo tareas de hoy del usuario {}", userId);
-        LocalDateTime today = LocalDateTime.now();
-        List<Task> tasks = taskRepository.findByUserIdAndDueDateToday(userId, today);
-        return taskAssembler.toDTOList(tasks);
+        return getTasksInWindow(userId, DateWindow.today(userTimeZones.today(userId)));
     }
 
-    @Transactional(readOnly = true)
+    @Transactional(propagation = Propagation.SUPPORTS, readOnly = true)
     public List<TaskDTO> getOverdueTasks(UUID userId) {
         log.debug("Obteniendo tareas vencidas del usuario {}", userId);
-        List<Task> tasks = taskRepository.findOverdueTasksByUserId(userId, LocalDateTime.now());
-        return taskAssembler.toDTOList(tasks);
+        return taskCache.getTaskList(userId, "overdue",
+                () -> taskAssembler.toDTOList(taskRepository.findOverdueTasksByUserId(userId)));
     }
 
+    // Los próximos 7 días desde hoy (del usuario), no la semana natural
     @Transactional(readOnly = true)
     public List<TaskDTO> getTasksThisWeek(UUID userId) {
         log.debug("Obteniendo tareas de esta semana del usuario {}", userId);
-        LocalDateTime startOfWeek = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfWeek = startOfWeek.plusDays(7);
-        
-        List<Task> tasks = taskRepository.findByUserIdAndDueDateBetweenOrderByDueDateAsc(
-                userId, startOfWeek, endOfWeek);
-        return taskAssembler.toDTOList(tasks);
+        return getTasksInWindow(userId, DateWindow.nextDays(userTimeZones.today(userId), 7));
+    }
+
+    // Mes natural del usuario
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getTasksThisMonth(UUID userId) {
+        log.debug("Obteniendo tareas de este mes del usuario {}", userId);
+        return getTasksInWindow(userId, DateWindow.month(userTimeZones.today(userId)));
+    }
+
+    // Días [from, to] completos, con las ocurrencias de las tareas recurrentes
+    @Transactional(readOnly = true)
+    public List<TaskDTO> getTasksInRange(UUID userId, LocalDate from, LocalDate to) {
+        log.debug("Obteniendo tareas del usuario {} entre {} y {}", userId, from, to);
+        if (from == null || to == null || to.isBefore(from)) {
+            throw new InvalidTaskDataException("El rango de fechas no es válido");
+        }
+        return getTasksInWindow(userId, DateWindow.days(from, to));
     }
 
     @Transactional(readOnly = true)
@@ -208,77 +335,120 @@ public class TaskService {
         return taskAssembler.toDTOList(subtasks);
     }
 
+    // Todo el árbol de subtareas en una consulta, con los totales de cada nodo
+    @Transactional(readOnly = true)
+    public TaskTreeDTO getTaskTree(UUID taskId, UUID userId) {
+        log.debug("Obteniendo árbol de subtareas de la tarea {} del usuario {}", taskId, userId);
+        return taskTreeService.getTree(taskId, userId);
+    }
+
     @Transactional(readOnly = true)
     public List<TaskDTO> searchTasks(UUID userId, String searchText) {
         log.debug("Buscando tareas del usuario {} con texto: {}", userId, searchText);
-        List<Task> tasks = taskRepository.findByUserIdAndSearchText(userId, searchText);
-        return taskAssembler.toDTOList(tasks);
+        Page<Task> tasks = taskSearchService.search(userId, searchText, Pageable.unpaged());
+        return taskAssembler.toDTOList(tasks.getContent());
+    }
+
+    @Transactional(readOnly = true)
+    public Page<TaskDTO> searchTasks(UUID userId, String searchText, Pageable pageable) {
+        log.debug("Buscando tareas paginadas del usuario {} con texto: {}", userId, searchText);
+        Page<Task> tasks = taskSearchService.search(userId, searchText, pageable);
+        return tasks.map(taskAssembler::toDTO);
+    }
+
+    // El archivo no está en el índice de términos: busca por texto solo en las tareas archivadas del usuario
+    @Transactional(readOnly = true)
+    public Page<TaskDTO> searchArchivedTasks(UUID userId, String searchText, Pageable pageable) {
+        log.debug("Buscando tareas archivadas del usuario {} con texto: {}", userId, searchText);
+        return taskArchiveService.searchArchive(userId, searchText, pageable);
+    }
+
+    public int rebuildSearchIndex(UUID userId) {
+        log.debug("Reconstruyendo índice de búsqueda del usuario {}", userId);
+        return taskSearchService.rebuildUser(userId);
+    }
+
+    public int rebuildRollups(UUID userId) {
+        log.debug("Recalculando totales de subtareas del usuario {}", userId);
+        return taskTreeService.rebuildRollups(userId);
     }
 
     @Transactional(readOnly = true)
     public Page<TaskDTO> getTasksWithFilters(TaskFilterDTO filterDTO, Pageable pageable) {
         log.debug("Obteniendo tareas con filtros para usuario {}", filterDTO.getUserId());
         
-        LocalDateTime dueDateFrom = filterDTO.getDueDateFrom() != null ? 
-                filterDTO.getDueDateFrom().atStartOfDay() : null;
-        LocalDateTime dueDateTo = filterDTO.getDueDateTo() != null ? 
-                filterDTO.getDueDateTo().atTime(23, 59, 59) : null;
-        
-        // Por simplicidad, tomamos solo el primer valor de cada lista
-        TaskStatus status = filterDTO.getStatuses() != null && !filterDTO.getStatuses().isEmpty() ? 
-                filterDTO.getStatuses().get(0) : null;
-        
-        Page<Task> tasks = taskRepository.findTasksWithFilters(
-                filterDTO.getUserId(),
-                status,
-                filterDTO.getPriorities() != null && !filterDTO.getPriorities().isEmpty() ? 
-                        filterDTO.getPriorities().get(0) : null,
-                filterDTO.getCategories() != null && !filterDTO.getCategories().isEmpty() ? 
-                        filterDTO.getCategories().get(0) : null,
-                dueDateFrom,
-                dueDateTo,
-                filterDTO.getSearchText(),
-                pageable
-        );
+        // Solo se emiten los predicados de los filtros presentes
+        Specification<Task> specification = TaskSpecifications.fromFilter(filterDTO);
+        Page<Task> tasks = taskRepository.findAll(specification, withDefaultSort(pageable));
         
         return tasks.map(taskAssembler::toDTO);
     }
 
+    /**
+     * Paginación por cursor: en lugar de OFFSET + COUNT se filtra por la clave de la última
+     * tarea entregada y se pide una fila de más para saber si hay página siguiente.
+     */
+    @Transactional(readOnly = true)
+    public CursorPageDTO<TaskDTO> getTasksWithFiltersByCursor(TaskFilterDTO filterDTO, String cursor, int size) {
+        log.debug("Obteniendo tareas por cursor para usuario {}", filterDTO.getUserId());
+        if (size < 1) {
+            throw new InvalidTaskDataException("El tamaño de página debe ser mayor que cero");
+        }
+        int pageSize = Math.min(size, MAX_CURSOR_PAGE_SIZE);
+
+        Specification<Task> specification = TaskSpecifications.fromFilter(filterDTO);
+        if (cursor != null && !cursor.isBlank()) {
+            specification = specification.and(TaskSpecifications.after(TaskCursor.decode(cursor)));
+        }
+        List<Task> tasks = taskRepository.findBy(specification,
+                query -> query.sortBy(TaskCursor.SORT).limit(pageSize + 1).all());
+
+        boolean hasNext = tasks.size() > pageSize;
+        List<Task> content = hasNext ? tasks.subList(0, pageSize) : tasks;
+        String nextCursor = hasNext ? TaskCursor.of(content.get(content.size() - 1)).encode() : null;
+
+        return new CursorPageDTO<>(taskAssembler.toDTOList(content), nextCursor, hasNext, content.size());
+    }
+
     // ============= ESTADÍSTICAS =============
 
+    @Transactional(readOnly = true)
+    public List<TagCountDTO> getTagCounts(UUID userId) {
+        log.debug("Obteniendo conteo de etiquetas del usuario {}", userId);
+        return taskTagService.countTasksByTag(userId);
+    }
+
     @Transactional(readOnly = true)
     public TaskSummaryDTO getTaskSummary(UUID userId) {
         log.debug("Generando resumen de tareas para usuario {}", userId);
         
-        Long totalTasks = taskRepository.countByUserId(userId);
-        Long pendingTasks = taskRepository.countByUserIdAndStatus(userId, TaskStatus.PENDING);
-        Long inProgressTasks = taskRepository.countByUserIdAndStatus(userId, TaskStatus.IN_PROGRESS);
-        Long completedTasks = taskRepository.countByUserIdAndStatus(userId, TaskStatus.COMPLETED);
-        Long overdueTasks = taskRepository.countOverdueByUserId(userId, LocalDateTime.now());
-        Long todayTasks = taskRepository.countByUserIdAndDueToday(userId, LocalDateTime.now());
-        
-        // Tareas de esta semana
-        LocalDateTime startOfWeek = LocalDate.now().atStartOfDay();
-        LocalDateTime endOfWeek = startOfWeek.plusDays(7);
-        List<Task> weekTasks = taskRepository.findByUserIdAndDueDateBetweenOrderByDueDateAsc(
-                userId, startOfWeek, endOfWeek);
-        Long thisWeekTasks = (long) weekTasks.size();
-        
+        // Una sola consulta calcula todos los contadores del resumen; hoy y la semana en la zona del usuario
+        LocalDate today = userTimeZones.today(userId);
+        DateWindow todayWindow = DateWindow.today(today);
+        DateWindow weekWindow = DateWindow.nextDays(today, 7);
+        TaskSummaryProjection summary = taskRepository.getSummaryByUserId(userId,
+                todayWindow.getStart(), todayWindow.getEnd(), weekWindow.getStart(), weekWindow.getEnd());
+
+        Long totalTasks = summary.getTotalTasks();
+        Long completedTasks = summary.getCompletedTasks();
+
         // Tasa de completitud
-        Double completionRate = totalTasks > 0 ? 
+        Double completionRate = totalTasks > 0 ?
                 (completedTasks.doubleValue() / totalTasks.doubleValue()) * 100 : 0.0;
-        
+
         // Duración promedio
-        Double avgDuration = taskRepository.findAverageDurationByUserId(userId).orElse(0.0);
-        
+        Double avgDuration = summary.getAverageDuration() != null ? summary.getAverageDuration() : 0.0;
+
         return new TaskSummaryDTO(
                 totalTasks,
-                pendingTasks,
-                inProgressTasks,
+                summary.getPendingTasks(),
+                summary.getInProgressTasks(),
                 completedTasks,
-                overdueTasks,
-                todayTasks,
-                thisWeekTasks,
+                summary.getOverdueTasks(),
+                summary.getTodayTasks() + taskOccurrenceService.countOccurrencesInWindow(
+                        userId, todayWindow.getStart(), todayWindow.getEnd()),
+                summary.getThisWeekTasks() + taskOccurrenceService.countOccurrencesInWindow(
+                        userId, weekWindow.getStart(), weekWindow.getEnd()),
                 completionRate,
                 avgDuration.intValue()
         );
@@ -286,10 +456,12 @@ public class TaskService {
 
     // ============= OPERACIONES MASIVAS =============
 
+    // Sin transacción envolvente: el borrado se confirma por bloques para no bloquear la tabla
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
     public void deleteAllUserTasks(UUID userId) {
         log.debug("Eliminando todas las tareas del usuario {}", userId);
-        taskRepository.deleteByUserId(userId);
-        log.info("Todas las tareas del usuario {} han sido eliminadas", userId);
+        long deleted = taskDeletionService.deleteAllForUser(userId);
+        log.info("Todas las tareas del usuario {} han sido eliminadas ({})", userId, deleted);
     }
 
     @Transactional(readOnly = true)
@@ -299,36 +471,122 @@ public class TaskService {
 
     // ============= MÉTODOS PRIVADOS =============
 
-    private void validateCreateTaskDTO(CreateTaskDTO createTaskDTO) {
-        if (createTaskDTO.getTitle() == null || createTaskDTO.getTitle().trim().isEmpty()) {
+    private static void checkVersion(Task task, Long expectedVersion) {
+        if (expectedVersion != null && !expectedVersion.equals(task.getVersion())) {
+            throw versionConflict(task, expectedVersion);
+        }
+    }
+
+    private static TaskVersionConflictException versionConflict(Task task, Long expectedVersion) {
+        return new TaskVersionConflictException("La tarea " + task.getId() + " ha cambiado (versión "
+                + task.getVersion() + ", se esperaba " + expectedVersion + ")");
+    }
+
+    // Una subtarea no puede colgar de sí misma ni de una de sus subtareas
+    private void checkNewParent(Task task, UUID newParentId) {
+        if (newParentId != null && !newParentId.equals(task.getParentTaskId())
+                && taskTreeService.wouldCreateCycle(task.getUserId(), task.getId(), newParentId)) {
+            throw new InvalidTaskDataException("Una tarea no puede ser subtarea de sí misma ni de sus subtareas");
+        }
+    }
+
+    private List<TaskDTO> getTasksInWindow(UUID userId, DateWindow window) {
+        return taskOccurrenceService.getTasksInWindow(userId, window.getStart(), window.getEnd());
+    }
+
+    /**
+     * Cambio de estado con UPDATE condicional. Se intenta primero desde un estado no completado (lo
+     * habitual) y, si no aplica, desde completada: así se sabe sin leer la tarea antes cuánto cambian
+     * las subtareas completadas de sus antecesoras.
+     */
+    private TaskDTO writeStatus(UUID taskId, UUID userId, Long expectedVersion, boolean completed,
+                                String action, ToIntFunction<Boolean> write) {
+        int completedDelta = completed ? 1 : 0;
+        int updated = write.applyAsInt(false);
+        if (updated == 0) {
+            completedDelta = completed ? 0 : -1;
+            updated = write.applyAsInt(true);
+        }
+        if (updated == 0) {
+            throw rejectedWrite(taskId, userId, expectedVersion, action);
+        }
+        return afterConditionalWrite(taskId, userId, completedDelta);
+    }
+
+    // Una escritura condicional no afectó a ninguna fila: solo aquí se consulta el motivo
+    private RuntimeException rejectedWrite(UUID taskId, UUID userId, Long expectedVersion, String action) {
+        Task task = taskRepository.findById(taskId).orElse(null);
+        if (task == null) {
+            return new TaskNotFoundException("Tarea no encontrada con ID: " + taskId);
+        }
+        if (!task.getUserId().equals(userId)) {
+            return new UnauthorizedTaskAccessException("No tienes permiso para " + action + " esta tarea");
+        }
+        return versionConflict(task, expectedVersion);
+    }
+
+    // El UPDATE en bloque no pasa por los listeners de Task; la lectura posterior arma la respuesta
+    private TaskDTO afterConditionalWrite(UUID taskId, UUID userId, int completedDelta) {
+        changeTracker.recordChanges(userId, List.of(taskId));
+        Task task = taskRepository.findById(taskId)
+                .orElseThrow(() -> new TaskNotFoundException("Tarea no encontrada con ID: " + taskId));
+        if (completedDelta != 0) {
+            TaskRollupChanges rollupChanges = new TaskRollupChanges();
+            rollupChanges.addCompleted(task.getParentTaskId(), completedDelta);
+            taskTreeService.applyRollupChanges(userId, rollupChanges);
+        }
+        return taskAssembler.toDTO(task);
+    }
+
+    private TaskDTO getCachedTask(UUID taskId) {
+        return taskCache.getTask(taskId, () -> taskRepository.findById(taskId)
+                .map(taskAssembler::toDTO)
+                .orElseThrow(() -> new TaskNotFoundException("Tarea no encontrada con ID: " + taskId)));
+    }
+
+    // Orden por defecto de las listas: orderIndex ascendente y más recientes primero
+    private Pageable withDefaultSort(Pageable pageable) {
+        if (pageable.isUnpaged() || pageable.getSort().isSorted()) {
+            return pageable;
+        }
+        return PageRequest.of(pageable.getPageNumber(), pageable.getPageSize(),
+                Sort.by(Sort.Order.asc("orderIndex"), Sort.Order.desc("createdAt")));
+    }
+
+    // También la usa TaskBatchService para validar cada elemento de un lote
+    static void validateCreateTaskDTO(CreateTaskDTO createTaskDTO) {
+        validateTaskData(createTaskDTO.getTitle(), createTaskDTO.getUserId(), createTaskDTO.getDueDate(),
+                createTaskDTO.getReminderDate(), createTaskDTO.getIsRecurring(), createTaskDTO.getRecurrenceType());
+    }
+
+    static void validateTask(Task task) {
+        validateTaskData(task.getTitle(), task.getUserId(), task.getDueDate(),
+                task.getReminderDate(), task.getIsRecurring(), task.getRecurrenceType());
+    }
+
+    private static void validateTaskData(String title, UUID userId, LocalDateTime dueDate,
+                                         LocalDateTime reminderDate, Boolean isRecurring,
+                                         RecurrenceType recurrenceType) {
+        if (title == null || title.trim().isEmpty()) {
             throw new InvalidTaskDataException("El título de la tarea es requerido");
         }
         
-        if (createTaskDTO.getUserId() == null) {
+        if (userId == null) {
             throw new InvalidTaskDataException("El ID del usuario es requerido");
         }
         
         // Validar fechas
-        if (createTaskDTO.getDueDate() != null && createTaskDTO.getReminderDate() != null) {
-            if (createTaskDTO.getReminderDate().isAfter(createTaskDTO.getDueDate())) {
+        if (dueDate != null && reminderDate != null) {
+            if (reminderDate.isAfter(dueDate)) {
                 throw new InvalidTaskDataException("La fecha de recordatorio no puede ser posterior a la fecha de vencimiento");
             }
         }
         
         // Validar recurrencia
-        if (createTaskDTO.getIsRecurring() != null && createTaskDTO.getIsRecurring()) {
-            if (createTaskDTO.getRecurrenceType() == null) {
+        if (isRecurring != null && isRecurring) {
+            if (recurrenceType == null) {
                 throw new InvalidTaskDataException("El tipo de recurrencia es requerido para tareas recurrentes");
             }
         }
     }
-
-    private Integer getNextOrderIndex(UUID userId) {
-        List<Task> userTasks = taskRepository.findByUserIdOrderByCreatedAtDesc(userId);
-        return userTasks.isEmpty() ? 1 : 
-               userTasks.stream()
-                       .mapToInt(task -> task.getOrderIndex() != null ? task.getOrderIndex() : 0)
-                       .max()
-                       .orElse(0) + 1;
-    }
 }
\ No newline at end of file
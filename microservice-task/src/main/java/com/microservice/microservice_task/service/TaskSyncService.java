@@ -0,0 +1,71 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.common.sync.InvalidSyncTokenException;
+import com.microservice.common.sync.SyncFeed;
+import com.microservice.common.sync.SyncPage;
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.dto.TaskSyncDTO;
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * Sincronización incremental de tareas para clientes sin conexión (ver {@link SyncFeed}).
+ */
+@Service
+@Transactional
+public class TaskSyncService {
+
+    private final SyncFeed<Task> feed;
+    private final TaskAssembler taskAssembler;
+    private final UserTimeZoneCache userTimeZones;
+
+    @Autowired
+    public TaskSyncService(EntityManager entityManager, TaskRepository taskRepository, TaskAssembler taskAssembler,
+                           UserTimeZoneCache userTimeZones) {
+        this.feed = new SyncFeed<>(entityManager, TaskChangeTracker.TABLES,
+                taskRepository::findByUserIdAndChangeSeqGreaterThanOrderByChangeSeqAscIdAsc,
+                taskRepository::findByUserIdAndChangeSeq,
+                Task::getChangeSeq);
+        this.taskAssembler = taskAssembler;
+        this.userTimeZones = userTimeZones;
+    }
+
+    // ============= SINCRONIZACIÓN =============
+
+    @Transactional(readOnly = true)
+    public TaskSyncDTO getChanges(UUID userId, String token, int limit) {
+        SyncPage<Task> page;
+        try {
+            page = feed.read(userId, token, limit);
+        } catch (InvalidSyncTokenException e) {
+            throw new InvalidTaskDataException("Token de sincronización inválido");
+        }
+        LocalDateTime now = userTimeZones.now(userId);
+        return new TaskSyncDTO(
+                page.changed().stream().map(task -> taskAssembler.toDTO(task, now)).toList(),
+                page.deleted(),
+                page.nextToken(),
+                page.hasMore(),
+                page.resetRequired());
+    }
+
+    // ============= COMPACTACIÓN =============
+
+    /**
+     * Borra hasta batchSize lápidas anteriores a before y sube purgedSeq de sus dueños.
+     * Devuelve cuántas borró.
+     */
+    public int purgeTombstones(LocalDateTime before, int batchSize) {
+        return feed.purgeTombstones(before, batchSize);
+    }
+}
@@ -0,0 +1,103 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.dto.TagCountDTO;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskTag;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.repository.TaskTagRepository;
+import com.microservice.microservice_task.util.TaskTagNormalizer;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+/**
+ * Mantiene la tabla task_tags sincronizada con las etiquetas de cada tarea.
+ *
+ * La columna JSON tasks.tags se conserva como copia para construir las respuestas; los filtros
+ * por etiqueta y el conteo por etiqueta se resuelven siempre sobre task_tags.
+ * Las etiquetas se guardan normalizadas (sin espacios alrededor y en minúsculas).
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskTagService {
+
+    private final TaskTagRepository tagRepository;
+    private final TaskRepository taskRepository;
+    private final TaskAssembler taskAssembler;
+
+    @Autowired
+    public TaskTagService(TaskTagRepository tagRepository, TaskRepository taskRepository,
+                          TaskAssembler taskAssembler) {
+        this.tagRepository = tagRepository;
+        this.taskRepository = taskRepository;
+        this.taskAssembler = taskAssembler;
+    }
+
+    /**
+     * Reemplaza las etiquetas indexadas de una tarea. Se llama tras crearla o cambiar sus etiquetas.
+     */
+    public void index(Task task) {
+        tagRepository.deleteByTaskId(task.getId());
+        tagRepository.saveAll(buildTags(task));
+    }
+
+    public void indexAll(Collection<Task> tasks) {
+        if (tasks.isEmpty()) {
+            return;
+        }
+        tagRepository.deleteByTaskIdIn(tasks.stream().map(Task::getId).toList());
+        List<TaskTag> entries = new ArrayList<>();
+        for (Task task : tasks) {
+            entries.addAll(buildTags(task));
+        }
+        tagRepository.saveAll(entries);
+    }
+
+    @Transactional(readOnly = true)
+    public List<TagCountDTO> countTasksByTag(UUID userId) {
+        return tagRepository.countTasksByTag(userId).stream()
+                .map(row -> new TagCountDTO(row.getTag(), row.getTaskCount()))
+                .toList();
+    }
+
+    /**
+     * Indexa una página de todas las tareas. Devuelve si quedan más páginas.
+     * Se usa para migrar las etiquetas de las tareas existentes, una transacción por página.
+     */
+    public boolean indexPage(int page, int pageSize) {
+        Page<Task> tasks = taskRepository.findAll(PageRequest.of(page, pageSize, Sort.by("id")));
+        indexAll(tasks.getContent());
+        return tasks.hasNext();
+    }
+
+    // Hay que migrar si existen tareas con etiquetas y la tabla todavía está vacía
+    @Transactional(readOnly = true)
+    public boolean needsBackfill() {
+        return tagRepository.count() == 0 && taskRepository.existsByTagsIsNotNull();
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private List<TaskTag> buildTags(Task task) {
+        Set<String> tags = new LinkedHashSet<>();
+        for (String tag : taskAssembler.readTags(task)) {
+            String normalized = TaskTagNormalizer.normalize(tag);
+            if (normalized != null) {
+                tags.add(normalized);
+            }
+        }
+        List<TaskTag> entries = new ArrayList<>(tags.size());
+        for (String tag : tags) {
+            entries.add(new TaskTag(null, task.getId(), task.getUserId(), tag));
+        }
+        return entries;
+    }
+}
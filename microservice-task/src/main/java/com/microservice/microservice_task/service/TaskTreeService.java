@@ -0,0 +1,239 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.dto.TaskTreeDTO;
+import com.microservice.microservice_task.exception.TaskNotFoundException;
+import com.microservice.microservice_task.exception.UnauthorizedTaskAccessException;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.repository.TaskRollupProjection;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import jakarta.persistence.EntityManager;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.*;
+
+import static com.microservice.microservice_task.service.TaskRollupChanges.COMPLETED;
+import static com.microservice.microservice_task.service.TaskRollupChanges.MINUTES;
+import static com.microservice.microservice_task.service.TaskRollupChanges.TOTAL;
+
+/**
+ * Árbol de subtareas: lectura completa en una consulta y totales acumulados por tarea.
+ *
+ * Cada tarea guarda cuántas subtareas tiene a cualquier profundidad, cuántas están completadas
+ * y la suma de sus minutos estimados, así la lista de tareas puede pintar el progreso sin cargar
+ * las hijas. Las escrituras no los recalculan: anotan lo que cambia cada tarea (TaskRollupChanges)
+ * y aquí se suma a sus antecesoras con UPDATE ... SET x = x + delta, que no pisa los cambios
+ * concurrentes de otras ramas del mismo árbol.
+ */
+@Service
+@Transactional
+@Slf4j
+public class TaskTreeService {
+
+    private static final String TREE_SQL =
+            "WITH RECURSIVE subtree (id, depth) AS (" +
+            " SELECT t.id, 0 FROM tasks t WHERE t.user_id = :userId AND t.id = :rootId" +
+            " UNION ALL" +
+            " SELECT c.id, s.depth + 1 FROM tasks c JOIN subtree s ON c.parent_task_id = s.id" +
+            " WHERE c.user_id = :userId AND s.depth < " + TaskDeletionService.MAX_TREE_DEPTH +
+            ") SELECT t.* FROM tasks t JOIN subtree s ON s.id = t.id" +
+            " ORDER BY s.depth, t.order_index, t.created_at";
+
+    // Pares (origen, antecesora) con la cadena de cada tarea indicada, ella incluida
+    private static final String ANCESTORS_SQL =
+            "WITH RECURSIVE chain (origin, id, parent_task_id, depth) AS (" +
+            " SELECT t.id, t.id, t.parent_task_id, 0 FROM tasks t WHERE t.user_id = :userId AND t.id IN (:ids)" +
+            " UNION ALL" +
+            " SELECT c.origin, p.id, p.parent_task_id, c.depth + 1 FROM tasks p JOIN chain c ON p.id = c.parent_task_id" +
+            " WHERE p.user_id = :userId AND c.depth < " + TaskDeletionService.MAX_TREE_DEPTH +
+            ") SELECT origin, id FROM chain";
+
+    private final TaskRepository taskRepository;
+    private final TaskAssembler taskAssembler;
+    private final TaskChangeTracker changeTracker;
+    private final EntityManager entityManager;
+
+    @Autowired
+    public TaskTreeService(TaskRepository taskRepository, TaskAssembler taskAssembler,
+                           TaskChangeTracker changeTracker, EntityManager entityManager) {
+        this.taskRepository = taskRepository;
+        this.taskAssembler = taskAssembler;
+        this.changeTracker = changeTracker;
+        this.entityManager = entityManager;
+    }
+
+    // ============= LECTURA =============
+
+    /**
+     * Devuelve la tarea con todo su árbol de subtareas. Las filas llegan ordenadas por profundidad
+     * y orderIndex, así que el árbol y sus totales se montan en memoria en una pasada por sentido.
+     */
+    @Transactional(readOnly = true)
+    @SuppressWarnings("unchecked")
+    public TaskTreeDTO getTree(UUID taskId, UUID userId) {
+        List<Task> tasks = entityManager.createNativeQuery(TREE_SQL, Task.class)
+                .setParameter("userId", userId)
+                .setParameter("rootId", taskId)
+                .getResultList();
+        if (tasks.isEmpty()) {
+            // La raíz se busca ya filtrada por usuario: solo ahora se mira si no existe o es ajena
+            taskRepository.findById(taskId)
+                    .orElseThrow(() -> new TaskNotFoundException("Tarea no encontrada con ID: " + taskId));
+            throw new UnauthorizedTaskAccessException("No tienes permiso para acceder a esta tarea");
+        }
+
+        // Un ciclo en parent_task_id repetiría filas: cuenta solo la primera aparición
+        Map<UUID, TaskTreeDTO> nodes = new LinkedHashMap<>();
+        for (Task task : tasks) {
+            nodes.putIfAbsent(task.getId(), new TaskTreeDTO(taskAssembler.toDTO(task), new ArrayList<>()));
+        }
+        List<TaskTreeDTO> ordered = new ArrayList<>(nodes.values());
+        for (TaskTreeDTO node : ordered.subList(1, ordered.size())) {
+            TaskTreeDTO parent = nodes.get(node.getTask().getParentTaskId());
+            if (parent != null) {
+                parent.getSubtasks().add(node);
+            }
+        }
+
+        // De abajo arriba: cuando se llega a un nodo, sus hijas ya tienen sus totales
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            long[] totals = new long[3];
+            for (TaskTreeDTO child : ordered.get(i).getSubtasks()) {
+                TaskDTO subtask = child.getTask();
+                long[] contribution = TaskRollupChanges.contributionOf(subtask.getStatus(),
+                        subtask.getEstimatedDurationMinutes(), subtask.getSubtaskCount(),
+                        subtask.getCompletedSubtaskCount(), subtask.getSubtreeEstimatedMinutes());
+                for (int k = 0; k < totals.length; k++) {
+                    totals[k] += contribution[k];
+                }
+            }
+            TaskDTO dto = ordered.get(i).getTask();
+            dto.setSubtaskCount((int) totals[TOTAL]);
+            dto.setCompletedSubtaskCount((int) totals[COMPLETED]);
+            dto.setSubtreeEstimatedMinutes(totals[MINUTES]);
+        }
+        log.debug("Árbol de la tarea {}: {} tareas", taskId, ordered.size());
+        return ordered.get(0);
+    }
+
+    // ============= TOTALES =============
+
+    /**
+     * Suma a las antecesoras de cada tarea padre lo que cambió debajo de ella. Una consulta recursiva
+     * resuelve todas las cadenas a la vez y las antecesoras con la misma diferencia se actualizan
+     * con un único UPDATE (lo habitual: una sola cadena, un solo UPDATE).
+     */
+    public void applyRollupChanges(UUID userId, TaskRollupChanges changes) {
+        Map<UUID, long[]> deltas = changes.deltasByParent();
+        if (deltas.isEmpty()) {
+            return;
+        }
+        Map<UUID, long[]> byAncestor = new LinkedHashMap<>();
+        for (Object[] link : ancestorsOf(userId, deltas.keySet())) {
+            long[] delta = deltas.get((UUID) link[0]);
+            long[] sum = byAncestor.computeIfAbsent((UUID) link[1], id -> new long[3]);
+            for (int k = 0; k < sum.length; k++) {
+                sum[k] += delta[k];
+            }
+        }
+
+        Map<List<Long>, List<UUID>> idsByDelta = new LinkedHashMap<>();
+        byAncestor.forEach((id, delta) -> idsByDelta
+                .computeIfAbsent(List.of(delta[TOTAL], delta[COMPLETED], delta[MINUTES]), key -> new ArrayList<>())
+                .add(id));
+        idsByDelta.forEach((delta, ids) -> taskRepository.addToRollups(ids,
+                delta.get(TOTAL).intValue(), delta.get(COMPLETED).intValue(), delta.get(MINUTES)));
+
+        // El UPDATE en bloque no pasa por los listeners de Task
+        changeTracker.recordChanges(userId, byAncestor.keySet());
+        log.trace("Totales de subtareas actualizados en {} tareas del usuario {}", byAncestor.size(), userId);
+    }
+
+    /**
+     * true si colgar la tarea de newParentId cerraría un ciclo: la nueva madre es ella misma
+     * o una de sus subtareas.
+     */
+    public boolean wouldCreateCycle(UUID userId, UUID taskId, UUID newParentId) {
+        return taskId.equals(newParentId) || ancestorsOf(userId, List.of(newParentId)).stream()
+                .anyMatch(link -> taskId.equals(link[1]));
+    }
+
+    /**
+     * Recalcula desde cero los totales de todas las tareas del usuario, para tareas anteriores
+     * a estas columnas o si se hubieran descuadrado. Escribe solo las tareas cuyos totales cambian.
+     */
+    public int rebuildRollups(UUID userId) {
+        List<TaskRollupProjection> tasks = taskRepository.findRollupsByUserId(userId);
+        Map<UUID, TaskRollupProjection> byId = new HashMap<>();
+        Map<UUID, List<TaskRollupProjection>> children = new HashMap<>();
+        for (TaskRollupProjection task : tasks) {
+            byId.put(task.getId(), task);
+            if (task.getParentTaskId() != null) {
+                children.computeIfAbsent(task.getParentTaskId(), id -> new ArrayList<>()).add(task);
+            }
+        }
+
+        // Por niveles desde las raíces; las tareas de un ciclo no son alcanzables y se dejan como están
+        List<TaskRollupProjection> ordered = new ArrayList<>();
+        for (TaskRollupProjection task : tasks) {
+            if (task.getParentTaskId() == null || !byId.containsKey(task.getParentTaskId())) {
+                ordered.add(task);
+            }
+        }
+        for (int i = 0; i < ordered.size(); i++) {
+            ordered.addAll(children.getOrDefault(ordered.get(i).getId(), List.of()));
+        }
+
+        Map<UUID, long[]> totals = new HashMap<>();
+        for (int i = ordered.size() - 1; i >= 0; i--) {
+            TaskRollupProjection task = ordered.get(i);
+            if (task.getParentTaskId() == null || !byId.containsKey(task.getParentTaskId())) {
+                continue;
+            }
+            long[] own = totals.getOrDefault(task.getId(), new long[3]);
+            long[] contribution = TaskRollupChanges.contributionOf(task.getStatus(),
+                    task.getEstimatedDurationMinutes(), (int) own[TOTAL], (int) own[COMPLETED], own[MINUTES]);
+            long[] parent = totals.computeIfAbsent(task.getParentTaskId(), id -> new long[3]);
+            for (int k = 0; k < parent.length; k++) {
+                parent[k] += contribution[k];
+            }
+        }
+
+        List<UUID> changed = new ArrayList<>();
+        for (TaskRollupProjection task : ordered) {
+            long[] expected = totals.getOrDefault(task.getId(), new long[3]);
+            if (!Objects.equals(task.getSubtaskCount(), (int) expected[TOTAL])
+                    || !Objects.equals(task.getCompletedSubtaskCount(), (int) expected[COMPLETED])
+                    || !Objects.equals(task.getSubtreeEstimatedMinutes(), expected[MINUTES])) {
+                taskRepository.setRollups(task.getId(), (int) expected[TOTAL], (int) expected[COMPLETED],
+                        expected[MINUTES]);
+                changed.add(task.getId());
+            }
+        }
+        if (!changed.isEmpty()) {
+            changeTracker.recordChanges(userId, changed);
+        }
+        log.info("Totales de subtareas del usuario {} recalculados: {} de {} tareas corregidas",
+                userId, changed.size(), tasks.size());
+        return changed.size();
+    }
+
+    // ============= MÉTODOS PRIVADOS =============
+
+    private List<Object[]> ancestorsOf(UUID userId, Collection<UUID> taskIds) {
+        return entityManager.unwrap(Session.class)
+                .createNativeQuery(ANCESTORS_SQL, Object[].class)
+                .addScalar("origin", UUID.class)
+                .addScalar("id", UUID.class)
+                .addSynchronizedQuerySpace("tasks")
+                .setParameter("userId", userId)
+                .setParameterList("ids", taskIds)
+                .getResultList();
+    }
+}
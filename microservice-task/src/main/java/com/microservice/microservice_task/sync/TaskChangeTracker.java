@@ -0,0 +1,23 @@
+package com.microservice.microservice_task.sync;
+
+import com.microservice.common.sync.ChangeTracker;
+import com.microservice.common.sync.SyncTables;
+import jakarta.persistence.EntityManager;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.stereotype.Component;
+
+/**
+ * Numera los cambios de las tareas de cada usuario para la sincronización incremental
+ * (ver {@link ChangeTracker} y TaskSyncService).
+ */
+@Component
+public class TaskChangeTracker extends ChangeTracker {
+
+    public static final SyncTables TABLES =
+            new SyncTables("tasks", "user_id", "task_sync_sequences", "task_tombstones", "task_id");
+
+    @Autowired
+    public TaskChangeTracker(EntityManager entityManager) {
+        super(entityManager, TABLES);
+    }
+}
@@ -0,0 +1,29 @@
+package com.microservice.microservice_task.sync;
+
+import com.microservice.common.sync.ChangeTrackingListener;
+import com.microservice.microservice_task.model.Task;
+import jakarta.persistence.PostPersist;
+import jakarta.persistence.PostRemove;
+import jakarta.persistence.PostUpdate;
+import org.springframework.beans.factory.ObjectProvider;
+
+/**
+ * Anota en {@link TaskChangeTracker} cada escritura de una entidad Task para numerarla al confirmar.
+ */
+public class TaskSyncListener extends ChangeTrackingListener<Task> {
+
+    public TaskSyncListener(ObjectProvider<TaskChangeTracker> changeTracker) {
+        super(changeTracker, Task::getUserId, Task::getId);
+    }
+
+    @PostPersist
+    @PostUpdate
+    void onWrite(Task task) {
+        written(task);
+    }
+
+    @PostRemove
+    void onRemove(Task task) {
+        removed(task);
+    }
+}
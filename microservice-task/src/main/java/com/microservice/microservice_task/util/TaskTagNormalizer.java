@@ -0,0 +1,26 @@
+package com.microservice.microservice_task.util;
+
+import java.util.Locale;
+
+/**
+ * Normaliza una etiqueta tal como se guarda en task_tags: sin espacios alrededor, en minúsculas
+ * y como mucho {@link #MAX_TAG_LENGTH} caracteres. Se usa igual al indexar y al filtrar.
+ */
+public final class TaskTagNormalizer {
+
+    public static final int MAX_TAG_LENGTH = 64;
+
+    private TaskTagNormalizer() {
+    }
+
+    /**
+     * Devuelve la etiqueta normalizada, o null si queda vacía.
+     */
+    public static String normalize(String tag) {
+        if (tag == null || tag.isBlank()) {
+            return null;
+        }
+        String normalized = tag.trim().toLowerCase(Locale.ROOT);
+        return normalized.length() > MAX_TAG_LENGTH ? normalized.substring(0, MAX_TAG_LENGTH) : normalized;
+    }
+}
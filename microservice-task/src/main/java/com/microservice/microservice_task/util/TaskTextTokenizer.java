@@ -0,0 +1,47 @@
+package com.microservice.microservice_task.util;
+
+import java.text.Normalizer;
+import java.util.ArrayList;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Locale;
+import java.util.Set;
+import java.util.regex.Pattern;
+
+/**
+ * Normaliza texto para el índice de búsqueda: minúsculas, sin tildes ni diéresis
+ * ("Reunión" -> "reunion", "pingüino" -> "pinguino", "año" -> "ano") y separado en términos
+ * alfanuméricos. Se usa igual al indexar y al buscar, por lo que las búsquedas no distinguen acentos.
+ */
+public final class TaskTextTokenizer {
+
+    public static final int MAX_TERM_LENGTH = 64;
+
+    private static final Pattern DIACRITICS = Pattern.compile("\\p{M}+");
+    private static final Pattern SEPARATORS = Pattern.compile("[^\\p{L}\\p{N}]+");
+
+    private TaskTextTokenizer() {
+    }
+
+    public static String normalize(String text) {
+        if (text == null) {
+            return "";
+        }
+        String decomposed = Normalizer.normalize(text, Normalizer.Form.NFD);
+        return DIACRITICS.matcher(decomposed).replaceAll("").toLowerCase(Locale.ROOT);
+    }
+
+    /**
+     * Devuelve los términos distintos del texto, en orden de aparición.
+     */
+    public static List<String> tokenize(String text) {
+        Set<String> terms = new LinkedHashSet<>();
+        for (String token : SEPARATORS.split(normalize(text))) {
+            if (token.isEmpty()) {
+                continue;
+            }
+            terms.add(token.length() > MAX_TERM_LENGTH ? token.substring(0, MAX_TERM_LENGTH) : token);
+        }
+        return new ArrayList<>(terms);
+    }
+}
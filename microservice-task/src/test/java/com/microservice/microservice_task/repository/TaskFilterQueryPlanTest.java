@@ -0,0 +1,244 @@
+package com.microservice.microservice_task.repository;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.dto.TaskFilterDTO;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskCategory;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.service.TaskTagService;
+import com.microservice.microservice_task.support.SqlCaptureInspector;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.jpa.domain.Specification;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.function.Consumer;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Compila cada combinación de filtros, captura el SQL generado y comprueba con EXPLAIN (H2)
+ * que ninguna recorre la tabla completa y que solo aparecen los predicados pedidos.
+ */
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties", properties =
+        "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.microservice.microservice_task.support.SqlCaptureInspector")
+@Import({TaskTagService.class, TaskAssembler.class, UserTimeZoneCache.class, CacheConfig.class})
+class TaskFilterQueryPlanTest {
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTagService taskTagService;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        taskRepository.deleteAll();
+        userId = UUID.randomUUID();
+
+        save("Informe", TaskStatus.PENDING, TaskPriority.HIGH, TaskCategory.WORK, 1, "[\"trabajo\",\"urgente\"]");
+        save("Gimnasio", TaskStatus.IN_PROGRESS, TaskPriority.LOW, TaskCategory.HEALTH, 2, "[\"salud\"]");
+        save("Factura", TaskStatus.COMPLETED, TaskPriority.MEDIUM, TaskCategory.FINANCE, -3, "[\"trabajo\"]");
+        save("Vencida", TaskStatus.PENDING, TaskPriority.URGENT, TaskCategory.WORK, -1, null);
+    }
+
+    @Test
+    void userOnly() {
+        assertPlan(filter -> { }, 4);
+    }
+
+    @Test
+    void multipleStatuses() {
+        assertPlan(filter -> filter.setStatuses(List.of(TaskStatus.PENDING, TaskStatus.IN_PROGRESS)), 3);
+    }
+
+    @Test
+    void multiplePriorities() {
+        assertPlan(filter -> filter.setPriorities(List.of(TaskPriority.HIGH, TaskPriority.URGENT)), 2);
+    }
+
+    @Test
+    void multipleCategories() {
+        assertPlan(filter -> filter.setCategories(List.of(TaskCategory.HEALTH, TaskCategory.FINANCE)), 2);
+    }
+
+    @Test
+    void dueDateRange() {
+        assertPlan(filter -> {
+            filter.setDueDateFrom(LocalDate.now());
+            filter.setDueDateTo(LocalDate.now().plusDays(2));
+        }, 2);
+    }
+
+    @Test
+    void overdue() {
+        assertPlan(filter -> filter.setIsOverdue(true), 1);
+    }
+
+    @Test
+    void notOverdue() {
+        assertPlan(filter -> filter.setIsOverdue(false), 3);
+    }
+
+    @Test
+    void recurring() {
+        assertPlan(filter -> filter.setIsRecurring(false), 4);
+    }
+
+    @Test
+    void parentTask() {
+        assertPlan(filter -> filter.setParentTaskId(UUID.randomUUID()), 0);
+    }
+
+    @Test
+    void allTagsMustMatch() {
+        assertPlan(filter -> filter.setTags(List.of("trabajo", "urgente")), 1);
+    }
+
+    @Test
+    void tagsAreCaseInsensitive() {
+        assertPlan(filter -> filter.setTags(List.of(" Trabajo ")), 2);
+    }
+
+    @Test
+    void searchText() {
+        // El índice de búsqueda no se alimenta aquí: solo interesa el plan de la subconsulta
+        assertPlan(filter -> filter.setSearchText("informe"), 0);
+    }
+
+    @Test
+    void combinedFilters() {
+        assertPlan(filter -> {
+            filter.setStatuses(List.of(TaskStatus.PENDING, TaskStatus.COMPLETED));
+            filter.setCategories(List.of(TaskCategory.WORK, TaskCategory.FINANCE));
+            filter.setTags(List.of("trabajo"));
+            filter.setIsOverdue(false);
+        }, 2);
+    }
+
+    @Test
+    void cursorPagesVisitEveryTaskOnceWithoutScan() {
+        TaskFilterDTO filter = new TaskFilterDTO();
+        filter.setUserId(userId);
+        List<UUID> all = taskRepository.findBy(TaskSpecifications.fromFilter(filter),
+                query -> query.sortBy(TaskCursor.SORT).all()).stream().map(Task::getId).toList();
+
+        List<UUID> visited = new ArrayList<>();
+        TaskCursor cursor = null;
+        SqlCaptureInspector.clear();
+        do {
+            Specification<Task> spec = TaskSpecifications.fromFilter(filter);
+            if (cursor != null) {
+                spec = spec.and(TaskSpecifications.after(TaskCursor.decode(cursor.encode())));
+            }
+            List<Task> page = taskRepository.findBy(spec, query -> query.sortBy(TaskCursor.SORT).limit(2).all());
+            page.forEach(task -> visited.add(task.getId()));
+            cursor = page.size() == 2 ? TaskCursor.of(page.get(1)) : null;
+        } while (cursor != null);
+
+        assertThat(visited).containsExactlyElementsOf(all);
+        for (String sql : SqlCaptureInspector.selectsOn("tasks")) {
+            assertThat(sql).doesNotContainIgnoringCase("offset");
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertThat(plan).as(plan).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    @Test
+    void dueDateWindowQueriesUseUserDueDateIndex() {
+        LocalDate today = LocalDate.now();
+        LocalDateTime from = today.atStartOfDay();
+        LocalDateTime to = today.plusDays(3).atStartOfDay();
+
+        SqlCaptureInspector.clear();
+        List<Task> tasks = taskRepository.findByUserIdAndDueDateInWindow(userId, from, to);
+        Long count = taskRepository.countByUserIdAndDueDateInWindow(userId, from, to);
+
+        assertThat(tasks).extracting(Task::getTitle).containsExactly("Informe", "Gimnasio");
+        assertThat(count).isEqualTo(2);
+        List<String> statements = SqlCaptureInspector.selectsOn("tasks");
+        assertThat(statements).hasSize(2);
+        for (String sql : statements) {
+            assertThat(sql).doesNotContainIgnoringCase("cast(").doesNotContainIgnoringCase("date(");
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertThat(plan).as(plan).doesNotContainIgnoringCase("tableScan")
+                    .containsIgnoringCase("idx_tasks_user_due_date");
+        }
+    }
+
+    @Test
+    void archiveCandidatesUseStatusUpdatedIndex() {
+        SqlCaptureInspector.clear();
+        List<ArchiveCandidateProjection> candidates = taskRepository.findArchiveCandidates(
+                LocalDateTime.now().plusDays(1), PageRequest.of(0, 10));
+
+        assertThat(candidates).extracting(ArchiveCandidateProjection::getId).hasSize(1);
+        for (String sql : SqlCaptureInspector.selectsOn("tasks")) {
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertThat(plan).as(plan).doesNotContainIgnoringCase("tableScan")
+                    .containsIgnoringCase("idx_tasks_status_updated");
+        }
+    }
+
+    private void assertPlan(Consumer<TaskFilterDTO> configurer, int expectedResults) {
+        TaskFilterDTO filter = new TaskFilterDTO();
+        filter.setUserId(userId);
+        configurer.accept(filter);
+
+        SqlCaptureInspector.clear();
+        Page<Task> page = taskRepository.findAll(
+                TaskSpecifications.fromFilter(filter), PageRequest.of(0, 20));
+
+        assertThat(page.getContent()).hasSize(expectedResults);
+        List<String> statements = SqlCaptureInspector.selectsOn("tasks");
+        assertThat(statements).isNotEmpty();
+        for (String sql : statements) {
+            assertThat(sql).doesNotContain("? is null");
+            String plan = jdbcTemplate.queryForObject("EXPLAIN " + sql, String.class);
+            assertThat(plan).as(plan).doesNotContainIgnoringCase("tableScan");
+        }
+    }
+
+    private void save(String title, TaskStatus status, TaskPriority priority, TaskCategory category,
+                      int dueInDays, String tags) {
+        Task task = new Task();
+        task.setUserId(userId);
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setPriority(priority);
+        task.setCategory(category);
+        task.setDueDate(LocalDateTime.now().plusDays(dueInDays));
+        task.setTags(tags);
+        task.setCreatedAt(LocalDateTime.now());
+        task.setUpdatedAt(LocalDateTime.now());
+        Task saved = taskRepository.save(task);
+        taskTagService.index(saved);
+        if (saved.isOverdue()) {
+            // Lo que haría el detector de vencidas
+            taskRepository.markOverdue(List.of(saved.getId()), LocalDateTime.now());
+        }
+    }
+}
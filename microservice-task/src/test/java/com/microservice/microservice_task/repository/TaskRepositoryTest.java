@@ -1,5 +1,6 @@
 package com.microservice.microservice_task.repository;
 
+import com.microservice.microservice_task.dto.TaskFilterDTO;
 import com.microservice.microservice_task.model.Task;
 import com.microservice.microservice_task.model.TaskCategory;
 import com.microservice.microservice_task.model.TaskPriority;
@@ -78,6 +79,8 @@ class TaskRepositoryTest {
         task1 = taskRepository.save(task1);
         task2 = taskRepository.save(task2);
         task3 = taskRepository.save(task3);
+        // La marca de vencida la pone el detector (TaskOverdueService), no el guardado
+        taskRepository.markOverdue(List.of(task3.getId()), LocalDateTime.now());
     }
 
     @Test
@@ -114,12 +117,35 @@ class TaskRepositoryTest {
 
     @Test
     void testFindOverdueTasksByUserId() {
-        List<Task> overdueTasks = taskRepository.findOverdueTasksByUserId(userId, LocalDateTime.now());
+        List<Task> overdueTasks = taskRepository.findOverdueTasksByUserId(userId);
         
         assertThat(overdueTasks).hasSize(1);
         assertThat(overdueTasks.get(0).getTitle()).isEqualTo("Tarea vencida");
     }
 
+    @Test
+    void testNotOverdueFilterIncludesTasksWithoutDueDate() {
+        Task undated = new Task();
+        undated.setUserId(userId);
+        undated.setTitle("Sin fecha");
+        undated.setStatus(TaskStatus.PENDING);
+        undated.setPriority(TaskPriority.LOW);
+        undated.setCreatedAt(LocalDateTime.now());
+        undated.setUpdatedAt(LocalDateTime.now());
+        undated = taskRepository.save(undated);
+
+        TaskFilterDTO filter = new TaskFilterDTO();
+        filter.setUserId(userId);
+        filter.setIsOverdue(false);
+        List<Task> notOverdue = taskRepository.findAll(TaskSpecifications.fromFilter(filter));
+        filter.setIsOverdue(true);
+        List<Task> overdue = taskRepository.findAll(TaskSpecifications.fromFilter(filter));
+
+        // Una tarea sin fecha límite nunca vence: NOT(overdue) no debe descartarla por el NULL
+        assertThat(notOverdue).extracting(Task::getId).contains(undated.getId(), task1.getId(), task2.getId());
+        assertThat(overdue).extracting(Task::getId).doesNotContain(undated.getId());
+    }
+
     @Test
     void testFindByUserIdOrderByOrderIndexAscCreatedAtDesc() {
         Page<Task> tasksPage = taskRepository.findByUserIdOrderByOrderIndexAscCreatedAtDesc(userId, PageRequest.of(0, 10));
@@ -144,11 +170,42 @@ class TaskRepositoryTest {
 
     @Test
     void testCountOverdueByUserId() {
-        Long overdueCount = taskRepository.countOverdueByUserId(userId, LocalDateTime.now());
+        Long overdueCount = taskRepository.countOverdueByUserId(userId);
         
         assertThat(overdueCount).isEqualTo(1);
     }
 
+    @Test
+    void testGetSummaryByUserIdMatchesIndividualCounts() {
+        LocalDateTime now = LocalDateTime.now();
+        LocalDateTime startOfToday = now.toLocalDate().atStartOfDay();
+
+        TaskSummaryProjection summary = taskRepository.getSummaryByUserId(
+                userId, startOfToday, startOfToday.plusDays(1), startOfToday, startOfToday.plusDays(7));
+
+        assertThat(summary.getTotalTasks()).isEqualTo(taskRepository.countByUserId(userId));
+        assertThat(summary.getPendingTasks())
+                .isEqualTo(taskRepository.countByUserIdAndStatus(userId, TaskStatus.PENDING));
+        assertThat(summary.getInProgressTasks())
+                .isEqualTo(taskRepository.countByUserIdAndStatus(userId, TaskStatus.IN_PROGRESS));
+        assertThat(summary.getCompletedTasks()).isZero();
+        assertThat(summary.getOverdueTasks()).isEqualTo(taskRepository.countOverdueByUserId(userId));
+        assertThat(summary.getThisWeekTasks()).isEqualTo(2);
+        assertThat(summary.getAverageDuration()).isNull();
+    }
+
+    @Test
+    void testGetSummaryByUserIdWithoutTasks() {
+        LocalDateTime now = LocalDateTime.now();
+
+        TaskSummaryProjection summary = taskRepository.getSummaryByUserId(
+                UUID.randomUUID(), now, now.plusDays(1), now, now.plusDays(7));
+
+        assertThat(summary.getTotalTasks()).isZero();
+        assertThat(summary.getPendingTasks()).isZero();
+        assertThat(summary.getOverdueTasks()).isZero();
+    }
+
     @Test
     void testExistsByUserIdAndId() {
         boolean exists = taskRepository.existsByUserIdAndId(userId, task1.getId());
@@ -0,0 +1,74 @@
+package com.microservice.microservice_task.scheduler;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class ReminderTimingWheelTest {
+
+    private static final LocalDateTime ORIGIN = LocalDateTime.of(2025, 6, 1, 12, 0);
+
+    @Test
+    void advance_ShouldReturnEntriesOnlyOnceTheirTimeHasCome() {
+        ReminderTimingWheel wheel = new ReminderTimingWheel(ORIGIN, Duration.ofSeconds(1), 10);
+        ReminderEntry soon = entry(0, ORIGIN.plusSeconds(3));
+        ReminderEntry nextLap = entry(0, ORIGIN.plusSeconds(13));
+        wheel.schedule(soon);
+        wheel.schedule(nextLap);
+
+        assertThat(wheel.advance(ORIGIN.plusSeconds(2))).isEmpty();
+        assertThat(wheel.advance(ORIGIN.plusSeconds(3))).containsExactly(soon);
+        assertThat(wheel.advance(ORIGIN.plusSeconds(12))).isEmpty();
+        assertThat(wheel.advance(ORIGIN.plusSeconds(13))).containsExactly(nextLap);
+        assertThat(wheel.size()).isZero();
+    }
+
+    @Test
+    void advance_ShouldCatchUpAfterSkippingMoreThanOneLap() {
+        ReminderTimingWheel wheel = new ReminderTimingWheel(ORIGIN, Duration.ofSeconds(1), 10);
+        ReminderEntry first = entry(0, ORIGIN.plusSeconds(5));
+        ReminderEntry second = entry(1, ORIGIN.plusSeconds(27));
+        ReminderEntry later = entry(2, ORIGIN.plusSeconds(45));
+        wheel.schedule(second);
+        wheel.schedule(later);
+        wheel.schedule(first);
+
+        assertThat(wheel.advance(ORIGIN.plusSeconds(30))).containsExactly(first, second);
+        assertThat(wheel.advance(ORIGIN.plusSeconds(45))).containsExactly(later);
+    }
+
+    @Test
+    void schedule_ShouldReplaceThePreviousEntryOfTheTaskAndSendOverdueOnTheNextTick() {
+        ReminderTimingWheel wheel = new ReminderTimingWheel(ORIGIN, Duration.ofSeconds(1), 10);
+        UUID taskId = UUID.randomUUID();
+        wheel.schedule(new ReminderEntry(taskId, 0, ORIGIN.plusSeconds(4)));
+        wheel.advance(ORIGIN.plusSeconds(2));
+        ReminderEntry moved = new ReminderEntry(taskId, 0, ORIGIN.minusMinutes(1));
+        wheel.schedule(moved);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(ORIGIN.plusSeconds(3))).containsExactly(moved);
+        assertThat(wheel.advance(ORIGIN.plusSeconds(4))).isEmpty();
+    }
+
+    @Test
+    void removeShard_ShouldDropOnlyThatShard() {
+        ReminderTimingWheel wheel = new ReminderTimingWheel(ORIGIN, Duration.ofSeconds(1), 10);
+        ReminderEntry kept = entry(1, ORIGIN.plusSeconds(2));
+        wheel.schedule(entry(0, ORIGIN.plusSeconds(2)));
+        wheel.schedule(kept);
+
+        wheel.removeShard(0);
+
+        assertThat(wheel.size()).isEqualTo(1);
+        assertThat(wheel.advance(ORIGIN.plusSeconds(2))).containsExactly(kept);
+    }
+
+    private ReminderEntry entry(int shard, LocalDateTime reminderDate) {
+        return new ReminderEntry(UUID.randomUUID(), shard, reminderDate);
+    }
+}
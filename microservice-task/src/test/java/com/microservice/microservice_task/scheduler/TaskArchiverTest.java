@@ -0,0 +1,234 @@
+package com.microservice.microservice_task.scheduler;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.TaskCache;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.config.DatabaseConfig;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.model.ArchivedTask;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskArchiveRepository;
+import com.microservice.microservice_task.repository.TaskJobRepository;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.repository.TaskTagRepository;
+import com.microservice.microservice_task.service.TaskArchiveService;
+import com.microservice.microservice_task.service.TaskDeletionService;
+import com.microservice.microservice_task.service.TaskSearchService;
+import com.microservice.microservice_task.service.TaskTagService;
+import com.microservice.microservice_task.service.TaskTreeService;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.mockito.stubbing.Answer;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.test.context.bean.override.mockito.MockitoSpyBean;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.UUID;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.atomic.AtomicReference;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mockingDetails;
+
+// Cada lote de archivado confirma su propia transacción
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import({TaskArchiveService.class, TaskDeletionService.class, TaskTreeService.class, TaskTagService.class,
+        TaskSearchService.class, TaskAssembler.class, TaskCache.class, UserTimeZoneCache.class, CacheConfig.class,
+        TaskChangeTracker.class, DatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskArchiverTest {
+
+    @Autowired
+    private TaskArchiveService archiveService;
+
+    @Autowired
+    private TaskDeletionService deletionService;
+
+    @Autowired
+    private TaskTagService tagService;
+
+    @MockitoSpyBean
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskArchiveRepository archiveRepository;
+
+    @Autowired
+    private TaskTagRepository tagRepository;
+
+    @Autowired
+    private TaskJobRepository jobRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LocalDateTime now;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        meterRegistry = new SimpleMeterRegistry();
+        now = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+        userId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAllInBatch();
+        archiveRepository.deleteAllInBatch();
+        tagRepository.deleteAllInBatch();
+        jobRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void archive_ShouldMoveOldFinishedTreesAndKeepEverythingElse() {
+        Task oldCompleted = finished("Completada hace meses", TaskStatus.COMPLETED, 200);
+        Task oldCancelled = finished("Cancelada hace meses", TaskStatus.CANCELLED, 120);
+        Task recent = finished("Completada ayer", TaskStatus.COMPLETED, 1);
+        Task oldPending = finished("Pendiente sin tocar", TaskStatus.PENDING, 300);
+        Task parent = finished("Raíz con subtarea completada", TaskStatus.COMPLETED, 150);
+        Task child = subtask(parent, TaskStatus.COMPLETED, 150);
+        Task openParent = finished("Raíz con subtarea pendiente", TaskStatus.COMPLETED, 150);
+        Task openChild = subtask(openParent, TaskStatus.PENDING, 150);
+
+        long moved = archiver(2).archive(now);
+
+        assertThat(moved).isEqualTo(4);
+        assertThat(archiveRepository.findAll()).extracting(ArchivedTask::getId)
+                .containsExactlyInAnyOrder(oldCompleted.getId(), oldCancelled.getId(), parent.getId(), child.getId());
+        assertThat(taskRepository.findAll()).extracting(Task::getId).containsExactlyInAnyOrder(
+                recent.getId(), oldPending.getId(), openParent.getId(), openChild.getId());
+        assertThat(archiveRepository.findById(oldCompleted.getId())).get()
+                .satisfies(archived -> {
+                    assertThat(archived.getTitle()).isEqualTo("Completada hace meses");
+                    assertThat(archived.getArchivedAt()).isEqualTo(now);
+                    assertThat(archived.getTags()).isEqualTo("[\"casa\"]");
+                });
+        // Las etiquetas solo indexan tareas vivas
+        assertThat(tagRepository.findAll()).noneMatch(tag -> tag.getTaskId().equals(oldCompleted.getId()));
+
+        assertThat(meterRegistry.get("tasks.archive.moved").counter().count()).isEqualTo(4);
+        assertThat(meterRegistry.get("tasks.archive.batch").timer().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("tasks.table.rows").tag("table", "tasks").gauge().value()).isEqualTo(4);
+        assertThat(meterRegistry.get("tasks.table.rows").tag("table", "tasks_archive").gauge().value()).isEqualTo(4);
+        assertThat(archiver(2).archive(now)).isZero();
+    }
+
+    @Test
+    void archive_ShouldLeaveTreesThatChangedAfterTheyWereChosen() {
+        Task reopened = finished("Se reabre mientras tanto", TaskStatus.COMPLETED, 200);
+        Task growing = finished("Gana una subtarea mientras tanto", TaskStatus.COMPLETED, 200);
+        Task untouched = finished("Sin cambios", TaskStatus.COMPLETED, 200);
+        AtomicReference<Task> added = new AtomicReference<>();
+        // Otra transacción escribe entre la búsqueda de candidatas y el movimiento del primer lote
+        Answer<?> repository = mockingDetails(taskRepository).getMockCreationSettings().getDefaultAnswer();
+        doAnswer(invocation -> {
+            Object candidates = repository.answer(invocation);
+            if (added.get() == null) {
+                CompletableFuture.runAsync(() -> {
+                    jdbcTemplate.update("UPDATE tasks SET status = 'PENDING', completed_date = NULL, " +
+                            "updated_at = ? WHERE id = ?", now, reopened.getId());
+                    added.set(subtask(growing, TaskStatus.PENDING, 0));
+                }).join();
+            }
+            return candidates;
+        }).when(taskRepository).findArchiveCandidates(any(), any());
+
+        assertThat(archiver(10).archive(now)).isEqualTo(1);
+
+        assertThat(archiveRepository.findAll()).extracting(ArchivedTask::getId).containsExactly(untouched.getId());
+        assertThat(taskRepository.findAll()).extracting(Task::getId).containsExactlyInAnyOrder(
+                reopened.getId(), growing.getId(), added.get().getId());
+    }
+
+    @Test
+    void archive_ShouldDoNothingWhileAnotherInstanceHoldsTheLock() {
+        finished("Completada hace meses", TaskStatus.COMPLETED, 200);
+        assertThat(archiveService.tryLock("otra", now, now.plusMinutes(10))).isTrue();
+
+        assertThat(archiver(10).archive(now)).isZero();
+        assertThat(archiveRepository.count()).isZero();
+        assertThat(meterRegistry.get("tasks.table.rows").tag("table", "tasks").gauge().value()).isEqualTo(1);
+
+        archiveService.unlock("otra");
+        assertThat(archiver(10).archive(now)).isEqualTo(1);
+    }
+
+    @Test
+    void archivedTasks_ShouldBeReadableAndSearchableButDeletedWithTheAccount() {
+        finished("Declaración de la renta", TaskStatus.COMPLETED, 200);
+        Task other = finished("Pintar la cocina", TaskStatus.COMPLETED, 200);
+        archiver(10).archive(now);
+
+        assertThat(archiveService.getArchivedTasks(userId)).hasSize(2)
+                .allSatisfy(dto -> assertThat(dto.getArchivedAt()).isEqualTo(now));
+        Page<TaskDTO> found = archiveService.searchArchive(userId, "RENTA", PageRequest.of(0, 10));
+        assertThat(found.getContent()).extracting(TaskDTO::getTitle).containsExactly("Declaración de la renta");
+        assertThat(archiveService.searchArchive(userId, null, PageRequest.of(0, 1)).getTotalElements()).isEqualTo(2);
+        assertThat(archiveService.findArchivedTask(other.getId(), userId)).isPresent();
+        assertThat(archiveService.findArchivedTask(other.getId(), UUID.randomUUID())).isEmpty();
+
+        deletionService.deleteAllForUser(userId);
+        assertThat(archiveRepository.count()).isZero();
+    }
+
+    private TaskArchiver archiver(int batchSize) {
+        return new TaskArchiver(archiveService, meterRegistry, true, 90, 600, batchSize);
+    }
+
+    // Tarea raíz con el estado indicado y sin cambios desde hace daysAgo días
+    private Task finished(String title, TaskStatus status, int daysAgo) {
+        Task task = new Task();
+        task.setUserId(userId);
+        task.setTitle(title);
+        task.setStatus(status);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setDueDate(now.minusDays(daysAgo + 1));
+        task.setTags("[\"casa\"]");
+        if (status == TaskStatus.COMPLETED) {
+            task.setCompletedDate(now.minusDays(daysAgo));
+        }
+        Task saved = taskRepository.save(task);
+        tagService.index(saved);
+        age(saved, daysAgo);
+        return saved;
+    }
+
+    private Task subtask(Task parent, TaskStatus status, int daysAgo) {
+        Task child = finished("Subtarea de " + parent.getTitle(), status, daysAgo);
+        jdbcTemplate.update("UPDATE tasks SET parent_task_id = ? WHERE id = ?", parent.getId(), child.getId());
+        // Totales que mantendría TaskTreeService
+        jdbcTemplate.update("UPDATE tasks SET subtask_count = 1, completed_subtask_count = ? WHERE id = ?",
+                status == TaskStatus.COMPLETED ? 1 : 0, parent.getId());
+        return child;
+    }
+
+    // La auditoría fija updated_at al guardar: se envejece por SQL
+    private void age(Task task, int daysAgo) {
+        jdbcTemplate.update("UPDATE tasks SET updated_at = ? WHERE id = ?", now.minusDays(daysAgo), task.getId());
+    }
+}
@@ -0,0 +1,371 @@
+package com.microservice.microservice_task.scheduler;
+
+import com.microservice.microservice_task.cache.TaskCache;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.client.NotificationServiceClient;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.config.DatabaseConfig;
+import com.microservice.microservice_task.dto.OverdueNotificationDTO;
+import com.microservice.microservice_task.dto.OverdueTaskDTO;
+import com.microservice.microservice_task.dto.TaskReminderDTO;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskJobRepository;
+import com.microservice.microservice_task.repository.TaskOverdueNotificationRepository;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.service.TaskOverdueService;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.ZoneOffset;
+import java.time.temporal.ChronoUnit;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Cada paso del detector confirma su propia transacción
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import({TaskOverdueService.class, TaskCache.class, UserTimeZoneCache.class, CacheConfig.class, TaskChangeTracker.class,
+        DatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskOverdueScannerTest {
+
+    @Autowired
+    private TaskOverdueService overdueService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskJobRepository jobRepository;
+
+    @Autowired
+    private TaskOverdueNotificationRepository notificationRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    private StubNotificationClient notifications;
+
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        notifications = new StubNotificationClient();
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAllInBatch();
+        jobRepository.deleteAllInBatch();
+        notificationRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void firstScan_ShouldMarkAlreadyOverdueTasksWithoutNotifying() {
+        UUID userId = UUID.randomUUID();
+        Task old = taskRepository.save(task(userId, "Vencida antes del detector", base.minusDays(2)));
+        // Filas anteriores a la columna overdue_at
+        jdbcTemplate.update("UPDATE tasks SET overdue_at = NULL");
+
+        scanner(100).scan(base);
+
+        assertThat(taskRepository.findById(old.getId()).orElseThrow().getOverdueAt()).isEqualTo(base);
+        assertThat(overdueService.getWatermark()).contains(utc(base.minusSeconds(10)));
+        assertThat(notifications.batches).isEmpty();
+    }
+
+    @Test
+    void newlyOverdueTasks_ShouldBeFlaggedOnceAndNotifiedOncePerUser() {
+        TaskOverdueScanner scanner = scanner(2);
+        scanner.scan(base);
+        UUID first = UUID.randomUUID();
+        UUID second = UUID.randomUUID();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 3; i++) {
+            tasks.add(task(first, "Misma hora " + i, base.plusSeconds(30)));
+        }
+        tasks.add(task(first, "Más tarde", base.plusSeconds(45)));
+        tasks.add(task(second, "Otra", base.plusSeconds(40)));
+        Task completed = task(second, "Completada", base.plusSeconds(30));
+        completed.setStatus(TaskStatus.COMPLETED);
+        tasks.add(completed);
+        Task future = task(second, "Aún no vence", base.plusSeconds(500));
+        tasks.add(future);
+        taskRepository.saveAll(tasks);
+
+        scanner.scan(base.plusSeconds(100));
+        scanner.scan(base.plusSeconds(120));
+
+        assertThat(notifications.batches).hasSize(1);
+        List<OverdueNotificationDTO> batch = notifications.batches.get(0);
+        assertThat(batch).extracting(OverdueNotificationDTO::getUserId).containsExactlyInAnyOrder(first, second);
+        assertThat(batch).filteredOn(notification -> notification.getUserId().equals(first))
+                .flatExtracting(OverdueNotificationDTO::getTasks).extracting(OverdueTaskDTO::getTaskId)
+                .containsExactlyInAnyOrderElementsOf(tasks.subList(0, 4).stream().map(Task::getId).toList());
+        assertThat(taskRepository.countOverdueByUserId(first)).isEqualTo(4);
+        assertThat(taskRepository.countOverdueByUserId(second)).isEqualTo(1);
+        assertThat(taskRepository.findById(tasks.get(0).getId()).orElseThrow().getOverdueAt())
+                .isEqualTo(base.plusSeconds(100));
+        assertThat(overdueService.getWatermark()).contains(utc(base.plusSeconds(110)));
+        assertThat(notificationRepository.count()).isZero();
+    }
+
+    @Test
+    void failedDelivery_ShouldBeRetriedAndSkipTasksCompletedMeanwhile() {
+        TaskOverdueScanner scanner = scanner(100);
+        scanner.scan(base);
+        UUID userId = UUID.randomUUID();
+        Task done = taskRepository.save(task(userId, "Se completa antes del reintento", base.plusSeconds(20)));
+        Task pending = taskRepository.save(task(userId, "Sigue vencida", base.plusSeconds(20)));
+        notifications.failNext(1);
+
+        scanner.scan(base.plusSeconds(60));
+        assertThat(notifications.batches).isEmpty();
+        assertThat(notificationRepository.count()).isEqualTo(2);
+
+        Task reloaded = taskRepository.findById(done.getId()).orElseThrow();
+        reloaded.markAsCompleted();
+        taskRepository.save(reloaded);
+        assertThat(taskRepository.findById(done.getId()).orElseThrow().getOverdueAt()).isNull();
+
+        scanner.scan(base.plusSeconds(90));
+        assertThat(notifications.batches).hasSize(1);
+        assertThat(notifications.batches.get(0)).singleElement()
+                .satisfies(notification -> assertThat(notification.getTasks())
+                        .extracting(OverdueTaskDTO::getTaskId).containsExactly(pending.getId()));
+        assertThat(notificationRepository.count()).isZero();
+    }
+
+    @Test
+    void taskEditedAfterItsDueDateBeforeTheScan_ShouldStillBeNotifiedOnce() {
+        TaskOverdueScanner scanner = scanner(100);
+        scanner.scan(base);
+        UUID userId = UUID.randomUUID();
+        Task task = taskRepository.save(task(userId, "Recién vencida", base.minusSeconds(5)));
+
+        // El usuario la edita ya vencida, antes de que pase el detector: guardar no la marca
+        Task edited = taskRepository.findById(task.getId()).orElseThrow();
+        edited.setTitle("Recién vencida y editada");
+        taskRepository.save(edited);
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getOverdueAt()).isNull();
+
+        scanner.scan(base.plusSeconds(30));
+        scanner.scan(base.plusSeconds(60));
+
+        assertThat(notifications.batches).singleElement()
+                .satisfies(batch -> assertThat(batch).singleElement()
+                        .satisfies(notification -> assertThat(notification.getTasks())
+                                .extracting(OverdueTaskDTO::getTaskId).containsExactly(task.getId())));
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getOverdueAt()).isEqualTo(base.plusSeconds(30));
+    }
+
+    @Test
+    void tasksSavedOverdueBehindTheWatermark_ShouldBeFlaggedWithoutNotice() {
+        TaskOverdueScanner scanner = scanner(1);
+        scanner.scan(base);
+        UUID userId = UUID.randomUUID();
+        Task created = taskRepository.save(task(userId, "Creada ya vencida", base.minusDays(1)));
+        Task done = task(userId, "Completada y reabierta", base.minusDays(2));
+        done.setStatus(TaskStatus.COMPLETED);
+        done = taskRepository.save(done);
+        Task reopened = taskRepository.findById(done.getId()).orElseThrow();
+        reopened.setStatus(TaskStatus.PENDING);
+        taskRepository.save(reopened);
+        Task moved = taskRepository.save(task(userId, "Aplazada", base.plusDays(1)));
+        Task movedBack = taskRepository.findById(moved.getId()).orElseThrow();
+        movedBack.setDueDate(base.minusHours(3));
+        taskRepository.save(movedBack);
+
+        scanner.scan(base.plusSeconds(60));
+
+        assertThat(taskRepository.findOverdueTasksByUserId(userId)).extracting(Task::getId)
+                .containsExactlyInAnyOrder(created.getId(), done.getId(), moved.getId());
+        assertThat(notifications.batches).isEmpty();
+        assertThat(notificationRepository.count()).isZero();
+    }
+
+    @Test
+    void changingTheDueDate_ShouldClearTheMarkUntilTheDetectorEvaluatesItAgain() {
+        TaskOverdueScanner scanner = scanner(100);
+        scanner.scan(base);
+        UUID userId = UUID.randomUUID();
+        Task task = taskRepository.save(task(userId, "Se aplaza", base.minusSeconds(5)));
+        scanner.scan(base.plusSeconds(30));
+        assertThat(taskRepository.countOverdueByUserId(userId)).isEqualTo(1);
+
+        Task postponed = taskRepository.findById(task.getId()).orElseThrow();
+        postponed.setDueDate(base.plusSeconds(50));
+        taskRepository.save(postponed);
+        assertThat(taskRepository.countOverdueByUserId(userId)).isZero();
+
+        scanner.scan(base.plusSeconds(90));
+        assertThat(taskRepository.countOverdueByUserId(userId)).isEqualTo(1);
+        // Un aviso por cada fecha vencida
+        assertThat(notifications.batches).hasSize(2);
+    }
+
+    @Test
+    void dueDates_ShouldBeComparedWithTheLocalTimeOfEachUser() {
+        TaskOverdueScanner scanner = scanner(100);
+        scanner.scan(base);
+        UUID tokyo = userIn("Asia/Tokyo");
+        UUID bogota = userIn("America/Bogota");
+        LocalDateTime tokyoNow = localTime(base, "Asia/Tokyo");
+        LocalDateTime bogotaNow = localTime(base, "America/Bogota");
+        Task dueInTokyo = taskRepository.save(task(tokyo, "Vence en Tokio", tokyoNow.plusSeconds(30)));
+        Task dueInBogota = taskRepository.save(task(bogota, "Vence en Bogotá", bogotaNow.plusSeconds(30)));
+        // Misma hora local que la de Tokio: en Bogotá faltan 14 horas
+        Task laterInBogota = taskRepository.save(task(bogota, "Aún no vence en Bogotá", tokyoNow.plusSeconds(30)));
+
+        scanner.scan(base.plusSeconds(60));
+
+        assertThat(taskRepository.findOverdueTasksByUserId(tokyo)).extracting(Task::getId)
+                .containsExactly(dueInTokyo.getId());
+        assertThat(taskRepository.findOverdueTasksByUserId(bogota)).extracting(Task::getId)
+                .containsExactly(dueInBogota.getId());
+        assertThat(notifications.batches).singleElement()
+                .satisfies(batch -> assertThat(batch).extracting(OverdueNotificationDTO::getUserId)
+                        .containsExactlyInAnyOrder(tokyo, bogota));
+
+        // El watermark no la deja atrás: se marca y se avisa cuando vence en Bogotá
+        scanner.scan(base.plusHours(14).plusSeconds(20));
+        assertThat(taskRepository.countOverdueByUserId(bogota)).isEqualTo(1);
+        scanner.scan(base.plusHours(14).plusSeconds(60));
+
+        assertThat(taskRepository.findOverdueTasksByUserId(bogota)).extracting(Task::getId)
+                .containsExactlyInAnyOrder(dueInBogota.getId(), laterInBogota.getId());
+        assertThat(notifications.batches).hasSize(2);
+        assertThat(notifications.batches.get(1)).singleElement()
+                .satisfies(notification -> assertThat(notification.getTasks())
+                        .extracting(OverdueTaskDTO::getTaskId).containsExactly(laterInBogota.getId()));
+    }
+
+    @Test
+    void tasksSavedBeforeDueAt_ShouldGetItFromTheirUsersZoneAndBeScanned() {
+        TaskOverdueScanner scanner = scanner(1);
+        scanner.scan(base);
+        UUID tokyo = userIn("Asia/Tokyo");
+        LocalDateTime tokyoNow = localTime(base, "Asia/Tokyo");
+        Task due = taskRepository.save(task(tokyo, "Vence en Tokio", tokyoNow.plusSeconds(30)));
+        Task later = taskRepository.save(task(tokyo, "Vence mañana", tokyoNow.plusDays(1)));
+        // Filas anteriores a la columna due_at
+        jdbcTemplate.update("UPDATE tasks SET due_at = NULL");
+
+        scanner.fillMissingDueAt();
+        assertThat(taskRepository.findById(later.getId()).orElseThrow().getDueAt())
+                .isEqualTo(utc(base.plusDays(1)));
+        scanner.scan(base.plusSeconds(60));
+
+        assertThat(taskRepository.findOverdueTasksByUserId(tokyo)).extracting(Task::getId)
+                .containsExactly(due.getId());
+        assertThat(notifications.batches).singleElement();
+    }
+
+    @Test
+    void tryLock_ShouldAdmitASingleInstanceUntilTheLockExpires() {
+        assertThat(overdueService.tryLock("a", base, base.plusSeconds(60))).isTrue();
+        assertThat(overdueService.tryLock("b", base.plusSeconds(30), base.plusSeconds(90))).isFalse();
+        assertThat(overdueService.tryLock("b", base.plusSeconds(61), base.plusSeconds(120))).isTrue();
+
+        overdueService.unlock("a");
+        assertThat(overdueService.tryLock("a", base.plusSeconds(62), base.plusSeconds(120))).isFalse();
+        overdueService.unlock("b");
+        assertThat(overdueService.tryLock("a", base.plusSeconds(63), base.plusSeconds(120))).isTrue();
+    }
+
+    private TaskOverdueScanner scanner(int batchSize) {
+        return new TaskOverdueScanner(overdueService, notifications, true, 10, 300, batchSize, 100);
+    }
+
+    private UUID userIn(String zone) {
+        UUID userId = UUID.randomUUID();
+        cacheManager.getCache(UserTimeZoneCache.USER_TIME_ZONES).put(userId, zone);
+        return userId;
+    }
+
+    private static LocalDateTime localTime(LocalDateTime serverTime, String zone) {
+        return serverTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneId.of(zone)).toLocalDateTime();
+    }
+
+    // Hora del servidor en UTC, como due_at y el watermark
+    private static LocalDateTime utc(LocalDateTime serverTime) {
+        return serverTime.atZone(ZoneId.systemDefault()).withZoneSameInstant(ZoneOffset.UTC).toLocalDateTime();
+    }
+
+    private Task task(UUID userId, String title, LocalDateTime dueDate) {
+        Task task = new Task();
+        task.setUserId(userId);
+        task.setTitle(title);
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setDueDate(dueDate);
+        return task;
+    }
+
+    /**
+     * Servicio de notificaciones local: guarda los lotes de avisos recibidos y puede fallar a demanda.
+     */
+    private static class StubNotificationClient implements NotificationServiceClient {
+
+        private final List<List<OverdueNotificationDTO>> batches = new ArrayList<>();
+        private int failuresLeft;
+
+        void failNext(int failures) {
+            failuresLeft = failures;
+        }
+
+        @Override
+        public Boolean sendOverdueNotifications(List<OverdueNotificationDTO> overdueNotifications) {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("Servicio de notificaciones no disponible");
+            }
+            batches.add(List.copyOf(overdueNotifications));
+            return true;
+        }
+
+        @Override
+        public Boolean sendTaskReminder(Object reminderData) {
+            return true;
+        }
+
+        @Override
+        public Boolean sendTaskReminders(List<TaskReminderDTO> reminders) {
+            return true;
+        }
+
+        @Override
+        public Boolean sendOverdueNotification(Object overdueData) {
+            return true;
+        }
+
+        @Override
+        public Boolean sendTaskCompletedNotification(Object completionData) {
+            return true;
+        }
+    }
+}
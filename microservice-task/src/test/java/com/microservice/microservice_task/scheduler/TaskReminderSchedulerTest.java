@@ -0,0 +1,297 @@
+package com.microservice.microservice_task.scheduler;
+
+import com.microservice.microservice_task.client.NotificationServiceClient;
+import com.microservice.microservice_task.config.DatabaseConfig;
+import com.microservice.microservice_task.dto.OverdueNotificationDTO;
+import com.microservice.microservice_task.dto.TaskReminderDTO;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskReminderInstanceRepository;
+import com.microservice.microservice_task.repository.TaskReminderLeaseRepository;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.service.TaskReminderService;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.time.temporal.ChronoUnit;
+import java.util.*;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// El planificador confirma cada paso en su propia transacción y varias instancias comparten la base de datos
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import({TaskReminderService.class, DatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class TaskReminderSchedulerTest {
+
+    @Autowired
+    private TaskReminderService reminderService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskReminderLeaseRepository leaseRepository;
+
+    @Autowired
+    private TaskReminderInstanceRepository instanceRepository;
+
+    private StubNotificationClient notifications;
+
+    private LocalDateTime base;
+
+    @BeforeEach
+    void setUp() {
+        cleanUp();
+        notifications = new StubNotificationClient();
+        base = LocalDateTime.now().truncatedTo(ChronoUnit.SECONDS);
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskRepository.deleteAllInBatch();
+        leaseRepository.deleteAllInBatch();
+        instanceRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void tick_ShouldSendDueRemindersOnceAndInBatches() {
+        TaskReminderScheduler scheduler = scheduler("a", 50_000);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 250; i++) {
+            tasks.add(task("Recordatorio " + i, base.plusSeconds(10)));
+        }
+        Task completed = task("Completada", base.plusSeconds(10));
+        completed.setStatus(TaskStatus.COMPLETED);
+        tasks.add(completed);
+        Task later = task("Fuera del horizonte", base.plusSeconds(400));
+        tasks.add(later);
+        taskRepository.saveAll(tasks);
+
+        run(base, base.plusSeconds(9), scheduler);
+
+        assertThat(notifications.sentTaskIds()).isEmpty();
+        assertThat(scheduler.getOwnedShards()).hasSize(Task.REMINDER_SHARDS);
+        assertThat(scheduler.getLoadedCount()).isEqualTo(250);
+
+        scheduler.tick(base.plusSeconds(10));
+        assertThat(notifications.batchSizes()).containsExactly(100, 100, 50);
+
+        run(base.plusSeconds(11), base.plusSeconds(410), scheduler);
+        assertThat(notifications.sentTaskIds()).hasSize(251).doesNotHaveDuplicates()
+                .contains(later.getId()).doesNotContain(completed.getId());
+    }
+
+    @Test
+    void refresh_ShouldPickUpRemindersChangedAfterTheyWereLoaded() {
+        TaskReminderScheduler scheduler = scheduler("a", 50_000);
+        Task postponed = task("Adelantada", base.plusSeconds(60));
+        Task overdue = task("Vencida al refrescar", base.plusSeconds(60));
+        Task deleted = task("Borrada", base.plusSeconds(20));
+        taskRepository.saveAll(List.of(postponed, overdue, deleted));
+        run(base, base.plusSeconds(5), scheduler);
+
+        postponed.setReminderDate(base.plusSeconds(20));
+        overdue.setReminderDate(base.plusSeconds(12));
+        taskRepository.saveAll(List.of(postponed, overdue));
+        taskRepository.delete(deleted);
+
+        run(base.plusSeconds(6), base.plusSeconds(15), scheduler);
+        assertThat(notifications.sentTaskIds()).containsExactly(overdue.getId());
+
+        run(base.plusSeconds(16), base.plusSeconds(90), scheduler);
+        assertThat(notifications.sentTaskIds()).containsExactly(overdue.getId(), postponed.getId());
+        assertThat(notifications.sent().get(1).getReminderDate()).isEqualTo(base.plusSeconds(20));
+    }
+
+    @Test
+    void twoInstances_ShouldSplitShardsWithoutDuplicatesOrGaps() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 600; i++) {
+            tasks.add(task("Recordatorio " + i, base.plusSeconds(1 + i % 120)));
+        }
+        taskRepository.saveAll(tasks);
+        TaskReminderScheduler first = scheduler("a", 50_000);
+        TaskReminderScheduler second = scheduler("b", 50_000);
+
+        run(base, base.plusSeconds(130), first, second);
+
+        assertThat(first.getOwnedShards()).hasSize(Task.REMINDER_SHARDS / 2)
+                .doesNotContainAnyElementsOf(second.getOwnedShards());
+        assertThat(second.getOwnedShards()).hasSize(Task.REMINDER_SHARDS / 2);
+        assertThat(notifications.sentTaskIds()).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(tasks.stream().map(Task::getId).toList());
+    }
+
+    @Test
+    void failover_ShouldResumeFromTheLastWatermarkWhenALeaseExpires() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 1; i <= 100; i++) {
+            tasks.add(task("Recordatorio " + i, base.plusSeconds(i)));
+        }
+        taskRepository.saveAll(tasks);
+        TaskReminderScheduler crashed = scheduler("a", 50_000);
+        TaskReminderScheduler survivor = scheduler("b", 50_000);
+
+        // La primera instancia deja de responder tras el tick de base+40 (última renovación en base+30)
+        run(base, base.plusSeconds(40), crashed, survivor);
+        run(base.plusSeconds(41), base.plusSeconds(110), survivor);
+
+        assertThat(survivor.getOwnedShards()).hasSize(Task.REMINDER_SHARDS);
+        Map<UUID, Long> timesSent = notifications.sentTaskIds().stream()
+                .collect(Collectors.groupingBy(id -> id, Collectors.counting()));
+        assertThat(timesSent.keySet()).containsExactlyInAnyOrderElementsOf(tasks.stream().map(Task::getId).toList());
+        // Al menos una vez: solo se repite lo enviado entre la última renovación y la caída
+        Set<UUID> repeatable = tasks.stream()
+                .filter(task -> task.getReminderDate().isAfter(base.plusSeconds(30))
+                        && !task.getReminderDate().isAfter(base.plusSeconds(40)))
+                .map(Task::getId)
+                .collect(Collectors.toSet());
+        timesSent.forEach((taskId, times) -> {
+            if (times > 1) {
+                assertThat(repeatable).contains(taskId);
+            }
+        });
+    }
+
+    @Test
+    void failedBatches_ShouldBeRetriedWithoutLosingReminders() {
+        TaskReminderScheduler scheduler = scheduler("a", 50_000);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 10; i++) {
+            tasks.add(task("Recordatorio " + i, base.plusSeconds(5)));
+        }
+        taskRepository.saveAll(tasks);
+        notifications.failNext(2);
+
+        run(base, base.plusSeconds(40), scheduler);
+
+        assertThat(notifications.sentTaskIds()).doesNotHaveDuplicates()
+                .containsExactlyInAnyOrderElementsOf(tasks.stream().map(Task::getId).toList());
+    }
+
+    /**
+     * Con más recordatorios que sitio en memoria la rueda no pasa del máximo (salvo los que comparten
+     * la misma hora) y todos se envían. El tiempo solo se registra (depende de la máquina).
+     */
+    @Test
+    void backlog_ShouldKeepMemoryBoundedAndStillSendEverything() {
+        TaskReminderScheduler scheduler = scheduler("a", 500);
+        scheduler.tick(base);
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 5_000; i++) {
+            tasks.add(task("Recordatorio " + i, base.plusSeconds(1 + i / 100).plusNanos(i * 1_000L)));
+        }
+        for (int i = 0; i < 600; i++) {
+            tasks.add(task("Misma hora " + i, base.plusSeconds(60)));
+        }
+        taskRepository.saveAll(tasks);
+
+        int maxLoaded = 0;
+        long start = System.nanoTime();
+        for (LocalDateTime now = base.plusSeconds(1); !now.isAfter(base.plusSeconds(100)); now = now.plusSeconds(1)) {
+            scheduler.tick(now);
+            maxLoaded = Math.max(maxLoaded, scheduler.getLoadedCount());
+        }
+        long elapsedMillis = (System.nanoTime() - start) / 1_000_000;
+
+        log.info("{} recordatorios enviados en {} ms, máximo en memoria {}",
+                notifications.sentTaskIds().size(), elapsedMillis, maxLoaded);
+        assertThat(maxLoaded).isLessThanOrEqualTo(500 + 600);
+        assertThat(notifications.sentTaskIds()).hasSize(5_600).doesNotHaveDuplicates();
+    }
+
+    private void run(LocalDateTime from, LocalDateTime to, TaskReminderScheduler... schedulers) {
+        for (LocalDateTime now = from; !now.isAfter(to); now = now.plusSeconds(1)) {
+            for (TaskReminderScheduler scheduler : schedulers) {
+                scheduler.tick(now);
+            }
+        }
+    }
+
+    private TaskReminderScheduler scheduler(String instanceId, int maxLoaded) {
+        return new TaskReminderScheduler(reminderService, notifications, true, instanceId,
+                1000, 300, 15, 30, maxLoaded, 100, 3);
+    }
+
+    private Task task(String title, LocalDateTime reminderDate) {
+        Task task = new Task();
+        task.setUserId(UUID.randomUUID());
+        task.setTitle(title);
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setDueDate(reminderDate.plusHours(1));
+        task.setReminderDate(reminderDate);
+        return task;
+    }
+
+    /**
+     * Servicio de notificaciones local: guarda los lotes recibidos y puede fallar a demanda.
+     */
+    private static class StubNotificationClient implements NotificationServiceClient {
+
+        private final List<List<TaskReminderDTO>> batches = new ArrayList<>();
+        private int failuresLeft;
+
+        void failNext(int failures) {
+            failuresLeft = failures;
+        }
+
+        List<TaskReminderDTO> sent() {
+            return batches.stream().flatMap(List::stream).toList();
+        }
+
+        List<UUID> sentTaskIds() {
+            return sent().stream().map(TaskReminderDTO::getTaskId).toList();
+        }
+
+        List<Integer> batchSizes() {
+            return batches.stream().map(List::size).toList();
+        }
+
+        @Override
+        public Boolean sendTaskReminders(List<TaskReminderDTO> reminders) {
+            if (failuresLeft > 0) {
+                failuresLeft--;
+                throw new IllegalStateException("Servicio de notificaciones no disponible");
+            }
+            batches.add(List.copyOf(reminders));
+            return true;
+        }
+
+        @Override
+        public Boolean sendTaskReminder(Object reminderData) {
+            return true;
+        }
+
+        @Override
+        public Boolean sendOverdueNotification(Object overdueData) {
+            return true;
+        }
+
+        @Override
+        public Boolean sendOverdueNotifications(List<OverdueNotificationDTO> overdueNotifications) {
+            return true;
+        }
+
+        @Override
+        public Boolean sendTaskCompletedNotification(Object completionData) {
+            return true;
+        }
+    }
+}
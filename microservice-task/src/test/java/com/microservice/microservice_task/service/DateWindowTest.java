@@ -0,0 +1,63 @@
+package com.microservice.microservice_task.service;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+class DateWindowTest {
+
+    @Test
+    void today_ShouldBeHalfOpen() {
+        DateWindow window = DateWindow.today(LocalDate.of(2024, 3, 10));
+
+        assertThat(window.getStart()).isEqualTo(LocalDateTime.of(2024, 3, 10, 0, 0));
+        assertThat(window.getEnd()).isEqualTo(LocalDateTime.of(2024, 3, 11, 0, 0));
+        assertThat(window.contains(LocalDateTime.of(2024, 3, 10, 23, 59, 59, 999_999_999))).isTrue();
+        assertThat(window.contains(LocalDateTime.of(2024, 3, 11, 0, 0))).isFalse();
+    }
+
+    @Test
+    void nextDays_ShouldStartOnTheGivenDay() {
+        DateWindow week = DateWindow.nextDays(LocalDate.of(2024, 12, 29), 7);
+
+        assertThat(week.getStart()).isEqualTo(LocalDateTime.of(2024, 12, 29, 0, 0));
+        assertThat(week.getEnd()).isEqualTo(LocalDateTime.of(2025, 1, 5, 0, 0));
+        assertThatThrownBy(() -> DateWindow.nextDays(LocalDate.of(2024, 1, 1), 0))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void month_ShouldCoverTheCalendarMonth() {
+        assertThat(DateWindow.month(LocalDate.of(2024, 2, 29)))
+                .isEqualTo(DateWindow.days(LocalDate.of(2024, 2, 1), LocalDate.of(2024, 2, 29)));
+        assertThat(DateWindow.month(LocalDate.of(2024, 12, 15)).getEnd())
+                .isEqualTo(LocalDateTime.of(2025, 1, 1, 0, 0));
+    }
+
+    @Test
+    void days_ShouldIncludeTheLastDay() {
+        DateWindow window = DateWindow.days(LocalDate.of(2024, 5, 1), LocalDate.of(2024, 5, 1));
+
+        assertThat(window).isEqualTo(DateWindow.today(LocalDate.of(2024, 5, 1)));
+        assertThatThrownBy(() -> DateWindow.days(LocalDate.of(2024, 5, 2), LocalDate.of(2024, 5, 1)))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    @Test
+    void today_ShouldDependOnTheUserZone() {
+        // 23:30 UTC del 31 de marzo: en Madrid ya es 1 de abril y en Ciudad de México sigue siendo 31
+        Instant instant = Instant.parse("2024-03-31T23:30:00Z");
+        LocalDate madrid = LocalDate.ofInstant(instant, ZoneId.of("Europe/Madrid"));
+        LocalDate mexico = LocalDate.ofInstant(instant, ZoneId.of("America/Mexico_City"));
+
+        assertThat(DateWindow.today(madrid).getStart()).isEqualTo(LocalDateTime.of(2024, 4, 1, 0, 0));
+        assertThat(DateWindow.today(mexico).getStart()).isEqualTo(LocalDateTime.of(2024, 3, 31, 0, 0));
+        assertThat(DateWindow.month(madrid)).isNotEqualTo(DateWindow.month(mexico));
+    }
+}
@@ -0,0 +1,68 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.model.RecurrenceType;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDateTime;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class RecurrenceCalculatorTest {
+
+    private static final LocalDateTime JAN_31 = LocalDateTime.of(2025, 1, 31, 9, 0);
+
+    @Test
+    void occurrences_MonthlyOnThe31stShouldClampWithoutDriftingTheSeries() {
+        assertThat(RecurrenceCalculator.occurrences(JAN_31, RecurrenceType.MONTHLY, null,
+                JAN_31, LocalDateTime.of(2025, 5, 1, 0, 0)))
+                .containsExactly(
+                        JAN_31,
+                        LocalDateTime.of(2025, 2, 28, 9, 0),
+                        LocalDateTime.of(2025, 3, 31, 9, 0),
+                        LocalDateTime.of(2025, 4, 30, 9, 0));
+    }
+
+    @Test
+    void occurrences_ShouldJumpStraightToTheWindowAndStopAtItsEnd() {
+        LocalDateTime start = LocalDateTime.of(2000, 1, 1, 8, 30);
+
+        assertThat(RecurrenceCalculator.occurrences(start, RecurrenceType.DAILY, null,
+                LocalDateTime.of(2025, 6, 10, 12, 0), LocalDateTime.of(2025, 6, 13, 8, 30)))
+                .containsExactly(
+                        LocalDateTime.of(2025, 6, 11, 8, 30),
+                        LocalDateTime.of(2025, 6, 12, 8, 30));
+    }
+
+    @Test
+    void occurrences_ShouldIncludeTheEndDateAndNothingAfterIt() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 3, 10, 0);
+
+        assertThat(RecurrenceCalculator.occurrences(start, RecurrenceType.WEEKLY, LocalDateTime.of(2025, 3, 17, 10, 0),
+                start, start.plusYears(1)))
+                .containsExactly(start, start.plusWeeks(1), start.plusWeeks(2));
+    }
+
+    @Test
+    void occurrences_ShouldBeEmptyBeforeTheFirstDueDate() {
+        LocalDateTime start = LocalDateTime.of(2025, 3, 3, 10, 0);
+
+        assertThat(RecurrenceCalculator.occurrences(start, RecurrenceType.YEARLY, null,
+                start.minusYears(2), start.minusDays(1))).isEmpty();
+    }
+
+    @Test
+    void isOccurrence_ShouldMatchOnlyExactDatesOfTheSeries() {
+        assertThat(RecurrenceCalculator.isOccurrence(JAN_31, RecurrenceType.MONTHLY, null,
+                LocalDateTime.of(2025, 2, 28, 9, 0))).isTrue();
+        assertThat(RecurrenceCalculator.isOccurrence(JAN_31, RecurrenceType.MONTHLY, null,
+                LocalDateTime.of(2028, 2, 29, 9, 0))).isTrue();
+        assertThat(RecurrenceCalculator.isOccurrence(JAN_31, RecurrenceType.MONTHLY, null,
+                LocalDateTime.of(2025, 3, 30, 9, 0))).isFalse();
+        assertThat(RecurrenceCalculator.isOccurrence(JAN_31, RecurrenceType.MONTHLY, null,
+                LocalDateTime.of(2025, 3, 31, 9, 1))).isFalse();
+        assertThat(RecurrenceCalculator.isOccurrence(JAN_31, RecurrenceType.MONTHLY, LocalDateTime.of(2025, 3, 1, 0, 0),
+                LocalDateTime.of(2025, 3, 31, 9, 0))).isFalse();
+        assertThat(RecurrenceCalculator.isOccurrence(JAN_31, RecurrenceType.DAILY, null,
+                JAN_31.minusDays(1))).isFalse();
+    }
+}
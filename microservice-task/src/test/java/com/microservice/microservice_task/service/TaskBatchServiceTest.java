@@ -0,0 +1,199 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.TaskCache;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.config.DatabaseConfig;
+import com.microservice.microservice_task.dto.*;
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskBatchService.class, TaskService.class, TaskAssembler.class, TaskOrderService.class,
+        TaskSearchService.class, TaskDeletionService.class, TaskTagService.class, TaskOccurrenceService.class,
+        TaskTreeService.class, TaskArchiveService.class, TaskCache.class, UserTimeZoneCache.class, CacheConfig.class,
+        TaskChangeTracker.class, DatabaseConfig.class})
+@Slf4j
+class TaskBatchServiceTest {
+
+    @Autowired
+    private TaskBatchService taskBatchService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void createTasks_ShouldReportEachItemAndKeepValidOnes() {
+        List<CreateTaskDTO> items = List.of(create("Comprar pan"), create(" "), create("Llamar al banco"));
+
+        BatchResultDTO result = taskBatchService.createTasks(userId, items);
+
+        assertThat(result.getTotal()).isEqualTo(3);
+        assertThat(result.getSucceeded()).isEqualTo(2);
+        assertThat(result.getItems().get(1).isSuccess()).isFalse();
+        assertThat(result.getItems().get(1).getError()).isEqualTo("El título de la tarea es requerido");
+        assertThat(result.getItems().get(0).getTask().getOrderIndex())
+                .isLessThan(result.getItems().get(2).getTask().getOrderIndex());
+        assertThat(taskRepository.countByUserId(userId)).isEqualTo(2);
+        assertThat(taskSearchService.search(userId, "banco", Pageable.unpaged()).getContent()).hasSize(1);
+    }
+
+    @Test
+    void updateTasksStatus_ShouldRejectForeignAndMissingTasks() {
+        Task own = save(userId);
+        Task foreign = save(UUID.randomUUID());
+        UUID missing = UUID.randomUUID();
+
+        BatchResultDTO result = taskBatchService.updateTasksStatus(userId, List.of(
+                new BatchTaskStatusDTO(own.getId(), TaskStatus.COMPLETED),
+                new BatchTaskStatusDTO(foreign.getId(), TaskStatus.COMPLETED),
+                new BatchTaskStatusDTO(missing, TaskStatus.COMPLETED)));
+
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(result.getItems().get(0).getTask().getCompletedDate()).isNotNull();
+        assertThat(result.getItems().get(1).getError()).isEqualTo("No tienes permiso para actualizar esta tarea");
+        assertThat(result.getItems().get(2).getError()).isEqualTo("Tarea no encontrada con ID: " + missing);
+        assertThat(taskRepository.findById(foreign.getId()).orElseThrow().getStatus()).isEqualTo(TaskStatus.PENDING);
+    }
+
+    @Test
+    void updateTasks_ShouldApplyPartialChanges() {
+        Task task = save(userId);
+        BatchUpdateTaskDTO change = new BatchUpdateTaskDTO();
+        change.setTaskId(task.getId());
+        change.setPriority(TaskPriority.URGENT);
+
+        BatchResultDTO result = taskBatchService.updateTasks(userId, List.of(change));
+
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        Task updated = taskRepository.findById(task.getId()).orElseThrow();
+        assertThat(updated.getPriority()).isEqualTo(TaskPriority.URGENT);
+        assertThat(updated.getTitle()).isEqualTo("Tarea");
+    }
+
+    @Test
+    void deleteTasks_ShouldRemoveSubtasksAndSkipForeignTasks() {
+        Task parent = save(userId);
+        Task child = save(userId);
+        child.setParentTaskId(parent.getId());
+        taskRepository.save(child);
+        Task foreign = save(UUID.randomUUID());
+
+        BatchResultDTO result = taskBatchService.deleteTasks(userId, List.of(parent.getId(), foreign.getId()));
+
+        assertThat(result.getSucceeded()).isEqualTo(1);
+        assertThat(taskRepository.findById(child.getId())).isEmpty();
+        assertThat(taskRepository.findById(foreign.getId())).isPresent();
+    }
+
+    @Test
+    void createTasks_ShouldRejectEmptyBatch() {
+        assertThatThrownBy(() -> taskBatchService.createTasks(userId, List.of()))
+                .isInstanceOf(InvalidTaskDataException.class);
+    }
+
+    /**
+     * Comparativa de rendimiento con la ruta de una tarea por llamada. El tiempo solo se registra
+     * (depende de la máquina); lo que se comprueba es el número de sentencias JDBC preparadas.
+     */
+    @Test
+    void benchmark_BatchCreateShouldNeedFarFewerStatementsThanSingleItemPath() {
+        int count = 500;
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            CreateTaskDTO dto = create("Tarea individual " + i);
+            dto.setUserId(userId);
+            taskService.createTask(dto);
+        }
+        taskRepository.flush();
+        long singleNanos = System.nanoTime() - start;
+        long singleStatements = statistics.getPrepareStatementCount();
+
+        List<CreateTaskDTO> items = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            items.add(create("Tarea en lote " + i));
+        }
+        statistics.clear();
+        start = System.nanoTime();
+        taskBatchService.createTasks(UUID.randomUUID(), items);
+        long batchNanos = System.nanoTime() - start;
+        long batchStatements = statistics.getPrepareStatementCount();
+
+        log.info("Creación de {} tareas - una a una: {} ms, {} sentencias ({} tareas/s); en lote: {} ms, {} sentencias ({} tareas/s)",
+                count, singleNanos / 1_000_000, singleStatements, throughput(count, singleNanos),
+                batchNanos / 1_000_000, batchStatements, throughput(count, batchNanos));
+        assertThat(batchStatements * 10).isLessThan(singleStatements);
+    }
+
+    private long throughput(int count, long nanos) {
+        return count * 1_000_000_000L / Math.max(nanos, 1);
+    }
+
+    private CreateTaskDTO create(String title) {
+        CreateTaskDTO dto = new CreateTaskDTO();
+        dto.setTitle(title);
+        dto.setPriority(TaskPriority.MEDIUM);
+        return dto;
+    }
+
+    private Task save(UUID owner) {
+        Task task = new Task();
+        task.setUserId(owner);
+        task.setTitle("Tarea");
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setCreatedAt(LocalDateTime.now());
+        task.setUpdatedAt(LocalDateTime.now());
+        return taskRepository.save(task);
+    }
+}
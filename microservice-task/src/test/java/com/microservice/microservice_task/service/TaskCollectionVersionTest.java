@@ -0,0 +1,104 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.config.DatabaseConfig;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.repository.TaskRepository;
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({TaskCollectionVersion.class, DatabaseConfig.class})
+class TaskCollectionVersionTest {
+
+    @Autowired
+    private TaskCollectionVersion collectionVersion;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManager entityManager;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void currentVersion_ShouldBeASingleAggregateQueryWithoutLoadingTasks() {
+        save("Primera", userId);
+        save("Segunda", userId);
+        entityManager.clear();
+        Statistics statistics = entityManager.unwrap(Session.class).getSessionFactory().getStatistics();
+        statistics.clear();
+
+        collectionVersion.currentVersion(userId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+    }
+
+    @Test
+    void currentVersion_ShouldChangeWithEveryWriteToTheUserTasks() {
+        String empty = collectionVersion.currentVersion(userId);
+        Task task = save("Comprar pan", userId);
+        String created = collectionVersion.currentVersion(userId);
+        assertThat(created).isNotEqualTo(empty);
+        assertThat(collectionVersion.currentVersion(userId)).isEqualTo(created);
+
+        task.setTitle("Comprar pan integral");
+        taskRepository.saveAndFlush(task);
+        String updated = collectionVersion.currentVersion(userId);
+        assertThat(updated).isNotEqualTo(created);
+
+        taskRepository.markOverdue(List.of(task.getId()), LocalDateTime.now());
+        String overdue = collectionVersion.currentVersion(userId);
+        assertThat(overdue).isNotEqualTo(updated);
+
+        save("Otra", userId);
+        String added = collectionVersion.currentVersion(userId);
+        assertThat(added).isNotEqualTo(overdue);
+
+        taskRepository.delete(task);
+        taskRepository.flush();
+        assertThat(collectionVersion.currentVersion(userId)).isNotEqualTo(added);
+    }
+
+    @Test
+    void currentVersion_ShouldIgnoreOtherUsers() {
+        save("Mía", userId);
+        String before = collectionVersion.currentVersion(userId);
+
+        save("Ajena", UUID.randomUUID());
+
+        assertThat(collectionVersion.currentVersion(userId)).isEqualTo(before);
+    }
+
+    private Task save(String title, UUID owner) {
+        Task task = new Task();
+        task.setUserId(owner);
+        task.setTitle(title);
+        task.setPriority(TaskPriority.MEDIUM);
+        return taskRepository.saveAndFlush(task);
+    }
+}
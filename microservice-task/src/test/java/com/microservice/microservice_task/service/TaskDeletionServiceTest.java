@@ -0,0 +1,126 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.TaskCache;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties", properties = "tasks.delete.chunk-size=2")
+@Import({TaskDeletionService.class, TaskSearchService.class, TaskTreeService.class, TaskAssembler.class,
+        TaskCache.class, UserTimeZoneCache.class, CacheConfig.class, TaskChangeTracker.class})
+class TaskDeletionServiceTest {
+
+    @Autowired
+    private TaskDeletionService taskDeletionService;
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void deleteSubtrees_ShouldRemoveEveryLevelOfSubtasks() {
+        Task root = save("Mudanza", null, userId);
+        Task child = save("Empacar", root.getId(), userId);
+        Task grandchild = save("Cocina", child.getId(), userId);
+        Task greatGrandchild = save("Vasos", grandchild.getId(), userId);
+        Task sibling = save("Otra tarea", null, userId);
+
+        int deleted = taskDeletionService.deleteSubtrees(userId, List.of(root.getId()));
+
+        assertThat(deleted).isEqualTo(4);
+        assertThat(taskRepository.findAllById(List.of(root.getId(), child.getId(), grandchild.getId(),
+                greatGrandchild.getId()))).isEmpty();
+        assertThat(taskRepository.findById(sibling.getId())).isPresent();
+        assertThat(taskSearchService.search(userId, "vasos", Pageable.unpaged()).getContent()).isEmpty();
+        assertThat(taskSearchService.search(userId, "otra", Pageable.unpaged()).getContent()).hasSize(1);
+    }
+
+    @Test
+    void findSubtreeIds_ShouldNotFollowTasksOfOtherUsers() {
+        Task root = save("Viaje", null, userId);
+        Task foreignChild = save("Ajena", root.getId(), UUID.randomUUID());
+
+        assertThat(taskDeletionService.findSubtreeIds(userId, List.of(root.getId())))
+                .containsExactly(root.getId())
+                .doesNotContain(foreignChild.getId());
+    }
+
+    @Test
+    void findSubtreeIds_ShouldTerminateOnParentCycles() {
+        Task first = save("Primera", null, userId);
+        Task second = save("Segunda", first.getId(), userId);
+        first.setParentTaskId(second.getId());
+        taskRepository.saveAndFlush(first);
+
+        assertThat(taskDeletionService.findSubtreeIds(userId, List.of(first.getId())))
+                .containsExactlyInAnyOrder(first.getId(), second.getId());
+    }
+
+    // Sin transacción de test: cada bloque se confirma en su propia transacción
+    @Test
+    @Transactional(propagation = Propagation.NOT_SUPPORTED)
+    void deleteAllForUser_ShouldDeleteInChunks() {
+        UUID otherUser = UUID.randomUUID();
+        for (int i = 0; i < 5; i++) {
+            save("Tarea " + i, null, userId);
+        }
+        Task other = save("Tarea ajena", null, otherUser);
+
+        try {
+            long deleted = taskDeletionService.deleteAllForUser(userId);
+
+            assertThat(deleted).isEqualTo(5);
+            assertThat(taskRepository.countByUserId(userId)).isZero();
+            assertThat(taskRepository.findById(other.getId())).isPresent();
+            assertThat(taskSearchService.search(userId, "tarea", Pageable.unpaged()).getContent()).isEmpty();
+        } finally {
+            taskDeletionService.deleteAllForUser(otherUser);
+        }
+    }
+
+    private Task save(String title, UUID parentTaskId, UUID owner) {
+        Task task = new Task();
+        task.setUserId(owner);
+        task.setTitle(title);
+        task.setParentTaskId(parentTaskId);
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setCreatedAt(LocalDateTime.now());
+        task.setUpdatedAt(LocalDateTime.now());
+        Task saved = taskRepository.save(task);
+        taskSearchService.index(saved);
+        return saved;
+    }
+}
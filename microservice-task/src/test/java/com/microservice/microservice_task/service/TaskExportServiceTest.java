@@ -0,0 +1,146 @@
+package com.microservice.microservice_task.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.SerializationFeature;
+import com.fasterxml.jackson.databind.json.JsonMapper;
+import com.fasterxml.jackson.datatype.jsr310.JavaTimeModule;
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.assembler.TaskCsvMapper;
+import com.microservice.microservice_task.assembler.TaskJsonWriter;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.model.RecurrenceType;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskCategory;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRepository;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.io.ByteArrayOutputStream;
+import java.io.OutputStream;
+import java.lang.management.ManagementFactory;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import({TaskExportService.class, TaskJsonWriter.class, TaskCsvMapper.class, TaskAssembler.class,
+        UserTimeZoneCache.class, CacheConfig.class})
+@Slf4j
+class TaskExportServiceTest {
+
+    // Configurado como el ObjectMapper de Spring Boot: fechas ISO, no timestamps
+    private final ObjectMapper objectMapper = JsonMapper.builder()
+            .addModule(new JavaTimeModule())
+            .disable(SerializationFeature.WRITE_DATES_AS_TIMESTAMPS)
+            .build();
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private TaskJsonWriter taskJsonWriter;
+
+    @Autowired
+    private TaskAssembler taskAssembler;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void writeTasksAsJson_ShouldMatchSerializedDtoList() throws Exception {
+        Task full = newTask(userId, 1, "[\"trabajo\",\"con \\\"comillas\\\"\"]");
+        full.setDescription("Descripción");
+        full.setCategory(TaskCategory.WORK);
+        full.setDueDate(LocalDateTime.now().minusDays(2).minusHours(1));
+        full.setReminderDate(LocalDateTime.of(2030, 1, 1, 9, 0));
+        full.setCompletedDate(LocalDateTime.of(2025, 3, 4, 5, 6, 7, 120_000_000));
+        full.setEstimatedDurationMinutes(30);
+        full.setAttachmentUrls("[\"https://example.com/a.pdf\"]");
+        full.setIsRecurring(true);
+        full.setRecurrenceType(RecurrenceType.WEEKLY);
+        taskRepository.save(full);
+        taskRepository.save(newTask(userId, 0, null));
+        taskRepository.save(newTask(userId, 2, "no es json"));
+        taskRepository.save(newTask(UUID.randomUUID(), 0, null));
+        taskRepository.flush();
+        List<Task> expected = taskRepository.findByUserIdOrderByOrderIndexAscCreatedAtDesc(userId);
+        JsonNode expectedJson = objectMapper.readTree(objectMapper.writeValueAsBytes(taskAssembler.toDTOList(expected)));
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        long written = taskExportService.writeTasksAsJson(userId, out);
+
+        assertThat(written).isEqualTo(3);
+        assertThat(objectMapper.readTree(out.toByteArray())).isEqualTo(expectedJson);
+    }
+
+    /**
+     * Medición de asignaciones del hilo (antes/después) para una lista grande en memoria.
+     * Los bytes solo se registran en el log; se comprueba que la escritura directa asigna menos
+     * que construir la lista de DTOs y serializarla.
+     */
+    @Test
+    void benchmark_StreamingWriterShouldAllocateLessThanDtoList() throws Exception {
+        com.sun.management.ThreadMXBean threads =
+                (com.sun.management.ThreadMXBean) ManagementFactory.getThreadMXBean();
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 2_000; i++) {
+            Task task = newTask(userId, i, "[\"trabajo\",\"casa\",\"urgente\"]");
+            task.setId(UUID.randomUUID());
+            task.setDueDate(LocalDateTime.now().plusDays(i % 10));
+            tasks.add(task);
+        }
+
+        long dtoBytes = 0;
+        long streamingBytes = 0;
+        // Las primeras vueltas calientan el JIT y los serializadores de Jackson
+        for (int round = 0; round < 5; round++) {
+            long start = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            objectMapper.writeValue(OutputStream.nullOutputStream(), taskAssembler.toDTOList(tasks));
+            dtoBytes = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - start;
+
+            start = threads.getThreadAllocatedBytes(Thread.currentThread().getId());
+            taskJsonWriter.writeArray(tasks.iterator(), OutputStream.nullOutputStream(), LocalDateTime.now(), task -> { });
+            streamingBytes = threads.getThreadAllocatedBytes(Thread.currentThread().getId()) - start;
+        }
+
+        log.info("Asignaciones para {} tareas - lista de DTOs: {} KB ({} B/tarea); escritura directa: {} KB ({} B/tarea)",
+                tasks.size(), dtoBytes / 1024, dtoBytes / tasks.size(),
+                streamingBytes / 1024, streamingBytes / tasks.size());
+        assertThat(streamingBytes).isLessThan(dtoBytes);
+    }
+
+    private Task newTask(UUID owner, int orderIndex, String tags) {
+        Task task = new Task();
+        task.setUserId(owner);
+        task.setTitle("Tarea " + orderIndex);
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setOrderIndex(orderIndex);
+        task.setTags(tags);
+        task.setCreatedAt(LocalDateTime.now());
+        task.setUpdatedAt(LocalDateTime.now());
+        return task;
+    }
+}
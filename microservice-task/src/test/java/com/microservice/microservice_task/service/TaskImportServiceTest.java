@@ -0,0 +1,179 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.assembler.TaskCsvMapper;
+import com.microservice.microservice_task.assembler.TaskJsonWriter;
+import com.microservice.microservice_task.cache.TaskCache;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.config.DatabaseConfig;
+import com.microservice.microservice_task.dto.ImportLineErrorDTO;
+import com.microservice.microservice_task.dto.ImportResultDTO;
+import com.microservice.microservice_task.dto.TaskFileFormat;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.autoconfigure.ImportAutoConfiguration;
+import org.springframework.boot.autoconfigure.validation.ValidationAutoConfiguration;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+// Cada bloque de la importación se confirma en su propia transacción: el test no envuelve nada en una
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.jdbc.batch_size=2")
+@ImportAutoConfiguration(ValidationAutoConfiguration.class)
+@Import({TaskImportService.class, TaskExportService.class, TaskJsonWriter.class, TaskCsvMapper.class,
+        TaskAssembler.class, TaskOrderService.class, TaskSearchService.class, TaskTagService.class,
+        TaskTreeService.class, TaskCache.class, UserTimeZoneCache.class, CacheConfig.class, TaskChangeTracker.class,
+        DatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskImportServiceTest {
+
+    @Autowired
+    private TaskImportService taskImportService;
+
+    @Autowired
+    private TaskExportService taskExportService;
+
+    @Autowired
+    private TaskTagService taskTagService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void importNdjson_ShouldReportEachBadLineAndKeepValidOnes() throws Exception {
+        String file = String.join("\n",
+                "{\"title\":\"Comprar pan\",\"priority\":\"LOW\"}",
+                "{no es json",
+                "",
+                "{\"description\":\"Sin título\"}",
+                "{\"title\":\"Informe\",\"tags\":[\"Trabajo\"],\"isOverdue\":true,\"statusDisplayName\":\"Pendiente\"}",
+                "{\"title\":\"Recurrente\",\"isRecurring\":true}");
+
+        ImportResultDTO result = importFile(TaskFileFormat.NDJSON, file);
+
+        assertThat(result.getTotal()).isEqualTo(5);
+        assertThat(result.getImported()).isEqualTo(2);
+        assertThat(result.getFailed()).isEqualTo(3);
+        assertThat(result.getErrors()).extracting(ImportLineErrorDTO::getLine).containsExactly(2L, 4L, 6L);
+        assertThat(result.getErrors().get(2).getError())
+                .isEqualTo("El tipo de recurrencia es requerido para tareas recurrentes");
+        List<Task> tasks = taskRepository.findByUserIdOrderByOrderIndexAscCreatedAtDesc(userId);
+        assertThat(tasks).extracting(Task::getTitle).containsExactly("Comprar pan", "Informe");
+        assertThat(tasks.get(0).getPriority()).isEqualTo(TaskPriority.LOW);
+        assertThat(taskTagService.countTasksByTag(userId)).hasSize(1);
+    }
+
+    @Test
+    void exportThenImportNdjson_ShouldCopyTasksAndRelinkSubtasks() throws Exception {
+        UUID sourceUser = UUID.randomUUID();
+        Task child = save(sourceUser, "Empacar", 0, null);
+        Task parent = save(sourceUser, "Mudanza", 1, null);
+        child.setParentTaskId(parent.getId());
+        taskRepository.save(child);
+        save(sourceUser, "Llamar al banco", 2, "[\"finanzas\"]");
+        save(sourceUser, "Completada", 3, null);
+
+        ImportResultDTO result = importFile(TaskFileFormat.NDJSON, export(sourceUser, TaskFileFormat.NDJSON));
+
+        assertThat(result.getImported()).isEqualTo(4);
+        assertThat(result.getErrors()).isEmpty();
+        assertCopied(sourceUser);
+    }
+
+    @Test
+    void exportThenImportCsv_ShouldKeepQuotedFieldsAndSubtasks() throws Exception {
+        UUID sourceUser = UUID.randomUUID();
+        Task parent = save(sourceUser, "Mudanza", 0, null);
+        Task child = save(sourceUser, "Empacar, \"con cuidado\"", 1, "[\"casa\",\"cajas\"]");
+        child.setParentTaskId(parent.getId());
+        child.setDescription("Primera línea\nsegunda línea");
+        taskRepository.save(child);
+        save(sourceUser, "Completada", 2, null);
+
+        String csv = export(sourceUser, TaskFileFormat.CSV);
+        ImportResultDTO result = importFile(TaskFileFormat.CSV, csv + "not-a-uuid,Fila rota,,,,,,,,,,,,,,,,,,,\r\n");
+
+        assertThat(result.getImported()).isEqualTo(3);
+        assertThat(result.getErrors()).hasSize(1);
+        assertThat(result.getErrors().get(0).getLine()).isEqualTo(6L);
+        assertThat(result.getErrors().get(0).getError()).startsWith("Valor inválido en la columna id");
+        assertCopied(sourceUser);
+        Task copiedChild = taskRepository.findByUserIdOrderByOrderIndexAscCreatedAtDesc(userId).get(1);
+        assertThat(copiedChild.getDescription()).isEqualTo("Primera línea\nsegunda línea");
+        assertThat(copiedChild.getTags()).isEqualTo("[\"casa\",\"cajas\"]");
+    }
+
+    // Mismas tareas, en el mismo orden, con ids nuevos y las subtareas apuntando a los padres copiados
+    private void assertCopied(UUID sourceUser) {
+        List<Task> source = taskRepository.findByUserIdOrderByOrderIndexAscCreatedAtDesc(sourceUser);
+        List<Task> copied = taskRepository.findByUserIdOrderByOrderIndexAscCreatedAtDesc(userId);
+        assertThat(copied).extracting(Task::getTitle).containsExactlyElementsOf(
+                source.stream().map(Task::getTitle).toList());
+        assertThat(copied).extracting(Task::getStatus).containsExactlyElementsOf(
+                source.stream().map(Task::getStatus).toList());
+        assertThat(copied).extracting(Task::getId).doesNotContainAnyElementsOf(
+                source.stream().map(Task::getId).toList());
+
+        Map<UUID, String> sourceTitles = source.stream().collect(Collectors.toMap(Task::getId, Task::getTitle));
+        Map<UUID, String> copiedTitles = copied.stream().collect(Collectors.toMap(Task::getId, Task::getTitle));
+        Function<Task, String> sourceParent = task -> sourceTitles.get(task.getParentTaskId());
+        Function<Task, String> copiedParent = task -> copiedTitles.get(task.getParentTaskId());
+        assertThat(copied).extracting(copiedParent).containsExactlyElementsOf(source.stream().map(sourceParent).toList());
+        assertThat(copied.stream().filter(task -> task.getParentTaskId() != null)).hasSize(1);
+    }
+
+    private String export(UUID owner, TaskFileFormat format) throws Exception {
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        taskExportService.exportTasks(owner, format, out);
+        return out.toString(StandardCharsets.UTF_8);
+    }
+
+    private ImportResultDTO importFile(TaskFileFormat format, String content) throws Exception {
+        return taskImportService.importTasks(userId, format,
+                new ByteArrayInputStream(content.getBytes(StandardCharsets.UTF_8)));
+    }
+
+    private Task save(UUID owner, String title, int orderIndex, String tags) {
+        Task task = new Task();
+        task.setUserId(owner);
+        task.setTitle(title);
+        task.setStatus(title.equals("Completada") ? TaskStatus.COMPLETED : TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setOrderIndex(orderIndex);
+        task.setTags(tags);
+        task.setDueDate(LocalDateTime.now().plusDays(orderIndex));
+        return taskRepository.save(task);
+    }
+}
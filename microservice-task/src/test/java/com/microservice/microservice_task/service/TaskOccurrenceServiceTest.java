@@ -0,0 +1,204 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.config.DatabaseConfig;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+import com.microservice.microservice_task.model.RecurrenceType;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRepository;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({TaskOccurrenceService.class, TaskAssembler.class, UserTimeZoneCache.class, CacheConfig.class,
+        DatabaseConfig.class})
+class TaskOccurrenceServiceTest {
+
+    private static final LocalDateTime START = LocalDateTime.of(2025, 3, 3, 9, 0);
+
+    @Autowired
+    private TaskOccurrenceService taskOccurrenceService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void getTasksInWindow_ShouldMixSingleTasksWithOccurrencesInDateOrder() {
+        Task daily = saveRecurring("Regar plantas", RecurrenceType.DAILY, START, null);
+        save("Dentista", START.plusDays(1).plusHours(2));
+        save("Fuera de la ventana", START.plusDays(10));
+
+        List<TaskDTO> tasks = taskOccurrenceService.getTasksInWindow(userId, START, START.plusDays(3));
+
+        assertThat(tasks).extracting(TaskDTO::getTitle)
+                .containsExactly("Regar plantas", "Regar plantas", "Dentista", "Regar plantas");
+        assertThat(tasks).filteredOn(dto -> dto.getId().equals(daily.getId()))
+                .extracting(TaskDTO::getOccurrenceDate)
+                .containsExactly(START, START.plusDays(1), START.plusDays(2));
+        assertThat(tasks.get(2).getOccurrenceDate()).isNull();
+        assertThat(taskOccurrenceService.countOccurrencesInWindow(userId, START, START.plusDays(3))).isEqualTo(3);
+    }
+
+    @Test
+    void occurrenceMutations_ShouldOnlyAffectTheChosenOccurrence() {
+        Task weekly = saveRecurring("Reunión semanal", RecurrenceType.WEEKLY, START, null);
+        LocalDateTime second = START.plusWeeks(1);
+        LocalDateTime third = START.plusWeeks(2);
+
+        TaskDTO completed = taskOccurrenceService.completeOccurrence(weekly.getId(), userId, START);
+        taskOccurrenceService.skipOccurrence(weekly.getId(), userId, second);
+        TaskDTO moved = taskOccurrenceService.moveOccurrence(weekly.getId(), userId, third, third.plusDays(1));
+
+        assertThat(completed.getStatus()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(moved.getDueDate()).isEqualTo(third.plusDays(1));
+        List<TaskDTO> tasks = taskOccurrenceService.getTasksInWindow(userId, START, START.plusWeeks(4));
+        assertThat(tasks).extracting(TaskDTO::getOccurrenceDate).containsExactly(START, third, START.plusWeeks(3));
+        assertThat(tasks).extracting(TaskDTO::getDueDate)
+                .containsExactly(START, third.plusDays(1), START.plusWeeks(3));
+        assertThat(tasks).extracting(TaskDTO::getStatus)
+                .containsExactly(TaskStatus.COMPLETED, TaskStatus.PENDING, TaskStatus.PENDING);
+        assertThat(taskRepository.findById(weekly.getId()).orElseThrow().getStatus()).isEqualTo(TaskStatus.PENDING);
+    }
+
+    @Test
+    void moveOccurrence_ShouldShowItOnlyInTheWindowItWasMovedTo() {
+        Task monthly = saveRecurring("Pagar alquiler", RecurrenceType.MONTHLY, START, null);
+        LocalDateTime april = START.plusMonths(1);
+        LocalDateTime target = START.plusMonths(3).plusDays(5);
+
+        taskOccurrenceService.moveOccurrence(monthly.getId(), userId, april, target);
+
+        assertThat(taskOccurrenceService.getTasksInWindow(userId, april.minusDays(1), april.plusDays(1))).isEmpty();
+        List<TaskDTO> june = taskOccurrenceService.getTasksInWindow(userId, START.plusMonths(3), START.plusMonths(4));
+        assertThat(june).extracting(TaskDTO::getOccurrenceDate).containsExactly(START.plusMonths(3), april);
+        assertThat(june).extracting(TaskDTO::getDueDate).containsExactly(START.plusMonths(3), target);
+    }
+
+    @Test
+    void completeOccurrence_ShouldRejectDatesOutsideTheSeries() {
+        Task daily = saveRecurring("Leer", RecurrenceType.DAILY, START, START.plusDays(5));
+        Task single = save("Única", START);
+
+        assertThatThrownBy(() -> taskOccurrenceService.completeOccurrence(daily.getId(), userId, START.plusHours(1)))
+                .isInstanceOf(InvalidTaskDataException.class);
+        assertThatThrownBy(() -> taskOccurrenceService.completeOccurrence(daily.getId(), userId, START.plusDays(6)))
+                .isInstanceOf(InvalidTaskDataException.class);
+        assertThatThrownBy(() -> taskOccurrenceService.completeOccurrence(single.getId(), userId, START))
+                .isInstanceOf(InvalidTaskDataException.class);
+    }
+
+    /**
+     * Completar una ocurrencia cuesta lo mismo en sentencias tenga la serie 0 o 300 excepciones.
+     */
+    @Test
+    void completeOccurrence_ShouldNotDependOnTheNumberOfExistingExceptions() {
+        Task daily = saveRecurring("Ejercicio", RecurrenceType.DAILY, START, null);
+        taskRepository.flush();
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        taskOccurrenceService.completeOccurrence(daily.getId(), userId, START);
+        taskRepository.flush();
+        long firstStatements = statistics.getPrepareStatementCount();
+
+        for (int day = 1; day <= 300; day++) {
+            taskOccurrenceService.skipOccurrence(daily.getId(), userId, START.plusDays(day));
+        }
+        taskRepository.flush();
+
+        statistics.clear();
+        taskOccurrenceService.completeOccurrence(daily.getId(), userId, START.plusDays(301));
+        taskRepository.flush();
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(firstStatements);
+    }
+
+    /**
+     * 300 series diarias sobre un año: la consulta no depende del número de ocurrencias. El tiempo de
+     * la expansión se mide en benchmarks (RecurrenceBenchmark).
+     */
+    @Test
+    void expandYearOfDailySeries_ShouldUseConstantStatements() {
+        List<Task> series = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            series.add(recurring("Serie " + i, RecurrenceType.DAILY, START.minusYears(1).plusMinutes(i), null));
+        }
+        taskRepository.saveAll(series);
+        taskRepository.flush();
+        LocalDateTime from = START;
+        LocalDateTime to = START.plusDays(365);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        long count = taskOccurrenceService.countOccurrencesInWindow(userId, from, to);
+        long countStatements = statistics.getPrepareStatementCount();
+        List<TaskDTO> tasks = taskOccurrenceService.getTasksInWindow(userId, from, to);
+
+        assertThat(count).isEqualTo(300L * 365);
+        assertThat(tasks).hasSize(300 * 365);
+        assertThat(countStatements).isLessThanOrEqualTo(2);
+    }
+
+    private Task save(String title, LocalDateTime dueDate) {
+        Task task = new Task();
+        task.setUserId(userId);
+        task.setTitle(title);
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setDueDate(dueDate);
+        task.setOrderIndex(0);
+        return taskRepository.save(task);
+    }
+
+    private Task saveRecurring(String title, RecurrenceType type, LocalDateTime start, LocalDateTime until) {
+        return taskRepository.save(recurring(title, type, start, until));
+    }
+
+    private Task recurring(String title, RecurrenceType type, LocalDateTime start, LocalDateTime until) {
+        Task task = new Task();
+        task.setUserId(userId);
+        task.setTitle(title);
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setDueDate(start);
+        task.setIsRecurring(true);
+        task.setRecurrenceType(type);
+        task.setRecurrenceEndDate(until);
+        task.setOrderIndex(0);
+        return task;
+    }
+}
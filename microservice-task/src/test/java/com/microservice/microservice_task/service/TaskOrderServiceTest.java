@@ -0,0 +1,138 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+import com.microservice.microservice_task.exception.UnauthorizedTaskAccessException;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskOrderSequence;
+import com.microservice.microservice_task.repository.TaskOrderSequenceRepository;
+import com.microservice.microservice_task.repository.TaskRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.transaction.PlatformTransactionManager;
+
+import java.util.List;
+import java.util.Optional;
+import java.util.UUID;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class TaskOrderServiceTest {
+
+    @Mock
+    private TaskRepository taskRepository;
+
+    @Mock
+    private TaskOrderSequenceRepository sequenceRepository;
+
+    @Mock
+    private PlatformTransactionManager transactionManager;
+
+    private TaskOrderService taskOrderService;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        taskOrderService = new TaskOrderService(taskRepository, sequenceRepository, transactionManager);
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void allocateNextOrderIndex_ShouldAdvanceSequenceByStep() {
+        TaskOrderSequence sequence = new TaskOrderSequence(userId, 2048);
+        when(sequenceRepository.existsById(userId)).thenReturn(true);
+        when(sequenceRepository.findForUpdateByUserId(userId)).thenReturn(Optional.of(sequence));
+
+        Integer allocated = taskOrderService.allocateNextOrderIndex(userId);
+
+        assertEquals(2048, allocated);
+        assertEquals(2048 + TaskOrderService.ORDER_INDEX_STEP, sequence.getNextIndex());
+        verify(taskRepository, never()).findByUserIdOrderByCreatedAtDesc(any());
+    }
+
+    @Test
+    void moveTask_ShouldUseMidpointAndOnlyTouchMovedTask() {
+        Task moved = task(5000);
+        Task previous = task(1024);
+        Task next = task(2048);
+        stubFind(moved, previous, next);
+
+        Task result = taskOrderService.moveTask(moved.getId(), userId, previous.getId(), next.getId());
+
+        assertEquals(1536, result.getOrderIndex());
+        assertEquals(1024, previous.getOrderIndex());
+        assertEquals(2048, next.getOrderIndex());
+        verify(taskRepository, never()).findByUserIdOrderByOrderIndexAscCreatedAtDesc(userId);
+    }
+
+    @Test
+    void moveTask_ShouldRebalanceWhenGapIsExhausted() {
+        Task moved = task(3);
+        Task previous = task(1);
+        Task next = task(2);
+        stubFind(moved, previous, next);
+        when(taskRepository.findByUserIdOrderByOrderIndexAscCreatedAtDesc(userId))
+                .thenReturn(List.of(previous, next, moved));
+        when(sequenceRepository.existsById(userId)).thenReturn(true);
+        when(sequenceRepository.findForUpdateByUserId(userId))
+                .thenReturn(Optional.of(new TaskOrderSequence(userId, 4)));
+
+        Task result = taskOrderService.moveTask(moved.getId(), userId, previous.getId(), next.getId());
+
+        assertEquals(1024, previous.getOrderIndex());
+        assertEquals(2048, next.getOrderIndex());
+        assertEquals(1536, result.getOrderIndex());
+    }
+
+    @Test
+    void moveTask_ShouldQueueBackgroundRebalanceWhenGapIsNarrow() {
+        Task moved = task(100);
+        Task previous = task(10);
+        Task next = task(14);
+        stubFind(moved, previous, next);
+
+        taskOrderService.moveTask(moved.getId(), userId, previous.getId(), next.getId());
+
+        assertEquals(List.of(userId), taskOrderService.drainPendingRebalances());
+        assertTrue(taskOrderService.drainPendingRebalances().isEmpty());
+    }
+
+    @Test
+    void moveTask_ShouldRejectTaskAsItsOwnNeighbour() {
+        UUID taskId = UUID.randomUUID();
+
+        assertThrows(InvalidTaskDataException.class,
+                () -> taskOrderService.moveTask(taskId, userId, taskId, null));
+    }
+
+    @Test
+    void moveTask_ShouldRejectNeighbourFromAnotherUser() {
+        Task moved = task(100);
+        Task foreign = task(10);
+        foreign.setUserId(UUID.randomUUID());
+        stubFind(moved, foreign);
+
+        assertThrows(UnauthorizedTaskAccessException.class,
+                () -> taskOrderService.moveTask(moved.getId(), userId, foreign.getId(), null));
+    }
+
+    private Task task(int orderIndex) {
+        Task task = new Task();
+        task.setId(UUID.randomUUID());
+        task.setUserId(userId);
+        task.setTitle("Tarea " + orderIndex);
+        task.setOrderIndex(orderIndex);
+        return task;
+    }
+
+    private void stubFind(Task... tasks) {
+        for (Task task : tasks) {
+            when(taskRepository.findById(task.getId())).thenReturn(Optional.of(task));
+        }
+    }
+}
@@ -0,0 +1,146 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.repository.TaskSearchTermRepository;
+import com.microservice.microservice_task.util.TaskTextTokenizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.data.domain.Page;
+import org.springframework.data.domain.PageRequest;
+import org.springframework.data.domain.Pageable;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import(TaskSearchService.class)
+class TaskSearchServiceTest {
+
+    @Autowired
+    private TaskSearchService taskSearchService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskSearchTermRepository searchTermRepository;
+
+    private UUID userId;
+    private Task meeting;
+    private Task shopping;
+    private Task report;
+
+    @BeforeEach
+    void setUp() {
+        searchTermRepository.deleteAll();
+        taskRepository.deleteAll();
+        userId = UUID.randomUUID();
+
+        meeting = save("Reunión con el equipo", "Revisar el informe trimestral", "[\"trabajo\",\"urgente\"]");
+        shopping = save("Comprar café", "Pasar por el supermercado", "[\"personal\"]");
+        report = save("Informe anual", "Preparar la reunión de cierre", "[\"trabajo\"]");
+    }
+
+    @Test
+    void search_ShouldMatchPrefixWithoutAccents() {
+        Page<Task> results = taskSearchService.search(userId, "reu", Pageable.unpaged());
+
+        assertThat(results.getContent()).extracting(Task::getId)
+                .containsExactlyInAnyOrder(meeting.getId(), report.getId());
+    }
+
+    @Test
+    void search_ShouldIgnoreAccentsInQuery() {
+        Page<Task> results = taskSearchService.search(userId, "CAFÉ", Pageable.unpaged());
+
+        assertThat(results.getContent()).extracting(Task::getId).containsExactly(shopping.getId());
+    }
+
+    @Test
+    void search_ShouldRequireAllTerms() {
+        Page<Task> results = taskSearchService.search(userId, "informe urgente", Pageable.unpaged());
+
+        assertThat(results.getContent()).extracting(Task::getId).containsExactly(meeting.getId());
+    }
+
+    @Test
+    void search_ShouldRankTitleMatchesFirst() {
+        Page<Task> results = taskSearchService.search(userId, "informe", Pageable.unpaged());
+
+        assertThat(results.getContent()).extracting(Task::getId)
+                .containsExactly(report.getId(), meeting.getId());
+    }
+
+    @Test
+    void search_ShouldPaginateRankedResults() {
+        Page<Task> firstPage = taskSearchService.search(userId, "informe", PageRequest.of(0, 1));
+        Page<Task> secondPage = taskSearchService.search(userId, "informe", PageRequest.of(1, 1));
+
+        assertThat(firstPage.getTotalElements()).isEqualTo(2);
+        assertThat(firstPage.getContent()).extracting(Task::getId).containsExactly(report.getId());
+        assertThat(secondPage.getContent()).extracting(Task::getId).containsExactly(meeting.getId());
+    }
+
+    @Test
+    void search_ShouldNotReturnOtherUsersTasks() {
+        Page<Task> results = taskSearchService.search(UUID.randomUUID(), "informe", Pageable.unpaged());
+
+        assertThat(results.getContent()).isEmpty();
+    }
+
+    @Test
+    void index_ShouldReplaceTermsWhenTaskChanges() {
+        shopping.setTitle("Comprar pan");
+        taskSearchService.index(shopping);
+
+        assertThat(taskSearchService.search(userId, "cafe", Pageable.unpaged()).getContent()).isEmpty();
+        assertThat(taskSearchService.search(userId, "pan", Pageable.unpaged()).getContent())
+                .extracting(Task::getId).containsExactly(shopping.getId());
+    }
+
+    @Test
+    void rebuildUser_ShouldRestoreIndexFromTasks() {
+        taskSearchService.removeUser(userId);
+        assertThat(taskSearchService.search(userId, "informe", Pageable.unpaged()).getContent()).isEmpty();
+
+        int indexed = taskSearchService.rebuildUser(userId);
+
+        assertThat(indexed).isEqualTo(3);
+        assertThat(taskSearchService.search(userId, "informe", Pageable.unpaged()).getContent()).hasSize(2);
+    }
+
+    @Test
+    void tokenize_ShouldNormalizeSpanishText() {
+        List<String> terms = TaskTextTokenizer.tokenize("Año nuevo: ¡Pingüino y CAMIÓN!");
+
+        assertThat(terms).containsExactly("ano", "nuevo", "pinguino", "y", "camion");
+    }
+
+    private Task save(String title, String description, String tags) {
+        Task task = new Task();
+        task.setUserId(userId);
+        task.setTitle(title);
+        task.setDescription(description);
+        task.setTags(tags);
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setCreatedAt(LocalDateTime.now());
+        task.setUpdatedAt(LocalDateTime.now());
+        Task saved = taskRepository.save(task);
+        taskSearchService.index(saved);
+        return saved;
+    }
+}
@@ -0,0 +1,258 @@
+package com.microservice.microservice_task.service;
+
+import com.github.benmanes.caffeine.cache.stats.CacheStats;
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.TaskCache;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.config.DatabaseConfig;
+import com.microservice.microservice_task.dto.CreateTaskDTO;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.dto.UpdateTaskDTO;
+import com.microservice.microservice_task.exception.TaskNotFoundException;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import jakarta.persistence.EntityManagerFactory;
+import lombok.extern.slf4j.Slf4j;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.cache.CacheManager;
+import org.springframework.cache.caffeine.CaffeineCache;
+import org.springframework.cache.caffeine.CaffeineCacheManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Las escrituras se confirman de verdad: la caché se valida contra las versiones confirmadas
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties", properties = {
+        "spring.jpa.properties.hibernate.generate_statistics=true",
+        "tasks.cache.max-weight=200"
+})
+@Import({TaskService.class, TaskAssembler.class, TaskOrderService.class, TaskSearchService.class,
+        TaskDeletionService.class, TaskTagService.class, TaskOccurrenceService.class, TaskTreeService.class,
+        TaskArchiveService.class, TaskCache.class, UserTimeZoneCache.class, CacheConfig.class, TaskChangeTracker.class,
+        TaskCollectionVersion.class, DatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+@Slf4j
+class TaskServiceCacheTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private CacheManager cacheManager;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private TaskAssembler taskAssembler;
+
+    @Autowired
+    private TaskChangeTracker changeTracker;
+
+    @Autowired
+    private TaskCollectionVersion collectionVersion;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskService.deleteAllUserTasks(userId);
+    }
+
+    @Test
+    void repeatedReads_ShouldOnlyCheckTheVersion() {
+        TaskDTO created = taskService.createTask(create("Leer informe"));
+        taskService.getTaskByIdAndUser(created.getId(), userId);
+        taskService.getAllTasksByUser(userId);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        TaskDTO task = taskService.getTaskByIdAndUser(created.getId(), userId);
+        List<TaskDTO> tasks = taskService.getAllTasksByUser(userId);
+
+        // Una consulta de versión por lectura; ninguna carga la tarea
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(2);
+        assertThat(statistics.getEntityLoadCount()).isZero();
+        assertThat(task.getTitle()).isEqualTo("Leer informe");
+        assertThat(tasks).extracting(TaskDTO::getId).containsExactly(created.getId());
+        assertThat(stats(TaskCache.TASKS).hitCount()).isPositive();
+    }
+
+    @Test
+    void writes_ShouldInvalidateTheTaskAndTheUserLists() {
+        TaskDTO first = taskService.createTask(create("Primera"));
+        assertThat(taskService.getAllTasksByUser(userId)).hasSize(1);
+        assertThat(taskService.getTasksByStatus(userId, TaskStatus.PENDING)).hasSize(1);
+
+        TaskDTO second = taskService.createTask(create("Segunda"));
+        assertThat(taskService.getAllTasksByUser(userId)).hasSize(2);
+
+        taskService.completeTask(first.getId(), userId);
+        assertThat(taskService.getTaskById(first.getId()).getStatus()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(taskService.getTasksByStatus(userId, TaskStatus.PENDING))
+                .extracting(TaskDTO::getId).containsExactly(second.getId());
+
+        taskService.deleteTask(second.getId(), userId);
+        assertThatThrownBy(() -> taskService.getTaskById(second.getId())).isInstanceOf(TaskNotFoundException.class);
+        assertThat(taskService.getAllTasksByUser(userId)).extracting(TaskDTO::getId).containsExactly(first.getId());
+    }
+
+    /**
+     * Dos instancias con su propia caché: lo que una escribe lo ve la otra en la siguiente petición
+     * condicional. El ETag se lee antes que el cuerpo (CollectionETagInterceptor), así que el cuerpo
+     * servido bajo el ETag nuevo no puede ser el de antes de la escritura.
+     */
+    @Test
+    void writeOnAnotherInstance_ShouldBeVisibleOnTheNextConditionalGet() {
+        TaskCache otherInstance = new TaskCache(
+                new CaffeineCacheManager(TaskCache.TASKS, TaskCache.TASK_LISTS), changeTracker);
+        TaskDTO task = taskService.createTask(create("Antes"));
+        String etag = collectionVersion.currentVersion(userId);
+        assertThat(otherInstance.getTaskList(userId, "all", this::loadAll))
+                .extracting(TaskDTO::getTitle).containsExactly("Antes");
+        assertThat(otherInstance.getTask(task.getId(), () -> load(task.getId())).getTitle()).isEqualTo("Antes");
+
+        UpdateTaskDTO update = new UpdateTaskDTO();
+        update.setTitle("Después");
+        taskService.updateTask(task.getId(), update, userId);
+
+        // If-None-Match con el ETag anterior: ya no coincide y se responde con el cuerpo
+        String newEtag = collectionVersion.currentVersion(userId);
+        assertThat(newEtag).isNotEqualTo(etag);
+        assertThat(otherInstance.getTaskList(userId, "all", this::loadAll))
+                .extracting(TaskDTO::getTitle).containsExactly("Después");
+        assertThat(otherInstance.getTask(task.getId(), () -> load(task.getId())).getTitle()).isEqualTo("Después");
+    }
+
+    @Test
+    void cache_ShouldStayWithinItsMaximumWeight() {
+        List<Task> tasks = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            Task task = new Task();
+            task.setUserId(userId);
+            task.setTitle("Tarea " + i);
+            task.setPriority(TaskPriority.MEDIUM);
+            tasks.add(task);
+        }
+        taskRepository.saveAll(tasks);
+        for (Task task : tasks) {
+            taskService.getTaskById(task.getId());
+        }
+        com.github.benmanes.caffeine.cache.Cache<Object, Object> cached = nativeCache(TaskCache.TASKS);
+        cached.cleanUp();
+
+        assertThat(cached.policy().eviction().orElseThrow().weightedSize().orElseThrow()).isLessThanOrEqualTo(200);
+        assertThat(cached.stats().evictionCount()).isPositive();
+    }
+
+    /**
+     * Un escritor actualiza la misma tarea mientras varios lectores la leen en bucle. Toda lectura que
+     * empieza después de que una escritura haya terminado debe ver esa versión o una posterior.
+     */
+    @Test
+    void concurrentReads_ShouldNeverSeeAVersionOlderThanTheLastCompletedWrite() throws Exception {
+        TaskDTO task = taskService.createTask(create("v0"));
+        int writes = 50;
+        AtomicInteger lastCompletedWrite = new AtomicInteger();
+        AtomicInteger staleReads = new AtomicInteger();
+        AtomicInteger reads = new AtomicInteger();
+        ExecutorService executor = Executors.newFixedThreadPool(5);
+        CountDownLatch start = new CountDownLatch(1);
+
+        List<Future<?>> futures = new ArrayList<>();
+        for (int reader = 0; reader < 4; reader++) {
+            boolean readList = reader % 2 == 0;
+            futures.add(executor.submit(() -> {
+                start.await();
+                while (lastCompletedWrite.get() < writes) {
+                    int expectedAtLeast = lastCompletedWrite.get();
+                    String title = readList
+                            ? taskService.getAllTasksByUser(userId).get(0).getTitle()
+                            : taskService.getTaskByIdAndUser(task.getId(), userId).getTitle();
+                    reads.incrementAndGet();
+                    if (Integer.parseInt(title.substring(1)) < expectedAtLeast) {
+                        staleReads.incrementAndGet();
+                    }
+                }
+                return null;
+            }));
+        }
+        futures.add(executor.submit(() -> {
+            start.await();
+            for (int version = 1; version <= writes; version++) {
+                UpdateTaskDTO update = new UpdateTaskDTO();
+                update.setTitle("v" + version);
+                taskService.updateTask(task.getId(), update, userId);
+                lastCompletedWrite.set(version);
+            }
+            return null;
+        }));
+
+        start.countDown();
+        for (Future<?> future : futures) {
+            future.get(60, TimeUnit.SECONDS);
+        }
+        executor.shutdown();
+
+        log.info("{} lecturas concurrentes con {} escrituras; aciertos de caché: tareas {}, listas {}",
+                reads.get(), writes, stats(TaskCache.TASKS).hitCount(), stats(TaskCache.TASK_LISTS).hitCount());
+        assertThat(staleReads.get()).isZero();
+        assertThat(taskService.getTaskByIdAndUser(task.getId(), userId).getTitle()).isEqualTo("v" + writes);
+        assertThat(taskService.getAllTasksByUser(userId).get(0).getTitle()).isEqualTo("v" + writes);
+    }
+
+    private List<TaskDTO> loadAll() {
+        return taskAssembler.toDTOList(taskRepository.findByUserIdOrderByCreatedAtDesc(userId));
+    }
+
+    private TaskDTO load(UUID taskId) {
+        return taskAssembler.toDTO(taskRepository.findById(taskId).orElseThrow());
+    }
+
+    private CacheStats stats(String cacheName) {
+        return nativeCache(cacheName).stats();
+    }
+
+    private com.github.benmanes.caffeine.cache.Cache<Object, Object> nativeCache(String cacheName) {
+        return ((CaffeineCache) cacheManager.getCache(cacheName)).getNativeCache();
+    }
+
+    private CreateTaskDTO create(String title) {
+        CreateTaskDTO dto = new CreateTaskDTO();
+        dto.setUserId(userId);
+        dto.setTitle(title);
+        dto.setPriority(TaskPriority.MEDIUM);
+        return dto;
+    }
+}
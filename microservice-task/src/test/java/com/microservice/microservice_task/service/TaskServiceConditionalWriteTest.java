@@ -0,0 +1,153 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.TaskCache;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.config.DatabaseConfig;
+import com.microservice.microservice_task.dto.CreateTaskDTO;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.dto.UpdateTaskDTO;
+import com.microservice.microservice_task.exception.TaskNotFoundException;
+import com.microservice.microservice_task.exception.TaskVersionConflictException;
+import com.microservice.microservice_task.exception.UnauthorizedTaskAccessException;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.support.SqlCaptureInspector;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Cada escritura se confirma de verdad para comprobar la versión que queda en la base de datos
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.session_factory.statement_inspector=" +
+                "com.microservice.microservice_task.support.SqlCaptureInspector")
+@Import({TaskService.class, TaskAssembler.class, TaskOrderService.class, TaskSearchService.class,
+        TaskDeletionService.class, TaskTagService.class, TaskOccurrenceService.class, TaskTreeService.class,
+        TaskArchiveService.class, TaskCache.class, UserTimeZoneCache.class, CacheConfig.class, TaskChangeTracker.class,
+        DatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskServiceConditionalWriteTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskService.deleteAllUserTasks(userId);
+    }
+
+    @Test
+    void completeTask_ShouldWriteWithASingleConditionalUpdateAndBumpTheVersion() {
+        TaskDTO task = taskService.createTask(create("Pagar factura", LocalDateTime.now().minusDays(1)));
+        assertThat(task.getVersion()).isZero();
+
+        SqlCaptureInspector.clear();
+        TaskDTO completed = taskService.completeTask(task.getId(), userId, task.getVersion());
+
+        // Sin lectura previa: la primera sentencia ya es el UPDATE con dueño y versión
+        assertThat(SqlCaptureInspector.statements().get(0)).startsWithIgnoringCase("update tasks");
+        assertThat(completed.getStatus()).isEqualTo(TaskStatus.COMPLETED);
+        assertThat(completed.getCompletedDate()).isNotNull();
+        assertThat(completed.getIsOverdue()).isFalse();
+        assertThat(completed.getVersion()).isEqualTo(1);
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getOverdueAt()).isNull();
+    }
+
+    @Test
+    void staleVersion_ShouldBeRejectedWithAConflictWithoutOverwriting() {
+        TaskDTO task = taskService.createTask(create("Versión 0", null));
+        UpdateTaskDTO rename = new UpdateTaskDTO();
+        rename.setTitle("Versión 1");
+        rename.setVersion(task.getVersion());
+        assertThat(taskService.updateTask(task.getId(), rename, userId).getVersion()).isEqualTo(1);
+
+        // Otro cliente escribe con la versión que leyó antes del cambio
+        UpdateTaskDTO lostUpdate = new UpdateTaskDTO();
+        lostUpdate.setTitle("Pisada");
+        lostUpdate.setVersion(task.getVersion());
+        assertThatThrownBy(() -> taskService.updateTask(task.getId(), lostUpdate, userId))
+                .isInstanceOf(TaskVersionConflictException.class);
+        assertThatThrownBy(() -> taskService.updateTaskStatus(task.getId(), TaskStatus.IN_PROGRESS, userId, task.getVersion()))
+                .isInstanceOf(TaskVersionConflictException.class);
+
+        TaskDTO current = taskService.getTaskByIdAndUser(task.getId(), userId);
+        assertThat(current.getTitle()).isEqualTo("Versión 1");
+        assertThat(current.getStatus()).isEqualTo(TaskStatus.PENDING);
+        assertThat(current.getVersion()).isEqualTo(1);
+    }
+
+    @Test
+    void updateTaskStatus_ShouldLeaveTheOverdueMarkToTheDetectorWhenReopened() {
+        TaskDTO task = taskService.createTask(create("Vencida", LocalDateTime.now().minusHours(2)));
+        jdbcTemplate.update("UPDATE tasks SET overdue_at = ? WHERE id = ?", LocalDateTime.now(), task.getId());
+        taskService.completeTask(task.getId(), userId);
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getOverdueAt()).isNull();
+
+        TaskDTO reopened = taskService.updateTaskStatus(task.getId(), TaskStatus.PENDING, userId);
+
+        // La vuelve a marcar TaskOverdueService (flagSavedBehindWatermark), que es quien lleva los avisos
+        assertThat(reopened.getVersion()).isEqualTo(2);
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getOverdueAt()).isNull();
+    }
+
+    @Test
+    void rejectedWrites_ShouldKeepNotFoundAndForbiddenApart() {
+        TaskDTO task = taskService.createTask(create("Ajena", null));
+        UUID intruder = UUID.randomUUID();
+        UUID missing = UUID.randomUUID();
+
+        assertThatThrownBy(() -> taskService.completeTask(task.getId(), intruder))
+                .isInstanceOf(UnauthorizedTaskAccessException.class);
+        assertThatThrownBy(() -> taskService.deleteTask(task.getId(), intruder))
+                .isInstanceOf(UnauthorizedTaskAccessException.class);
+        assertThatThrownBy(() -> taskService.completeTask(missing, userId))
+                .isInstanceOf(TaskNotFoundException.class);
+        assertThatThrownBy(() -> taskService.deleteTask(missing, userId))
+                .isInstanceOf(TaskNotFoundException.class);
+
+        assertThat(taskRepository.findById(task.getId()).orElseThrow().getStatus()).isEqualTo(TaskStatus.PENDING);
+        taskService.deleteTask(task.getId(), userId);
+        assertThat(taskRepository.existsById(task.getId())).isFalse();
+    }
+
+    private CreateTaskDTO create(String title, LocalDateTime dueDate) {
+        CreateTaskDTO dto = new CreateTaskDTO();
+        dto.setUserId(userId);
+        dto.setTitle(title);
+        dto.setPriority(TaskPriority.MEDIUM);
+        dto.setDueDate(dueDate);
+        return dto;
+    }
+}
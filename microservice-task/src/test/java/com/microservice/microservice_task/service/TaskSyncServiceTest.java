@@ -0,0 +1,179 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.TaskCache;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.config.DatabaseConfig;
+import com.microservice.microservice_task.dto.CreateTaskDTO;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.dto.TaskSyncDTO;
+import com.microservice.microservice_task.dto.UpdateTaskDTO;
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.repository.TaskTombstoneRepository;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Los números de cambio se asignan al confirmar: cada escritura se confirma de verdad
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({TaskSyncService.class, TaskService.class, TaskAssembler.class,
+        TaskOrderService.class, TaskSearchService.class, TaskDeletionService.class, TaskTagService.class,
+        TaskOccurrenceService.class, TaskTreeService.class, TaskArchiveService.class, TaskCache.class,
+        UserTimeZoneCache.class, CacheConfig.class, TaskChangeTracker.class, DatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskSyncServiceTest {
+
+    @Autowired
+    private TaskSyncService syncService;
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTombstoneRepository tombstoneRepository;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskService.deleteAllUserTasks(userId);
+        tombstoneRepository.deleteAllInBatch();
+    }
+
+    @Test
+    void firstSync_ShouldReturnEveryTaskAndThenNothingWithASingleLookup() {
+        TaskDTO first = taskService.createTask(create("Primera"));
+        TaskDTO second = taskService.createTask(create("Segunda"));
+
+        TaskSyncDTO initial = syncService.getChanges(userId, null, 100);
+        assertThat(initial.getChanged()).extracting(TaskDTO::getId).containsExactly(first.getId(), second.getId());
+        assertThat(initial.isHasMore()).isFalse();
+        assertThat(initial.isResetRequired()).isFalse();
+
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+        statistics.clear();
+        TaskSyncDTO noop = syncService.getChanges(userId, initial.getNextToken(), 100);
+
+        assertThat(noop.getChanged()).isEmpty();
+        assertThat(noop.getDeleted()).isEmpty();
+        assertThat(noop.getNextToken()).isEqualTo(initial.getNextToken());
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+    }
+
+    @Test
+    void syncSinceToken_ShouldReturnOnlyLaterWritesAndDeletions() {
+        TaskDTO kept = taskService.createTask(create("Se modifica"));
+        TaskDTO removed = taskService.createTask(create("Se borra"));
+        TaskDTO untouched = taskService.createTask(create("Sin cambios"));
+        String token = syncService.getChanges(userId, null, 100).getNextToken();
+
+        UpdateTaskDTO update = new UpdateTaskDTO();
+        update.setTitle("Modificada");
+        taskService.updateTask(kept.getId(), update, userId);
+        taskService.deleteTask(removed.getId(), userId);
+        TaskDTO added = taskService.createTask(create("Nueva"));
+
+        TaskSyncDTO changes = syncService.getChanges(userId, token, 100);
+
+        assertThat(changes.getChanged()).extracting(TaskDTO::getId)
+                .containsExactly(kept.getId(), added.getId())
+                .doesNotContain(untouched.getId());
+        assertThat(changes.getChanged().get(0).getTitle()).isEqualTo("Modificada");
+        assertThat(changes.getDeleted()).containsExactly(removed.getId());
+        assertThat(syncService.getChanges(userId, changes.getNextToken(), 100).getChanged()).isEmpty();
+    }
+
+    @Test
+    void pages_ShouldNeverSplitTheChangesOfOneTransaction() {
+        List<Task> batch = new ArrayList<>();
+        for (int i = 0; i < 5; i++) {
+            Task task = new Task();
+            task.setUserId(userId);
+            task.setTitle("Lote " + i);
+            task.setPriority(TaskPriority.MEDIUM);
+            batch.add(task);
+        }
+        taskRepository.saveAll(batch); // Una sola transacción: un único número de cambio
+        TaskDTO later = taskService.createTask(create("Después"));
+
+        TaskSyncDTO firstPage = syncService.getChanges(userId, null, 2);
+        assertThat(firstPage.getChanged()).hasSize(5);
+        assertThat(firstPage.isHasMore()).isTrue();
+
+        TaskSyncDTO secondPage = syncService.getChanges(userId, firstPage.getNextToken(), 2);
+        assertThat(secondPage.getChanged()).extracting(TaskDTO::getId).containsExactly(later.getId());
+        assertThat(secondPage.isHasMore()).isFalse();
+    }
+
+    @Test
+    void compaction_ShouldPurgeOldTombstonesAndForceAResetOnOlderTokens() {
+        TaskDTO kept = taskService.createTask(create("Sigue"));
+        TaskDTO removed = taskService.createTask(create("Se borra"));
+        String oldToken = syncService.getChanges(userId, null, 100).getNextToken();
+        taskService.deleteTask(removed.getId(), userId);
+        jdbcTemplate.update("UPDATE task_tombstones SET deleted_at = ?", LocalDateTime.now().minusDays(31));
+
+        assertThat(syncService.purgeTombstones(LocalDateTime.now().minusDays(30), 100)).isEqualTo(1);
+        assertThat(tombstoneRepository.count()).isZero();
+
+        TaskSyncDTO reset = syncService.getChanges(userId, oldToken, 100);
+        assertThat(reset.isResetRequired()).isTrue();
+        assertThat(reset.getChanged()).extracting(TaskDTO::getId).containsExactly(kept.getId());
+        assertThat(syncService.getChanges(userId, reset.getNextToken(), 100).isResetRequired()).isFalse();
+    }
+
+    @Test
+    void invalidToken_ShouldBeRejected() {
+        assertThatThrownBy(() -> syncService.getChanges(userId, "no-es-un-token", 100))
+                .isInstanceOf(InvalidTaskDataException.class);
+    }
+
+    private CreateTaskDTO create(String title) {
+        CreateTaskDTO dto = new CreateTaskDTO();
+        dto.setUserId(userId);
+        dto.setTitle(title);
+        dto.setPriority(TaskPriority.MEDIUM);
+        return dto;
+    }
+}
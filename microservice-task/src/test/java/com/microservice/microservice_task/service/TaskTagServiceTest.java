@@ -0,0 +1,108 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.dto.TagCountDTO;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.repository.TaskTagRepository;
+import com.microservice.microservice_task.util.TaskTagNormalizer;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.TestPropertySource;
+
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties")
+@Import({TaskTagService.class, TaskAssembler.class, UserTimeZoneCache.class, CacheConfig.class})
+class TaskTagServiceTest {
+
+    @Autowired
+    private TaskTagService taskTagService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private TaskTagRepository tagRepository;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        tagRepository.deleteAll();
+        taskRepository.deleteAll();
+        userId = UUID.randomUUID();
+    }
+
+    @Test
+    void countTasksByTag_ShouldCountNormalizedTagsPerUser() {
+        taskTagService.index(save(userId, "[\"Trabajo\",\"urgente\"]"));
+        taskTagService.index(save(userId, "[\" trabajo \",\"trabajo\"]"));
+        taskTagService.index(save(UUID.randomUUID(), "[\"trabajo\"]"));
+
+        List<TagCountDTO> counts = taskTagService.countTasksByTag(userId);
+
+        assertThat(counts).containsExactly(new TagCountDTO("trabajo", 2L), new TagCountDTO("urgente", 1L));
+    }
+
+    @Test
+    void index_ShouldReplaceTagsWhenTaskChanges() {
+        Task task = save(userId, "[\"casa\"]");
+        taskTagService.index(task);
+
+        task.setTags("[\"oficina\"]");
+        taskTagService.index(task);
+
+        assertThat(taskTagService.countTasksByTag(userId)).containsExactly(new TagCountDTO("oficina", 1L));
+    }
+
+    @Test
+    void indexPage_ShouldMigrateExistingJsonTags() {
+        save(userId, "[\"salud\"]");
+        save(userId, "[\"salud\",\"deporte\"]");
+        save(userId, null);
+        assertThat(taskTagService.needsBackfill()).isTrue();
+
+        int page = 0;
+        while (taskTagService.indexPage(page, 2)) {
+            page++;
+        }
+
+        assertThat(taskTagService.needsBackfill()).isFalse();
+        assertThat(taskTagService.countTasksByTag(userId))
+                .containsExactly(new TagCountDTO("salud", 2L), new TagCountDTO("deporte", 1L));
+    }
+
+    @Test
+    void normalize_ShouldTrimLowercaseAndDropBlankTags() {
+        assertThat(TaskTagNormalizer.normalize("  Urgente ")).isEqualTo("urgente");
+        assertThat(TaskTagNormalizer.normalize("   ")).isNull();
+        assertThat(TaskTagNormalizer.normalize("x".repeat(80))).hasSize(TaskTagNormalizer.MAX_TAG_LENGTH);
+    }
+
+    private Task save(UUID owner, String tags) {
+        Task task = new Task();
+        task.setUserId(owner);
+        task.setTitle("Tarea");
+        task.setTags(tags);
+        task.setStatus(TaskStatus.PENDING);
+        task.setPriority(TaskPriority.MEDIUM);
+        task.setCreatedAt(LocalDateTime.now());
+        task.setUpdatedAt(LocalDateTime.now());
+        return taskRepository.save(task);
+    }
+}
@@ -0,0 +1,197 @@
+package com.microservice.microservice_task.service;
+
+import com.microservice.microservice_task.assembler.TaskAssembler;
+import com.microservice.microservice_task.cache.TaskCache;
+import com.microservice.microservice_task.cache.UserTimeZoneCache;
+import com.microservice.microservice_task.config.CacheConfig;
+import com.microservice.microservice_task.config.DatabaseConfig;
+import com.microservice.microservice_task.dto.CreateTaskDTO;
+import com.microservice.microservice_task.dto.TaskDTO;
+import com.microservice.microservice_task.dto.TaskTreeDTO;
+import com.microservice.microservice_task.dto.UpdateTaskDTO;
+import com.microservice.microservice_task.exception.InvalidTaskDataException;
+import com.microservice.microservice_task.exception.TaskNotFoundException;
+import com.microservice.microservice_task.exception.UnauthorizedTaskAccessException;
+import com.microservice.microservice_task.model.Task;
+import com.microservice.microservice_task.model.TaskPriority;
+import com.microservice.microservice_task.model.TaskStatus;
+import com.microservice.microservice_task.repository.TaskRepository;
+import com.microservice.microservice_task.sync.TaskChangeTracker;
+import jakarta.persistence.EntityManagerFactory;
+import org.hibernate.SessionFactory;
+import org.hibernate.stat.Statistics;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.jdbc.AutoConfigureTestDatabase;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.context.annotation.Import;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.test.context.TestPropertySource;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.util.UUID;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+// Cada escritura se confirma: los totales se comprueban en lo que queda en la base de datos
+@DataJpaTest
+@AutoConfigureTestDatabase(replace = AutoConfigureTestDatabase.Replace.NONE)
+@TestPropertySource(locations = "classpath:application-test.properties",
+        properties = "spring.jpa.properties.hibernate.generate_statistics=true")
+@Import({TaskService.class, TaskAssembler.class, TaskOrderService.class, TaskSearchService.class,
+        TaskDeletionService.class, TaskTagService.class, TaskOccurrenceService.class, TaskTreeService.class,
+        TaskArchiveService.class, TaskCache.class, UserTimeZoneCache.class, CacheConfig.class, TaskChangeTracker.class,
+        DatabaseConfig.class})
+@Transactional(propagation = Propagation.NOT_SUPPORTED)
+class TaskTreeServiceTest {
+
+    @Autowired
+    private TaskService taskService;
+
+    @Autowired
+    private TaskRepository taskRepository;
+
+    @Autowired
+    private EntityManagerFactory entityManagerFactory;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    private UUID userId;
+
+    @BeforeEach
+    void setUp() {
+        userId = UUID.randomUUID();
+    }
+
+    @AfterEach
+    void cleanUp() {
+        taskService.deleteAllUserTasks(userId);
+    }
+
+    @Test
+    void getTaskTree_ShouldLoadTheWholeTreeInOneQueryWithRollups() {
+        TaskDTO root = taskService.createTask(create("Mudanza", null, 10));
+        TaskDTO boxes = taskService.createTask(create("Cajas", root.getId(), 30));
+        TaskDTO kitchen = taskService.createTask(create("Cocina", boxes.getId(), 45));
+        TaskDTO books = taskService.createTask(create("Libros", boxes.getId(), 20));
+        TaskDTO keys = taskService.createTask(create("Llaves", root.getId(), null));
+        taskService.completeTask(kitchen.getId(), userId);
+        Statistics statistics = entityManagerFactory.unwrap(SessionFactory.class).getStatistics();
+
+        statistics.clear();
+        TaskTreeDTO tree = taskService.getTaskTree(root.getId(), userId);
+
+        assertThat(statistics.getPrepareStatementCount()).isEqualTo(1);
+        assertThat(tree.getTask().getId()).isEqualTo(root.getId());
+        assertThat(tree.getSubtasks()).extracting(node -> node.getTask().getId())
+                .containsExactly(boxes.getId(), keys.getId());
+        TaskTreeDTO boxesNode = tree.getSubtasks().get(0);
+        assertThat(boxesNode.getSubtasks()).extracting(node -> node.getTask().getId())
+                .containsExactly(kitchen.getId(), books.getId());
+        assertRollups(tree.getTask(), 4, 1, 95);
+        assertRollups(boxesNode.getTask(), 2, 1, 65);
+        assertRollups(boxesNode.getSubtasks().get(0).getTask(), 0, 0, 0);
+    }
+
+    @Test
+    void writes_ShouldKeepTheStoredRollupsOfEveryAncestorUpToDate() {
+        TaskDTO root = taskService.createTask(create("Viaje", null, null));
+        TaskDTO flights = taskService.createTask(create("Vuelos", root.getId(), 15));
+        TaskDTO hotel = taskService.createTask(create("Hotel", flights.getId(), 25));
+        assertStored(root.getId(), 2, 0, 40);
+
+        taskService.completeTask(hotel.getId(), userId);
+        taskService.completeTask(hotel.getId(), userId);
+        assertStored(root.getId(), 2, 1, 40);
+        assertStored(flights.getId(), 1, 1, 25);
+
+        taskService.updateTaskStatus(hotel.getId(), TaskStatus.IN_PROGRESS, userId);
+        assertStored(root.getId(), 2, 0, 40);
+
+        UpdateTaskDTO estimate = new UpdateTaskDTO();
+        estimate.setEstimatedDurationMinutes(55);
+        taskService.updateTask(hotel.getId(), estimate, userId);
+        assertStored(root.getId(), 2, 0, 70);
+        assertStored(flights.getId(), 1, 0, 55);
+
+        // Al cambiar de padre se lleva todo su árbol
+        TaskDTO other = taskService.createTask(create("Otra lista", null, null));
+        UpdateTaskDTO move = new UpdateTaskDTO();
+        move.setParentTaskId(other.getId());
+        taskService.updateTask(flights.getId(), move, userId);
+        assertStored(root.getId(), 0, 0, 0);
+        assertStored(other.getId(), 2, 0, 70);
+
+        taskService.deleteTask(hotel.getId(), userId);
+        assertStored(other.getId(), 1, 0, 15);
+        assertStored(flights.getId(), 0, 0, 0);
+        assertThat(taskService.getTaskById(other.getId()).getSubtaskCount()).isEqualTo(1);
+    }
+
+    @Test
+    void updateTask_ShouldRejectAParentInsideItsOwnSubtree() {
+        TaskDTO root = taskService.createTask(create("Raíz", null, null));
+        TaskDTO child = taskService.createTask(create("Hija", root.getId(), null));
+        UpdateTaskDTO update = new UpdateTaskDTO();
+        update.setParentTaskId(child.getId());
+
+        assertThatThrownBy(() -> taskService.updateTask(root.getId(), update, userId))
+                .isInstanceOf(InvalidTaskDataException.class);
+        assertThat(taskRepository.findById(root.getId()).orElseThrow().getParentTaskId()).isNull();
+    }
+
+    @Test
+    void rebuildRollups_ShouldRecomputeTotalsThatWereNeverMaintained() {
+        TaskDTO root = taskService.createTask(create("Informe", null, 5));
+        TaskDTO draft = taskService.createTask(create("Borrador", root.getId(), 60));
+        taskService.createTask(create("Revisión", draft.getId(), 30));
+        taskService.completeTask(draft.getId(), userId);
+        // Filas anteriores a las columnas de totales
+        jdbcTemplate.update("UPDATE tasks SET subtask_count = 0, completed_subtask_count = 0, " +
+                "subtree_estimated_minutes = 0 WHERE user_id = ?", userId);
+
+        assertThat(taskService.rebuildRollups(userId)).isEqualTo(2);
+
+        assertStored(root.getId(), 2, 1, 90);
+        assertStored(draft.getId(), 1, 0, 30);
+        assertThat(taskService.rebuildRollups(userId)).isZero();
+    }
+
+    @Test
+    void getTaskTree_ShouldKeepNotFoundAndForbiddenDistinct() {
+        TaskDTO root = taskService.createTask(create("Privada", null, null));
+
+        assertThatThrownBy(() -> taskService.getTaskTree(UUID.randomUUID(), userId))
+                .isInstanceOf(TaskNotFoundException.class);
+        assertThatThrownBy(() -> taskService.getTaskTree(root.getId(), UUID.randomUUID()))
+                .isInstanceOf(UnauthorizedTaskAccessException.class);
+    }
+
+    private void assertStored(UUID taskId, int total, int completed, long minutes) {
+        Task task = taskRepository.findById(taskId).orElseThrow();
+        assertThat(task.getSubtaskCount()).as("subtareas").isEqualTo(total);
+        assertThat(task.getCompletedSubtaskCount()).as("completadas").isEqualTo(completed);
+        assertThat(task.getSubtreeEstimatedMinutes()).as("minutos").isEqualTo(minutes);
+    }
+
+    private static void assertRollups(TaskDTO task, int total, int completed, long minutes) {
+        assertThat(task.getSubtaskCount()).as("subtareas").isEqualTo(total);
+        assertThat(task.getCompletedSubtaskCount()).as("completadas").isEqualTo(completed);
+        assertThat(task.getSubtreeEstimatedMinutes()).as("minutos").isEqualTo(minutes);
+    }
+
+    private CreateTaskDTO create(String title, UUID parentTaskId, Integer estimatedMinutes) {
+        CreateTaskDTO dto = new CreateTaskDTO();
+        dto.setUserId(userId);
+        dto.setTitle(title);
+        dto.setPriority(TaskPriority.MEDIUM);
+        dto.setParentTaskId(parentTaskId);
+        dto.setEstimatedDurationMinutes(estimatedMinutes);
+        return dto;
+    }
+}
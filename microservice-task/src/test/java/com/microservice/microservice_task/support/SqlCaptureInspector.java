@@ -0,0 +1,36 @@
+package com.microservice.microservice_task.support;
+
+import org.hibernate.resource.jdbc.spi.StatementInspector;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+
+/**
+ * StatementInspector de Hibernate para tests: guarda el SQL de cada sentencia preparada.
+ * Se registra con la propiedad spring.jpa.properties.hibernate.session_factory.statement_inspector.
+ */
+public class SqlCaptureInspector implements StatementInspector {
+
+    private static final List<String> STATEMENTS = new CopyOnWriteArrayList<>();
+
+    @Override
+    public String inspect(String sql) {
+        STATEMENTS.add(sql);
+        return sql;
+    }
+
+    public static void clear() {
+        STATEMENTS.clear();
+    }
+
+    public static List<String> statements() {
+        return List.copyOf(STATEMENTS);
+    }
+
+    public static List<String> selectsOn(String table) {
+        String from = "from " + table.toLowerCase();
+        return STATEMENTS.stream()
+                .filter(sql -> sql.toLowerCase().startsWith("select") && sql.toLowerCase().contains(from))
+                .toList();
+    }
+}
@@ -106,6 +106,7 @@ public class UserAssembler {
         dto.setNotificationsEnabled(preferences.getNotificationsEnabled());
         dto.setEmailNotifications(preferences.getEmailNotifications());
         dto.setPushNotifications(preferences.getPushNotifications());
+        dto.setTimezone(preferences.getTimezone());
 
         return dto;
     }
@@ -123,6 +124,7 @@ public class UserAssembler {
                 .notificationsEnabled(preferencesDTO.getNotificationsEnabled())
                 .emailNotifications(preferencesDTO.getEmailNotifications())
                 .pushNotifications(preferencesDTO.getPushNotifications())
+                .timezone(preferencesDTO.getTimezone())
                 .build();
 
         return preferences;
@@ -21,4 +21,5 @@ public class UserPreferencesDTO {
     private Boolean notificationsEnabled;
     private Boolean emailNotifications;
     private Boolean pushNotifications;
+    private String timezone;
 }
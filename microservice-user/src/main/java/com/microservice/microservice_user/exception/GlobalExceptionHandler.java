@@ -3,6 +3,7 @@ package com.microservice.microservice_user.exception;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
+import org.springframework.transaction.CannotCreateTransactionException;
 import org.springframework.web.bind.MethodArgumentNotValidException;
 import org.springframework.web.bind.annotation.ExceptionHandler;
 import org.springframework.web.bind.annotation.RestControllerAdvice;
@@ -75,6 +76,20 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Maneja zonas horarias que no existen en la base de datos de zonas (IANA)
+     * @return 400 BAD_REQUEST
+     */
+    @ExceptionHandler(InvalidTimeZoneException.class)
+    public ResponseEntity<Map<String, Object>> handleInvalidTimeZoneException(InvalidTimeZoneException ex) {
+        log.error("Zona horaria inválida: {}", ex.getMessage());
+        return buildErrorResponse(
+            HttpStatus.BAD_REQUEST,
+            "Invalid Time Zone",
+            ex.getMessage()
+        );
+    }
+
     /**
      * Maneja excepciones de validación de datos (Bean Validation)
      * @return 400 BAD_REQUEST
@@ -97,6 +112,20 @@ public class GlobalExceptionHandler {
         );
     }
 
+    /**
+     * Maneja el pool de conexiones agotado (spring.datasource.hikari.connection-timeout)
+     * @return 503 SERVICE_UNAVAILABLE
+     */
+    @ExceptionHandler(CannotCreateTransactionException.class)
+    public ResponseEntity<Map<String, Object>> handleCannotCreateTransactionException(CannotCreateTransactionException ex) {
+        log.warn("Pool de conexiones agotado: {}", ex.getMessage());
+        return buildErrorResponse(
+            HttpStatus.SERVICE_UNAVAILABLE,
+            "Service Unavailable",
+            "Servicio saturado. Por favor, intente nuevamente en unos segundos."
+        );
+    }
+
     /**
      * Maneja excepciones genéricas no capturadas por otros handlers
      * @return 500 INTERNAL_SERVER_ERROR
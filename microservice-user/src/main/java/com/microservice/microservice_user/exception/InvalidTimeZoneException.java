@@ -0,0 +1,7 @@
+package com.microservice.microservice_user.exception;
+
+public class InvalidTimeZoneException extends RuntimeException {
+    public InvalidTimeZoneException(String message) {
+        super(message);
+    }
+}
@@ -43,4 +43,9 @@ public class UserPreferences {
     @Column(name = "push_notifications")
     @Builder.Default
     private Boolean pushNotifications = true;
+
+    // Zona IANA (Europe/Madrid, America/Bogota) con la que se calculan "hoy" y "esta semana".
+    // Null: la zona por defecto de cada servicio
+    @Column(name = "timezone", length = 64)
+    private String timezone;
 }
\ No newline at end of file
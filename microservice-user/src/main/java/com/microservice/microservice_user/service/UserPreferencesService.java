@@ -2,6 +2,7 @@ package com.microservice.microservice_user.service;
 
 import com.microservice.microservice_user.assembler.UserAssembler;
 import com.microservice.microservice_user.dto.UserPreferencesDTO;
+import com.microservice.microservice_user.exception.InvalidTimeZoneException;
 import com.microservice.microservice_user.exception.UserNotFoundException;
 import com.microservice.microservice_user.model.User;
 import com.microservice.microservice_user.model.UserPreferences;
@@ -11,6 +12,8 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
+import java.time.DateTimeException;
+import java.time.ZoneId;
 import java.util.UUID;
 
 @Service
@@ -39,6 +42,7 @@ public class UserPreferencesService {
     }
 
     public UserPreferencesDTO updateUserPreferences(UUID userId, UserPreferencesDTO preferencesDTO) {
+        String timezone = normalizeTimeZone(preferencesDTO.getTimezone());
         User user = userRepository.findById(userId)
                 .orElseThrow(() -> new UserNotFoundException("Usuario no encontrado con ID: " + userId));
 
@@ -50,6 +54,7 @@ public class UserPreferencesService {
         preferences.setNotificationsEnabled(preferencesDTO.getNotificationsEnabled());
         preferences.setEmailNotifications(preferencesDTO.getEmailNotifications());
         preferences.setPushNotifications(preferencesDTO.getPushNotifications());
+        preferences.setTimezone(timezone);
 
         UserPreferences savedPreferences = preferencesRepository.save(preferences);
         return userAssembler.toPreferencesDTO(savedPreferences);
@@ -70,4 +75,16 @@ public class UserPreferencesService {
 
         return preferencesRepository.save(defaultPreferences);
     }
+
+    // Se guarda el id canónico de la zona; vacío equivale a no tener zona
+    private String normalizeTimeZone(String timezone) {
+        if (timezone == null || timezone.isBlank()) {
+            return null;
+        }
+        try {
+            return ZoneId.of(timezone.trim()).getId();
+        } catch (DateTimeException e) {
+            throw new InvalidTimeZoneException("Zona horaria no válida: " + timezone);
+        }
+    }
 }
\ No newline at end of file
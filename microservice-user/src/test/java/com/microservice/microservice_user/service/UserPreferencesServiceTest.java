@@ -0,0 +1,112 @@
+package com.microservice.microservice_user.service;
+
+import static com.microservice.common.jdbc.StatementCountAssertions.assertMaxStatements;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.autoconfigure.orm.jpa.DataJpaTest;
+import org.springframework.boot.test.autoconfigure.orm.jpa.TestEntityManager;
+import org.springframework.context.annotation.Import;
+import org.springframework.test.context.ActiveProfiles;
+
+import com.microservice.microservice_user.assembler.UserAssembler;
+import com.microservice.microservice_user.config.DatabaseConfig;
+import com.microservice.microservice_user.dto.UserPreferencesDTO;
+import com.microservice.microservice_user.exception.InvalidTimeZoneException;
+import com.microservice.microservice_user.model.User;
+import com.microservice.microservice_user.model.UserPreferences;
+import com.microservice.microservice_user.model.UserRole;
+
+@DataJpaTest
+@ActiveProfiles("test")
+@Import({DatabaseConfig.class, UserPreferencesService.class, UserAssembler.class})
+@DisplayName("UserPreferencesService Tests")
+class UserPreferencesServiceTest {
+
+    @Autowired
+    private TestEntityManager entityManager;
+
+    @Autowired
+    private UserPreferencesService preferencesService;
+
+    private User user;
+
+    @BeforeEach
+    void setUp() {
+        user = entityManager.persist(User.builder()
+                .username("prefsuser")
+                .email("prefs@example.com")
+                .password("encodedPassword")
+                .role(UserRole.USER)
+                .active(true)
+                .emailVerified(false)
+                .build());
+    }
+
+    @Test
+    @DisplayName("Should read existing preferences with a single statement")
+    void getUserPreferences_ShouldNotLoadTheUser() {
+        // Given
+        entityManager.persist(UserPreferences.builder().user(user).theme("DARK").build());
+        entityManager.flush();
+        entityManager.clear();
+
+        // When
+        UserPreferencesDTO result = assertMaxStatements(1, () -> preferencesService.getUserPreferences(user.getId()));
+
+        // Then
+        assertThat(result.getUserId()).isEqualTo(user.getId());
+        assertThat(result.getTheme()).isEqualTo("DARK");
+    }
+
+    @Test
+    @DisplayName("Should create default preferences without extra lookups")
+    void getUserPreferences_ShouldCreateDefaults() {
+        // Given
+        entityManager.flush();
+        entityManager.clear();
+
+        // When: busca preferencias, carga el usuario e inserta las de por defecto
+        UserPreferencesDTO result = assertMaxStatements(3, () -> {
+            UserPreferencesDTO dto = preferencesService.getUserPreferences(user.getId());
+            entityManager.flush();
+            return dto;
+        });
+
+        // Then
+        assertThat(result.getUserId()).isEqualTo(user.getId());
+        assertThat(result.getTheme()).isEqualTo("LIGHT");
+    }
+
+    @Test
+    @DisplayName("Should store the canonical time zone id")
+    void updateUserPreferences_ShouldStoreTimeZone() {
+        // Given
+        UserPreferencesDTO preferencesDTO = UserPreferencesDTO.builder()
+                .theme("DARK")
+                .language("ES")
+                .timezone(" Europe/Madrid ")
+                .build();
+
+        // When
+        UserPreferencesDTO result = preferencesService.updateUserPreferences(user.getId(), preferencesDTO);
+
+        // Then
+        assertThat(result.getTimezone()).isEqualTo("Europe/Madrid");
+    }
+
+    @Test
+    @DisplayName("Should reject an unknown time zone")
+    void updateUserPreferences_ShouldRejectInvalidTimeZone() {
+        // Given
+        UserPreferencesDTO preferencesDTO = UserPreferencesDTO.builder().timezone("Mars/Olympus").build();
+
+        // When & Then
+        assertThatThrownBy(() -> preferencesService.updateUserPreferences(user.getId(), preferencesDTO))
+                .isInstanceOf(InvalidTimeZoneException.class);
+    }
+}